@@ -0,0 +1,127 @@
+SET NAMES utf8mb4;
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- bin fingerprint of contract, existing rows are backfilled at startup
+ALTER TABLE tb_contract ADD COLUMN bin_fingerprint varchar(64) DEFAULT NULL COMMENT '去除元数据的runtime-bin的哈希';
+ALTER TABLE tb_contract ADD INDEX idx_group_fingerprint (group_id,bin_fingerprint);
+ALTER TABLE tb_contract ADD COLUMN deploy_fingerprint varchar(64) DEFAULT NULL COMMENT '去除元数据的部署bin的哈希';
+ALTER TABLE tb_contract ADD INDEX idx_group_deploy_fingerprint (group_id,deploy_fingerprint);
+ALTER TABLE tb_abi ADD COLUMN bin_fingerprint varchar(64) DEFAULT NULL COMMENT '去除元数据的runtime-bin的哈希';
+ALTER TABLE tb_abi ADD INDEX idx_group_fingerprint (group_id,bin_fingerprint);
+
+-- audit progress of group, init from statistics_flag of tb_trans_hash_x at first audit
+-- ----------------------------
+-- Table structure for tb_audit_checkpoint
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_audit_checkpoint (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  block_number bigint(25) NOT NULL COMMENT '最后审计交易所在块高',
+  trans_number bigint(25) NOT NULL COMMENT '最后审计交易的交易数',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='交易审计进度表';
+
+-- tb_trans_hash_x of each group: index of block and trans number used by audit checkpoint
+-- replaces index of statistics_flag, altered online
+DROP PROCEDURE IF EXISTS upgrade_trans_hash_index;
+DELIMITER $$
+CREATE PROCEDURE upgrade_trans_hash_index()
+BEGIN
+  DECLARE done INT DEFAULT 0;
+  DECLARE tb_name VARCHAR(64);
+  DECLARE tb_cursor CURSOR FOR
+    SELECT table_name FROM information_schema.tables
+    WHERE table_schema = DATABASE() AND table_name REGEXP '^tb_trans_hash_[0-9]+$';
+  DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = 1;
+  OPEN tb_cursor;
+  tb_loop: LOOP
+    FETCH tb_cursor INTO tb_name;
+    IF done = 1 THEN
+      LEAVE tb_loop;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics WHERE table_schema = DATABASE()
+      AND table_name = tb_name AND index_name = 'index_block_trans') THEN
+      SET @ddl = CONCAT('ALTER TABLE ', tb_name,
+        ' ADD INDEX index_block_trans (block_number,trans_number), ALGORITHM=INPLACE, LOCK=NONE');
+      PREPARE stmt FROM @ddl;
+      EXECUTE stmt;
+      DEALLOCATE PREPARE stmt;
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.statistics WHERE table_schema = DATABASE()
+      AND table_name = tb_name AND index_name = 'index_flag') THEN
+      SET @ddl = CONCAT('ALTER TABLE ', tb_name, ' DROP INDEX index_flag, ALGORITHM=INPLACE, LOCK=NONE');
+      PREPARE stmt FROM @ddl;
+      EXECUTE stmt;
+      DEALLOCATE PREPARE stmt;
+    END IF;
+  END LOOP;
+  CLOSE tb_cursor;
+END $$
+DELIMITER ;
+CALL upgrade_trans_hash_index();
+DROP PROCEDURE IF EXISTS upgrade_trans_hash_index;
+
+-- group lease of multiple instances
+-- ----------------------------
+-- Table structure for tb_group_lease
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_group_lease (
+  group_id int(11) NOT NULL COMMENT '群组编号',
+  owner varchar(64) NOT NULL COMMENT '持有租约的实例',
+  expire_time datetime NOT NULL COMMENT '租约过期时间',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id),
+  KEY idx_owner (owner)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='群组租约表';
+
+-- ----------------------------
+-- Table structure for tb_lease_instance
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_lease_instance (
+  instance_id varchar(64) NOT NULL COMMENT '实例编号',
+  expire_time datetime NOT NULL COMMENT '心跳过期时间',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (instance_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='租约实例心跳表';
+
+-- block stat rolled up by 5s, 1m, 1h, 1d, built from tb_stat at first pull of group
+-- ----------------------------
+-- Table structure for tb_stat_rollup
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_stat_rollup (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  resolution int(11) NOT NULL COMMENT '统计粒度（秒）',
+  bucket_time bigint(25) NOT NULL COMMENT '区间开始时间戳',
+  stat_count int(11) NOT NULL DEFAULT '0' COMMENT '区间内区块数',
+  tps_sum bigint(25) DEFAULT '0' COMMENT 'tps之和',
+  tps_min int(11) DEFAULT NULL COMMENT 'tps最小值',
+  tps_max int(11) DEFAULT NULL COMMENT 'tps最大值',
+  block_size_sum bigint(25) DEFAULT '0' COMMENT '块大小之和',
+  block_size_min int(11) DEFAULT NULL COMMENT '块大小最小值',
+  block_size_max int(11) DEFAULT NULL COMMENT '块大小最大值',
+  block_cycle_sum double DEFAULT '0' COMMENT '出块周期之和',
+  block_cycle_min double DEFAULT NULL COMMENT '出块周期最小值',
+  block_cycle_max double DEFAULT NULL COMMENT '出块周期最大值',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,resolution,bucket_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='区块统计汇总表';
+
+-- timestamp of block stat saved as number
+ALTER TABLE tb_stat MODIFY COLUMN stat_timestamp bigint(25) DEFAULT NULL COMMENT '记录时间戳';
+
+-- row count of block, trans and unusual user/contract, counted exactly at first flush of group
+-- ----------------------------
+-- Table structure for tb_row_count
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_row_count (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  count_key varchar(32) NOT NULL COMMENT '计数项',
+  row_count bigint(25) NOT NULL DEFAULT '0' COMMENT '行数',
+  reconcile_time datetime DEFAULT NULL COMMENT '最后精确计数时间',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,count_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='群组数据行数表';
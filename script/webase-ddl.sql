@@ -119,8 +119,12 @@ CREATE TABLE IF NOT EXISTS tb_contract (
   modify_time datetime DEFAULT NULL COMMENT '修改时间',
   deploy_address varchar(64) DEFAULT NULL COMMENT '合约部署者地址',
   deploy_user_name varchar(64) DEFAULT NULL COMMENT '合约部署者用戶名',
+  bin_fingerprint varchar(64) DEFAULT NULL COMMENT '去除元数据的runtime-bin的哈希',
+  deploy_fingerprint varchar(64) DEFAULT NULL COMMENT '去除元数据的部署bin的哈希',
   PRIMARY KEY (contract_id),
-  UNIQUE KEY uk_group_path_name (group_id,contract_path,contract_name,account)
+  UNIQUE KEY uk_group_path_name (group_id,contract_path,contract_name,account),
+  KEY idx_group_fingerprint (group_id,bin_fingerprint),
+  KEY idx_group_deploy_fingerprint (group_id,deploy_fingerprint)
 ) ENGINE=InnoDB AUTO_INCREMENT=200001 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='合约表';
 
 
@@ -157,6 +161,79 @@ CREATE TABLE IF NOT EXISTS tb_trans_daily (
 
 
 
+-- ----------------------------
+-- Table structure for tb_audit_checkpoint
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_audit_checkpoint (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  block_number bigint(25) NOT NULL COMMENT '最后审计交易所在块高',
+  trans_number bigint(25) NOT NULL COMMENT '最后审计交易的交易数',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='交易审计进度表';
+
+
+-- ----------------------------
+-- Table structure for tb_group_lease
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_group_lease (
+  group_id int(11) NOT NULL COMMENT '群组编号',
+  owner varchar(64) NOT NULL COMMENT '持有租约的实例',
+  expire_time datetime NOT NULL COMMENT '租约过期时间',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id),
+  KEY idx_owner (owner)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='群组租约表';
+
+-- ----------------------------
+-- Table structure for tb_lease_instance
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_lease_instance (
+  instance_id varchar(64) NOT NULL COMMENT '实例编号',
+  expire_time datetime NOT NULL COMMENT '心跳过期时间',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (instance_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='租约实例心跳表';
+
+-- ----------------------------
+-- Table structure for tb_stat_rollup
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_stat_rollup (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  resolution int(11) NOT NULL COMMENT '统计粒度（秒）',
+  bucket_time bigint(25) NOT NULL COMMENT '区间开始时间戳',
+  stat_count int(11) NOT NULL DEFAULT '0' COMMENT '区间内区块数',
+  tps_sum bigint(25) DEFAULT '0' COMMENT 'tps之和',
+  tps_min int(11) DEFAULT NULL COMMENT 'tps最小值',
+  tps_max int(11) DEFAULT NULL COMMENT 'tps最大值',
+  block_size_sum bigint(25) DEFAULT '0' COMMENT '块大小之和',
+  block_size_min int(11) DEFAULT NULL COMMENT '块大小最小值',
+  block_size_max int(11) DEFAULT NULL COMMENT '块大小最大值',
+  block_cycle_sum double DEFAULT '0' COMMENT '出块周期之和',
+  block_cycle_min double DEFAULT NULL COMMENT '出块周期最小值',
+  block_cycle_max double DEFAULT NULL COMMENT '出块周期最大值',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,resolution,bucket_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='区块统计汇总表';
+
+
+-- ----------------------------
+-- Table structure for tb_row_count
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS tb_row_count (
+  group_id int(11) NOT NULL COMMENT '所属群组编号',
+  count_key varchar(32) NOT NULL COMMENT '计数项',
+  row_count bigint(25) NOT NULL DEFAULT '0' COMMENT '行数',
+  reconcile_time datetime DEFAULT NULL COMMENT '最后精确计数时间',
+  create_time datetime DEFAULT NULL COMMENT '创建时间',
+  modify_time datetime DEFAULT NULL COMMENT '修改时间',
+  PRIMARY KEY (group_id,count_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='群组数据行数表';
+
+
 -- ----------------------------
 -- Table structure for tb_user
 -- ----------------------------
@@ -328,8 +405,10 @@ CREATE TABLE IF NOT EXISTS tb_abi (
   contract_bin mediumtext NOT NULL COMMENT '合约ABI的runtime-bin',
   create_time datetime DEFAULT NULL COMMENT '合约ABI的创建时间',
   modify_time datetime DEFAULT NULL COMMENT '合约ABI的修改时间',
+  bin_fingerprint varchar(64) DEFAULT NULL COMMENT '去除元数据的runtime-bin的哈希',
   PRIMARY KEY (abi_id),
-  UNIQUE KEY unique_address (group_id,account,contract_address)
+  UNIQUE KEY unique_address (group_id,account,contract_address),
+  KEY idx_group_fingerprint (group_id,bin_fingerprint)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='合约ABI表';
 
 
@@ -448,7 +527,7 @@ CREATE TABLE IF NOT EXISTS tb_stat (
   tps int(11) DEFAULT '0' COMMENT '每秒交易量',
   block_number int(11) DEFAULT '0' COMMENT '当前统计到的块高度',
   block_size int(11) DEFAULT '0' COMMENT '块大小(交易数量)',
-  stat_timestamp varchar(64) COMMENT '记录时间戳',
+  stat_timestamp bigint(25) DEFAULT NULL COMMENT '记录时间戳',
   create_time datetime DEFAULT NULL COMMENT '创建时间',
   modify_time datetime DEFAULT NULL COMMENT '修改时间',
   PRIMARY KEY (id),
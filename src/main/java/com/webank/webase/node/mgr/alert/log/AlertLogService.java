@@ -22,6 +22,7 @@ import com.webank.webase.node.mgr.alert.log.entity.ReqLogParam;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.enums.EnableStatus;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.push.ChainEventPublisher;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +40,8 @@ import java.util.List;
 public class AlertLogService {
     @Autowired
     AlertLogMapper alertLogMapper;
+    @Autowired
+    ChainEventPublisher chainEventPublisher;
 
     public void saveAlertLog(ReqLogParam inputParam) {
         log.debug("start saveAlertLog alertLog:{}", inputParam);
@@ -74,6 +77,7 @@ public class AlertLogService {
         try{
             alertLogMapper.add(alertLog);
             log.debug("end saveAlertLogByRuleAndContent. ");
+            chainEventPublisher.publishAll(ChainEventPublisher.EVENT_ALERT, alertLog);
         }catch (Exception e) {
             log.error("saveAlertLogByRuleAndContent error exception:[]", e);
             throw new NodeMgrException(ConstantCode.ALERT_LOG_ERROR.getCode(),
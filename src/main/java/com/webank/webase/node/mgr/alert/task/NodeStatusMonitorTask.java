@@ -19,11 +19,20 @@ package com.webank.webase.node.mgr.alert.task;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
 import com.webank.webase.node.mgr.alert.mail.MailService;
@@ -31,12 +40,12 @@ import com.webank.webase.node.mgr.alert.rule.AlertRuleService;
 import com.webank.webase.node.mgr.alert.rule.entity.TbAlertRule;
 import com.webank.webase.node.mgr.base.enums.AlertRuleType;
 import com.webank.webase.node.mgr.base.enums.DataStatus;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.tools.AlertRuleTools;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
 import com.webank.webase.node.mgr.node.NodeService;
-import com.webank.webase.node.mgr.node.entity.Node;
 import com.webank.webase.node.mgr.node.entity.TbNode;
 import com.webank.webase.node.mgr.precompiled.PrecompiledService;
 
@@ -59,6 +68,11 @@ public class NodeStatusMonitorTask {
     private MailService alertMailService;
     @Autowired
     private AlertRuleService alertRuleService;
+    @Autowired
+    private ConstantProperties constantProperties;
+    @Autowired
+    @Qualifier("nodeAlertExecutor")
+    private ThreadPoolTaskExecutor nodeAlertExecutor;
 
     @Scheduled(fixedDelayString = "${constant.nodeStatusMonitorTaskFixedDelay}")
     public void nodeAlertTaskStart() {
@@ -84,8 +98,39 @@ public class NodeStatusMonitorTask {
             log.warn("checkNodeStatusForAlert jump over: not found any group");
             return;
         }
-        groupList.stream()
-                .forEach(group -> checkNodeStatusByGroup(group.getGroupId()));
+        // check groups concurrently, finish within timeout even if many groups down
+        CountDownLatch latch = new CountDownLatch(groupList.size());
+        List<Future<?>> taskList = new ArrayList<>();
+        for (TbGroup group : groupList) {
+            int groupId = group.getGroupId();
+            try {
+                taskList.add(nodeAlertExecutor.submit(() -> {
+                    try {
+                        checkNodeStatusByGroup(groupId);
+                    } catch (Exception e) {
+                        log.error("checkNodeStatusByGroup groupId:{} error: []", groupId, e);
+                    } finally {
+                        latch.countDown();
+                    }
+                }));
+            } catch (TaskRejectedException e) {
+                log.warn("checkNodeStatusByGroup groupId:{} rejected, check in next cycle", groupId);
+                latch.countDown();
+            }
+        }
+        try {
+            boolean finished = latch.await(constantProperties.getNodeStatusMonitorTimeout(),
+                TimeUnit.MILLISECONDS);
+            if (!finished) {
+                log.warn("checkAllNodeStatusForAlert timeout, cancel unfinished group remain:{}",
+                    latch.getCount());
+                taskList.forEach(task -> task.cancel(true));
+            }
+        } catch (InterruptedException ex) {
+            log.error("checkAllNodeStatusForAlert InterruptedException", ex);
+            taskList.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+        }
 
         log.info("end checkAllNodeStatusForAlert useTime:{} ",
                 Duration.between(startTime, Instant.now()).toMillis());
@@ -103,14 +148,21 @@ public class NodeStatusMonitorTask {
             log.error("in checkNodeStatusByGroup checkAndUpdateNodeStatus error: []", e);
         }
         List<TbNode> nodeList = nodeService.queryByGroupId(groupId);
+        List<TbNode> invalidNodeList = nodeList.stream()
+            .filter(node -> node.getNodeActive() == DataStatus.INVALID.getValue())
+            .collect(Collectors.toList());
         List<String> abnormalNodeIdList = new ArrayList<>();
-        nodeList.stream()
-            .forEach(node -> {
-                // check whether node is invalid
-                if(isNodeInvalid(node)) {
+        if (!invalidNodeList.isEmpty()) {
+            // get node type list once per group, check whether invalid node is not removed
+            Set<String> notRemovedNodeIdSet = getNotRemovedNodeIdSet(groupId);
+            invalidNodeList.forEach(node -> {
+                if (notRemovedNodeIdSet.contains(node.getNodeId())) {
+                    log.warn("invalid node is not removed. groupId:{}, node:{}",
+                        groupId, node.getNodeId());
                     abnormalNodeIdList.add(node.getNodeId());
                 }
             });
+        }
         if(!abnormalNodeIdList.isEmpty()) {
             log.warn("start  node abnormal mail alert nodeIds:{} in groupId:{}",
                     JsonTools.toJSONString(abnormalNodeIdList), groupId);
@@ -124,51 +176,19 @@ public class NodeStatusMonitorTask {
     }
 
     /**
-     * if node is invalid( not active) alert
-     * @param node
-     * @return true: is abnormal, false: normal
-     */
-    public boolean isNodeInvalid(TbNode node) {
-        log.debug(" isNodeInvalid TbNode:{}", node);
-        int groupId = node.getGroupId();
-        String nodeId = node.getNodeId();
-        // if node is invalid and nodeType isn't remove
-        if(node.getNodeActive() == DataStatus.INVALID.getValue()) {
-            if (checkAbnormalNodeIsNotRemove(groupId, nodeId) != null) {
-                // abnormal node's nodeType is consensus(sealer) or observer
-                log.warn("isNodeInvalid checkAbnormalNodeIsNotRemove. groupId:{}, node:{}",
-                        groupId, nodeId);
-                return true;
-            }
-            return false;
-        }else {
-            return false;
-        }
-    }
-
-    /**
-     * abnormal node's nodeType cannot be "remove"
-     * node type: [sealer(consensus), observer, remove]
+     * node id of sealer and observer, not including "remove" node
      * @param groupId
-     * @param nodeId
-     * @return nodeId is unique, change list to single nodeId using list.get(0)
+     * @return empty if fail to get node list with type
      */
-    public Node checkAbnormalNodeIsNotRemove(int groupId, String nodeId) {
-        log.debug("start checkAbnormalNodeIsNotRemove groupId:{}, nodeId:{}", groupId, nodeId);
-        for(LinkedHashMap<String, String> entry: getNodeListWithType(groupId)) {
-            Node node = new Node();
-            node.setNodeId(entry.get("nodeId"));
-            node.setNodeType(entry.get("nodeType"));
-            // abnormal node's nodeType cannot be "remove"（游离节点）
-            if(nodeId.equals(node.getNodeId())
-                    && !"remove".equals(node.getNodeType())) {
-                log.debug("end checkAbnormalNodeIsNotRemove not 'remove':{}", node);
-                return node;
-            }
-            log.debug("in checkAbnormalNodeIsNotRemove node:{}", node);
+    public Set<String> getNotRemovedNodeIdSet(int groupId) {
+        List<LinkedHashMap<String, String>> nodeListWithType = getNodeListWithType(groupId);
+        if (nodeListWithType == null) {
+            return Collections.emptySet();
         }
-        log.debug("end checkAbnormalNodeIsNotRemove abnormal nodes are all 'remove' node");
-        return null;
+        return nodeListWithType.stream()
+            .filter(entry -> !"remove".equals(entry.get("nodeType")))
+            .map(entry -> entry.get("nodeId"))
+            .collect(Collectors.toSet());
     }
 
     /**
@@ -0,0 +1,653 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.archive;
+
+import com.webank.webase.node.mgr.archive.entity.ArchiveRecord;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * append-only segment file of archived rows, each append written as one deflated frame:
+ * [int raw length][int compressed length][compressed lines of blockNumber\thash\tjson].
+ * active segment named type-startBlock.seg, keeps its index in memory, recovered by scanning
+ * frames when opened, and read by channel under lock.
+ * sealed segment renamed to type-minBlock-maxBlock.seg, so picked by height without opening,
+ * and has index file beside it: frame offsets with block range (sparse index by height),
+ * and 32-byte hashes sorted with frame index (hash index). it is mapped once when sealed,
+ * or on first lookup after restart.
+ * segment written by other instance is opened read only: tail not truncated, index not written.
+ */
+public class ArchiveSegment implements Closeable {
+
+    public static final String SEGMENT_SUFFIX = ".seg";
+    public static final String INDEX_SUFFIX = ".idx";
+
+    private static final int INDEX_MAGIC = 0x57424131;
+    private static final int FRAME_HEADER = 8;
+    private static final int FRAME_ENTRY = 24;
+    private static final int HASH_LENGTH = 32;
+    private static final int HASH_ENTRY = HASH_LENGTH + 4;
+    private static final int INDEX_HEADER = 16;
+    private static final String HEIGHT_FORMAT = "%020d";
+
+    private final String type;
+    private Path segmentPath;
+    private FileChannel channel;
+    private long size;
+    private boolean sealed;
+    private boolean closed;
+    private boolean readOnly;
+
+    /**
+     * frame offset and block range of frames, by order in file
+     */
+    private long[] frameOffsets = new long[16];
+    private long[] frameMinBlocks = new long[16];
+    private long[] frameMaxBlocks = new long[16];
+    private int frameCount = 0;
+    private long minBlock = Long.MAX_VALUE;
+    private long maxBlock = Long.MIN_VALUE;
+
+    /**
+     * hash index of active segment, key: hash, value: frame index
+     */
+    private Map<ByteBuffer, Integer> activeHashMap = new HashMap<>();
+    /**
+     * mapped file of sealed segment and its index
+     */
+    private MappedByteBuffer segmentBuffer;
+    private MappedByteBuffer indexBuffer;
+    private long hashCount;
+
+    private ArchiveSegment(String type, Path segmentPath) {
+        this.type = type;
+        this.segmentPath = segmentPath;
+    }
+
+    /**
+     * create active segment of type in dir, named by first block appended
+     */
+    public static ArchiveSegment create(Path dir, String type, long startBlock)
+        throws IOException {
+        ArchiveSegment segment = new ArchiveSegment(type, dir.resolve(
+            type + "-" + String.format(HEIGHT_FORMAT, startBlock) + SEGMENT_SUFFIX));
+        segment.recoverActive();
+        return segment;
+    }
+
+    /**
+     * open segment by file name: sealed segment only parsed for block range and mapped on
+     * first lookup, active segment recovered and appendable
+     * @return null if not segment file of type
+     */
+    public static ArchiveSegment open(Path segmentPath, String type) throws IOException {
+        return open(segmentPath, type, false);
+    }
+
+    /**
+     * open segment appended by other instance, only for lookup
+     * @return null if not segment file of type
+     */
+    public static ArchiveSegment openReadOnly(Path segmentPath, String type) throws IOException {
+        return open(segmentPath, type, true);
+    }
+
+    private static ArchiveSegment open(Path segmentPath, String type, boolean readOnly)
+        throws IOException {
+        long[] range = parseName(segmentPath.getFileName().toString(), type);
+        if (range == null) {
+            return null;
+        }
+        ArchiveSegment segment = new ArchiveSegment(type, segmentPath);
+        segment.readOnly = readOnly;
+        if (range.length == 2) {
+            segment.sealed = true;
+            segment.minBlock = range[0];
+            segment.maxBlock = range[1];
+        } else {
+            segment.recoverActive();
+        }
+        return segment;
+    }
+
+    /**
+     * @return [minBlock, maxBlock] of sealed segment, [startBlock] of active segment,
+     * null if not segment file of type
+     */
+    static long[] parseName(String fileName, String type) {
+        String prefix = type + "-";
+        if (!fileName.startsWith(prefix) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+            return null;
+        }
+        String[] heights = fileName.substring(prefix.length(),
+            fileName.length() - SEGMENT_SUFFIX.length()).split("-");
+        if (heights.length > 2) {
+            return null;
+        }
+        long[] range = new long[heights.length];
+        try {
+            for (int i = 0; i < heights.length; i++) {
+                range[i] = Long.parseLong(heights[i]);
+            }
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        return range;
+    }
+
+    public static Path indexPathOf(Path segmentPath) {
+        String fileName = segmentPath.getFileName().toString();
+        return segmentPath.resolveSibling(
+            fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    public synchronized boolean isSealed() {
+        return sealed;
+    }
+
+    public synchronized boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * false if active segment appended or renamed by other instance since opened or appended,
+     * checked under lock so append in progress of this instance is not seen
+     */
+    public synchronized boolean isCurrent() {
+        if (sealed) {
+            return true;
+        }
+        try {
+            return Files.size(segmentPath) == size;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized long getMinBlock() {
+        return minBlock;
+    }
+
+    public synchronized long getMaxBlock() {
+        return maxBlock;
+    }
+
+    public synchronized Path getSegmentPath() {
+        return segmentPath;
+    }
+
+    /**
+     * append records as one frame and force to disk
+     */
+    public synchronized void append(List<ArchiveRecord> recordList) throws IOException {
+        if (isSealed()) {
+            throw new IllegalStateException("segment sealed: " + segmentPath);
+        }
+        if (readOnly) {
+            throw new IllegalStateException("segment read only: " + segmentPath);
+        }
+        if (recordList.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        long frameMin = Long.MAX_VALUE;
+        long frameMax = Long.MIN_VALUE;
+        for (ArchiveRecord record : recordList) {
+            lines.append(record.getBlockNumber()).append('\t')
+                .append(record.getHash() == null ? "" : record.getHash()).append('\t')
+                .append(record.getJson()).append('\n');
+            frameMin = Math.min(frameMin, record.getBlockNumber());
+            frameMax = Math.max(frameMax, record.getBlockNumber());
+        }
+        byte[] raw = lines.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = deflate(raw);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + compressed.length);
+        frame.putInt(raw.length).putInt(compressed.length).put(compressed).flip();
+        long offset = size;
+        while (frame.hasRemaining()) {
+            channel.write(frame, offset + frame.position());
+        }
+        channel.force(false);
+        size += FRAME_HEADER + compressed.length;
+        int frameIndex = addFrame(offset, frameMin, frameMax);
+        for (ArchiveRecord record : recordList) {
+            byte[] hash = hashBytes(record.getHash());
+            if (hash != null) {
+                activeHashMap.putIfAbsent(ByteBuffer.wrap(hash), frameIndex);
+            }
+        }
+    }
+
+    /**
+     * rename by block range, write index file and switch to read by mmap, no more append.
+     * segment renamed before index written, so sealed name without index recovered and
+     * sealed again when loaded
+     */
+    public synchronized void seal() throws IOException {
+        if (isSealed()) {
+            return;
+        }
+        if (readOnly) {
+            throw new IllegalStateException("segment read only: " + segmentPath);
+        }
+        writeIndex();
+        loadSealed();
+    }
+
+    private void writeIndex() throws IOException {
+        Path sealedPath = segmentPath.resolveSibling(type + "-"
+            + String.format(HEIGHT_FORMAT, frameCount == 0 ? 0L : minBlock) + "-"
+            + String.format(HEIGHT_FORMAT, frameCount == 0 ? 0L : maxBlock) + SEGMENT_SUFFIX);
+        channel.close();
+        if (!sealedPath.equals(segmentPath)) {
+            Files.move(segmentPath, sealedPath, StandardCopyOption.ATOMIC_MOVE);
+            segmentPath = sealedPath;
+        }
+        List<Map.Entry<ByteBuffer, Integer>> hashList = new ArrayList<>(activeHashMap.entrySet());
+        hashList.sort(Map.Entry.comparingByKey(ArchiveSegment::compareHash));
+        ByteBuffer index = ByteBuffer.allocate(INDEX_HEADER + frameCount * FRAME_ENTRY
+            + hashList.size() * HASH_ENTRY);
+        index.putInt(INDEX_MAGIC).putInt(frameCount).putLong(hashList.size());
+        for (int i = 0; i < frameCount; i++) {
+            index.putLong(frameOffsets[i]).putLong(frameMinBlocks[i]).putLong(frameMaxBlocks[i]);
+        }
+        for (Map.Entry<ByteBuffer, Integer> entry : hashList) {
+            index.put(entry.getKey().duplicate()).putInt(entry.getValue());
+        }
+        Path indexPath = indexPathOf(segmentPath);
+        Path tmpPath = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try (FileChannel indexChannel = FileChannel.open(tmpPath, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            index.flip();
+            while (index.hasRemaining()) {
+                indexChannel.write(index);
+            }
+            indexChannel.force(true);
+        }
+        Files.move(tmpPath, indexPath, StandardCopyOption.ATOMIC_MOVE);
+        sealed = true;
+    }
+
+    /**
+     * json of records at block
+     */
+    public List<String> findByBlock(long blockNumber) throws IOException {
+        List<String> jsonList = new ArrayList<>();
+        int count;
+        long[] minBlocks;
+        long[] maxBlocks;
+        synchronized (this) {
+            if (blockNumber < minBlock || blockNumber > maxBlock) {
+                return jsonList;
+            }
+            ensureLoaded();
+            count = frameCount;
+            minBlocks = frameMinBlocks;
+            maxBlocks = frameMaxBlocks;
+        }
+        for (int i = 0; i < count; i++) {
+            if (blockNumber < minBlocks[i] || blockNumber > maxBlocks[i]) {
+                continue;
+            }
+            for (String line : readFrame(i)) {
+                if (parseBlockNumber(line) == blockNumber) {
+                    jsonList.add(jsonOf(line));
+                }
+            }
+        }
+        return jsonList;
+    }
+
+    /**
+     * json of record of hash
+     * @return null if not found
+     */
+    public String findByHash(String hash) throws IOException {
+        byte[] target = hashBytes(hash);
+        if (target == null) {
+            return null;
+        }
+        Integer frameIndex = findFrameOfHash(target);
+        if (frameIndex == null) {
+            return null;
+        }
+        String normalized = normalizeHash(hash);
+        for (String line : readFrame(frameIndex)) {
+            int start = line.indexOf('\t') + 1;
+            int end = line.indexOf('\t', start);
+            if (normalizeHash(line.substring(start, end)).equals(normalized)) {
+                return jsonOf(line);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (channel != null && channel.isOpen()) {
+            channel.close();
+        }
+        segmentBuffer = null;
+        indexBuffer = null;
+    }
+
+    /**
+     * map sealed segment on first lookup, recover and seal again if index not written
+     */
+    private void ensureLoaded() throws IOException {
+        if (closed) {
+            throw new IOException("segment closed: " + segmentPath);
+        }
+        if (!sealed || segmentBuffer != null) {
+            return;
+        }
+        if (!Files.exists(indexPathOf(segmentPath))) {
+            if (readOnly) {
+                // renamed by writer, index not written yet
+                throw new IOException("index of segment not written: " + segmentPath);
+            }
+            sealed = false;
+            recoverActive();
+            writeIndex();
+        }
+        loadSealed();
+    }
+
+    private synchronized Integer findFrameOfHash(byte[] target) throws IOException {
+        ensureLoaded();
+        if (!isSealed()) {
+            return activeHashMap.get(ByteBuffer.wrap(target));
+        }
+        // binary search in mapped index, sealed segment not changed any more
+        long low = 0;
+        long high = hashCount - 1;
+        int base = INDEX_HEADER + frameCount * FRAME_ENTRY;
+        byte[] probe = new byte[HASH_LENGTH];
+        ByteBuffer index = indexBuffer.duplicate();
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            int position = (int) (base + mid * HASH_ENTRY);
+            index.position(position);
+            index.get(probe);
+            int cmp = compareHash(ByteBuffer.wrap(probe), ByteBuffer.wrap(target));
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return index.getInt(position + HASH_LENGTH);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * frame of sealed segment read from mapped buffer, of active segment read by channel
+     * under lock, so not closed by seal meanwhile
+     */
+    private List<String> readFrame(int frameIndex) throws IOException {
+        ByteBuffer frame;
+        synchronized (this) {
+            ensureLoaded();
+            long offset = frameOffsets[frameIndex];
+            if (segmentBuffer != null) {
+                frame = segmentBuffer.duplicate();
+                frame.position((int) offset);
+            } else {
+                frame = readActiveFrame(offset);
+            }
+        }
+        int rawLength = frame.getInt();
+        byte[] compressed = new byte[frame.getInt()];
+        frame.get(compressed);
+        String text = new String(inflate(compressed, rawLength), StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = text.indexOf('\n', start)) >= 0) {
+            lines.add(text.substring(start, end));
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    private ByteBuffer readActiveFrame(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+        readFully(header, offset);
+        header.flip();
+        header.getInt();
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + header.getInt());
+        readFully(frame, offset);
+        frame.flip();
+        return frame;
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("truncated archive segment: " + segmentPath);
+            }
+        }
+    }
+
+    private void loadSealed() throws IOException {
+        try (FileChannel segmentChannel = FileChannel.open(segmentPath, StandardOpenOption.READ);
+            FileChannel indexChannel = FileChannel.open(indexPathOf(segmentPath),
+                StandardOpenOption.READ)) {
+            segmentBuffer = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0,
+                segmentChannel.size());
+            indexBuffer = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+            size = segmentChannel.size();
+        }
+        if (indexBuffer.getInt(0) != INDEX_MAGIC) {
+            throw new IOException("invalid archive index of segment: " + segmentPath);
+        }
+        int count = indexBuffer.getInt(4);
+        hashCount = indexBuffer.getLong(8);
+        long[] offsets = new long[count];
+        long[] minBlocks = new long[count];
+        long[] maxBlocks = new long[count];
+        for (int i = 0; i < count; i++) {
+            int position = INDEX_HEADER + i * FRAME_ENTRY;
+            offsets[i] = indexBuffer.getLong(position);
+            minBlocks[i] = indexBuffer.getLong(position + 8);
+            maxBlocks[i] = indexBuffer.getLong(position + 16);
+        }
+        frameOffsets = offsets;
+        frameMinBlocks = minBlocks;
+        frameMaxBlocks = maxBlocks;
+        frameCount = count;
+        minBlock = Long.MAX_VALUE;
+        maxBlock = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            minBlock = Math.min(minBlock, minBlocks[i]);
+            maxBlock = Math.max(maxBlock, maxBlocks[i]);
+        }
+        activeHashMap = null;
+        channel = null;
+        sealed = true;
+    }
+
+    /**
+     * rebuild index of active segment, incomplete frame at tail (crash when writing) truncated,
+     * or skipped if read only since it may be being written
+     */
+    private void recoverActive() throws IOException {
+        frameCount = 0;
+        minBlock = Long.MAX_VALUE;
+        maxBlock = Long.MIN_VALUE;
+        activeHashMap = new HashMap<>();
+        channel = readOnly ? FileChannel.open(segmentPath, StandardOpenOption.READ)
+            : FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+        while (offset + FRAME_HEADER <= fileSize) {
+            header.clear();
+            channel.read(header, offset);
+            header.flip();
+            header.getInt();
+            int compressedLength = header.getInt();
+            if (compressedLength < 0 || offset + FRAME_HEADER + compressedLength > fileSize) {
+                break;
+            }
+            size = offset;
+            addFrame(offset, Long.MAX_VALUE, Long.MIN_VALUE);
+            int frameIndex = frameCount - 1;
+            long frameMin = Long.MAX_VALUE;
+            long frameMax = Long.MIN_VALUE;
+            for (String line : readFrame(frameIndex)) {
+                long blockNumber = parseBlockNumber(line);
+                frameMin = Math.min(frameMin, blockNumber);
+                frameMax = Math.max(frameMax, blockNumber);
+                int start = line.indexOf('\t') + 1;
+                byte[] hash = hashBytes(line.substring(start, line.indexOf('\t', start)));
+                if (hash != null) {
+                    activeHashMap.putIfAbsent(ByteBuffer.wrap(hash), frameIndex);
+                }
+            }
+            frameMinBlocks[frameIndex] = frameMin;
+            frameMaxBlocks[frameIndex] = frameMax;
+            minBlock = Math.min(minBlock, frameMin);
+            maxBlock = Math.max(maxBlock, frameMax);
+            offset += FRAME_HEADER + compressedLength;
+        }
+        if (offset < fileSize && !readOnly) {
+            channel.truncate(offset);
+        }
+        size = offset;
+    }
+
+    private int addFrame(long offset, long frameMin, long frameMax) {
+        if (frameCount == frameOffsets.length) {
+            int capacity = Math.max(16, frameCount * 2);
+            frameOffsets = Arrays.copyOf(frameOffsets, capacity);
+            frameMinBlocks = Arrays.copyOf(frameMinBlocks, capacity);
+            frameMaxBlocks = Arrays.copyOf(frameMaxBlocks, capacity);
+        }
+        frameOffsets[frameCount] = offset;
+        frameMinBlocks[frameCount] = frameMin;
+        frameMaxBlocks[frameCount] = frameMax;
+        minBlock = Math.min(minBlock, frameMin);
+        maxBlock = Math.max(maxBlock, frameMax);
+        return frameCount++;
+    }
+
+    private static long parseBlockNumber(String line) {
+        return Long.parseLong(line.substring(0, line.indexOf('\t')));
+    }
+
+    private static String jsonOf(String line) {
+        return line.substring(line.indexOf('\t', line.indexOf('\t') + 1) + 1);
+    }
+
+    private static String normalizeHash(String hash) {
+        String lower = hash.toLowerCase();
+        return lower.startsWith("0x") ? lower.substring(2) : lower;
+    }
+
+    /**
+     * @return null if not hex hash of 32 bytes
+     */
+    static byte[] hashBytes(String hash) {
+        if (hash == null) {
+            return null;
+        }
+        String hex = normalizeHash(hash);
+        if (hex.length() != HASH_LENGTH * 2) {
+            return null;
+        }
+        byte[] bytes = new byte[HASH_LENGTH];
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+
+    private static int compareHash(ByteBuffer left, ByteBuffer right) {
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            int cmp = Integer.compare(left.get(left.position() + i) & 0xff,
+                right.get(right.position() + i) & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int count = inflater.inflate(raw, length, rawLength - length);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("truncated archive frame");
+                }
+                length += count;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("invalid archive frame", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.archive;
+
+import com.webank.webase.node.mgr.archive.entity.ArchiveRecord;
+import com.webank.webase.node.mgr.block.entity.TbBlock;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * cold tier of block and transaction pruned by retention,
+ * kept in segment files of directory archiveDir/groupId, named by block range of segment.
+ * rows are written before deleted from db, and read when not found in db.
+ * if group lease enabled, archiveDir must be shared by all instances: segments are written by
+ * owner of group, and reloaded by any instance when changed in directory.
+ */
+@Log4j2
+@Service
+public class ArchiveService {
+
+    private static final String TYPE_BLOCK = "block";
+    private static final String TYPE_TRANS = "trans";
+
+    @Autowired
+    private ConstantProperties cProperties;
+
+    /**
+     * key: groupId and type, value: segments in order of start block, last one may be active
+     */
+    private final Map<String, List<ArchiveSegment>> segmentMap = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return cProperties.getArchiveEnable();
+    }
+
+    public void archiveBlocks(int groupId, List<TbBlock> blockList) throws IOException {
+        List<ArchiveRecord> recordList = blockList.stream()
+            .map(b -> new ArchiveRecord(b.getBlockNumber().longValue(), b.getPkHash(),
+                JsonTools.toJSONString(b)))
+            .collect(Collectors.toList());
+        append(groupId, TYPE_BLOCK, recordList);
+    }
+
+    public void archiveTrans(int groupId, List<TbTransHash> transList) throws IOException {
+        List<ArchiveRecord> recordList = transList.stream()
+            .map(t -> new ArchiveRecord(t.getBlockNumber().longValue(), t.getTransHash(),
+                JsonTools.toJSONString(t)))
+            .collect(Collectors.toList());
+        append(groupId, TYPE_TRANS, recordList);
+    }
+
+    /**
+     * find archived transaction by hash, or by block number if hash is blank
+     */
+    public List<TbTransHash> findTrans(int groupId, String transHash, BigInteger blockNumber) {
+        return find(groupId, TYPE_TRANS, transHash, blockNumber).stream()
+            .map(json -> JsonTools.toJavaObject(json, TbTransHash.class))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * find archived block by hash, or by block number if hash is blank
+     * @return null if not archived
+     */
+    public TbBlock findBlock(int groupId, String pkHash, BigInteger blockNumber) {
+        List<String> jsonList = find(groupId, TYPE_BLOCK, pkHash, blockNumber);
+        return jsonList.isEmpty() ? null : JsonTools.toJavaObject(jsonList.get(0), TbBlock.class);
+    }
+
+    private List<String> find(int groupId, String type, String hash, BigInteger blockNumber) {
+        List<String> jsonList = new ArrayList<>();
+        if (!isEnabled() || (StringUtils.isBlank(hash) && blockNumber == null)) {
+            return jsonList;
+        }
+        try {
+            List<ArchiveSegment> segmentList = getSegments(groupId, type, false);
+            // newest first, row archived again after crash is in later segment
+            for (int i = segmentList.size() - 1; i >= 0; i--) {
+                ArchiveSegment segment = segmentList.get(i);
+                if (StringUtils.isNotBlank(hash)) {
+                    String json = segment.findByHash(hash);
+                    if (json != null) {
+                        jsonList.add(json);
+                        break;
+                    }
+                } else {
+                    jsonList.addAll(segment.findByBlock(blockNumber.longValue()));
+                    if (!jsonList.isEmpty()) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            log.error("fail find archive. groupId:{} type:{}", groupId, type, ex);
+        }
+        return jsonList;
+    }
+
+    private synchronized void append(int groupId, String type, List<ArchiveRecord> recordList)
+        throws IOException {
+        if (recordList.isEmpty()) {
+            return;
+        }
+        List<ArchiveSegment> segmentList = getSegments(groupId, type, true);
+        ArchiveSegment active = segmentList.isEmpty() ? null
+            : segmentList.get(segmentList.size() - 1);
+        if (active == null || active.isSealed()) {
+            Path dir = groupDir(groupId);
+            Files.createDirectories(dir);
+            long startBlock = recordList.stream().mapToLong(ArchiveRecord::getBlockNumber).min()
+                .getAsLong();
+            active = ArchiveSegment.create(dir, type, startBlock);
+            segmentList.add(active);
+        }
+        active.append(recordList);
+        if (active.size() >= cProperties.getArchiveSegmentMaxBytes()) {
+            log.info("seal archive segment:{} blocks:{}-{}", active.getSegmentPath(),
+                active.getMinBlock(), active.getMaxBlock());
+            active.seal();
+        }
+    }
+
+    /**
+     * @param forWrite active segment opened by other instance is reopened to append
+     */
+    private List<ArchiveSegment> getSegments(int groupId, String type, boolean forWrite)
+        throws IOException {
+        String key = groupId + "_" + type;
+        List<ArchiveSegment> segmentList = segmentMap.get(key);
+        if (segmentList != null && !isChanged(groupId, type, segmentList, forWrite)) {
+            return segmentList;
+        }
+        synchronized (segmentMap) {
+            segmentList = segmentMap.get(key);
+            if (segmentList == null || isChanged(groupId, type, segmentList, forWrite)) {
+                List<ArchiveSegment> former = segmentList == null ? new ArrayList<>() : segmentList;
+                segmentList = new CopyOnWriteArrayList<>(
+                    loadSegments(groupId, type, former, forWrite));
+                segmentMap.put(key, segmentList);
+                for (ArchiveSegment segment : former) {
+                    if (!segmentList.contains(segment)) {
+                        closeQuietly(segment);
+                    }
+                }
+            }
+            return segmentList;
+        }
+    }
+
+    /**
+     * segment in directory added, renamed when sealed or appended by other instance,
+     * always false if archiveDir not shared
+     */
+    private boolean isChanged(int groupId, String type, List<ArchiveSegment> segmentList,
+        boolean forWrite) throws IOException {
+        if (!cProperties.isGroupLeaseEnable()) {
+            return false;
+        }
+        List<Path> pathList = listSegmentPath(groupId, type);
+        if (pathList.size() != segmentList.size()) {
+            return true;
+        }
+        for (int i = 0; i < pathList.size(); i++) {
+            ArchiveSegment segment = segmentList.get(i);
+            if (!pathList.get(i).equals(segment.getSegmentPath())
+                || !isReusable(segment, forWrite)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isReusable(ArchiveSegment segment, boolean forWrite) {
+        if (forWrite && segment.isReadOnly() && !segment.isSealed()) {
+            return false;
+        }
+        return segment.isCurrent();
+    }
+
+    private List<ArchiveSegment> loadSegments(int groupId, String type,
+        List<ArchiveSegment> former, boolean forWrite) throws IOException {
+        Map<Path, ArchiveSegment> formerMap = former.stream()
+            .collect(Collectors.toMap(ArchiveSegment::getSegmentPath, s -> s, (a, b) -> a));
+        // segment of shared directory may be being written by owner of group
+        boolean readOnly = cProperties.isGroupLeaseEnable() && !forWrite;
+        List<ArchiveSegment> segmentList = new ArrayList<>();
+        for (Path path : listSegmentPath(groupId, type)) {
+            ArchiveSegment segment = formerMap.get(path);
+            if (segment == null || !isReusable(segment, forWrite)) {
+                segment = readOnly ? ArchiveSegment.openReadOnly(path, type)
+                    : ArchiveSegment.open(path, type);
+            }
+            segmentList.add(segment);
+        }
+        log.info("load archive of group:{} type:{} segments:{}", groupId, type,
+            segmentList.size());
+        return segmentList;
+    }
+
+    private List<Path> listSegmentPath(int groupId, String type) throws IOException {
+        Path dir = groupDir(groupId);
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream
+                .filter(path -> ArchiveSegment.parseName(path.getFileName().toString(), type) != null)
+                .sorted(Comparator.comparing(Path::getFileName))
+                .collect(Collectors.toList());
+        }
+    }
+
+    private Path groupDir(int groupId) {
+        return Paths.get(cProperties.getArchiveDir(), String.valueOf(groupId));
+    }
+
+    public synchronized void deleteByGroupId(int groupId) {
+        for (String type : new String[]{TYPE_BLOCK, TYPE_TRANS}) {
+            List<ArchiveSegment> segmentList = segmentMap.remove(groupId + "_" + type);
+            if (segmentList != null) {
+                segmentList.forEach(this::closeQuietly);
+            }
+        }
+        try {
+            FileUtils.deleteDirectory(groupDir(groupId).toFile());
+        } catch (IOException ex) {
+            log.error("fail delete archive of group:{}", groupId, ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        segmentMap.values().forEach(list -> list.forEach(this::closeQuietly));
+    }
+
+    private void closeQuietly(ArchiveSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException ex) {
+            log.warn("fail close archive segment:{}", segment.getSegmentPath());
+        }
+    }
+}
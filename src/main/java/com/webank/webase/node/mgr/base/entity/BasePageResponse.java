@@ -29,6 +29,10 @@ public class BasePageResponse {
     private String message;
     private Object data = Collections.emptyList();
     private int totalCount;
+    /**
+     * token of next page for list sought by cursor, null if no more page
+     */
+    private String nextCursor;
 
     public BasePageResponse() {
     }
@@ -0,0 +1,49 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.base.enums;
+
+/**
+ * format of streaming export, one row each line.
+ */
+public enum ExportFormat {
+    NDJSON("ndjson", "application/x-ndjson"), CSV("csv", "text/csv");
+
+    private String value;
+    private String contentType;
+
+    ExportFormat(String value, String contentType) {
+        this.value = value;
+        this.contentType = contentType;
+    }
+
+    public String getValue() {
+        return this.value;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    /**
+     * @return null if not supported
+     */
+    public static ExportFormat getByValue(String value) {
+        for (ExportFormat format : ExportFormat.values()) {
+            if (format.getValue().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
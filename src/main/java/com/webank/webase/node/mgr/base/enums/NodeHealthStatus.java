@@ -0,0 +1,50 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.base.enums;
+
+/**
+ * health of node classified by sliding window of node status samples,
+ * healthy and slow node is NORMAL in tb_node, stalled and down node is INVALID
+ */
+public enum NodeHealthStatus {
+    /**
+     * block number or pbft view is changing, sync lag within threshold
+     */
+    HEALTHY(DataStatus.NORMAL),
+    /**
+     * still changing, but sync lag beyond threshold in the whole slow window
+     */
+    SLOW(DataStatus.NORMAL),
+    /**
+     * connected, but block number and pbft view not changing in the stall window
+     */
+    STALLED(DataStatus.INVALID),
+    /**
+     * not found in sync status of network in the down window
+     */
+    DOWN(DataStatus.INVALID);
+
+    private DataStatus dataStatus;
+
+    NodeHealthStatus(DataStatus dataStatus) {
+        this.dataStatus = dataStatus;
+    }
+
+    /**
+     * node_active of tb_node
+     */
+    public int getNodeActive() {
+        return this.dataStatus.getValue();
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.base.enums;
+
+/**
+ * row count of group maintained in tb_row_count, counter_key is name of enum
+ */
+public enum RowCountKey {
+    /**
+     * rows of tb_block_x
+     */
+    BLOCK,
+    /**
+     * rows of tb_trans_hash_x
+     */
+    TRANS,
+    /**
+     * distinct user_name of tb_user_transaction_monitor_x with user_type 1
+     */
+    UNUSUAL_USER,
+    /**
+     * distinct contract_address of tb_user_transaction_monitor_x with trans_unusual_type 1
+     */
+    UNUSUAL_CONTRACT
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.base.enums;
+
+/**
+ * type of rows in name search index, unusual user and contract of monitor included.
+ */
+public enum SearchType {
+    CONTRACT("contract"), ABI("abi"), USER("user"), UNUSUAL_USER("unusualUser"),
+    UNUSUAL_CONTRACT("unusualContract");
+
+    private String value;
+
+    SearchType(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return this.value;
+    }
+
+    /**
+     * @return null if not supported
+     */
+    public static SearchType getByValue(String value) {
+        for (SearchType type : SearchType.values()) {
+            if (type.getValue().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -19,7 +19,8 @@ package com.webank.webase.node.mgr.base.enums;
  * table name.
  */
 public enum TableName {
-    BLOCK("tb_block_"),TRANS("tb_trans_hash_"),MONITOR("tb_user_transaction_monitor_");
+    BLOCK("tb_block_"),TRANS("tb_trans_hash_"),MONITOR("tb_user_transaction_monitor_"),
+    TRANS_ADDRESS("tb_trans_address_"),EVENT_LOG("tb_event_log_");
     String value;
     TableName(String value){
         this.value = value;
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.base.enums;
+
+/**
+ * direction of transaction to address in address index.
+ *
+ * 1:address is from, 2:address is to.
+ */
+public enum TransDirection {
+    FROM(1), TO(2);
+
+    private int value;
+
+    TransDirection(Integer type) {
+        this.value = type;
+    }
+
+    public int getValue() {
+        return this.value;
+    }
+
+    public static boolean isValid(Integer value) {
+        if (value == null) {
+            return false;
+        }
+        for (TransDirection direction : TransDirection.values()) {
+            if (direction.getValue() == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -19,6 +19,7 @@ import com.webank.webase.node.mgr.base.entity.BaseResponse;
 import com.webank.webase.node.mgr.base.enums.SqlSortType;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.tools.pagetools.PageCursor;
 import com.webank.webase.node.mgr.block.entity.BlockListParam;
 import com.webank.webase.node.mgr.block.entity.TbBlock;
 import java.math.BigInteger;
@@ -47,38 +48,49 @@ public class BlockController {
 
     /**
      * query block list.
+     * if cursor of previous page's nextCursor given, page is sought by block number
+     * and pageNumber ignored.
      */
     @GetMapping(value = "/blockList/{groupId}/{pageNumber}/{pageSize}")
     public BasePageResponse queryBlockList(@PathVariable("groupId") Integer groupId,
         @PathVariable("pageNumber") Integer pageNumber,
         @PathVariable("pageSize") Integer pageSize,
         @RequestParam(value = "pkHash", required = false) String pkHash,
-        @RequestParam(value = "blockNumber", required = false) BigInteger blockNumber)
+        @RequestParam(value = "blockNumber", required = false) BigInteger blockNumber,
+        @RequestParam(value = "cursor", required = false) String cursor)
         throws NodeMgrException, Exception {
         BasePageResponse pageResponse = new BasePageResponse(ConstantCode.SUCCESS);
         Instant startTime = Instant.now();
         log.info(
             "start queryBlockList startTime:{} groupId:{} pageNumber:{} pageSize:{} "
-                + "pkHash:{} blockNumber:{}",
-            startTime.toEpochMilli(), groupId, pageNumber, pageSize, pkHash, blockNumber);
-        int count;
-        // if query all block's count
-        if(StringUtils.isEmpty(pkHash) && blockNumber == null) {
-            count = blockService.queryCountOfBlockByMinus(groupId);
-        } else {
-            count = blockService.queryCountOfBlock(groupId, pkHash, blockNumber);
-        }
+                + "pkHash:{} blockNumber:{} cursor:{}",
+            startTime.toEpochMilli(), groupId, pageNumber, pageSize, pkHash, blockNumber, cursor);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        // count of all block is maintained, not scanned
+        int count = blockService.queryCountOfBlock(groupId, pkHash, blockNumber);
         if (count > 0) {
-            Integer start = Optional.ofNullable(pageNumber).map(page -> (page - 1) * pageSize)
+            Integer start = Optional.ofNullable(pageNumber)
+                .filter(page -> pageCursor == null).map(page -> (page - 1) * pageSize)
                 .orElse(null);
             BlockListParam queryParam = new BlockListParam(start, pageSize, pkHash,
                 blockNumber, SqlSortType.DESC.getValue());
+            if (pageCursor != null) {
+                queryParam.setCursorBlockNumber(pageCursor.getBlockNumber());
+            }
             List<TbBlock> blockList = blockService.queryBlockList(groupId, queryParam);
             pageResponse.setData(blockList);
             pageResponse.setTotalCount(count);
+            if (pageSize != null && blockList.size() == pageSize) {
+                TbBlock last = blockList.get(blockList.size() - 1);
+                pageResponse.setNextCursor(new PageCursor(last.getBlockNumber(), null).encode());
+            }
         } else {
             BcosBlock.Block blockInfo = null;
-            if (blockNumber != null) {
+            TbBlock archived = blockService.getArchivedBlock(groupId, pkHash, blockNumber);
+            if (archived != null) {
+                pageResponse.setData(new TbBlock[]{archived});
+                pageResponse.setTotalCount(1);
+            } else if (blockNumber != null) {
                 log.debug("did not find block, request from front. blockNumber:{} groupId:{}",
                     blockNumber, groupId);
                 blockInfo = blockService.getBlockFromFrontByNumber(groupId, blockNumber);
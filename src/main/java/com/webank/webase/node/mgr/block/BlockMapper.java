@@ -15,6 +15,7 @@ package com.webank.webase.node.mgr.block;
 
 import com.webank.webase.node.mgr.block.entity.BlockListParam;
 import com.webank.webase.node.mgr.block.entity.TbBlock;
+import com.webank.webase.node.mgr.transdaily.TbTransDaily;
 import java.math.BigInteger;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
@@ -63,10 +64,23 @@ public interface BlockMapper {
      */
     Integer getBlockCountByMinMax(@Param("tableName") String tableName);
     /**
-     * Delete block height.
+     * block of number in [fromBlock, toBlock].
      */
-    Integer remove(@Param("tableName") String tableName,
-        @Param("blockRetainMax") BigInteger blockRetainMax);
+    List<TbBlock> listBetween(@Param("tableName") String tableName,
+        @Param("fromBlock") BigInteger fromBlock, @Param("toBlock") BigInteger toBlock);
+
+    /**
+     * delete block of number in [fromBlock, toBlock].
+     */
+    Integer removeBetween(@Param("tableName") String tableName,
+        @Param("fromBlock") BigInteger fromBlock, @Param("toBlock") BigInteger toBlock);
+
+    /**
+     * trans count and max block number of each day,
+     * in blocks after fromBlock and before toBlock, no upper bound if toBlock is null.
+     */
+    List<TbTransDaily> listDailyTransBetween(@Param("tableName") String tableName,
+        @Param("fromBlock") BigInteger fromBlock, @Param("toBlock") BigInteger toBlock);
 
     TbBlock getBlockByBlockNumber(@Param("tableName") String tableName,
                                   @Param("blockNumber") BigInteger blockNumber);
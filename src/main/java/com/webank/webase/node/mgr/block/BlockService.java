@@ -13,7 +13,9 @@
  */
 package com.webank.webase.node.mgr.block;
 
+import com.webank.webase.node.mgr.archive.ArchiveService;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.enums.RowCountKey;
 import com.webank.webase.node.mgr.base.enums.TableName;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
@@ -21,14 +23,23 @@ import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
 import com.webank.webase.node.mgr.block.entity.BlockListParam;
 import com.webank.webase.node.mgr.block.entity.TbBlock;
+import com.webank.webase.node.mgr.event.EventLogService;
 import com.webank.webase.node.mgr.external.ExtAccountService;
 import com.webank.webase.node.mgr.external.ExtContractService;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
+import com.webank.webase.node.mgr.group.GroupOverviewCache;
 import com.webank.webase.node.mgr.transaction.TransHashService;
+import com.webank.webase.node.mgr.push.ChainEventPublisher;
+import com.webank.webase.node.mgr.push.entity.BlockPushInfo;
+import com.webank.webase.node.mgr.rowcount.RowCountService;
 import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import com.webank.webase.node.mgr.transdaily.TbTransDaily;
+import com.webank.webase.node.mgr.transdaily.TransDailyCounter;
 import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import lombok.extern.log4j.Log4j2;
@@ -39,6 +50,7 @@ import org.fisco.bcos.sdk.client.protocol.response.BcosBlock.TransactionResult;
 import org.fisco.bcos.sdk.client.protocol.response.BcosBlockHeader.BlockHeader;
 import org.fisco.bcos.sdk.model.TransactionReceipt;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -64,6 +76,24 @@ public class BlockService {
     private ExtAccountService extAccountService;
     @Autowired
     private ExtContractService extContractService;
+    @Autowired
+    private TransDailyCounter transDailyCounter;
+    @Autowired
+    private ChainEventPublisher chainEventPublisher;
+    @Autowired
+    private ArchiveService archiveService;
+    @Autowired
+    private RowCountService rowCountService;
+    @Autowired
+    private GroupOverviewCache groupOverviewCache;
+    @Autowired
+    private EventLogService eventLogService;
+    /**
+     * proxy of this service, so that block and its trans are saved in one transaction
+     */
+    @Autowired
+    @Lazy
+    private BlockService blockService;
     private static final Long SAVE_TRANS_SLEEP_TIME = 5L;
 
 
@@ -79,6 +109,8 @@ public class BlockService {
             BigInteger maxChainBlock = frontInterface.getLatestBlockNumber(groupId);
             //next block
             BigInteger nextBlock = getNextBlockNumber(groupId);
+            // table of group created before event log added
+            eventLogService.ensureTable(groupId);
 
             //pull block
             while (Objects.nonNull(maxChainBlock) && maxChainBlock.compareTo(nextBlock) >= 0) {
@@ -113,8 +145,20 @@ public class BlockService {
             log.info("pullBlockByNumber jump over. not found new block.");
             return;
         }
-        //save block info
-        saveBLockInfo(blockInfo, groupId);
+        // get receipts before db transaction opened
+        Map<String, TransactionReceipt> receiptMap = new HashMap<>();
+        for (TransactionResult t : blockInfo.getTransactions()) {
+            JsonTransactionResponse trans = (JsonTransactionResponse) t;
+            receiptMap.put(trans.getHash(), frontInterface.getTransReceipt(groupId, trans.getHash()));
+            try {
+                Thread.sleep(SAVE_TRANS_SLEEP_TIME);
+            } catch (InterruptedException ex) {
+                log.error("pullBlockByNumber", ex);
+                Thread.currentThread().interrupt();
+            }
+        }
+        //save block info through proxy, block not saved if any trans failed
+        blockService.saveBLockInfo(blockInfo, groupId, receiptMap);
     }
 
     /**
@@ -164,44 +208,49 @@ public class BlockService {
 
     /**
      * save report block info and save tx in block
+     * @param receiptMap receipt of each trans in block, key is trans hash
      */
     @Transactional
-    public void saveBLockInfo(BcosBlock.Block blockInfo, Integer groupId) throws NodeMgrException {
+    public void saveBLockInfo(BcosBlock.Block blockInfo, Integer groupId,
+        Map<String, TransactionReceipt> receiptMap) throws NodeMgrException {
         List<TransactionResult> transList = blockInfo.getTransactions();
 
         // save block info
         TbBlock tbBlock = chainBlock2TbBlock(blockInfo);
-        addBlockInfo(tbBlock, groupId);
+        boolean added = addBlockInfo(tbBlock, groupId);
+        if (added) {
+            transDailyCounter.addAfterCommit(groupId, tbBlock);
+            rowCountService.addAfterCommit(groupId, RowCountKey.BLOCK, 1);
+            groupOverviewCache.invalidateAfterCommit(groupId);
+        }
 
         // save trans hash
         for (TransactionResult t : transList) {
             JsonTransactionResponse trans = (JsonTransactionResponse) t;
-
-
-            // 获取交易交易回执TransactionReceipt
-            TransactionReceipt transactionReceipt = frontInterface.getTransReceipt(groupId, trans.getHash());
-
+            TransactionReceipt transactionReceipt = receiptMap.get(trans.getHash());
 
             TbTransHash tbTransHash = new TbTransHash(trans.getHash(), trans.getFrom(),
                 trans.getTo(), tbBlock.getBlockNumber(), tbBlock.getBlockTimestamp(),
                     transactionReceipt.getGasUsed(),transactionReceipt.getStatus(),trans.getExtraData());
             transHashService.addTransInfo(groupId, tbTransHash);
+            eventLogService.addLogs(groupId, tbTransHash, transactionReceipt);
             // save user or contract from block's transaction
             this.saveExternalInfo(groupId, trans, blockInfo.getTimestamp());
-            try {
-                Thread.sleep(SAVE_TRANS_SLEEP_TIME);
-            } catch (InterruptedException ex) {
-                log.error("saveBLockInfo", ex);
-                Thread.currentThread().interrupt();
-            }
+        }
+        // after transactions of block saved
+        if (added) {
+            chainEventPublisher.publishStateAfterCommit(groupId, ChainEventPublisher.EVENT_BLOCK,
+                "", new BlockPushInfo(groupId, tbBlock.getBlockNumber(), tbBlock.getTransCount(),
+                    tbBlock.getBlockTimestamp()));
         }
     }
 
     /**
      * add block info to db.
+     * @return false if not next block of db
      */
     @Transactional
-    public void addBlockInfo(TbBlock tbBlock, int groupId) throws NodeMgrException {
+    public boolean addBlockInfo(TbBlock tbBlock, int groupId) throws NodeMgrException {
         log.debug("start addBlockInfo tbBlock:{}", JsonTools.toJSONString(tbBlock));
         String tableName = TableName.BLOCK.getTableName(groupId);
         //check newBLock == dbMaxBLock +1
@@ -210,11 +259,11 @@ public class BlockService {
         if (dbMaxBLock != null && !(pullBlockNumber.compareTo(dbMaxBLock.add(numberOne)) == 0)) {
             log.info("fail addBlockInfo.  dbMaxBLock:{} pullBlockNumber:{}", dbMaxBLock,
                 pullBlockNumber);
-            return;
+            return false;
         }
 
         // save block info
-        blockmapper.add(tableName, tbBlock);
+        return blockmapper.add(tableName, tbBlock) > 0;
     }
 
     /**
@@ -234,6 +283,25 @@ public class BlockService {
         return listOfBlock;
     }
 
+    /**
+     * block pruned by retention in archive, by hash or by number if hash is blank
+     * @return null if not archived
+     */
+    public TbBlock getArchivedBlock(int groupId, String pkHash, BigInteger blockNumber) {
+        return archiveService.findBlock(groupId, pkHash, blockNumber);
+    }
+
+    /**
+     * trans count of each day in blocks between fromBlock and toBlock(both exclusive),
+     * sealer not checked.
+     * @param toBlock no upper bound if null
+     */
+    public List<TbTransDaily> listDailyTransBetween(int groupId, BigInteger fromBlock,
+        BigInteger toBlock) {
+        return blockmapper.listDailyTransBetween(TableName.BLOCK.getTableName(groupId),
+            fromBlock, toBlock);
+    }
+
     /**
      * query count of block.
      */
@@ -241,6 +309,11 @@ public class BlockService {
         throws NodeMgrException {
         log.debug("start countOfBlock groupId:{} pkHash:{} blockNumber:{}", groupId, pkHash,
             blockNumber);
+        if (StringUtils.isBlank(pkHash) && blockNumber == null) {
+            // count of all block from maintained row count, or min and max if not counted yet
+            Long count = rowCountService.getCount(groupId, RowCountKey.BLOCK);
+            return count != null ? count.intValue() : queryCountOfBlockByMinus(groupId);
+        }
         try {
             Integer count = blockmapper
                 .getCount(TableName.BLOCK.getTableName(groupId), pkHash, blockNumber);
@@ -296,13 +369,20 @@ public class BlockService {
     }
 
 
+    public List<TbBlock> listBetween(int groupId, BigInteger fromBlock, BigInteger toBlock) {
+        String tableName = TableName.BLOCK.getTableName(groupId);
+        return blockmapper.listBetween(tableName, fromBlock, toBlock);
+    }
+
     /**
-     * remove block info.
+     * remove block of number in [fromBlock, toBlock], one chunk of retention.
      */
-    public Integer remove(Integer groupId, BigInteger blockRetainMax)
-        throws NodeMgrException {
+    public Integer removeBetween(int groupId, BigInteger fromBlock, BigInteger toBlock) {
         String tableName = TableName.BLOCK.getTableName(groupId);
-        Integer affectRow = blockmapper.remove(tableName, blockRetainMax);
+        Integer affectRow = blockmapper.removeBetween(tableName, fromBlock, toBlock);
+        if (affectRow != null) {
+            rowCountService.addAfterCommit(groupId, RowCountKey.BLOCK, -affectRow);
+        }
         return affectRow;
     }
 
@@ -36,6 +36,10 @@ public class BlockListParam extends BaseQueryParam {
     private BigInteger minBlockNumber;
     private LocalDate minDay;
     private String flagSortedByBlock;
+    /**
+     * seek rows with block number less than it, used with pageSize and without start
+     */
+    private BigInteger cursorBlockNumber;
 
     /**
      * init by start、pageSize、pkHash、blockNumber.
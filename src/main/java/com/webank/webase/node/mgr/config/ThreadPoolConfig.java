@@ -1,5 +1,6 @@
 package com.webank.webase.node.mgr.config;
 
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.config.properties.ExecutorProperties;
 import com.webank.webase.node.mgr.config.properties.SchedulerProperties;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -25,6 +26,8 @@ public class ThreadPoolConfig {
     private ExecutorProperties executorProperties;
     @Autowired
     private SchedulerProperties schedulerProperties;
+    @Autowired
+    private ConstantProperties constantProperties;
 
     /**
      * pull block and trans from chain async
@@ -45,6 +48,57 @@ public class ThreadPoolConfig {
     }
 
 
+    /**
+     * check node status of groups concurrently in node alert task
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor nodeAlertExecutor() {
+        log.info("start nodeAlertExecutor init..");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(constantProperties.getNodeStatusMonitorPoolSize());
+        executor.setMaxPoolSize(constantProperties.getNodeStatusMonitorPoolSize());
+        executor.setQueueCapacity(executorProperties.getQueueSize());
+        executor.setThreadNamePrefix("node-mgr-node-alert-");
+        // reject if too many groups queued, such group would be checked in next cycle
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * fetch block statistic of a range concurrently, run by caller if pool is busy
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor statFetchExecutor() {
+        log.info("start statFetchExecutor init..");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(constantProperties.getStatBlockFetchPoolSize());
+        executor.setMaxPoolSize(constantProperties.getStatBlockFetchPoolSize());
+        executor.setQueueCapacity(executorProperties.getQueueSize());
+        executor.setThreadNamePrefix("node-mgr-stat-fetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * send server push event to clients, one drain task per client at a time
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor pushExecutor() {
+        log.info("start pushExecutor init..");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(constantProperties.getPushPoolSize());
+        executor.setMaxPoolSize(constantProperties.getPushPoolSize());
+        executor.setQueueCapacity(executorProperties.getQueueSize());
+        executor.setThreadNamePrefix("node-mgr-push-");
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * thread pool for scheduler parallel task (not async):
      * pull block, trans monitor, statistic trans, delete info, reset groupList
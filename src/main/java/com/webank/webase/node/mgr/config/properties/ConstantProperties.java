@@ -107,6 +107,67 @@ public class ConstantProperties {
      */
     private Long transMonitorTaskFixedRate = 60000L;
     private Integer monitorInfoRetainMax = 10000;
+    /**
+     * retention of block and trans: rows of chunk adapted in [min, max] by chunk time
+     * and row lock waits, pause(ms) between chunks, max time(ms) of one group per round
+     */
+    private int retentionChunkMin = 100;
+    private int retentionChunkMax = 5000;
+    private long retentionChunkTargetMillis = 200L;
+    private long retentionChunkPauseMillis = 50L;
+    private long retentionRoundMaxMillis = 10000L;
+    /**
+     * block and trans table partitioned by range of block number, partitionAhead empty
+     * partitions of partitionBlockSize blocks kept ahead of latest block by maintain task.
+     * existing tables migrated online, copied partitionMigrateChunk blocks each time,
+     * trans number of partitioned table started partitionTransNumberGap after the old one,
+     * left for transactions written to old table while swapping
+     */
+    private Boolean partitionEnable = false;
+    private Long partitionBlockSize = 1000000L;
+    private int partitionAhead = 2;
+    private long partitionMaintainInterval = 600000L;
+    private int partitionMigrateChunk = 1000;
+    private long partitionMigrateRoundMaxMillis = 60000L;
+    private long partitionTransNumberGap = 100000L;
+    /**
+     * block and trans deleted by retention archived to compressed segment files in archiveDir,
+     * segment sealed when reaching archiveSegmentMaxBytes.
+     * archiveDir must be shared by all instances if group lease enabled
+     */
+    private Boolean archiveEnable = false;
+    private String archiveDir = "./archive";
+    private long archiveSegmentMaxBytes = 64 * 1024 * 1024L;
+    /**
+     * rows of export read exportChunkSize each query, so no long transaction held
+     */
+    private int exportChunkSize = 1000;
+    /**
+     * count of local event logs stopped at eventLogCountMax, returned as total of first page
+     */
+    private int eventLogCountMax = 10000;
+    /**
+     * address index of transactions saved before upgrade filled from trans hash table,
+     * transAddressBackfillChunk transactions each time within round max millis
+     */
+    private long transAddressBackfillInterval = 60000L;
+    private int transAddressBackfillChunk = 5000;
+    private long transAddressBackfillRoundMaxMillis = 10000L;
+    /**
+     * ttl of cached group general and trans daily, entries of group also dropped on new block
+     */
+    private long groupGeneralCacheTtl = 5000L;
+    private long transDailyCacheTtl = 30000L;
+    /**
+     * in-memory index loaded from db checked against db at most once per interval(ms),
+     * reloaded if rows changed by other instance
+     */
+    private long localIndexCheckInterval = 10000L;
+    /**
+     * fuzzy name search resolved by name index to at most this count of values in sql,
+     * left to like in sql if more matched
+     */
+    private int nameSearchInMax = 1000;
     private Long analysisSleepTime = 200L;
     private Boolean isMonitorIgnoreUser = false;
     private Boolean isMonitorIgnoreContract = false;
@@ -118,6 +179,38 @@ public class ConstantProperties {
     private Integer auditMonitorTaskFixedDelay = 300000;
     private Integer nodeStatusMonitorTaskFixedDelay = 60000;
     private Integer certMonitorTaskFixedDelay = 300000;
+    /**
+     * node alert: groups checked concurrently in pool, whole check finished within timeout(ms)
+     */
+    private int nodeStatusMonitorPoolSize = 10;
+    private long nodeStatusMonitorTimeout = 50000L;
+    /**
+     * node health sliding window
+     * window size: count of samples kept per node
+     * stall/slow/down window unit: count of sample interval(nodeStatusMonitorTaskFixedDelay),
+     * so that one late sample not enough to transit, slow lag unit: block
+     */
+    private int nodeHealthWindowSize = 120;
+    private int nodeHealthStallSamples = 3;
+    private int nodeHealthSlowSamples = 3;
+    private int nodeHealthDownSamples = 2;
+    private long nodeHealthSlowLag = 10L;
+    /**
+     * user address cache, max count of entries and expire time(ms)
+     * address not user expires sooner, user added by other instance is seen after it
+     */
+    private long userCacheMaxSize = 100000L;
+    private long userCacheExpireTime = 600000L;
+    private long userCacheAbsentExpireTime = 30000L;
+    /**
+     * group lease of multiple instances, groups are shared by instances if enabled
+     * instance id: generated by host name if blank
+     * timeout and renew interval unit: ms
+     */
+    private boolean groupLeaseEnable = false;
+    private String instanceId;
+    private long groupLeaseTimeout = 30000L;
+    private long groupLeaseRenewInterval = 10000L;
     /**
      * application integration
      */
@@ -134,6 +227,26 @@ public class ConstantProperties {
     private BigInteger statBlockRetainMax = new BigInteger("100000");
     private Integer statBlockFixedDelay = 5000;
     private Integer statBlockPageSize = 10;
+    /**
+     * blocks of page fetched concurrently in pool and saved in one insert,
+     * at most statBlockMaxPerRound blocks in one round of stat task
+     */
+    private int statBlockFetchPoolSize = 8;
+    private int statBlockMaxPerRound = 2000;
+    /**
+     * default max points of block stat chart, resolution of rollup chosen by points
+     */
+    private int statChartMaxPoints = 1440;
+    /**
+     * server push of chain metrics: sse timeout(ms), pending alert per client,
+     * threads to send event, heartbeat interval(ms) and interval(ms) to relay block and stat
+     * of group owned by other instance
+     */
+    private long pushSseTimeout = 30 * 60 * 1000L;
+    private int pushQueueSize = 100;
+    private int pushPoolSize = 4;
+    private long pushHeartbeatInterval = 15000L;
+    private long pushRelayInterval = 2000L;
     /**
      * enable pull external account(user address) and contract from block
      */
@@ -258,4 +371,25 @@ public class ConstantProperties {
         return newDirectory;
     }
     //******************* Add in v1.4.0 end. *******************
-}
\ No newline at end of file
+
+    /**
+     * stall window of node health(ms)
+     */
+    public long getNodeHealthStallWindow() {
+        return nodeHealthStallSamples * (long) nodeStatusMonitorTaskFixedDelay;
+    }
+
+    /**
+     * slow window of node health(ms)
+     */
+    public long getNodeHealthSlowWindow() {
+        return nodeHealthSlowSamples * (long) nodeStatusMonitorTaskFixedDelay;
+    }
+
+    /**
+     * down window of node health(ms)
+     */
+    public long getNodeHealthDownWindow() {
+        return nodeHealthDownSamples * (long) nodeStatusMonitorTaskFixedDelay;
+    }
+}
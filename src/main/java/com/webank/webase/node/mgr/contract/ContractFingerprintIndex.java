@@ -0,0 +1,147 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.contract;
+
+import com.webank.webase.node.mgr.contract.abi.AbiMapper;
+import com.webank.webase.node.mgr.contract.entity.ContractFingerprint;
+import com.webank.webase.node.mgr.tools.Web3Tools;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * in-memory index of bin fingerprint per group, built from indexed column bin_fingerprint
+ * of tb_contract and tb_abi, tb_contract first if same fingerprint.
+ * deploy bin is indexed by deploy_fingerprint of tb_contract only, tb_abi has no deploy bin.
+ * group's index is reloaded after contract or abi of group changed.
+ */
+@Log4j2
+@Component
+public class ContractFingerprintIndex {
+
+    private static final int BACKFILL_BATCH_SIZE = 100;
+
+    @Autowired
+    private ContractMapper contractMapper;
+    @Autowired
+    private AbiMapper abiMapper;
+
+    /**
+     * key: groupId, value: map of fingerprint and contract
+     */
+    private final Map<Integer, Map<String, ContractFingerprint>> groupIndexMap =
+        new ConcurrentHashMap<>();
+    /**
+     * key: groupId, value: map of deploy fingerprint and contract
+     */
+    private final Map<Integer, Map<String, ContractFingerprint>> groupDeployIndexMap =
+        new ConcurrentHashMap<>();
+
+    /**
+     * find contract or abi by runtime bin
+     * @return null if not found
+     */
+    public ContractFingerprint getByBin(int groupId, String contractBin) {
+        String fingerprint = Web3Tools.getBinFingerprint(contractBin);
+        if (fingerprint == null) {
+            return null;
+        }
+        return groupIndexMap.computeIfAbsent(groupId, this::loadIndex).get(fingerprint);
+    }
+
+    /**
+     * find contract by deploy bin, which may be followed by constructor params
+     * @return null if not found
+     */
+    public ContractFingerprint getByDeployBin(int groupId, String deployBin) {
+        String fingerprint = Web3Tools.getDeployBinFingerprint(deployBin);
+        if (fingerprint == null) {
+            return null;
+        }
+        return groupDeployIndexMap.computeIfAbsent(groupId, this::loadDeployIndex).get(fingerprint);
+    }
+
+    /**
+     * drop index of group, reload at next query
+     */
+    public void invalidate(int groupId) {
+        groupIndexMap.remove(groupId);
+        groupDeployIndexMap.remove(groupId);
+    }
+
+    private Map<String, ContractFingerprint> loadIndex(int groupId) {
+        Map<String, ContractFingerprint> index = new HashMap<>();
+        for (ContractFingerprint contract : contractMapper.listFingerprint(groupId)) {
+            index.putIfAbsent(contract.getBinFingerprint(), contract);
+        }
+        for (ContractFingerprint abi : abiMapper.listFingerprint(groupId)) {
+            index.putIfAbsent(abi.getBinFingerprint(), abi);
+        }
+        log.info("load bin fingerprint index of group:{} size:{}", groupId, index.size());
+        return Collections.unmodifiableMap(index);
+    }
+
+    private Map<String, ContractFingerprint> loadDeployIndex(int groupId) {
+        Map<String, ContractFingerprint> index = new HashMap<>();
+        for (ContractFingerprint contract : contractMapper.listDeployFingerprint(groupId)) {
+            index.putIfAbsent(contract.getBinFingerprint(), contract);
+        }
+        log.info("load deploy fingerprint index of group:{} size:{}", groupId, index.size());
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * fill fingerprint of rows saved before the column added,
+     * blank bin is filled with empty string to avoid selecting it again
+     */
+    public void backfill() {
+        int contractCount = 0;
+        int deployCount = 0;
+        int abiCount = 0;
+        List<ContractFingerprint> rowList;
+        while (!(rowList = contractMapper.listWithoutFingerprint(BACKFILL_BATCH_SIZE)).isEmpty()) {
+            for (ContractFingerprint row : rowList) {
+                contractMapper.updateFingerprint(row.getId(),
+                    StringUtils.defaultString(Web3Tools.getBinFingerprint(row.getContractBin())));
+            }
+            contractCount += rowList.size();
+        }
+        while (!(rowList = contractMapper.listWithoutDeployFingerprint(BACKFILL_BATCH_SIZE)).isEmpty()) {
+            for (ContractFingerprint row : rowList) {
+                contractMapper.updateDeployFingerprint(row.getId(),
+                    StringUtils.defaultString(Web3Tools.getDeployBinFingerprint(row.getContractBin())));
+            }
+            deployCount += rowList.size();
+        }
+        while (!(rowList = abiMapper.listWithoutFingerprint(BACKFILL_BATCH_SIZE)).isEmpty()) {
+            for (ContractFingerprint row : rowList) {
+                abiMapper.updateFingerprint(row.getId(),
+                    StringUtils.defaultString(Web3Tools.getBinFingerprint(row.getContractBin())));
+            }
+            abiCount += rowList.size();
+        }
+        if (contractCount > 0 || deployCount > 0 || abiCount > 0) {
+            log.info("backfill bin fingerprint contract:{} deploy:{} abi:{}", contractCount,
+                deployCount, abiCount);
+            groupIndexMap.clear();
+            groupDeployIndexMap.clear();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.contract;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * backfill bin fingerprint of contract and abi after upgrade
+ */
+@Log4j2
+@Component
+public class ContractFingerprintRunner implements CommandLineRunner {
+
+    @Autowired
+    private ContractFingerprintIndex contractFingerprintIndex;
+
+    @Override
+    public void run(String... args) {
+        try {
+            contractFingerprintIndex.backfill();
+        } catch (Exception ex) {
+            log.error("fail backfill bin fingerprint, check upgrade script of tb_contract and tb_abi", ex);
+        }
+    }
+}
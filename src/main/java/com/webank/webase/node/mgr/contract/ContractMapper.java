@@ -15,8 +15,11 @@
  */
 package com.webank.webase.node.mgr.contract;
 
+import com.webank.webase.node.mgr.base.entity.TableVersion;
+import com.webank.webase.node.mgr.contract.entity.ContractFingerprint;
 import com.webank.webase.node.mgr.contract.entity.ContractParam;
 import com.webank.webase.node.mgr.contract.entity.TbContract;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
@@ -46,6 +49,24 @@ public interface ContractMapper {
     List<TbContract> queryContractByBin(@Param("groupId") Integer groupId,
         @Param("contractBin") String contractBin);
 
+    List<ContractFingerprint> listFingerprint(@Param("groupId") Integer groupId);
+
+    List<ContractFingerprint> listDeployFingerprint(@Param("groupId") Integer groupId);
+
+    List<NameEntry> listNameEntry(@Param("groupId") Integer groupId);
+
+    TableVersion getNameVersion(@Param("groupId") Integer groupId);
+
+    List<ContractFingerprint> listWithoutFingerprint(@Param("limit") int limit);
+
+    Integer updateFingerprint(@Param("contractId") Integer contractId,
+        @Param("binFingerprint") String binFingerprint);
+
+    List<ContractFingerprint> listWithoutDeployFingerprint(@Param("limit") int limit);
+
+    Integer updateDeployFingerprint(@Param("contractId") Integer contractId,
+        @Param("deployFingerprint") String deployFingerprint);
+
     String querySystemContractBin(@Param("groupId") Integer groupId,
         @Param("contractName") String contractName);
 
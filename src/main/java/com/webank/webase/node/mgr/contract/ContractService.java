@@ -25,11 +25,13 @@ import com.webank.webase.node.mgr.base.enums.ContractStatus;
 import com.webank.webase.node.mgr.base.enums.ContractType;
 import com.webank.webase.node.mgr.base.enums.HasPk;
 import com.webank.webase.node.mgr.base.enums.RoleType;
+import com.webank.webase.node.mgr.base.enums.SearchType;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
-import com.webank.webase.node.mgr.contract.abi.entity.ReqAbiListParam;
 import com.webank.webase.node.mgr.external.ExtContractService;
 import com.webank.webase.node.mgr.external.entity.TbExternalContract;
+import com.webank.webase.node.mgr.search.NameSearchIndex;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.Web3Tools;
 import com.webank.webase.node.mgr.contract.abi.AbiService;
@@ -80,6 +82,10 @@ public class  ContractService {
     @Autowired
     private ContractMapper contractMapper;
     @Autowired
+    private ContractFingerprintIndex contractFingerprintIndex;
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+    @Autowired
     private FrontRestTools frontRestTools;
     @Autowired
     @Lazy
@@ -150,6 +156,8 @@ public class  ContractService {
         BeanUtils.copyProperties(contract, tbContract);
         log.debug("newContract save contract");
         contractMapper.add(tbContract);
+        contractFingerprintIndex.invalidate(contract.getGroupId());
+        putNameEntry(contract.getGroupId(), tbContract);
         // save contract path
         log.debug("newContract save contract path");
         // if exist, auto not save (ignore)
@@ -217,6 +225,8 @@ public class  ContractService {
             }
             // save and update contract
             contractMapper.saveAndUpdate(tbContract);
+            contractFingerprintIndex.invalidate(groupId);
+            nameSearchIndex.invalidate(SearchType.CONTRACT, groupId);
             // save and update method
             NewMethodInputParam newMethodInputParam = new NewMethodInputParam();
             newMethodInputParam.setGroupId(groupId);
@@ -264,6 +274,8 @@ public class  ContractService {
             }
         }
         contractMapper.update(tbContract);
+        contractFingerprintIndex.invalidate(contract.getGroupId());
+        putNameEntry(contract.getGroupId(), tbContract);
         return tbContract;
     }
 
@@ -295,6 +307,8 @@ public class  ContractService {
         }
         //remove
         contractMapper.remove(contractId);
+        contractFingerprintIndex.invalidate(groupId);
+        nameSearchIndex.remove(SearchType.CONTRACT, groupId, contractId);
         log.debug("end deleteContract");
     }
 
@@ -304,8 +318,12 @@ public class  ContractService {
     public List<TbContract> queryContractList(ContractParam param) throws NodeMgrException {
         log.debug("start queryContractList ContractListParam:{}", JsonTools.toJSONString(param));
 
+        ContractParam matchParam = matchContractName(param);
+        if (matchParam == null) {
+            return new ArrayList<>();
+        }
         // query contract list
-        List<TbContract> listOfContract = contractMapper.listOfContract(param);
+        List<TbContract> listOfContract = contractMapper.listOfContract(matchParam);
 
         log.debug("end queryContractList listOfContract:{}", JsonTools.toJSONString(listOfContract));
         return listOfContract;
@@ -317,8 +335,12 @@ public class  ContractService {
     public List<RspContractNoAbi> queryContractListNoAbi(ContractParam param) throws NodeMgrException {
         log.debug("start queryContractListNoAbi ContractListParam:{}", JsonTools.toJSONString(param));
 
+        ContractParam matchParam = matchContractName(param);
+        if (matchParam == null) {
+            return new ArrayList<>();
+        }
         // query contract list
-        List<TbContract> listOfContract = contractMapper.listOfContract(param);
+        List<TbContract> listOfContract = contractMapper.listOfContract(matchParam);
         List<RspContractNoAbi> resultList = new ArrayList<>();
         listOfContract.forEach(c -> {
             RspContractNoAbi rsp = new RspContractNoAbi();
@@ -336,14 +358,54 @@ public class  ContractService {
      */
     public int countOfContract(ContractParam param) throws NodeMgrException {
         log.debug("start countOfContract ContractListParam:{}", JsonTools.toJSONString(param));
+        ContractParam matchParam = matchContractName(param);
+        if (matchParam == null) {
+            return 0;
+        }
         try {
-            return contractMapper.countOfContract(param);
+            return contractMapper.countOfContract(matchParam);
         } catch (RuntimeException ex) {
             log.error("fail countOfContract", ex);
             throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
         }
     }
 
+    /**
+     * resolve fuzzy contract name of group to contract id list by name index
+     * instead of like '%name%' in sql, unless more than nameSearchInMax matched.
+     * @return copy of param with contract id list, param itself if not resolved,
+     * null if no contract name matched
+     */
+    private ContractParam matchContractName(ContractParam param) {
+        if (param.getContractIdList() != null || param.getGroupId() == null
+            || StringUtils.isBlank(param.getContractName())) {
+            return param;
+        }
+        List<Integer> contractIdList = nameSearchIndex.searchValues(SearchType.CONTRACT,
+            param.getGroupId(), param.getContractName(), NameEntry::getName, NameEntry::getId);
+        if (contractIdList == null) {
+            // too many matched, left to like in sql
+            return param;
+        }
+        if (contractIdList.isEmpty()) {
+            return null;
+        }
+        // param of caller may be reused after names changed
+        ContractParam matchParam = new ContractParam();
+        BeanUtils.copyProperties(param, matchParam);
+        matchParam.setContractIdList(contractIdList);
+        return matchParam;
+    }
+
+    /**
+     * add or replace contract in name index after commit
+     */
+    private void putNameEntry(int groupId, TbContract tbContract) {
+        nameSearchIndex.put(SearchType.CONTRACT, groupId, new NameEntry(
+            tbContract.getContractId(), tbContract.getContractName(),
+            tbContract.getContractAddress()));
+    }
+
     /**
      * query contract by contract id.
      */
@@ -446,6 +508,8 @@ public class  ContractService {
         //tbContract.setContractVersion(version);
         tbContract.setDeployTime(LocalDateTime.now());
         contractMapper.update(tbContract);
+        contractFingerprintIndex.invalidate(groupId);
+        putNameEntry(groupId, tbContract);
 
         log.debug("end deployContract. contractId:{} groupId:{} contractAddress:{}",
             tbContract.getContractId(), groupId, contractAddress);
@@ -463,26 +527,29 @@ public class  ContractService {
         return tbContract;
     }
 
+    /**
+     * query contract by deploy bin, or contract and abi by runtime bin, through fingerprint index.
+     */
     public Object queryContractOrAbiByBin(QueryByBinParam queryParam) {
         log.debug("start queryContractOrAbiByBin. queryParam:{}", JsonTools.toJSONString(queryParam));
-        ContractParam contractParam = new ContractParam();
-        BeanUtils.copyProperties(queryParam, contractParam);
-        TbContract tbContract = this.queryContract(contractParam);
-        if (tbContract != null) {
-            log.debug("queryContractOrAbiByBin return tbContract:{}", tbContract);
-            return tbContract;
-        } else {
-            ReqAbiListParam abiParam = new ReqAbiListParam();
-            abiParam.setGroupId(queryParam.getGroupId());
-            abiParam.setPartOfContractBin(queryParam.getPartOfBytecodeBin());
-            AbiInfo abiInfo = abiService.getAbiInfoByBin(abiParam);
-            if (abiInfo == null) {
-                log.debug("queryContractOrAbiByBin not found");
-                return null;
-            }
+        int groupId = queryParam.getGroupId();
+        String bin = queryParam.getPartOfBytecodeBin();
+        ContractFingerprint contract = contractFingerprintIndex.getByDeployBin(groupId, bin);
+        if (contract == null) {
+            contract = contractFingerprintIndex.getByBin(groupId, bin);
+        }
+        if (contract == null) {
+            log.debug("queryContractOrAbiByBin not found");
+            return null;
+        }
+        if (contract.isFromAbi()) {
+            AbiInfo abiInfo = abiService.getAbiById(contract.getId());
             log.debug("queryContractOrAbiByBin return abiInfo:{}", abiInfo);
             return abiInfo;
         }
+        TbContract tbContract = queryByContractId(contract.getId());
+        log.debug("queryContractOrAbiByBin return tbContract:{}", tbContract);
+        return tbContract;
     }
 
     /**
@@ -610,6 +677,8 @@ public class  ContractService {
         }
         log.info("delete contract by groupId");
         contractMapper.removeByGroupId(groupId);
+        contractFingerprintIndex.invalidate(groupId);
+        nameSearchIndex.invalidate(SearchType.CONTRACT, groupId);
         log.info("delete contract path by groupId");
         contractPathService.removeByGroupId(groupId);
     }
@@ -16,9 +16,12 @@
 
 package com.webank.webase.node.mgr.contract.abi;
 
+import com.webank.webase.node.mgr.base.entity.TableVersion;
 import com.webank.webase.node.mgr.contract.abi.entity.AbiInfo;
 import com.webank.webase.node.mgr.contract.abi.entity.ReqAbiListParam;
 import com.webank.webase.node.mgr.contract.abi.entity.RspAllContract;
+import com.webank.webase.node.mgr.contract.entity.ContractFingerprint;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
@@ -58,4 +61,15 @@ public interface AbiMapper {
 	 */
 	AbiInfo getAbiByBin(ReqAbiListParam param);
 
+	List<ContractFingerprint> listFingerprint(@Param("groupId") Integer groupId);
+
+	List<NameEntry> listNameEntry(@Param("groupId") Integer groupId);
+
+	TableVersion getNameVersion(@Param("groupId") Integer groupId);
+
+	List<ContractFingerprint> listWithoutFingerprint(@Param("limit") int limit);
+
+	Integer updateFingerprint(@Param("abiId") Integer abiId,
+			 @Param("binFingerprint") String binFingerprint);
+
 }
@@ -18,9 +18,13 @@ package com.webank.webase.node.mgr.contract.abi;
 
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.enums.ContractType;
+import com.webank.webase.node.mgr.base.enums.SearchType;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.search.NameSearchIndex;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
+import com.webank.webase.node.mgr.contract.ContractFingerprintIndex;
 import com.webank.webase.node.mgr.contract.ContractService;
 import com.webank.webase.node.mgr.contract.abi.entity.AbiInfo;
 import com.webank.webase.node.mgr.contract.abi.entity.ReqAbiListParam;
@@ -51,6 +55,10 @@ public class AbiService {
     @Autowired
     AbiMapper abiMapper;
     @Autowired
+    ContractFingerprintIndex contractFingerprintIndex;
+    @Autowired
+    NameSearchIndex nameSearchIndex;
+    @Autowired
     FrontInterfaceService frontInterfaceService;
     @Autowired
     ContractService contractService;
@@ -126,6 +134,9 @@ public class AbiService {
         updateAbi.setContractBin(contractBin);
         updateAbi.setModifyTime(LocalDateTime.now());
         abiMapper.update(updateAbi);
+        contractFingerprintIndex.invalidate(param.getGroupId());
+        nameSearchIndex.put(SearchType.ABI, param.getGroupId(), new NameEntry(abiId,
+            param.getContractName(), param.getContractAddress()));
         // update method
         methodService.saveMethod(param.getGroupId(), contractAbiStr, ContractType.GENERALCONTRACT.getValue());
         if (StringUtils.isNotBlank(contractBin)) {
@@ -135,8 +146,13 @@ public class AbiService {
     }
 
     public void delete(Integer id) {
-        checkAbiIdExist(id);
+        AbiInfo abiInfo = getAbiById(id);
+        if (Objects.isNull(abiInfo)) {
+            throw new NodeMgrException(ConstantCode.ABI_INFO_NOT_EXISTS);
+        }
         abiMapper.deleteByAbiId(id);
+        contractFingerprintIndex.invalidate(abiInfo.getGroupId());
+        nameSearchIndex.remove(SearchType.ABI, abiInfo.getGroupId(), id);
     }
 
     private void checkAbiExist(int groupId, String account, String address) {
@@ -237,6 +253,8 @@ public class AbiService {
     public void deleteAbiByGroupId(int groupId) {
         log.info("deleteAbiByGroupId groupId:{}", groupId);
         abiMapper.deleteByGroupId(groupId);
+        contractFingerprintIndex.invalidate(groupId);
+        nameSearchIndex.invalidate(SearchType.ABI, groupId);
     }
 
     public int countOfAbiByGroupId(int groupId) {
@@ -262,6 +280,10 @@ public class AbiService {
             contractId, contractAddress);
         // add
         addAbiToDb(groupId, contractName, account, contractAddress, contractAbiStr, contractBin);
+        // save method of deployed contract for transaction decoding
+        if (StringUtils.isNotBlank(contractAbiStr)) {
+            methodService.saveMethod(groupId, contractAbiStr, ContractType.GENERALCONTRACT.getValue());
+        }
     }
     
     /**
@@ -312,6 +334,8 @@ public class AbiService {
         saveAbi.setModifyTime(now);
         saveAbi.setAccount(account);
         abiMapper.add(saveAbi);
+        contractFingerprintIndex.invalidate(groupId);
+        nameSearchIndex.invalidate(SearchType.ABI, groupId);
     }
 
     public AbiInfo getAbiInfoByBin(ReqAbiListParam param) {
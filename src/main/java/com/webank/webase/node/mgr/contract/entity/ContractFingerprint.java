@@ -0,0 +1,36 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.contract.entity;
+
+import lombok.Data;
+
+/**
+ * bin fingerprint of row in tb_contract or tb_abi
+ */
+@Data
+public class ContractFingerprint {
+    /**
+     * contractId of tb_contract or abiId of tb_abi
+     */
+    private Integer id;
+    private String contractName;
+    private String contractBin;
+    private String binFingerprint;
+    /**
+     * true if row of tb_abi
+     */
+    private boolean fromAbi;
+}
@@ -16,6 +16,7 @@
 package com.webank.webase.node.mgr.contract.entity;
 
 import com.webank.webase.node.mgr.base.entity.BaseQueryParam;
+import java.util.List;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -40,6 +41,10 @@ public class ContractParam extends BaseQueryParam {
     private Integer contractType;
     private String partOfBytecodeBin;
     private String deployAddress;
+    /**
+     * contract id matched by contractName in name index, replace like of contractName if not null
+     */
+    private List<Integer> contractIdList;
 
     /**
      * init by contractId.
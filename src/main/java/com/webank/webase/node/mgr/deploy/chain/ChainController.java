@@ -50,7 +50,8 @@ public class ChainController {
         @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime contrastBeginDate,
         @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime contrastEndDate,
         @RequestParam(required = false, defaultValue = "1") int gap,
-        @RequestParam(required = false, defaultValue = "1") int groupId)
+        @RequestParam(required = false, defaultValue = "1") int groupId,
+        @RequestParam(required = false) Integer maxPoints)
         throws NodeMgrException {
         Instant startTime = Instant.now();
         BaseResponse response = new BaseResponse(ConstantCode.SUCCESS);
@@ -60,7 +61,7 @@ public class ChainController {
             frontId, beginDate, endDate, contrastBeginDate, contrastEndDate, gap,groupId);
         Object rspObj = chainService
             .getChainMonitorInfo(frontId, beginDate, endDate, contrastBeginDate, contrastEndDate,
-                gap,groupId);
+                gap, groupId, maxPoints);
 
         response.setData(rspObj);
         log.info("end getChainInfo. endTime:{} response:{}",
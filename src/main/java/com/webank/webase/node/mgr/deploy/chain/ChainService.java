@@ -29,6 +29,7 @@ import com.webank.webase.node.mgr.tools.CertTools;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
 import com.webank.webase.node.mgr.tools.NumberUtil;
+import com.webank.webase.node.mgr.tools.PerformanceDataSampler;
 import com.webank.webase.node.mgr.tools.ProgressTools;
 import com.webank.webase.node.mgr.tools.ThymeleafUtil;
 import com.webank.webase.node.mgr.cert.CertService;
@@ -130,11 +131,11 @@ public class ChainService {
     @Autowired private DockerCommandService dockerOptions;
 
     /**
-     * get chain info.
+     * get chain info, downsampled to maxPoints if given.
      */
     public Object getChainMonitorInfo(Integer frontId, LocalDateTime beginDate,
         LocalDateTime endDate, LocalDateTime contrastBeginDate,
-        LocalDateTime contrastEndDate, int gap, int groupId) {
+        LocalDateTime contrastEndDate, int gap, int groupId, Integer maxPoints) {
         log.debug(
             "start getChainMonitorInfo.  frontId:{} beginDate:{} endDate:{}"
                 + " contrastBeginDate:{} contrastEndDate:{} gap:{} groupId:{}",
@@ -164,7 +165,7 @@ public class ChainService {
         try {
             Object rspObj = genericRestTemplate.getForObject(url, Object.class);
             log.debug("end getChainMonitorInfo. rspObj:{}", JsonTools.toJSONString(rspObj));
-            return rspObj;
+            return PerformanceDataSampler.downsample(rspObj, maxPoints);
         } catch (ResourceAccessException e) {
             log.error("getChainMonitorInfo. ResourceAccessException:{}", e);
             throw new NodeMgrException(ConstantCode.REQUEST_FRONT_FAIL);
@@ -19,16 +19,22 @@ package com.webank.webase.node.mgr.event;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.entity.BasePageResponse;
 import com.webank.webase.node.mgr.base.entity.BaseResponse;
+import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.pagetools.List2Page;
+import com.webank.webase.node.mgr.tools.pagetools.PageCursor;
 import com.webank.webase.node.mgr.event.entity.ContractEventInfo;
+import com.webank.webase.node.mgr.event.entity.EventLogParam;
 import com.webank.webase.node.mgr.event.entity.NewBlockEventInfo;
 import com.webank.webase.node.mgr.event.entity.ReqEventLogList;
 import com.webank.webase.node.mgr.event.entity.RspContractInfo;
+import com.webank.webase.node.mgr.event.entity.TbEventLog;
 import java.io.IOException;
+import java.math.BigInteger;
 import javax.validation.Valid;
 import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,6 +42,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.Duration;
@@ -54,6 +61,8 @@ public class EventController {
 
 	@Autowired
 	private EventService eventService;
+	@Autowired
+	private EventLogService eventLogService;
 
 	/**
 	 * get new block event register info
@@ -110,6 +119,65 @@ public class EventController {
 		return baseResponse;
 	}
 
+	/**
+	 * query event logs of contract saved when pulling block, not scanned by front.
+	 * topics and block range are optional filters. next page sought by cursor,
+	 * totalCount counted at most to eventLogCountMax and not returned if cursor given.
+	 * params are not decoded: indexed params are raw topic1-3 and the others raw abi data,
+	 * decode them by abi of the contract, or use /eventLogs/list for decoded logs.
+	 */
+	@GetMapping("/eventLogs/local/{groupId}/{pageNumber}/{pageSize}")
+	@PreAuthorize(ConstantProperties.HAS_ROLE_ADMIN_OR_DEVELOPER)
+	public BasePageResponse queryLocalEventLogList(@PathVariable("groupId") Integer groupId,
+		@PathVariable("pageNumber") Integer pageNumber,
+		@PathVariable("pageSize") Integer pageSize,
+		@RequestParam("contractAddress") String contractAddress,
+		@RequestParam(value = "topic0", required = false) String topic0,
+		@RequestParam(value = "topic1", required = false) String topic1,
+		@RequestParam(value = "topic2", required = false) String topic2,
+		@RequestParam(value = "topic3", required = false) String topic3,
+		@RequestParam(value = "fromBlock", required = false) BigInteger fromBlock,
+		@RequestParam(value = "toBlock", required = false) BigInteger toBlock,
+		@RequestParam(value = "cursor", required = false) String cursor) {
+		Instant startTime = Instant.now();
+		log.info("start queryLocalEventLogList startTime:{} groupId:{} contractAddress:{} cursor:{}",
+			startTime.toEpochMilli(), groupId, contractAddress, cursor);
+		if (pageNumber < 1 || StringUtils.isBlank(contractAddress)) {
+			return new BasePageResponse(ConstantCode.INVALID_PARAM_INFO, null, 0);
+		}
+		EventLogParam param = new EventLogParam();
+		param.setContractAddress(contractAddress.trim());
+		param.setTopic0(topic0);
+		param.setTopic1(topic1);
+		param.setTopic2(topic2);
+		param.setTopic3(topic3);
+		param.setFromBlock(fromBlock);
+		param.setToBlock(toBlock);
+		BasePageResponse response = new BasePageResponse(ConstantCode.SUCCESS);
+		PageCursor pageCursor = PageCursor.decode(cursor);
+		param.setPageSize(pageSize);
+		if (pageCursor == null) {
+			param.setStart((pageNumber - 1) * pageSize);
+			response.setTotalCount(eventLogService.queryCountOfEventLog(groupId, param));
+		} else if (pageCursor.getTransNumber() == null || pageCursor.getLogIndex() == null) {
+			throw new NodeMgrException(ConstantCode.INVALID_PAGE_CURSOR);
+		} else {
+			param.setCursorBlockNumber(pageCursor.getBlockNumber());
+			param.setCursorTransNumber(pageCursor.getTransNumber());
+			param.setCursorLogIndex(pageCursor.getLogIndex());
+		}
+		List<TbEventLog> eventLogList = eventLogService.queryEventLogList(groupId, param);
+		response.setData(eventLogList);
+		if (pageSize != null && eventLogList.size() == pageSize) {
+			TbEventLog last = eventLogList.get(eventLogList.size() - 1);
+			response.setNextCursor(new PageCursor(last.getBlockNumber(), last.getTransNumber(),
+				last.getLogIndex()).encode());
+		}
+		log.info("end queryLocalEventLogList useTime:{} size:{}",
+			Duration.between(startTime, Instant.now()).toMillis(), eventLogList.size());
+		return response;
+	}
+
 	/**
 	 * query list of contract only contain groupId and contractAddress and contractName
 	 */
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.event;
+
+import com.webank.webase.node.mgr.event.entity.EventLogParam;
+import com.webank.webase.node.mgr.event.entity.TbEventLog;
+import java.math.BigInteger;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * mapper of event log saved from transaction receipt.
+ */
+@Repository
+public interface EventLogMapper {
+
+    Integer batchAdd(@Param("tableName") String tableName,
+        @Param("list") List<TbEventLog> eventLogList);
+
+    List<TbEventLog> getList(@Param("tableName") String tableName,
+        @Param("param") EventLogParam param);
+
+    /**
+     * count of matched rows, but at most countMax
+     */
+    Integer getCount(@Param("tableName") String tableName, @Param("param") EventLogParam param,
+        @Param("countMax") int countMax);
+
+    /**
+     * same range as delete of trans hash table by retention
+     */
+    Integer removeBetween(@Param("tableName") String tableName,
+        @Param("fromTransNumber") long fromTransNumber, @Param("toTransNumber") long toTransNumber,
+        @Param("beforeBlock") BigInteger beforeBlock);
+
+    /**
+     * remove at most limit rows before trans number and block, left by dropped partition
+     */
+    Integer removeBefore(@Param("tableName") String tableName,
+        @Param("beforeTransNumber") long beforeTransNumber,
+        @Param("beforeBlock") BigInteger beforeBlock, @Param("limit") int limit);
+}
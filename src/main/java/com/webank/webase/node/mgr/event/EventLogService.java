@@ -0,0 +1,252 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.event;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.event.entity.EventLogParam;
+import com.webank.webase.node.mgr.event.entity.TbEventLog;
+import com.webank.webase.node.mgr.method.MethodService;
+import com.webank.webase.node.mgr.method.entity.TbMethod;
+import com.webank.webase.node.mgr.table.TableService;
+import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.fisco.bcos.sdk.abi.wrapper.ABIDefinition;
+import org.fisco.bcos.sdk.model.TransactionReceipt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * event log of receipts fetched when pulling block saved in tb_event_log_x with event name and
+ * signature decoded from saved abi, and queried by contract address and topics locally
+ * instead of scanning blocks by front.
+ */
+@Log4j2
+@Service
+public class EventLogService {
+
+    private static final String METHOD_TYPE_EVENT = "event";
+    private static final int MAX_TOPIC_COUNT = 4;
+    private static final int EVENT_CACHE_MAX = 10000;
+    /**
+     * cached for topic of which event abi not saved
+     */
+    private static final String[] UNKNOWN_EVENT = new String[2];
+
+    @Autowired
+    private EventLogMapper eventLogMapper;
+    @Autowired
+    private TableService tableService;
+    @Autowired
+    private MethodService methodService;
+    @Autowired
+    private ConstantProperties cProperties;
+
+    /**
+     * groups of which table created, logs not saved before that
+     */
+    private final Set<Integer> tableReadyGroups = ConcurrentHashMap.newKeySet();
+    /**
+     * key: groupId_topic0, value: event name and signature, expired so abi saved later is seen
+     */
+    private Cache<String, String[]> eventCache;
+
+    @PostConstruct
+    public void init() {
+        eventCache = CacheBuilder.newBuilder().maximumSize(EVENT_CACHE_MAX)
+            .expireAfterWrite(cProperties.getLocalIndexCheckInterval(), TimeUnit.MILLISECONDS)
+            .build();
+    }
+
+    /**
+     * create table if not exists, called before pulling block as ddl commits transaction
+     */
+    public void ensureTable(int groupId) {
+        if (!tableReadyGroups.contains(groupId)) {
+            tableService.createEventLog(groupId);
+            tableReadyGroups.add(groupId);
+        }
+    }
+
+    /**
+     * save logs of receipt of saved transaction.
+     */
+    public void addLogs(int groupId, TbTransHash tbTransHash, TransactionReceipt receipt) {
+        if (tbTransHash.getTransNumber() == null || receipt == null
+            || !tableReadyGroups.contains(groupId)) {
+            return;
+        }
+        List<TbEventLog> eventLogList = toEventLogList(tbTransHash, receipt.getLogs());
+        for (TbEventLog eventLog : eventLogList) {
+            fillEvent(groupId, eventLog);
+        }
+        if (!eventLogList.isEmpty()) {
+            eventLogMapper.batchAdd(TableName.EVENT_LOG.getTableName(groupId), eventLogList);
+        }
+    }
+
+    /**
+     * one row of each log, index of log in receipt as log index
+     */
+    public static List<TbEventLog> toEventLogList(TbTransHash tbTransHash,
+        List<TransactionReceipt.Logs> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<TbEventLog> eventLogList = new ArrayList<>(logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            TransactionReceipt.Logs receiptLog = logs.get(i);
+            if (StringUtils.isBlank(receiptLog.getAddress())) {
+                continue;
+            }
+            TbEventLog eventLog = new TbEventLog();
+            eventLog.setBlockNumber(tbTransHash.getBlockNumber());
+            eventLog.setTransNumber(tbTransHash.getTransNumber());
+            eventLog.setLogIndex(i);
+            eventLog.setTransHash(tbTransHash.getTransHash());
+            eventLog.setAddress(receiptLog.getAddress());
+            List<String> topics = receiptLog.getTopics() == null ? Collections.emptyList()
+                : receiptLog.getTopics();
+            String[] topicArray = new String[MAX_TOPIC_COUNT];
+            for (int j = 0; j < topics.size() && j < MAX_TOPIC_COUNT; j++) {
+                topicArray[j] = topics.get(j);
+            }
+            eventLog.setTopic0(topicArray[0]);
+            eventLog.setTopic1(topicArray[1]);
+            eventLog.setTopic2(topicArray[2]);
+            eventLog.setTopic3(topicArray[3]);
+            eventLog.setData(receiptLog.getData());
+            eventLog.setBlockTimestamp(tbTransHash.getBlockTimestamp());
+            eventLogList.add(eventLog);
+        }
+        return eventLogList;
+    }
+
+    /**
+     * query event log of contract, event not decoded when saved resolved again by topic0.
+     */
+    public List<TbEventLog> queryEventLogList(int groupId, EventLogParam param) {
+        log.debug("start queryEventLogList groupId:{} param:{}", groupId, param);
+        List<TbEventLog> eventLogList;
+        try {
+            ensureTable(groupId);
+            eventLogList = eventLogMapper.getList(TableName.EVENT_LOG.getTableName(groupId), param);
+        } catch (RuntimeException ex) {
+            log.error("fail queryEventLogList groupId:{} param:{}", groupId, param, ex);
+            throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
+        }
+        for (TbEventLog eventLog : eventLogList) {
+            if (eventLog.getEventName() == null) {
+                fillEvent(groupId, eventLog);
+            }
+        }
+        return eventLogList;
+    }
+
+    /**
+     * count of matched logs, at most eventLogCountMax
+     */
+    public Integer queryCountOfEventLog(int groupId, EventLogParam param) {
+        try {
+            ensureTable(groupId);
+            Integer count = eventLogMapper.getCount(TableName.EVENT_LOG.getTableName(groupId),
+                param, cProperties.getEventLogCountMax());
+            return count == null ? 0 : count;
+        } catch (RuntimeException ex) {
+            log.error("fail queryCountOfEventLog groupId:{} param:{}", groupId, param, ex);
+            throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
+        }
+    }
+
+    /**
+     * set event name and signature of topic0 if abi of event saved
+     */
+    private void fillEvent(int groupId, TbEventLog eventLog) {
+        String topic = eventLog.getTopic0();
+        if (topic == null) {
+            return;
+        }
+        String[] event;
+        try {
+            event = eventCache.get(groupId + "_" + topic, () -> loadEvent(groupId, topic));
+        } catch (ExecutionException ex) {
+            log.warn("fail load event of topic:{} groupId:{}", topic, groupId, ex);
+            return;
+        }
+        eventLog.setEventName(event[0]);
+        eventLog.setEventSignature(event[1]);
+    }
+
+    /**
+     * @return name and signature, UNKNOWN_EVENT if event of topic not found
+     */
+    private String[] loadEvent(int groupId, String topic) {
+        TbMethod method = methodService.getByMethodId(topic, groupId);
+        if (method == null || !METHOD_TYPE_EVENT.equals(method.getMethodType())) {
+            return UNKNOWN_EVENT;
+        }
+        ABIDefinition abiDefinition = JsonTools.toJavaObject(method.getAbiInfo(),
+            ABIDefinition.class);
+        return abiDefinition == null ? UNKNOWN_EVENT
+            : new String[]{abiDefinition.getName(), abiDefinition.getMethodSignatureAsString()};
+    }
+
+    /**
+     * remove logs of transactions deleted by retention.
+     */
+    public Integer removeBetween(int groupId, long fromTransNumber, long toTransNumber,
+        BigInteger beforeBlock) {
+        ensureTable(groupId);
+        return eventLogMapper.removeBetween(TableName.EVENT_LOG.getTableName(groupId),
+            fromTransNumber, toTransNumber, beforeBlock);
+    }
+
+    /**
+     * remove logs of transactions in dropped partitions chunk by chunk until deadline.
+     */
+    public long removeBefore(int groupId, long beforeTransNumber, BigInteger beforeBlock,
+        long deadline) {
+        ensureTable(groupId);
+        String tableName = TableName.EVENT_LOG.getTableName(groupId);
+        int limit = cProperties.getRetentionChunkMax();
+        long removed = 0;
+        Integer affectRow;
+        do {
+            affectRow = eventLogMapper.removeBefore(tableName, beforeTransNumber, beforeBlock,
+                limit);
+            removed += affectRow == null ? 0 : affectRow;
+        } while (affectRow != null && affectRow >= limit
+            && System.currentTimeMillis() < deadline);
+        return removed;
+    }
+
+    public void removeGroup(int groupId) {
+        tableReadyGroups.remove(groupId);
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.event.entity;
+
+import com.webank.webase.node.mgr.base.entity.BaseQueryParam;
+import java.math.BigInteger;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * param of query event log of contract, sorted by (block number, trans number, log index) desc.
+ * topic and block not filtered if null, page sought after cursor if set.
+ */
+@Data
+@NoArgsConstructor
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class EventLogParam extends BaseQueryParam {
+    private String contractAddress;
+    private String topic0;
+    private String topic1;
+    private String topic2;
+    private String topic3;
+    private BigInteger fromBlock;
+    private BigInteger toBlock;
+    private BigInteger cursorBlockNumber;
+    private Long cursorTransNumber;
+    private Integer cursorLogIndex;
+}
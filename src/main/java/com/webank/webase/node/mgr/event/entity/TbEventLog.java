@@ -0,0 +1,53 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.event.entity;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class of table tb_event_log, log of transaction receipt.
+ */
+@Data
+@NoArgsConstructor
+public class TbEventLog {
+
+    private BigInteger blockNumber;
+    private Long transNumber;
+    /**
+     * index of log in receipt
+     */
+    private Integer logIndex;
+    private String transHash;
+    private String address;
+    /**
+     * topic0 is event signature, topic1 to topic3 are indexed params
+     */
+    private String topic0;
+    private String topic1;
+    private String topic2;
+    private String topic3;
+    /**
+     * abi encoded non-indexed params, not decoded
+     */
+    private String data;
+    private LocalDateTime blockTimestamp;
+    /**
+     * decoded from event method of topic0 when saved, null if abi of event not saved then
+     */
+    private String eventName;
+    private String eventSignature;
+}
@@ -15,6 +15,7 @@
 package com.webank.webase.node.mgr.external;
 
 import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.enums.ExternalInfoType;
 import com.webank.webase.node.mgr.base.enums.HasPk;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.external.entity.RspAllExtAccount;
@@ -51,7 +52,7 @@ public class ExtAccountService {
         }
         TbExternalAccount tbAccount = new TbExternalAccount();
         // check tb_user's address
-        TbUser addressRow = userService.queryUser(null, groupId, null, userAddress, null);
+        TbUser addressRow = userService.queryByUserAddress(groupId, userAddress);
         if (Objects.nonNull(addressRow)) {
             log.debug("saveAccountOnChain exists tb_user groupId:{} address:{}", groupId, userAddress);
             tbAccount.setUserName(tbAccount.getUserName());
@@ -108,6 +109,29 @@ public class ExtAccountService {
 
     public List<RspAllExtAccount> getAllExtAccountLeftJoinUser(UserParam param) {
         log.info("getAllExtAccountLeftJoinUser param:{}", param);
-        return extAccountMapper.listAccountJoinTbUser(param);
+        // filter by user's column in sql, otherwise fill user from cache
+        boolean filterByUser = param.getAccount() != null || param.getCommParam() != null
+            || (param.getType() != null && param.getType() != ExternalInfoType.ALL.getValue());
+        if (filterByUser) {
+            return extAccountMapper.listAccountJoinTbUser(param);
+        }
+        List<RspAllExtAccount> accountList = extAccountMapper.listAccountJoinMonitor(param);
+        for (RspAllExtAccount extAccount : accountList) {
+            TbUser user = userService.queryByUserAddress(extAccount.getGroupId(),
+                extAccount.getAddress());
+            if (user != null) {
+                extAccount.setUserId(user.getUserId());
+                extAccount.setUserName(user.getUserName());
+                extAccount.setAccount(user.getAccount());
+                extAccount.setPublicKey(user.getPublicKey());
+                extAccount.setSignUserId(user.getSignUserId());
+                extAccount.setUserType(user.getUserType());
+                extAccount.setUserStatus(user.getUserStatus());
+                extAccount.setAppId(user.getAppId());
+                extAccount.setDescription(user.getDescription());
+                extAccount.setHasPk(user.getHasPk());
+            }
+        }
+        return accountList;
     }
 }
@@ -23,6 +23,9 @@ public interface TbExternalAccountMapper {
     @SelectProvider(type = TbExternalAccountSqlProvider.class, method = "listJoin")
     List<RspAllExtAccount> listAccountJoinTbUser(UserParam param);
 
+    @SelectProvider(type = TbExternalAccountSqlProvider.class, method = "listJoinMonitor")
+    List<RspAllExtAccount> listAccountJoinMonitor(UserParam param);
+
     @Delete({ "delete from tb_external_account", "where group_id = #{groupId,jdbcType=INTEGER}" })
     int deleteByGroupId(Integer groupId);
 
@@ -58,6 +58,29 @@ public class TbExternalAccountSqlProvider {
         return sql.toString();
     }
 
+    /**
+     * same as listJoin without tb_user, user info is filled from user cache
+     */
+    public String listJoinMonitor(UserParam param) {
+        SQL sql = new SQL();
+        String sqlStr = "ext.id extAccountId,ext.group_id groupId,ext.address address,ext.create_time createTime,ext.modify_time modifyTime, " +
+            "c.transCount,c.hashs " +
+            "FROM tb_external_account ext " +
+            "LEFT JOIN " +
+            "( SELECT distinct(user_name),sum(trans_count) transCount, max(trans_hashs) hashs " +
+            "FROM tb_user_transaction_monitor_${groupId} WHERE user_type=1 group by user_name" +
+            ") c on ext.address=c.user_name";
+        sql.SELECT(sqlStr);
+        if (param.getGroupId() != null) {
+            sql.WHERE("ext.group_id = #{groupId}");
+        }
+        sql.ORDER_BY("ext.modify_time desc");
+        if (param.getStart() != null && param.getPageSize() != null) {
+            sql.LIMIT(param.getStart() + "," +param.getPageSize());
+        }
+        return sql.toString();
+    }
+
     public String count(UserParam param) {
         SQL sql = new SQL();
         sql.SELECT("count(1) from tb_external_account ext "
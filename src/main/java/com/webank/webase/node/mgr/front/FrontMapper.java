@@ -72,6 +72,12 @@ public interface FrontMapper {
 
     TbFront getByNodeId(@Param("nodeId") String nodeId);
 
+    List<TbFront> selectByNodeIdList(@Param("nodeIdList") List<String> nodeIdList);
+
+    int batchUpdateStatus(@Param("frontIdList") List<Integer> frontIdList,
+                          @Param("status") int status,
+                          @Param("modifyTime") LocalDateTime now);
+
     @Update({
             "update tb_front set front_version=#{frontVersion},sign_version=#{signVersion},modify_time=NOW() where chain_id = #{chainId}"
     })
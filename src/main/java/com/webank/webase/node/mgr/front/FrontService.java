@@ -1313,6 +1313,27 @@ public class FrontService {
         return frontList;
     }
 
+    /**
+     * select front list by node id list in one query
+     */
+    public List<TbFront> selectByNodeIdList(List<String> nodeIdList) {
+        if (CollectionUtils.isEmpty(nodeIdList)) {
+            return new ArrayList<>();
+        }
+        return frontMapper.selectByNodeIdList(nodeIdList);
+    }
+
+    /**
+     * update status of front list in one statement
+     */
+    public void batchUpdateStatus(List<Integer> frontIdList, FrontStatusEnum newStatus) {
+        if (CollectionUtils.isEmpty(frontIdList)) {
+            return;
+        }
+        log.info("Update front list:{} status to:[{}]", frontIdList, newStatus.toString());
+        this.frontMapper.batchUpdateStatus(frontIdList, newStatus.getId(), LocalDateTime.now());
+    }
+
     /**
      * require if webase >= 1.3.1(dynamic group), fisco >= 2.4.1
      * ignore: require if webase <= 1.3.2, fisco < 2.5.0
@@ -29,6 +29,7 @@ import com.webank.webase.node.mgr.group.entity.ReqUpdateDesc;
 import com.webank.webase.node.mgr.group.entity.RspGroupStatus;
 import com.webank.webase.node.mgr.group.entity.RspOperateResult;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
+import com.webank.webase.node.mgr.retention.RetentionService;
 import com.webank.webase.node.mgr.scheduler.ResetGroupListTask;
 import com.webank.webase.node.mgr.scheduler.StatisticsTransdailyTask;
 import com.webank.webase.node.mgr.tools.JsonTools;
@@ -66,9 +67,13 @@ public class GroupController extends BaseController {
     @Autowired
     private TransDailyService transDailyService;
     @Autowired
+    private RetentionService retentionService;
+    @Autowired
     private StatisticsTransdailyTask statisticsTask;
     @Autowired
     private ResetGroupListTask resetGroupListTask;
+    @Autowired
+    private GroupOverviewCache groupOverviewCache;
     
 
     /**
@@ -85,12 +90,14 @@ public class GroupController extends BaseController {
 
         int statisticTimes = 0;// if transCount less than blockNumber,statistics again
         while (true) {
-            groupGeneral = groupService.queryGroupGeneral(groupId);
+            groupGeneral = groupOverviewCache.getGeneral(groupId,
+                () -> groupService.queryGroupGeneral(groupId));
             BigInteger transactionCount = groupGeneral.getTransactionCount();
             BigInteger latestBlock = groupGeneral.getLatestBlock();
             if (transactionCount.compareTo(latestBlock) < 0 && statisticTimes == 0) {
                 statisticTimes += 1;
                 statisticsTask.updateTransdailyData();
+                groupOverviewCache.invalidate(groupId);
                 continue;
             } else {
                 break;
@@ -203,7 +210,8 @@ public class GroupController extends BaseController {
         log.info("start getTransDaily startTime:{} groupId:{}", startTime.toEpochMilli(), groupId);
 
         // query trans daily
-        List<SeventDaysTrans> listTrans = transDailyService.listSeventDayOfTrans(groupId);
+        List<SeventDaysTrans> listTrans = groupOverviewCache.getTransDaily(groupId,
+            () -> transDailyService.listSeventDayOfTrans(groupId));
         pageResponse.setData(listTrans);
 
         log.info("end getAllGroup useTime:{} result:{}",
@@ -212,6 +220,16 @@ public class GroupController extends BaseController {
         return pageResponse;
     }
 
+    /**
+     * progress of block and trans retention of group.
+     */
+    @GetMapping("/retention/{groupId}")
+    public BaseResponse getRetentionProgress(@PathVariable("groupId") Integer groupId) {
+        BaseResponse response = new BaseResponse(ConstantCode.SUCCESS);
+        response.setData(retentionService.listProgress(groupId));
+        return response;
+    }
+
     /**
      * generate group to single node(single front)
      */
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.group;
+
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * mapper for table tb_group_lease and tb_lease_instance,
+ * expire time is compared with time of database to avoid clock drift of instances.
+ */
+@Repository
+public interface GroupLeaseMapper {
+
+    /**
+     * insert or renew heartbeat of instance
+     */
+    int saveInstance(@Param("instanceId") String instanceId, @Param("ttl") int ttl);
+
+    int countLiveInstance();
+
+    int deleteExpiredInstance();
+
+    /**
+     * renew all unexpired lease of owner
+     */
+    int renewLease(@Param("owner") String owner, @Param("ttl") int ttl);
+
+    List<Integer> listOwnedGroup(@Param("owner") String owner);
+
+    /**
+     * claim group never leased, return 0 if leased by any instance
+     */
+    int insertLease(@Param("groupId") Integer groupId, @Param("owner") String owner,
+        @Param("ttl") int ttl);
+
+    /**
+     * claim group of which lease expired, return 0 if still leased
+     */
+    int claimExpiredLease(@Param("groupId") Integer groupId, @Param("owner") String owner,
+        @Param("ttl") int ttl);
+
+    int releaseLease(@Param("groupId") Integer groupId, @Param("owner") String owner);
+
+    int deleteByGroupId(@Param("groupId") Integer groupId);
+}
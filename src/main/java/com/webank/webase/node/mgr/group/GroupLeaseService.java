@@ -0,0 +1,149 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.group;
+
+import com.webank.webase.node.mgr.base.enums.GroupStatus;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.group.entity.TbGroup;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+/**
+ * lease of group stored in database, each instance owns a fair share of groups
+ * to pull block, audit transaction, stat and delete data, and takes over groups
+ * whose lease expired when other instance is down. all groups are owned if lease disabled.
+ */
+@Log4j2
+@Service
+public class GroupLeaseService {
+
+    @Autowired
+    private GroupLeaseMapper groupLeaseMapper;
+    @Autowired
+    @Lazy
+    private GroupService groupService;
+    @Autowired
+    private ConstantProperties constantProperties;
+
+    private String instanceId;
+    private volatile Set<Integer> ownedGroupSet = Collections.emptySet();
+    /**
+     * local time until which owned groups are valid, stop working if renew failed
+     */
+    private volatile long ownedUntil = 0L;
+
+    @PostConstruct
+    public void init() {
+        instanceId = constantProperties.getInstanceId();
+        if (StringUtils.isBlank(instanceId)) {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException ex) {
+                host = "node-mgr";
+            }
+            instanceId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        log.info("group lease enable:{} instanceId:{}", constantProperties.isGroupLeaseEnable(),
+            instanceId);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public boolean isOwner(int groupId) {
+        if (!constantProperties.isGroupLeaseEnable()) {
+            return true;
+        }
+        return System.currentTimeMillis() < ownedUntil && ownedGroupSet.contains(groupId);
+    }
+
+    /**
+     * groups owned by this instance in group list
+     */
+    public List<TbGroup> filterOwned(List<TbGroup> groupList) {
+        if (groupList == null || !constantProperties.isGroupLeaseEnable()) {
+            return groupList;
+        }
+        return groupList.stream().filter(group -> isOwner(group.getGroupId()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * renew heartbeat and leases of this instance, release groups more than fair share
+     * so that new instance could claim, then claim free or expired groups up to fair share
+     */
+    public synchronized void renewLease() {
+        if (!constantProperties.isGroupLeaseEnable()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        int ttl = (int) Math.max(constantProperties.getGroupLeaseTimeout() / 1000, 1L);
+        groupLeaseMapper.saveInstance(instanceId, ttl);
+        groupLeaseMapper.renewLease(instanceId, ttl);
+
+        List<Integer> groupIdList = groupService.getGroupList(GroupStatus.NORMAL.getValue())
+            .stream().map(TbGroup::getGroupId).collect(Collectors.toList());
+        int instanceCount = Math.max(groupLeaseMapper.countLiveInstance(), 1);
+        int fairShare = (groupIdList.size() + instanceCount - 1) / instanceCount;
+
+        Set<Integer> owned = new HashSet<>(groupLeaseMapper.listOwnedGroup(instanceId));
+        owned.retainAll(groupIdList);
+        List<Integer> releaseList = new ArrayList<>(owned);
+        Collections.sort(releaseList);
+        for (int i = fairShare; i < releaseList.size(); i++) {
+            Integer groupId = releaseList.get(i);
+            groupLeaseMapper.releaseLease(groupId, instanceId);
+            owned.remove(groupId);
+            log.info("release lease of group:{} fairShare:{}", groupId, fairShare);
+        }
+        // shuffle to reduce conflict of instances claiming at the same time
+        List<Integer> claimList = new ArrayList<>(groupIdList);
+        claimList.removeAll(owned);
+        Collections.shuffle(claimList);
+        for (Integer groupId : claimList) {
+            if (owned.size() >= fairShare) {
+                break;
+            }
+            if (groupLeaseMapper.insertLease(groupId, instanceId, ttl) > 0
+                || groupLeaseMapper.claimExpiredLease(groupId, instanceId, ttl) > 0) {
+                owned.add(groupId);
+                log.info("claim lease of group:{} instanceId:{}", groupId, instanceId);
+            }
+        }
+        ownedGroupSet = Collections.unmodifiableSet(owned);
+        ownedUntil = startTime + constantProperties.getGroupLeaseTimeout();
+        groupLeaseMapper.deleteExpiredInstance();
+        log.debug("end renewLease instanceCount:{} fairShare:{} owned:{}", instanceCount,
+            fairShare, owned);
+    }
+
+    public void deleteByGroupId(int groupId) {
+        groupLeaseMapper.deleteByGroupId(groupId);
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.group;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.group.entity.GroupGeneral;
+import com.webank.webase.node.mgr.transdaily.SeventDaysTrans;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * read-through cache of group overview keyed by group id, expired by ttl of each endpoint,
+ * and invalidated when new block of group saved. concurrent misses of a group load once.
+ * invalidation is local: instances not pulling blocks of the group rely on the ttl only.
+ */
+@Log4j2
+@Component
+public class GroupOverviewCache {
+
+    private final Cache<Integer, GroupGeneral> generalCache;
+    private final Cache<Integer, List<SeventDaysTrans>> transDailyCache;
+
+    @Autowired
+    public GroupOverviewCache(ConstantProperties constantProperties) {
+        this.generalCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(constantProperties.getGroupGeneralCacheTtl(), TimeUnit.MILLISECONDS)
+            .build();
+        this.transDailyCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(constantProperties.getTransDailyCacheTtl(), TimeUnit.MILLISECONDS)
+            .build();
+    }
+
+    /**
+     * @return copy of cached general, loaded by loader if absent, not cached if null
+     */
+    public GroupGeneral getGeneral(int groupId, Callable<GroupGeneral> loader) {
+        GroupGeneral cached = load(generalCache, groupId, loader);
+        if (cached == null) {
+            return null;
+        }
+        GroupGeneral res = new GroupGeneral();
+        BeanUtils.copyProperties(cached, res);
+        return res;
+    }
+
+    public List<SeventDaysTrans> getTransDaily(int groupId,
+        Callable<List<SeventDaysTrans>> loader) {
+        return load(transDailyCache, groupId, () -> {
+            List<SeventDaysTrans> transList = loader.call();
+            return transList == null ? null : Collections.unmodifiableList(transList);
+        });
+    }
+
+    /**
+     * drop entries of group, and again after commit if in transaction
+     */
+    public void invalidateAfterCommit(int groupId) {
+        invalidate(groupId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // entry may be loaded again by other thread before commit
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        invalidate(groupId);
+                    }
+                });
+        }
+    }
+
+    public void invalidate(int groupId) {
+        generalCache.invalidate(groupId);
+        transDailyCache.invalidate(groupId);
+    }
+
+    /**
+     * load through guava cache, null returned if loader returns null, which is not cached
+     */
+    private static <T> T load(Cache<Integer, T> cache, int groupId, Callable<T> loader) {
+        try {
+            return cache.get(groupId, () -> {
+                T value = loader.call();
+                if (value == null) {
+                    throw new AbsentValueException();
+                }
+                return value;
+            });
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof AbsentValueException) {
+                return null;
+            }
+            if (cause instanceof NodeMgrException) {
+                throw (NodeMgrException) cause;
+            }
+            log.error("fail load group overview of group:{}", groupId, cause);
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static class AbsentValueException extends Exception {
+    }
+}
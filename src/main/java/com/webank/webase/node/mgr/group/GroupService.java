@@ -16,6 +16,7 @@ package com.webank.webase.node.mgr.group;
 import static com.webank.webase.node.mgr.base.code.ConstantCode.INSERT_GROUP_ERROR;
 
 import com.webank.webase.node.mgr.contract.abi.AbiService;
+import com.webank.webase.node.mgr.archive.ArchiveService;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.entity.BaseResponse;
 import com.webank.webase.node.mgr.base.enums.DataStatus;
@@ -43,6 +44,7 @@ import com.webank.webase.node.mgr.deploy.mapper.TbHostMapper;
 import com.webank.webase.node.mgr.deploy.service.AnsibleService;
 import com.webank.webase.node.mgr.deploy.service.DeployShellService;
 import com.webank.webase.node.mgr.deploy.service.PathService;
+import com.webank.webase.node.mgr.event.EventLogService;
 import com.webank.webase.node.mgr.external.ExtAccountService;
 import com.webank.webase.node.mgr.external.ExtContractService;
 import com.webank.webase.node.mgr.front.FrontMapper;
@@ -65,11 +67,17 @@ import com.webank.webase.node.mgr.group.entity.RspOperateResult;
 import com.webank.webase.node.mgr.group.entity.StatisticalGroupTransInfo;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
 import com.webank.webase.node.mgr.method.MethodService;
+import com.webank.webase.node.mgr.monitor.MonitorTransactionService;
 import com.webank.webase.node.mgr.node.NodeService;
 import com.webank.webase.node.mgr.node.entity.PeerInfo;
 import com.webank.webase.node.mgr.node.entity.TbNode;
+import com.webank.webase.node.mgr.search.NameSearchIndex;
 import com.webank.webase.node.mgr.statistic.StatService;
+import com.webank.webase.node.mgr.retention.RetentionService;
+import com.webank.webase.node.mgr.rowcount.RowCountService;
+import com.webank.webase.node.mgr.table.TablePartitionService;
 import com.webank.webase.node.mgr.table.TableService;
+import com.webank.webase.node.mgr.transaction.TransAddressService;
 import com.webank.webase.node.mgr.transdaily.TransDailyService;
 import java.io.IOException;
 import java.math.BigInteger;
@@ -138,6 +146,23 @@ public class GroupService {
     private TransDailyService transDailyService;
     @Autowired
     @Lazy
+    private RetentionService retentionService;
+    @Autowired
+    private TablePartitionService tablePartitionService;
+    @Autowired
+    private ArchiveService archiveService;
+    @Autowired
+    private RowCountService rowCountService;
+    @Autowired
+    private TransAddressService transAddressService;
+    @Autowired
+    private EventLogService eventLogService;
+    @Autowired
+    private GroupOverviewCache groupOverviewCache;
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+    @Autowired
+    @Lazy
     private BlockService blockService;
     @Autowired
     private DeployShellService deployShellService;
@@ -158,6 +183,12 @@ public class GroupService {
     private ExtContractService extContractService;
     @Autowired
     private StatService statService;
+    @Autowired
+    @Lazy
+    private MonitorTransactionService monitorTransactionService;
+    @Autowired
+    @Lazy
+    private GroupLeaseService groupLeaseService;
 
 
     @Autowired
@@ -256,7 +287,8 @@ public class GroupService {
      */
     public GroupGeneral queryGroupGeneral(int groupId) throws NodeMgrException {
         log.debug("start queryGroupGeneral groupId:{}", groupId);
-        GroupGeneral generalInfo = this.getGeneralAndUpdateNodeCount(groupId);
+        // node count updated by resetGroupList, not written when read
+        GroupGeneral generalInfo = groupMapper.getGeneral(groupId);
         if (generalInfo != null) {
             TotalTransCountInfo transCountInfo = frontInterface.getTotalTransactionCount(groupId);
             if (transCountInfo != null) {
@@ -267,20 +299,6 @@ public class GroupService {
         return generalInfo;
     }
 
-    /**
-     * update group count when refresh
-     * @param groupId
-     * @return
-     */
-    private GroupGeneral getGeneralAndUpdateNodeCount(int groupId) {
-        List<String> groupPeers = frontInterface.getGroupPeers(groupId);
-        groupMapper.updateNodeCount(groupId, groupPeers.size());
-        log.debug("getGeneralAndUpdateNodeCount gId:{} count:{}", groupId, groupPeers.size());
-        GroupGeneral groupGeneral = groupMapper.getGeneral(groupId);
-        // v1.5.0 count all contract on chain
-        return groupGeneral;
-    }
-
     /**
      * reset groupList.
      * synchronized to avoid deadlock
@@ -801,6 +819,22 @@ public class GroupService {
         extContractService.deleteByGroupId(groupId);
         // delete statistic block data
         statService.deleteByGroupId(groupId);
+        // delete audit checkpoint
+        monitorTransactionService.deleteCheckpoint(groupId);
+        // delete group lease
+        groupLeaseService.deleteByGroupId(groupId);
+        // clear retention progress
+        retentionService.removeGroup(groupId);
+        tablePartitionService.removeGroup(groupId);
+        // delete archive segments
+        archiveService.deleteByGroupId(groupId);
+        // delete row count
+        rowCountService.deleteByGroupId(groupId);
+        // clear address index progress
+        transAddressService.removeGroup(groupId);
+        eventLogService.removeGroup(groupId);
+        groupOverviewCache.invalidate(groupId);
+        nameSearchIndex.removeGroup(groupId);
         // drop table.
         tableService.dropTableByGroupId(groupId);
         log.warn("end removeAllDataByGroupId");
@@ -14,7 +14,9 @@
 package com.webank.webase.node.mgr.method;
 
 
+import com.webank.webase.node.mgr.base.entity.TableVersion;
 import com.webank.webase.node.mgr.method.entity.TbMethod;
+import java.util.List;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
@@ -23,6 +25,12 @@ public interface MethodMapper {
 
     void add(TbMethod tbMethod);
 
+    void batchAdd(@Param("list") List<TbMethod> list);
+
+    List<TbMethod> listFunctionByGroupId(@Param("groupId") int groupId);
+
+    TableVersion getFunctionVersion(@Param("groupId") int groupId);
+
     void removeByGroupId(@Param("groupId") int groupId);
 
     TbMethod getMethodById(@Param("methodId") String methodId, @Param("groupId") Integer groupId);
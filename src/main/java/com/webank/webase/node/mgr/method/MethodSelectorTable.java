@@ -0,0 +1,111 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.method;
+
+import com.webank.webase.node.mgr.method.entity.TbMethod;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * immutable table of function method keyed by 4-byte selector,
+ * selectors are kept sorted in int array and looked up by binary search.
+ * table is replaced by a new one on update, so reading needs no lock.
+ */
+public final class MethodSelectorTable {
+
+    public static final MethodSelectorTable EMPTY =
+        new MethodSelectorTable(new int[0], new TbMethod[0]);
+
+    private static final int SELECTOR_LENGTH = 10;
+
+    private final int[] selectors;
+    private final TbMethod[] methods;
+
+    private MethodSelectorTable(int[] selectors, TbMethod[] methods) {
+        this.selectors = selectors;
+        this.methods = methods;
+    }
+
+    /**
+     * whether method id is 4-byte selector of function, such as 0x12345678
+     */
+    public static boolean isSelector(String methodId) {
+        if (methodId == null || methodId.length() != SELECTOR_LENGTH
+            || !methodId.startsWith("0x")) {
+            return false;
+        }
+        for (int i = 2; i < SELECTOR_LENGTH; i++) {
+            if (Character.digit(methodId.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * selector string to int, call isSelector first
+     */
+    public static int toSelector(String methodId) {
+        return Integer.parseUnsignedInt(methodId.substring(2), 16);
+    }
+
+    /**
+     * @return null if not found
+     */
+    public TbMethod get(int selector) {
+        int index = Arrays.binarySearch(selectors, selector);
+        return index < 0 ? null : methods[index];
+    }
+
+    public boolean contains(int selector) {
+        return Arrays.binarySearch(selectors, selector) >= 0;
+    }
+
+    public int size() {
+        return selectors.length;
+    }
+
+    /**
+     * new table with methods added, existing selector and non-selector method are ignored
+     */
+    public MethodSelectorTable with(Collection<TbMethod> methodList) {
+        int[] newSelectors = new int[selectors.length + methodList.size()];
+        TbMethod[] newMethods = new TbMethod[newSelectors.length];
+        System.arraycopy(selectors, 0, newSelectors, 0, selectors.length);
+        System.arraycopy(methods, 0, newMethods, 0, methods.length);
+        int size = selectors.length;
+        for (TbMethod method : methodList) {
+            if (!isSelector(method.getMethodId())) {
+                continue;
+            }
+            int selector = toSelector(method.getMethodId());
+            // insertion into sorted part, few methods are added each time
+            int index = Arrays.binarySearch(newSelectors, 0, size, selector);
+            if (index >= 0) {
+                continue;
+            }
+            int insertAt = -index - 1;
+            System.arraycopy(newSelectors, insertAt, newSelectors, insertAt + 1, size - insertAt);
+            System.arraycopy(newMethods, insertAt, newMethods, insertAt + 1, size - insertAt);
+            newSelectors[insertAt] = selector;
+            newMethods[insertAt] = method;
+            size++;
+        }
+        if (size == selectors.length) {
+            return this;
+        }
+        return new MethodSelectorTable(Arrays.copyOf(newSelectors, size),
+            Arrays.copyOf(newMethods, size));
+    }
+}
@@ -14,22 +14,29 @@
 package com.webank.webase.node.mgr.method;
 
 import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.entity.TableVersion;
 import com.webank.webase.node.mgr.base.enums.ContractType;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.tools.Web3Tools;
 import com.webank.webase.node.mgr.method.entity.Method;
 import com.webank.webase.node.mgr.method.entity.NewMethodInputParam;
 import com.webank.webase.node.mgr.method.entity.TbMethod;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.extern.log4j.Log4j2;
 import org.fisco.bcos.sdk.crypto.CryptoSuite;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Log4j2
 @Service
@@ -39,6 +46,25 @@ public class MethodService {
     private MethodMapper methodMapper;
     @Autowired
     private CryptoSuite cryptoSuite;
+    @Autowired
+    private ConstantProperties constantProperties;
+
+    /**
+     * method of system contract is saved in group 0
+     */
+    private static final int SYSTEM_METHOD_GROUP_ID = 0;
+    /**
+     * key: groupId, value: selector table of function method in group
+     */
+    private final Map<Integer, MethodSelectorTable> selectorTableMap = new ConcurrentHashMap<>();
+    /**
+     * key: groupId, value: version of function rows in db at last check
+     */
+    private final Map<Integer, TableVersion> tableVersionMap = new ConcurrentHashMap<>();
+    /**
+     * key: groupId, value: time of last version check
+     */
+    private final Map<Integer, Long> versionCheckTimeMap = new ConcurrentHashMap<>();
 
     /**
      * save method by abi string
@@ -61,43 +87,63 @@ public class MethodService {
     }
 
     /**
-     * save method info
+     * save method info, new methods are inserted in one batch
+     * and added to selector table after commit
      */
     public void saveMethod(NewMethodInputParam newMethodInputParam, Integer type) {
         int groupId = newMethodInputParam.getGroupId();
         List<Method> methodList = newMethodInputParam.getMethodList();
-        TbMethod tbMethod = new TbMethod();
-        tbMethod.setGroupId(groupId);
-        tbMethod.setContractType(type);
-        //save each method
+        MethodSelectorTable table = getSelectorTable(groupId);
+        Map<String, TbMethod> newMethodMap = new LinkedHashMap<>();
         for (Method method : methodList) {
-            if (checkMethodExist(method.getMethodId(), groupId)) {
-                log.info("methodId of [{}] in group [{}] exist, jump over", method.getMethodId(), groupId);
+            if (MethodSelectorTable.isSelector(method.getMethodId())
+                && table.contains(MethodSelectorTable.toSelector(method.getMethodId()))) {
+                log.debug("methodId of [{}] in group [{}] exist, jump over", method.getMethodId(), groupId);
                 continue;
             }
+            TbMethod tbMethod = new TbMethod();
             BeanUtils.copyProperties(method, tbMethod);
-            methodMapper.add(tbMethod);
+            tbMethod.setGroupId(groupId);
+            tbMethod.setContractType(type);
+            newMethodMap.putIfAbsent(method.getMethodId(), tbMethod);
+        }
+        if (newMethodMap.isEmpty()) {
+            return;
+        }
+        // existing method of non-selector id is ignored by db
+        List<TbMethod> newMethodList = new ArrayList<>(newMethodMap.values());
+        methodMapper.batchAdd(newMethodList);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        addToSelectorTable(groupId, newMethodList);
+                    }
+                });
+        } else {
+            addToSelectorTable(groupId, newMethodList);
         }
     }
 
     /**
-     * checkMethod whether exist
-     * @param methodId
-     * @param groupId
-     * @return
+     * query by methodId, system contract method first.
+     * selector is looked up in memory, other method id such as event topic is queried in db
      */
-    private boolean checkMethodExist(String methodId, int groupId) {
-        TbMethod check = methodMapper.getMethodById(methodId, groupId);
-        if (Objects.nonNull(check)) {
-            return true;
+    public TbMethod getByMethodId(String methodId, Integer groupId) {
+        if (!MethodSelectorTable.isSelector(methodId)) {
+            return getByMethodIdFromDb(methodId, groupId);
         }
-        return false;
+        int selector = MethodSelectorTable.toSelector(methodId);
+        TbMethod systemMethod = getSelectorTable(SYSTEM_METHOD_GROUP_ID).get(selector);
+        if (Objects.nonNull(systemMethod)
+            && ContractType.SYSTEMCONTRACT.getValue() == systemMethod.getContractType()) {
+            return systemMethod;
+        }
+        return getSelectorTable(groupId).get(selector);
     }
 
-    /**
-     * query by methodId.
-     */
-    public TbMethod getByMethodId(String methodId, Integer groupId) {
+    private TbMethod getByMethodIdFromDb(String methodId, Integer groupId) {
         TbMethod tbMethod = methodMapper.getMethodById(methodId, null);
         if (Objects.nonNull(tbMethod)) {
             if (ContractType.SYSTEMCONTRACT.getValue() == tbMethod.getContractType().intValue()) {
@@ -109,6 +155,48 @@ public class MethodService {
         return null;
     }
 
+    /**
+     * selector table of group, loaded from db at first access,
+     * reloaded if methods saved by other instance
+     */
+    private MethodSelectorTable getSelectorTable(Integer groupId) {
+        if (groupId == null) {
+            return MethodSelectorTable.EMPTY;
+        }
+        checkVersion(groupId);
+        return selectorTableMap.computeIfAbsent(groupId, id -> {
+            MethodSelectorTable table = MethodSelectorTable.EMPTY
+                .with(methodMapper.listFunctionByGroupId(id));
+            log.info("load method selector table of group:{} size:{}", id, table.size());
+            return table;
+        });
+    }
+
+    /**
+     * drop selector table of group if function rows in db changed since last check,
+     * checked at most once per interval. version is read before table loaded,
+     * so rows saved between them lead to one more reload but never lost
+     */
+    private void checkVersion(int groupId) {
+        long now = System.currentTimeMillis();
+        Long checkTime = versionCheckTimeMap.get(groupId);
+        if (checkTime != null && now - checkTime < constantProperties.getLocalIndexCheckInterval()) {
+            return;
+        }
+        versionCheckTimeMap.put(groupId, now);
+        TableVersion version = methodMapper.getFunctionVersion(groupId);
+        TableVersion lastVersion = tableVersionMap.put(groupId, version);
+        if (lastVersion != null && !lastVersion.equals(version)) {
+            log.info("method of group:{} changed, reload selector table. version:{}", groupId,
+                version);
+            selectorTableMap.remove(groupId);
+        }
+    }
+
+    private void addToSelectorTable(int groupId, List<TbMethod> methodList) {
+        selectorTableMap.computeIfPresent(groupId, (id, table) -> table.with(methodList));
+    }
+
     /**
      * delete by groupId.
      */
@@ -117,6 +205,9 @@ public class MethodService {
             return;
         }
         methodMapper.removeByGroupId(groupId);
+        selectorTableMap.remove(groupId);
+        tableVersionMap.remove(groupId);
+        versionCheckTimeMap.remove(groupId);
     }
 
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.monitor;
+
+import com.webank.webase.node.mgr.monitor.entity.TbAuditCheckpoint;
+import java.math.BigInteger;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * mapper of audit checkpoint.
+ */
+@Repository
+public interface AuditCheckpointMapper {
+
+    TbAuditCheckpoint getByGroupId(@Param("groupId") Integer groupId);
+
+    /**
+     * insert or move checkpoint of group.
+     */
+    Integer save(TbAuditCheckpoint checkpoint);
+
+    /**
+     * move checkpoint only if not moved by others since read.
+     */
+    Integer move(@Param("groupId") Integer groupId, @Param("fromBlock") BigInteger fromBlock,
+        @Param("fromTransNumber") Long fromTransNumber, @Param("toBlock") BigInteger toBlock,
+        @Param("toTransNumber") Long toTransNumber);
+
+    Integer deleteByGroupId(@Param("groupId") Integer groupId);
+}
@@ -19,14 +19,24 @@ import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.base.entity.BasePageResponse;
 import com.webank.webase.node.mgr.base.entity.BaseResponse;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.enums.ExportFormat;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.monitor.entity.MonitorExportParam;
 import com.webank.webase.node.mgr.monitor.entity.TbMonitor;
 import com.webank.webase.node.mgr.monitor.entity.UnusualContractInfo;
 import com.webank.webase.node.mgr.monitor.entity.UnusualUserInfo;
+import com.webank.webase.node.mgr.tools.NodeMgrTools;
+import com.webank.webase.node.mgr.transaction.TransExportService;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -41,6 +51,8 @@ public class MonitorController {
 
     @Autowired
     private MonitorService monitorService;
+    @Autowired
+    private TransExportService transExportService;
 
     /**
      * monitor user list.
@@ -165,4 +177,64 @@ public class MonitorController {
             Duration.between(startTime, Instant.now()).toMillis(), JsonTools.toJSONString(pageResponse));
         return pageResponse;
     }
+
+    /**
+     * export monitor rows as ndjson or csv, streamed in chunks and sorted by (createTime, userName,
+     * contractName, interfaceName, userType, contractAddress, transType, transUnusualType).
+     * resume by key of the last row received.
+     */
+    @GetMapping(value = "/export/{groupId}")
+    public void exportMonitor(@PathVariable("groupId") Integer groupId,
+        @RequestParam(value = "format", defaultValue = "ndjson") String format,
+        @RequestParam(value = "afterCreateTime", required = false) String afterCreateTime,
+        @RequestParam(value = "afterUserName", required = false) String afterUserName,
+        @RequestParam(value = "afterContractName", required = false) String afterContractName,
+        @RequestParam(value = "afterInterfaceName", required = false) String afterInterfaceName,
+        @RequestParam(value = "afterUserType", required = false) Integer afterUserType,
+        @RequestParam(value = "afterContractAddress", required = false) String afterContractAddress,
+        @RequestParam(value = "afterTransType", required = false) Integer afterTransType,
+        @RequestParam(value = "afterTransUnusualType", required = false)
+            Integer afterTransUnusualType,
+        HttpServletResponse response) {
+        Instant startTime = Instant.now();
+        log.info("start exportMonitor. startTime:{} groupId:{} format:{} afterCreateTime:{} "
+                + "afterUserName:{} afterContractName:{} afterInterfaceName:{} afterUserType:{} "
+                + "afterContractAddress:{} afterTransType:{} afterTransUnusualType:{}",
+            startTime.toEpochMilli(), groupId, format, afterCreateTime, afterUserName,
+            afterContractName, afterInterfaceName, afterUserType, afterContractAddress,
+            afterTransType, afterTransUnusualType);
+        ExportFormat exportFormat = ExportFormat.getByValue(format);
+        if (exportFormat == null) {
+            throw new NodeMgrException(ConstantCode.PARAM_EXCEPTION);
+        }
+        LocalDateTime createTime = null;
+        if (StringUtils.isNotBlank(afterCreateTime)) {
+            if (afterUserName == null || afterContractName == null || afterUserType == null
+                || afterTransType == null || afterTransUnusualType == null) {
+                throw new NodeMgrException(ConstantCode.PARAM_EXCEPTION);
+            }
+            try {
+                createTime = NodeMgrTools.string2LocalDateTime(afterCreateTime, null);
+            } catch (DateTimeParseException ex) {
+                throw new NodeMgrException(ConstantCode.PARAM_EXCEPTION);
+            }
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition",
+            "attachment; filename=monitor_" + groupId + "." + exportFormat.getValue());
+        long count;
+        try {
+            count = transExportService.exportMonitor(groupId,
+                new MonitorExportParam(createTime, afterUserName, afterContractName,
+                    afterInterfaceName, afterUserType, afterContractAddress, afterTransType,
+                    afterTransUnusualType), exportFormat, response.getOutputStream());
+        } catch (IOException ex) {
+            // client disconnected, resumed by key of last row
+            log.warn("exportMonitor interrupted. groupId:{} error:{}", groupId, ex.getMessage());
+            return;
+        }
+        log.info("end exportMonitor useTime:{} count:{}",
+            Duration.between(startTime, Instant.now()).toMillis(), count);
+    }
 }
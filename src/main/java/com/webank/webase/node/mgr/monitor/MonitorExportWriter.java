@@ -0,0 +1,69 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.monitor;
+
+import com.webank.webase.node.mgr.base.enums.ExportFormat;
+import com.webank.webase.node.mgr.monitor.entity.TbMonitor;
+import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.tools.NodeMgrTools;
+import com.webank.webase.node.mgr.transaction.TransExportWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * write monitor row as one line of json or csv, key to resume export first.
+ */
+public class MonitorExportWriter {
+
+    private static final String CSV_HEADER = "create_time,user_name,contract_name,"
+        + "interface_name,user_type,contract_address,trans_type,trans_unusual_type,trans_count,"
+        + "trans_hashs,trans_hash_lastest,modify_time";
+
+    private final Writer writer;
+    private final ExportFormat format;
+
+    public MonitorExportWriter(Writer writer, ExportFormat format) {
+        this.writer = writer;
+        this.format = format;
+    }
+
+    /**
+     * header line of csv, nothing of ndjson
+     */
+    public void writeHeader() throws IOException {
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(TbMonitor monitor) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(JsonTools.toJSONString(monitor));
+        } else {
+            writer.write(TransExportWriter.toCsvLine(
+                NodeMgrTools.localDateTime2String(monitor.getCreateTime(), null),
+                monitor.getUserName(), monitor.getContractName(), monitor.getInterfaceName(),
+                monitor.getUserType(), monitor.getContractAddress(), monitor.getTransType(),
+                monitor.getTransUnusualType(), monitor.getTransCount(), monitor.getTransHashs(),
+                monitor.getTransHashLastest(),
+                NodeMgrTools.localDateTime2String(monitor.getModifyTime(), null)));
+        }
+        writer.write('\n');
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
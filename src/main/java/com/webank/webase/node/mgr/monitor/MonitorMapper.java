@@ -13,10 +13,13 @@
  */
 package com.webank.webase.node.mgr.monitor;
 
+import com.webank.webase.node.mgr.monitor.entity.MonitorExportParam;
 import com.webank.webase.node.mgr.monitor.entity.PageTransInfo;
 import com.webank.webase.node.mgr.monitor.entity.TbMonitor;
 import com.webank.webase.node.mgr.monitor.entity.UnusualContractInfo;
 import com.webank.webase.node.mgr.monitor.entity.UnusualUserInfo;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.apache.ibatis.annotations.Param;
@@ -35,7 +38,7 @@ public interface MonitorMapper {
     Integer deleteAndRetainMax(@Param("tableName") String tableName,
         @Param("monitorInfoRetainMax") Integer monitorInfoRetainMax);
 
-    void updateUnusualUser(@Param("tableName") String tableName,
+    Integer updateUnusualUser(@Param("tableName") String tableName,
         @Param("userName") String userName, @Param("address") String address);
 
     void updateUnusualContract(@Param("tableName") String tableName,
@@ -49,6 +52,12 @@ public interface MonitorMapper {
     TbMonitor queryTbMonitor(@Param("tableName") String tableName,
         @Param("monitor") TbMonitor tbMonitor);
 
+    /**
+     * one chunk of export, sorted by key after key in param
+     */
+    List<TbMonitor> listForExport(@Param("tableName") String tableName,
+        @Param("param") MonitorExportParam param, @Param("limit") int limit);
+
     List<TbMonitor> monitorUserList(@Param("tableName") String tableName);
 
     List<TbMonitor> monitorInterfaceList(@Param("tableName") String tableName,
@@ -58,13 +67,37 @@ public interface MonitorMapper {
 
     List<PageTransInfo> queryTransCountList(Map<String, Object> queryParam);
 
+    /**
+     * count of unusual user, by user name in list if list not null, or like user name
+     */
     Integer countOfUnusualUser(@Param("tableName") String tableName,
-        @Param("userName") String userName);
+        @Param("userName") String userName,
+        @Param("userNameList") Collection<String> userNameList);
+
+    List<NameEntry> listUnusualUserEntry(@Param("tableName") String tableName);
+
+    /**
+     * user name of list already monitored as unusual.
+     */
+    List<String> listUnusualUserIn(@Param("tableName") String tableName,
+        @Param("userNameList") Collection<String> userNameList);
 
     List<UnusualUserInfo> listOfUnusualUser(Map<String, Object> queryParam);
 
+    /**
+     * count of unusual contract, by address in list if list not null, or like address
+     */
     Integer countOfUnusualContract(@Param("tableName") String tableName,
-        @Param("contractAddress") String contractAddress);
+        @Param("contractAddress") String contractAddress,
+        @Param("contractAddressList") Collection<String> contractAddressList);
+
+    List<NameEntry> listUnusualContractEntry(@Param("tableName") String tableName);
+
+    /**
+     * contract address of list already monitored as unusual.
+     */
+    List<String> listUnusualContractIn(@Param("tableName") String tableName,
+        @Param("contractAddressList") Collection<String> contractAddressList);
 
     List<UnusualContractInfo> listOfUnusualContract(Map<String, Object> queryParam);
 }
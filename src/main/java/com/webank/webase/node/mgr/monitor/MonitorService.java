@@ -16,6 +16,8 @@ package com.webank.webase.node.mgr.monitor;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.entity.BaseResponse;
 import com.webank.webase.node.mgr.base.enums.MonitorUserType;
+import com.webank.webase.node.mgr.base.enums.RowCountKey;
+import com.webank.webase.node.mgr.base.enums.SearchType;
 import com.webank.webase.node.mgr.base.enums.TableName;
 import com.webank.webase.node.mgr.base.enums.TransType;
 import com.webank.webase.node.mgr.base.enums.TransUnusualType;
@@ -24,11 +26,11 @@ import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
 import com.webank.webase.node.mgr.tools.Web3Tools;
+import com.webank.webase.node.mgr.contract.ContractFingerprintIndex;
 import com.webank.webase.node.mgr.contract.ContractService;
 import com.webank.webase.node.mgr.contract.abi.AbiService;
 import com.webank.webase.node.mgr.contract.abi.entity.AbiInfo;
-import com.webank.webase.node.mgr.contract.abi.entity.ReqAbiListParam;
-import com.webank.webase.node.mgr.contract.entity.ContractParam;
+import com.webank.webase.node.mgr.contract.entity.ContractFingerprint;
 import com.webank.webase.node.mgr.contract.entity.TbContract;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
 import com.webank.webase.node.mgr.method.MethodService;
@@ -37,32 +39,48 @@ import com.webank.webase.node.mgr.monitor.entity.ChainTransInfo;
 import com.webank.webase.node.mgr.monitor.entity.ContractMonitorResult;
 import com.webank.webase.node.mgr.monitor.entity.MonitorTrans;
 import com.webank.webase.node.mgr.monitor.entity.PageTransInfo;
+import com.webank.webase.node.mgr.monitor.entity.TbAuditCheckpoint;
 import com.webank.webase.node.mgr.monitor.entity.TbMonitor;
 import com.webank.webase.node.mgr.monitor.entity.UnusualContractInfo;
 import com.webank.webase.node.mgr.monitor.entity.UnusualUserInfo;
 import com.webank.webase.node.mgr.monitor.entity.UserMonitorResult;
+import com.webank.webase.node.mgr.rowcount.RowCountService;
+import com.webank.webase.node.mgr.search.NameSearchIndex;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
 import com.webank.webase.node.mgr.transaction.TransHashService;
 import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
 import com.webank.webase.node.mgr.user.UserService;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.fisco.bcos.sdk.abi.wrapper.ABIDefinition;
+import org.fisco.bcos.sdk.client.protocol.model.JsonTransactionResponse;
+import org.fisco.bcos.sdk.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.client.protocol.response.BcosBlock.TransactionResult;
 import org.fisco.bcos.sdk.crypto.CryptoSuite;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 
 /**
  * MonitorService.
@@ -71,6 +89,19 @@ import org.springframework.stereotype.Service;
 @Service
 public class MonitorService {
 
+    /**
+     * count of transactions read after checkpoint per batch
+     */
+    private static final int AUDIT_BATCH_SIZE = 2000;
+    /**
+     * failed transaction stops the batch and is retried, skipped after max retry
+     */
+    private static final int MAX_AUDIT_RETRY = 3;
+    /**
+     * code returned by front if node is down
+     */
+    private static final int FRONT_NODE_DOWN = -1;
+
     @Autowired
     private MonitorMapper monitorMapper;
     @Autowired
@@ -88,8 +119,19 @@ public class MonitorService {
     @Autowired
     private MethodService methodService;
     @Autowired
+    private ContractFingerprintIndex contractFingerprintIndex;
+    @Autowired
     private ConstantProperties cProperties;
     @Autowired
+    private RowCountService rowCountService;
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    /**
+     * key: groupId_transHash, value: count of audit failure
+     */
+    private final Map<String, Integer> auditFailCountMap = new ConcurrentHashMap<>();
+    @Autowired
     private CryptoSuite cryptoSuite;
     @Autowired
     @Lazy
@@ -104,11 +146,10 @@ public class MonitorService {
         try {
             Instant startTimem = Instant.now();//start time
             Long useTimeSum = 0L;
-            LocalDateTime start = LocalDateTime.now(); //createTime of monitor info
-            LocalDateTime createTime = start;
             do {
-                List<TbTransHash> transHashList = transHashService
-                    .queryUnStatTransHashList(groupId);
+                TbAuditCheckpoint checkpoint = monitorTransactionService.getCheckpoint(groupId);
+                List<TbTransHash> transHashList = transHashService.queryTransListAfter(groupId,
+                    checkpoint.getBlockNumber(), checkpoint.getTransNumber(), AUDIT_BATCH_SIZE);
                 log.info("=== groupId:{} transHashList:{}", groupId, transHashList.size());
                 if (transHashList.size() == 0) {
                     log.debug("transMonitorByGroupId jump over. transHashList is empty");
@@ -120,20 +161,18 @@ public class MonitorService {
                 }
 
                 //monitor
-                for (TbTransHash trans : transHashList) {
-                    if (createTime.getDayOfYear() != trans.getBlockTimestamp().getDayOfYear()
-                        || start == createTime) {
-                        log.info(
-                            "============== createTime:{} blockTimestamp:{}",
-                            createTime,
-                            trans.getBlockTimestamp());
-                        log.info(
-                            "============== createData:{} blockTimestampData:{}",
-                            createTime.getDayOfYear(),
-                            trans.getBlockTimestamp().getDayOfYear());
-                        createTime = trans.getBlockTimestamp();
-                    }
-                    monitorTransHash(groupId, trans, createTime);
+                int auditedCount = auditTransBatch(groupId, checkpoint, transHashList);
+                if (auditedCount == 0) {
+                    log.warn("transMonitorByGroupId jump over. no transaction audited, groupId:{}",
+                        groupId);
+                    return;
+                }
+                try {
+                    Thread.sleep(cProperties.getAnalysisSleepTime());
+                } catch (InterruptedException e) {
+                    log.error("thread sleep fail", e);
+                    Thread.currentThread().interrupt();
+                    return;
                 }
 
                 //monitor useTime
@@ -172,7 +211,13 @@ public class MonitorService {
 
     public void updateUnusualUser(Integer groupId, String userName, String address) {
         log.info("start updateUnusualUser address:{}", address);
-        monitorMapper.updateUnusualUser(TableName.MONITOR.getTableName(groupId), userName, address);
+        Integer affectRow = monitorMapper
+            .updateUnusualUser(TableName.MONITOR.getTableName(groupId), userName, address);
+        if (affectRow != null && affectRow > 0) {
+            // address no longer unusual
+            rowCountService.addAfterCommit(groupId, RowCountKey.UNUSUAL_USER, -1);
+            nameSearchIndex.invalidate(SearchType.UNUSUAL_USER, groupId);
+        }
     }
 
     /**
@@ -209,6 +254,9 @@ public class MonitorService {
             //update monitor into
             monitorMapper.updateUnusualContract(tableName, contractName, subContractBin,
                 contractResult.getInterfaceName(), contractResult.getTransUnusualType());
+            // unusual contracts of rows updated are unknown, recount
+            rowCountService.reconcileLater(groupId);
+            nameSearchIndex.invalidate(SearchType.UNUSUAL_CONTRACT, groupId);
         } catch (Exception ex) {
             log.error("fail updateUnusualContract", ex);
         }
@@ -271,7 +319,19 @@ public class MonitorService {
      * query count of unusual user.
      */
     public Integer countOfUnusualUser(Integer groupId, String userName) {
-        return monitorMapper.countOfUnusualUser(TableName.MONITOR.getTableName(groupId), userName);
+        if (StringUtils.isBlank(userName)) {
+            Long count = rowCountService.getCount(groupId, RowCountKey.UNUSUAL_USER);
+            if (count != null) {
+                return count.intValue();
+            }
+        }
+        List<String> userNameList = matchUnusual(SearchType.UNUSUAL_USER, groupId, userName,
+            NameEntry::getName);
+        if (userNameList != null && userNameList.isEmpty()) {
+            return 0;
+        }
+        return monitorMapper.countOfUnusualUser(TableName.MONITOR.getTableName(groupId), userName,
+            userNameList);
     }
 
     /**
@@ -284,12 +344,18 @@ public class MonitorService {
             groupId, userName, pageNumber,
             pageSize);
 
+        List<String> userNameList = matchUnusual(SearchType.UNUSUAL_USER, groupId, userName,
+            NameEntry::getName);
+        if (userNameList != null && userNameList.isEmpty()) {
+            return new ArrayList<>();
+        }
         Integer start = Optional.ofNullable(pageNumber).map(page -> (page - 1) * pageSize)
             .orElse(null);
         String tableName = TableName.MONITOR.getTableName(groupId);
         List<String> nameList = Arrays
-            .asList("tableName", "groupId", "userName", "start", "pageSize");
-        List<Object> valueList = Arrays.asList(tableName, groupId, userName, start, pageSize);
+            .asList("tableName", "groupId", "userName", "userNameList", "start", "pageSize");
+        List<Object> valueList = Arrays.asList(tableName, groupId, userName, userNameList, start,
+            pageSize);
         Map<String, Object> param = NodeMgrTools.buidMap(nameList, valueList);
 
         List<UnusualUserInfo> listOfUnusualUser = monitorMapper.listOfUnusualUser(param);
@@ -303,8 +369,19 @@ public class MonitorService {
      * query count of unusual contract.
      */
     public Integer countOfUnusualContract(Integer groupId, String contractAddress) {
-        return monitorMapper
-            .countOfUnusualContract(TableName.MONITOR.getTableName(groupId), contractAddress);
+        if (StringUtils.isBlank(contractAddress)) {
+            Long count = rowCountService.getCount(groupId, RowCountKey.UNUSUAL_CONTRACT);
+            if (count != null) {
+                return count.intValue();
+            }
+        }
+        List<String> contractAddressList = matchUnusual(SearchType.UNUSUAL_CONTRACT, groupId,
+            contractAddress, NameEntry::getAddress);
+        if (contractAddressList != null && contractAddressList.isEmpty()) {
+            return 0;
+        }
+        return monitorMapper.countOfUnusualContract(TableName.MONITOR.getTableName(groupId),
+            contractAddress, contractAddressList);
     }
 
     /**
@@ -317,14 +394,19 @@ public class MonitorService {
             "start queryUnusualContractList groupId:{} userName:{} pageNumber:{} pageSize:{}",
             groupId, contractAddress, pageNumber, pageSize);
 
+        List<String> contractAddressList = matchUnusual(SearchType.UNUSUAL_CONTRACT, groupId,
+            contractAddress, NameEntry::getAddress);
+        if (contractAddressList != null && contractAddressList.isEmpty()) {
+            return new ArrayList<>();
+        }
         String tableName = TableName.MONITOR.getTableName(groupId);
         Integer start = Optional.ofNullable(pageNumber).map(page -> (page - 1) * pageSize)
             .orElse(null);
 
-        List<String> nameList = Arrays
-            .asList("tableName", "groupId", "contractAddress", "start", "pageSize");
+        List<String> nameList = Arrays.asList("tableName", "groupId", "contractAddress",
+            "contractAddressList", "start", "pageSize");
         List<Object> valueList = Arrays
-            .asList(tableName, groupId, contractAddress, start, pageSize);
+            .asList(tableName, groupId, contractAddress, contractAddressList, start, pageSize);
         Map<String, Object> param = NodeMgrTools.buidMap(nameList, valueList);
 
         List<UnusualContractInfo> listOfUnusualContract = monitorMapper
@@ -336,46 +418,191 @@ public class MonitorService {
     }
 
     /**
-     * monitor TransHash.
+     * resolve fuzzy user name or contract address to exact values by name index
+     * instead of like '%keyword%' in sql.
+     * @return null if keyword blank or more than nameSearchInMax matched, left to sql
      */
-    public void monitorTransHash(int groupId, TbTransHash trans, LocalDateTime createTime) {
+    private List<String> matchUnusual(SearchType type, int groupId, String keyword,
+        Function<NameEntry, String> term) {
+        if (StringUtils.isBlank(keyword)) {
+            return null;
+        }
+        return nameSearchIndex.searchValues(type, groupId, keyword, term, term);
+    }
 
-        try {
-            ChainTransInfo chanTrans = frontInterface
-                .getTransInfoByHash(groupId, trans.getTransHash());
-            if (Objects.isNull(chanTrans)) {
-                log.error("monitor jump over,invalid hash. groupId:{} hash:{}", groupId,
-                    trans.getTransHash());
-                return;
+    /**
+     * audit a batch of transactions after checkpoint: fetch input by block,
+     * classify with caches of this batch, aggregate monitor rows by user, contract,
+     * interface and day, then flush rows and move checkpoint in one transaction.
+     * failed transaction stops the batch to be retried from it in next batch,
+     * and is skipped after failed MAX_AUDIT_RETRY times. front or database unavailable
+     * also stops the batch but not counted, the transaction is not to blame.
+     * @return count of audited or skipped transactions, 0 if checkpoint moved by others
+     */
+    public int auditTransBatch(int groupId, TbAuditCheckpoint checkpoint,
+        List<TbTransHash> transHashList) {
+        Map<BigInteger, Map<String, ChainTransInfo>> blockTransCache = new HashMap<>();
+        Map<String, UserMonitorResult> userCache = new HashMap<>();
+        Map<String, ContractMonitorResult> callCache = new HashMap<>();
+        Map<String, TbMonitor> monitorMap = new LinkedHashMap<>();
+        TbTransHash lastTrans = null;
+        int auditedCount = 0;
+        for (TbTransHash trans : transHashList) {
+            try {
+                ChainTransInfo chainTrans = getChainTransInfo(groupId, trans, blockTransCache);
+                if (Objects.isNull(chainTrans)) {
+                    log.error("monitor invalid hash. groupId:{} hash:{}", groupId,
+                        trans.getTransHash());
+                    if (retryLater(groupId, trans.getTransHash(), null)) {
+                        break;
+                    }
+                    lastTrans = trans;
+                    continue;
+                }
+                UserMonitorResult userResult = userCache.computeIfAbsent(trans.getTransFrom(),
+                    address -> monitorUser(groupId, address));
+                ContractMonitorResult contractRes;
+                if (isDeploy(chainTrans.getTo())) {
+                    contractRes = monitorContract(groupId, trans.getTransHash(),
+                        chainTrans.getTo(), chainTrans.getInput(), trans.getBlockNumber());
+                } else {
+                    // call of same contract and method shares the result in batch
+                    String callKey = chainTrans.getTo() + "_" + chainTrans.getInput().substring(0, 10);
+                    contractRes = callCache.get(callKey);
+                    if (contractRes == null) {
+                        contractRes = monitorContract(groupId, trans.getTransHash(),
+                            chainTrans.getTo(), chainTrans.getInput(), trans.getBlockNumber());
+                        callCache.put(callKey, contractRes);
+                    }
+                }
+
+                TbMonitor tbMonitor = new TbMonitor();
+                BeanUtils.copyProperties(userResult, tbMonitor);
+                BeanUtils.copyProperties(contractRes, tbMonitor);
+                tbMonitor.setTransHashs(trans.getTransHash());
+                tbMonitor.setTransHashLastest(trans.getTransHash());
+                tbMonitor.setTransCount(1);
+                tbMonitor.setCreateTime(trans.getBlockTimestamp().toLocalDate().atStartOfDay());
+                tbMonitor.setModifyTime(trans.getBlockTimestamp());
+                monitorMap.merge(getMonitorKey(tbMonitor), tbMonitor, this::mergeMonitor);
+                auditFailCountMap.remove(groupId + "_" + trans.getTransHash());
+                auditedCount++;
+            } catch (Exception ex) {
+                if (isUnavailable(ex)) {
+                    log.warn("audit stop at transaction:{}, front or db unavailable", trans.getTransHash(),
+                        ex);
+                    break;
+                }
+                if (retryLater(groupId, trans.getTransHash(), ex)) {
+                    break;
+                }
             }
+            lastTrans = trans;
+        }
+        log.info("auditTransBatch groupId:{} audited:{} monitorRows:{}", groupId,
+            auditedCount, monitorMap.size());
+        if (lastTrans == null) {
+            return 0;
+        }
+        //refresh transaction audit
+        if (!monitorTransactionService.flushAuditBatch(groupId, checkpoint,
+            new ArrayList<>(monitorMap.values()), lastTrans)) {
+            return 0;
+        }
+        return transHashList.indexOf(lastTrans) + 1;
+    }
 
-            // monitor user
-            UserMonitorResult userResult = monitorUser(groupId, trans.getTransFrom());
-            //monitor contract
-            ContractMonitorResult contractRes = monitorContract(groupId, trans.getTransHash(),
-                chanTrans.getTo(), chanTrans.getInput(), trans.getBlockNumber());
-
-            TbMonitor tbMonitor = new TbMonitor();
-            BeanUtils.copyProperties(userResult, tbMonitor);
-            BeanUtils.copyProperties(contractRes, tbMonitor);
-            tbMonitor.setTransHashs(trans.getTransHash());
-            tbMonitor.setTransHashLastest(trans.getTransHash());
-            tbMonitor.setTransCount(1);
-            tbMonitor.setCreateTime(createTime);
-            tbMonitor.setModifyTime(trans.getBlockTimestamp());
-            //refresh transaction audit
-            monitorTransactionService.dataAddAndUpdate(groupId, tbMonitor);
-        } catch (Exception ex) {
-            log.error("transaction:{} analysis fail...", trans.getTransHash(), ex);
-            return;
-        } finally {
-            try {
-                Thread.sleep(cProperties.getAnalysisSleepTime());
-            } catch (InterruptedException e) {
-                log.error("thread sleep fail", e);
-                Thread.currentThread().interrupt();
+    /**
+     * count failure of transaction
+     * @return true if retry from the transaction in next batch, false if jump over it
+     */
+    private boolean retryLater(int groupId, String transHash, Exception ex) {
+        String key = groupId + "_" + transHash;
+        int failCount = auditFailCountMap.merge(key, 1, Integer::sum);
+        if (failCount < MAX_AUDIT_RETRY) {
+            log.error("transaction:{} analysis fail, retry in next batch. failCount:{}",
+                transHash, failCount, ex);
+            return true;
+        }
+        log.error("transaction:{} analysis fail, jump over. failCount:{}", transHash, failCount,
+            ex);
+        auditFailCountMap.remove(key);
+        return false;
+    }
+
+    /**
+     * failure of request to front or database, which is not caused by the transaction
+     */
+    private static boolean isUnavailable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof NodeMgrException) {
+                Integer code = ((NodeMgrException) cause).getRetCode().getCode();
+                if (ConstantCode.REQUEST_FRONT_FAIL.getCode().equals(code)
+                    || ConstantCode.FRONT_LIST_NOT_FOUNT.getCode().equals(code)
+                    || ConstantCode.AVAILABLE_FRONT_URL_IS_NULL.getCode().equals(code)
+                    || Integer.valueOf(FRONT_NODE_DOWN).equals(code)) {
+                    return true;
+                }
+            }
+            if (cause instanceof RestClientException || cause instanceof IOException
+                || cause instanceof TransientDataAccessException
+                || cause instanceof RecoverableDataAccessException
+                || cause instanceof DataAccessResourceFailureException) {
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * get transaction input from block of the transaction, one request per block,
+     * fall back to query by hash if not found in block.
+     */
+    private ChainTransInfo getChainTransInfo(int groupId, TbTransHash trans,
+        Map<BigInteger, Map<String, ChainTransInfo>> blockTransCache) {
+        Map<String, ChainTransInfo> transMap = blockTransCache
+            .computeIfAbsent(trans.getBlockNumber(), number -> {
+                Map<String, ChainTransInfo> map = new HashMap<>();
+                BcosBlock.Block block = frontInterface.getBlockByNumber(groupId, number);
+                if (block == null || block.getTransactions() == null) {
+                    return map;
+                }
+                for (TransactionResult result : block.getTransactions()) {
+                    JsonTransactionResponse t = (JsonTransactionResponse) result;
+                    map.put(t.getHash(), new ChainTransInfo(t.getFrom(), t.getTo(),
+                        t.getInput(), number));
+                }
+                return map;
+            });
+        ChainTransInfo chainTrans = transMap.get(trans.getTransHash());
+        if (chainTrans == null) {
+            chainTrans = frontInterface.getTransInfoByHash(groupId, trans.getTransHash());
+        }
+        return chainTrans;
+    }
+
+    /**
+     * key of monitor row, same as columns matched by update of monitor
+     */
+    private String getMonitorKey(TbMonitor tbMonitor) {
+        return StringUtils.joinWith("|", tbMonitor.getUserName(), tbMonitor.getUserType(),
+            tbMonitor.getContractName(), tbMonitor.getContractAddress(),
+            tbMonitor.getInterfaceName(), tbMonitor.getTransType(),
+            tbMonitor.getTransUnusualType(), tbMonitor.getCreateTime());
+    }
+
+    /**
+     * merge later monitor row into former one, keep at most 5 trans hash.
+     */
+    private TbMonitor mergeMonitor(TbMonitor former, TbMonitor later) {
+        former.setTransCount(former.getTransCount() + later.getTransCount());
+        former.setTransHashs(
+            MonitorTransactionService.appendTransHashs(former.getTransHashs(), later.getTransHashs()));
+        former.setTransHashLastest(later.getTransHashLastest());
+        if (later.getModifyTime().isAfter(former.getModifyTime())) {
+            former.setModifyTime(later.getModifyTime());
+        }
+        return former;
     }
 
 
@@ -392,40 +619,23 @@ public class MonitorService {
             contractAddress = frontInterface.getAddressByHash(groupId, transHash);
             if (ConstantProperties.ADDRESS_DEPLOY.equals(contractAddress)) {
                 contractBin = StringUtils.removeStart(transInput, "0x");
-                
-                ContractParam param = new ContractParam();
-                param.setGroupId(groupId);
-                param.setPartOfBytecodeBin(contractBin);
-                TbContract tbContract = contractService.queryContract(param);
-                // add abi query
-                ReqAbiListParam paramTbAbi = new ReqAbiListParam();
-                paramTbAbi.setGroupId(groupId);
-                paramTbAbi.setPartOfContractBin(contractBin);
-                AbiInfo abiInfo = abiService.getAbiInfoByBin(paramTbAbi);
-                if (Objects.nonNull(tbContract)) {
-                    contractName = tbContract.getContractName();
-                } else if (Objects.nonNull(abiInfo)) {
-                    contractName = abiInfo.getContractName();
+                // match contract by fingerprint of deploy bin, constructor params ignored
+                ContractFingerprint contract = contractFingerprintIndex.getByDeployBin(groupId, contractBin);
+                if (Objects.nonNull(contract)) {
+                    contractName = contract.getContractName();
                 } else {
-                    contractName = getNameFromContractBin(groupId, contractBin);
+                    contractName = subContractBinForName(contractBin);
                     transUnusualType = TransUnusualType.CONTRACT.getValue();
                 }
             } else {
-                contractBin = frontInterface.getCodeFromFront(groupId, contractAddress, blockNumber);
-                contractBin = removeBinFirstAndLast(contractBin);
-
-                List<TbContract> contractRow = contractService.queryContractByBin(groupId, contractBin);
-                // add abi query
-                ReqAbiListParam paramTbAbi = new ReqAbiListParam();
-                paramTbAbi.setGroupId(groupId);
-                paramTbAbi.setPartOfContractBin(contractBin);
-                AbiInfo abiInfo = abiService.getAbiInfoByBin(paramTbAbi);
-                if (contractRow != null && contractRow.size() > 0) {
-                    contractName = contractRow.get(0).getContractName();
-                } else if (Objects.nonNull(abiInfo)) {
-                    contractName = abiInfo.getContractName();
+                String runtimeBin = frontInterface.getCodeFromFront(groupId, contractAddress, blockNumber);
+                contractBin = removeBinFirstAndLast(runtimeBin);
+                // match contract or abi by fingerprint of runtime bin
+                ContractFingerprint contract = contractFingerprintIndex.getByBin(groupId, runtimeBin);
+                if (Objects.nonNull(contract)) {
+                    contractName = contract.getContractName();
                 } else {
-                    contractName = getNameFromContractBin(groupId, contractBin);
+                    contractName = subContractBinForName(contractBin);
                     transUnusualType = TransUnusualType.CONTRACT.getValue();
                 }
             }
@@ -434,20 +644,20 @@ public class MonitorService {
             transType = TransType.CALL.getValue();
             String methodId = transInput.substring(0, 10);
             contractAddress = transTo;
-            contractBin = frontInterface.getCodeFromFront(groupId, contractAddress, blockNumber);
-            contractBin = removeBinFirstAndLast(contractBin);
+            String runtimeBin = frontInterface.getCodeFromFront(groupId, contractAddress, blockNumber);
+            contractBin = removeBinFirstAndLast(runtimeBin);
 
-            List<TbContract> contractRow = contractService.queryContractByBin(groupId, contractBin);
-            if (contractRow != null && contractRow.size() > 0) {
-                contractName = contractRow.get(0).getContractName();
-                interfaceName = getInterfaceName(methodId, contractRow.get(0).getContractAbi());
+            ContractFingerprint contract = contractFingerprintIndex.getByBin(groupId, runtimeBin);
+            if (Objects.nonNull(contract)) {
+                contractName = contract.getContractName();
+                interfaceName = getInterfaceName(methodId, getContractAbi(contract));
                 if (StringUtils.isBlank(interfaceName)) {
                     interfaceName = transInput.substring(0, 10);
                     transUnusualType = TransUnusualType.FUNCTION.getValue();
                 }
             } else {
                 // no contract name, use bin as contract name
-                contractName = getNameFromContractBin(groupId, contractBin);
+                contractName = subContractBinForName(contractBin);
                 TbMethod tbMethod = methodService.getByMethodId(methodId, groupId);
                 if (Objects.nonNull(tbMethod)) {
                     interfaceName = getInterfaceName(methodId, "[" + tbMethod.getAbiInfo() + "]");
@@ -474,6 +684,18 @@ public class MonitorService {
     }
 
 
+    /**
+     * abi of contract or abi matched by fingerprint.
+     */
+    private String getContractAbi(ContractFingerprint contract) {
+        if (contract.isFromAbi()) {
+            AbiInfo abiInfo = abiService.getAbiById(contract.getId());
+            return Objects.isNull(abiInfo) ? null : abiInfo.getContractAbi();
+        }
+        TbContract tbContract = contractService.queryByContractId(contract.getId());
+        return Objects.isNull(tbContract) ? null : tbContract.getContractAbi();
+    }
+
     /**
      * monitor user.
      */
@@ -550,17 +772,6 @@ public class MonitorService {
         return ConstantProperties.ADDRESS_DEPLOY.equals(address);
     }
 
-    /**
-     * get contractName from contractBin.
-     */
-    private String getNameFromContractBin(int groupId, String contractBin) {
-        List<TbContract> contractList = contractService.queryContractByBin(groupId, contractBin);
-        if (contractList != null && contractList.size() > 0) {
-            return contractList.get(0).getContractName();
-        }
-        return subContractBinForName(contractBin);
-    }
-
     /**
      * substring contractBin for contractName.
      */
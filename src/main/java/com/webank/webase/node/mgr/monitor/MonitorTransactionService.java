@@ -14,10 +14,27 @@
 package com.webank.webase.node.mgr.monitor;
 
 import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.base.enums.MonitorUserType;
+import com.webank.webase.node.mgr.base.enums.RowCountKey;
+import com.webank.webase.node.mgr.base.enums.SearchType;
 import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.base.enums.TransUnusualType;
+import com.webank.webase.node.mgr.monitor.entity.TbAuditCheckpoint;
 import com.webank.webase.node.mgr.monitor.entity.TbMonitor;
+import com.webank.webase.node.mgr.rowcount.RowCountService;
+import com.webank.webase.node.mgr.search.NameSearchIndex;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
 import com.webank.webase.node.mgr.transaction.TransHashService;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,29 +46,125 @@ public class MonitorTransactionService {
     private MonitorMapper monitorMapper;
     @Autowired
     private TransHashService transHashService;
+    @Autowired
+    private AuditCheckpointMapper auditCheckpointMapper;
+    @Autowired
+    private RowCountService rowCountService;
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    /**
+     * max count of trans hash kept in one monitor row
+     */
+    private static final int MAX_TRANS_HASHS = 5;
+
+    /**
+     * get audit checkpoint of group, init from statistics flag of transactions
+     * if group has no checkpoint, such as upgraded from version using flag.
+     */
+    public TbAuditCheckpoint getCheckpoint(int groupId) {
+        TbAuditCheckpoint checkpoint = auditCheckpointMapper.getByGroupId(groupId);
+        if (checkpoint != null) {
+            return checkpoint;
+        }
+        TbTransHash lastStat = transHashService.queryLastStatTrans(groupId);
+        checkpoint = lastStat == null
+            ? new TbAuditCheckpoint(groupId, BigInteger.ONE.negate(), 0L)
+            : new TbAuditCheckpoint(groupId, lastStat.getBlockNumber(), lastStat.getTransNumber());
+        auditCheckpointMapper.save(checkpoint);
+        log.info("init audit checkpoint groupId:{} block:{} transNumber:{}", groupId,
+            checkpoint.getBlockNumber(), checkpoint.getTransNumber());
+        return checkpoint;
+    }
+
+    public void deleteCheckpoint(int groupId) {
+        auditCheckpointMapper.deleteByGroupId(groupId);
+    }
 
     /**
-     * insert and update.
+     * move checkpoint to last transaction of the batch, and insert or update aggregated
+     * monitor rows in same transaction. nothing is saved if checkpoint moved by other instance.
+     * @param checkpoint checkpoint which the batch read from
+     * @param lastTrans last audited or skipped transaction of the batch
+     * @return false if checkpoint moved by other instance
      */
     @Transactional
-    public void dataAddAndUpdate(int groupId, TbMonitor tbMonitor) {
-        TbMonitor dbInfo = this.queryTbMonitor(groupId, tbMonitor);
-        if (dbInfo == null) {
-            log.info("====== data is not exist, add tbMonitor:{}", JsonTools.toJSONString(tbMonitor));
-            this.addRow(groupId, tbMonitor);
-        } else {
-            String[] txHashsArr = dbInfo.getTransHashs().split(",");
-            if (txHashsArr.length < 5) {
-                StringBuilder sb = new StringBuilder(dbInfo.getTransHashs()).append(",")
-                    .append(tbMonitor.getTransHashLastest());
-                tbMonitor.setTransHashs(sb.toString());
+    public boolean flushAuditBatch(int groupId, TbAuditCheckpoint checkpoint,
+        List<TbMonitor> monitorList, TbTransHash lastTrans) {
+        int affectRow = auditCheckpointMapper.move(groupId, checkpoint.getBlockNumber(),
+            checkpoint.getTransNumber(), lastTrans.getBlockNumber(), lastTrans.getTransNumber());
+        if (affectRow == 0) {
+            log.warn("flushAuditBatch jump over, checkpoint moved by others. groupId:{}", groupId);
+            return false;
+        }
+        countNewUnusual(groupId, monitorList);
+        for (TbMonitor tbMonitor : monitorList) {
+            TbMonitor dbInfo = this.queryTbMonitor(groupId, tbMonitor);
+            if (dbInfo == null) {
+                log.debug("====== data is not exist, add tbMonitor:{}",
+                    JsonTools.toJSONString(tbMonitor));
+                this.addRow(groupId, tbMonitor);
             } else {
-                tbMonitor.setTransHashs(dbInfo.getTransHashs());
+                tbMonitor.setTransHashs(appendTransHashs(dbInfo.getTransHashs(),
+                    tbMonitor.getTransHashs()));
+                // row saved before 1.5.6 keeps create time of its first transaction of the day
+                tbMonitor.setCreateTime(dbInfo.getCreateTime());
+                this.updateRow(groupId, tbMonitor);
             }
-            this.updateRow(groupId, tbMonitor);
         }
-        log.debug("====== updateTransStatFlag transHash:{}", tbMonitor.getTransHashLastest());
-        transHashService.updateTransStatFlag(groupId, tbMonitor.getTransHashLastest());
+        log.debug("====== flushAuditBatch groupId:{} monitorRows:{} checkpoint:[{},{}]", groupId,
+            monitorList.size(), lastTrans.getBlockNumber(), lastTrans.getTransNumber());
+        return true;
+    }
+
+    /**
+     * add count and name index entry of unusual user and contract not monitored before,
+     * before rows flushed.
+     */
+    private void countNewUnusual(int groupId, List<TbMonitor> monitorList) {
+        String tableName = TableName.MONITOR.getTableName(groupId);
+        Set<String> userSet = monitorList.stream()
+            .filter(m -> Objects.equals(m.getUserType(), MonitorUserType.ABNORMAL.getValue()))
+            .map(TbMonitor::getUserName).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (!userSet.isEmpty()) {
+            userSet.removeAll(monitorMapper.listUnusualUserIn(tableName, userSet));
+            rowCountService.addAfterCommit(groupId, RowCountKey.UNUSUAL_USER, userSet.size());
+            userSet.forEach(userName -> nameSearchIndex.put(SearchType.UNUSUAL_USER, groupId,
+                new NameEntry(null, userName, null)));
+        }
+        Map<String, String> contractMap = monitorList.stream()
+            .filter(m -> Objects.equals(m.getTransUnusualType(),
+                TransUnusualType.CONTRACT.getValue()))
+            .filter(m -> m.getContractAddress() != null)
+            .collect(Collectors.toMap(TbMonitor::getContractAddress,
+                m -> StringUtils.defaultString(m.getContractName()), (a, b) -> a));
+        if (!contractMap.isEmpty()) {
+            contractMap.keySet().removeAll(
+                monitorMapper.listUnusualContractIn(tableName, contractMap.keySet()));
+            rowCountService.addAfterCommit(groupId, RowCountKey.UNUSUAL_CONTRACT,
+                contractMap.size());
+            contractMap.forEach((address, contractName) -> nameSearchIndex.put(
+                SearchType.UNUSUAL_CONTRACT, groupId, new NameEntry(null, contractName, address)));
+        }
+    }
+
+    /**
+     * append trans hash to comma separated hashs, keep at most 5.
+     */
+    public static String appendTransHashs(String transHashs, String appendHashs) {
+        if (StringUtils.isBlank(transHashs)) {
+            transHashs = appendHashs;
+        } else if (StringUtils.isNotBlank(appendHashs)) {
+            transHashs = transHashs + "," + appendHashs;
+        }
+        if (StringUtils.isBlank(transHashs)) {
+            return transHashs;
+        }
+        String[] txHashsArr = transHashs.split(",");
+        if (txHashsArr.length <= MAX_TRANS_HASHS) {
+            return transHashs;
+        }
+        return String.join(",", Arrays.copyOf(txHashsArr, MAX_TRANS_HASHS));
     }
 
 
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.monitor.entity;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * param of monitor export, rows sorted by (create_time, user_name, contract_name, interface_name,
+ * user_type, contract_address, trans_type, trans_unusual_type), the columns a row is counted by.
+ * resume after key of last row received, all null to start from first row
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonitorExportParam {
+    private LocalDateTime afterCreateTime;
+    private String afterUserName;
+    private String afterContractName;
+    /**
+     * null interface name exported and compared as empty
+     */
+    private String afterInterfaceName;
+    private Integer afterUserType;
+    /**
+     * null contract address exported and compared as empty
+     */
+    private String afterContractAddress;
+    private Integer afterTransType;
+    private Integer afterTransUnusualType;
+}
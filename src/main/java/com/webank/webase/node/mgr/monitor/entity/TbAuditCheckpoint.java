@@ -0,0 +1,39 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.monitor.entity;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class of table tb_audit_checkpoint,
+ * last audited transaction of group by block number and trans number.
+ */
+@Data
+@NoArgsConstructor
+public class TbAuditCheckpoint {
+
+    private Integer groupId;
+    private BigInteger blockNumber;
+    private Long transNumber;
+    private LocalDateTime modifyTime;
+
+    public TbAuditCheckpoint(Integer groupId, BigInteger blockNumber, Long transNumber) {
+        this.groupId = groupId;
+        this.blockNumber = blockNumber;
+        this.transNumber = transNumber;
+    }
+}
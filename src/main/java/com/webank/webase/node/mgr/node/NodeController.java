@@ -17,6 +17,7 @@ import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.entity.BasePageResponse;
 import com.webank.webase.node.mgr.base.entity.BaseResponse;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.node.entity.NodeHealthInfo;
 import com.webank.webase.node.mgr.node.entity.NodeParam;
 import com.webank.webase.node.mgr.node.entity.ReqUpdate;
 import com.webank.webase.node.mgr.node.entity.RspCity;
@@ -121,6 +122,25 @@ public class NodeController {
         return baseResponse;
     }
 
+    /**
+     * get health status and status samples of node in sliding window
+     */
+    @GetMapping("/health/{groupId}")
+    public BaseResponse getNodeHealthList(@PathVariable("groupId") Integer groupId,
+        @RequestParam(value = "nodeId", required = false) String nodeId) {
+        Instant startTime = Instant.now();
+        log.info("start getNodeHealthList startTime:{} groupId:{} nodeId:{}",
+            startTime.toEpochMilli(), groupId, nodeId);
+        List<NodeHealthInfo> res = nodeService.queryNodeHealthList(groupId, nodeId);
+
+        BaseResponse baseResponse = new BaseResponse(ConstantCode.SUCCESS);
+        baseResponse.setData(res);
+
+        log.info("end getNodeHealthList useTime:{} size:{}",
+            Duration.between(startTime, Instant.now()).toMillis(), res.size());
+        return baseResponse;
+    }
+
     /**
      * get node id list
      */
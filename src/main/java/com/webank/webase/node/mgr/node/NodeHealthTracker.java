@@ -0,0 +1,195 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.node;
+
+import com.webank.webase.node.mgr.base.enums.NodeHealthStatus;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.node.entity.NodeHealthInfo;
+import com.webank.webase.node.mgr.node.entity.NodeHealthSample;
+import com.webank.webase.node.mgr.node.entity.NodeHealthWindow;
+import com.webank.webase.node.mgr.node.entity.NodeStatusSnapshot;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * keep sliding window of status samples per node in memory,
+ * classify node as healthy, slow, stalled or down by configured windows
+ */
+@Log4j2
+@Component
+public class NodeHealthTracker {
+
+    @Autowired
+    private ConstantProperties constantProperties;
+
+    /**
+     * key: groupId, value: map of nodeId and its window
+     */
+    private final Map<Integer, Map<String, NodeHealthWindow>> groupWindowMap =
+        new ConcurrentHashMap<>();
+    /**
+     * key: groupId, value: timestamp of latest sample
+     */
+    private final Map<Integer, Long> lastSampleTimeMap = new ConcurrentHashMap<>();
+
+    /**
+     * add one sample of each node from snapshot and classify,
+     * window of node not in nodeIdList would be removed
+     */
+    public void record(NodeStatusSnapshot snapshot, Collection<String> nodeIdList, long now) {
+        int groupId = snapshot.getGroupId();
+        Map<String, NodeHealthWindow> windowMap =
+            groupWindowMap.computeIfAbsent(groupId, k -> new ConcurrentHashMap<>());
+        windowMap.keySet().retainAll(nodeIdList);
+        long chainNumber = snapshot.getChainBlockNumber().longValue();
+        for (String nodeId : nodeIdList) {
+            NodeHealthWindow window = windowMap.computeIfAbsent(nodeId,
+                k -> new NodeHealthWindow(constantProperties.getNodeHealthWindowSize()));
+            long blockNumber = snapshot.getBlockNumberOf(nodeId).longValue();
+            long syncLag = snapshot.isConnected(nodeId)
+                ? Math.max(chainNumber - blockNumber, 0L) : NodeHealthSample.LAG_NOT_CONNECTED;
+            window.add(now, blockNumber, snapshot.getPbftViewOf(nodeId).longValue(), syncLag);
+            window.setStatus(classify(window, snapshot.isObserver(nodeId), now));
+        }
+        lastSampleTimeMap.put(groupId, now);
+    }
+
+    /**
+     * @return null if history of window not enough to classify
+     */
+    NodeHealthStatus classify(NodeHealthWindow window, boolean isObserver, long now) {
+        NodeHealthSample latest = window.latest();
+        if (latest == null) {
+            return null;
+        }
+        if (!latest.isConnected()) {
+            long downSince = now - constantProperties.getNodeHealthDownWindow();
+            if (window.latestNotAfter(downSince) == null) {
+                return window.getStatus();
+            }
+            return window.anyConnectedSince(downSince) ? window.getStatus()
+                : NodeHealthStatus.DOWN;
+        }
+        NodeHealthSample baseline =
+            window.latestNotAfter(now - constantProperties.getNodeHealthStallWindow());
+        if (baseline == null) {
+            return window.getStatus();
+        }
+        boolean blockStalled = baseline.isConnected()
+            && baseline.getBlockNumber() == latest.getBlockNumber();
+        boolean viewStalled = baseline.isConnected()
+            && baseline.getPbftView() == latest.getPbftView();
+        // observer has no pbft view, stalled if behind network and block number not changing
+        boolean isStalled = isObserver ? blockStalled && latest.getSyncLag() > 0
+            : blockStalled && viewStalled;
+        if (isStalled) {
+            return NodeHealthStatus.STALLED;
+        }
+        long slowSince = now - constantProperties.getNodeHealthSlowWindow();
+        if (window.latestNotAfter(slowSince) != null
+            && window.minSyncLagSince(slowSince) > constantProperties.getNodeHealthSlowLag()) {
+            return NodeHealthStatus.SLOW;
+        }
+        return NodeHealthStatus.HEALTHY;
+    }
+
+    /**
+     * @return 0 if group never sampled
+     */
+    public long getLastSampleTime(int groupId) {
+        return lastSampleTimeMap.getOrDefault(groupId, 0L);
+    }
+
+    /**
+     * @return null if node not classified yet
+     */
+    public NodeHealthStatus getStatus(int groupId, String nodeId) {
+        NodeHealthWindow window = getWindow(groupId, nodeId);
+        return window == null ? null : window.getStatus();
+    }
+
+    /**
+     * @return null if node not sampled or not connected in latest sample
+     */
+    public NodeHealthSample getLatestSample(int groupId, String nodeId) {
+        NodeHealthWindow window = getWindow(groupId, nodeId);
+        if (window == null) {
+            return null;
+        }
+        NodeHealthSample latest = window.latest();
+        return latest != null && latest.isConnected() ? latest : null;
+    }
+
+    /**
+     * highest block number of connected nodes in latest samples
+     * @return -1 if group never sampled
+     */
+    public long getHighestBlockNumber(int groupId) {
+        Map<String, NodeHealthWindow> windowMap = groupWindowMap.get(groupId);
+        if (windowMap == null) {
+            return -1L;
+        }
+        long highest = -1L;
+        for (String nodeId : windowMap.keySet()) {
+            NodeHealthSample latest = getLatestSample(groupId, nodeId);
+            if (latest != null) {
+                highest = Math.max(highest, latest.getBlockNumber());
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * time series of all node in group, or specific node if nodeId not blank
+     */
+    public List<NodeHealthInfo> getHealthInfoList(int groupId, String nodeId) {
+        Map<String, NodeHealthWindow> windowMap = groupWindowMap.get(groupId);
+        if (windowMap == null) {
+            return Collections.emptyList();
+        }
+        List<NodeHealthInfo> resList = new ArrayList<>();
+        windowMap.forEach((id, window) -> {
+            if (StringUtils.isBlank(nodeId) || nodeId.equals(id)) {
+                resList.add(new NodeHealthInfo(id, window.getStatus(), window.toList()));
+            }
+        });
+        return resList;
+    }
+
+    public void removeNode(int groupId, String nodeId) {
+        Map<String, NodeHealthWindow> windowMap = groupWindowMap.get(groupId);
+        if (windowMap != null) {
+            windowMap.remove(nodeId);
+        }
+    }
+
+    public void removeGroup(int groupId) {
+        log.info("remove node health window of group:{}", groupId);
+        groupWindowMap.remove(groupId);
+        lastSampleTimeMap.remove(groupId);
+    }
+
+    private NodeHealthWindow getWindow(int groupId, String nodeId) {
+        Map<String, NodeHealthWindow> windowMap = groupWindowMap.get(groupId);
+        return windowMap == null ? null : windowMap.get(nodeId);
+    }
+}
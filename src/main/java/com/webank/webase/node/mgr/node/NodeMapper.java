@@ -70,6 +70,12 @@ public interface NodeMapper {
      */
     Integer update(TbNode dbNode);
 
+    /**
+     * update block number, pbft view and status of node list in one group.
+     */
+    Integer batchUpdateStatus(@Param("groupId") Integer groupId,
+        @Param("list") List<TbNode> nodeList);
+
     /**
      * update node info of node ip, node agency, node city
      */
@@ -17,6 +17,7 @@ import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.enums.ConsensusType;
 import com.webank.webase.node.mgr.base.enums.DataStatus;
 import com.webank.webase.node.mgr.base.enums.FrontStatusEnum;
+import com.webank.webase.node.mgr.base.enums.NodeHealthStatus;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.node.entity.ReqUpdate;
@@ -28,23 +29,25 @@ import com.webank.webase.node.mgr.deploy.service.PathService;
 import com.webank.webase.node.mgr.front.FrontService;
 import com.webank.webase.node.mgr.front.entity.TbFront;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
-import com.webank.webase.node.mgr.front.frontinterface.entity.PeerOfConsensusStatus;
+import com.webank.webase.node.mgr.node.entity.NodeHealthInfo;
+import com.webank.webase.node.mgr.node.entity.NodeHealthSample;
 import com.webank.webase.node.mgr.node.entity.NodeParam;
+import com.webank.webase.node.mgr.node.entity.NodeStatusSnapshot;
 import com.webank.webase.node.mgr.node.entity.PeerInfo;
 import com.webank.webase.node.mgr.node.entity.TbNode;
+import com.webank.webase.node.mgr.push.ChainEventPublisher;
+import com.webank.webase.node.mgr.push.entity.NodeStatusPushInfo;
 import java.math.BigInteger;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.fisco.bcos.sdk.client.protocol.response.ConsensusStatus.ConsensusInfo;
-import org.fisco.bcos.sdk.client.protocol.response.ConsensusStatus.ViewInfo;
-import org.fisco.bcos.sdk.client.protocol.response.SyncStatus.PeersInfo;
 import org.fisco.bcos.sdk.client.protocol.response.SyncStatus.SyncStatusInfo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
@@ -75,6 +78,10 @@ public class NodeService {
      */
     @Autowired
     private FrontService frontService;
+    @Autowired
+    private NodeHealthTracker nodeHealthTracker;
+    @Autowired
+    private ChainEventPublisher chainEventPublisher;
 
     // interval of check node status
     private static final Long EXT_CHECK_NODE_WAIT_MIN_MILLIS = 3500L;
@@ -130,6 +137,15 @@ public class NodeService {
 
         // query node list
         List<TbNode> listOfNode = nodeMapper.getList(queryParam);
+        // block number and pbft view only persisted on status transition, use latest sample
+        for (TbNode tbNode : listOfNode) {
+            NodeHealthSample latest =
+                nodeHealthTracker.getLatestSample(tbNode.getGroupId(), tbNode.getNodeId());
+            if (latest != null) {
+                tbNode.setBlockNumber(BigInteger.valueOf(latest.getBlockNumber()));
+                tbNode.setPbftView(BigInteger.valueOf(latest.getPbftView()));
+            }
+        }
 
         log.debug("end queryNodeList listOfNode:{}", JsonTools.toJSONString(listOfNode));
         return listOfNode;
@@ -171,6 +187,13 @@ public class NodeService {
         log.debug("end updateNodeInfo");
     }
 
+    /**
+     * query health status and samples of node in sliding window
+     */
+    public List<NodeHealthInfo> queryNodeHealthList(int groupId, String nodeId) {
+        return nodeHealthTracker.getHealthInfoList(groupId, nodeId);
+    }
+
     /**
      * query node info.
      */
@@ -187,6 +210,7 @@ public class NodeService {
     public void deleteByNodeAndGroupId(String nodeId, int groupId) throws NodeMgrException {
         log.info("start deleteByNodeAndGroupId nodeId:{} groupId:{}", nodeId, groupId);
         nodeMapper.deleteByNodeAndGroup(nodeId, groupId);
+        nodeHealthTracker.removeNode(groupId, nodeId);
         log.info("end deleteByNodeAndGroupId");
     }
 
@@ -198,6 +222,7 @@ public class NodeService {
             return;
         }
         nodeMapper.deleteByGroupId(groupId);
+        nodeHealthTracker.removeGroup(groupId);
     }
 
 
@@ -205,139 +230,129 @@ public class NodeService {
      * check node status, if pbftView or blockNumber not changing, invalid consensus
      * @case: observer(no pbftView), if observer's blockNumber not equal consensus blockNumber
      * @1.4.3: if request consensus status but return -1, node is down
-     *
+     * @1.5.6: sample status of group once per cycle into sliding window of NodeHealthTracker,
+     * only update tb_node when node_active of node transit
      */
     public void checkAndUpdateNodeStatus(int groupId) {
         //get local node list
         List<TbNode> nodeList = queryByGroupId(groupId);
-
-        //getPeerOfConsensusStatus
-        List<PeerOfConsensusStatus> consensusList = getPeerOfConsensusStatus(groupId);
-        if (Objects.isNull(consensusList)){
-            log.error("fail checkNodeStatus, consensusList is null");
+        if (CollectionUtils.isEmpty(nodeList)) {
+            log.debug("checkNodeStatus jump over. no node in group:{}", groupId);
+            return;
+        }
+        // check time internal of last sample before request front
+        long now = System.currentTimeMillis();
+        long subTime = now - nodeHealthTracker.getLastSampleTime(groupId);
+        if (subTime < (nodeList.size() * 1000L + EXT_CHECK_NODE_WAIT_MIN_MILLIS)) {
+            log.debug("checkNodeStatus jump over. for time internal subTime:{}", subTime);
             return;
         }
-        
-        // getObserverList
-        List<String> observerList = frontInterface.getObserverList(groupId);
 
-        int nodeCount = CollectionUtils.size(consensusList) + CollectionUtils.size(observerList);
+        NodeStatusSnapshot snapshot = getNodeStatusSnapshot(groupId);
+        if (Objects.isNull(snapshot)) {
+            log.error("fail checkNodeStatus, snapshot of group:{} is null", groupId);
+            return;
+        }
+        List<String> nodeIdList = nodeList.stream().map(TbNode::getNodeId)
+            .collect(Collectors.toList());
+        nodeHealthTracker.record(snapshot, nodeIdList, now);
 
+        // persist state transition only
+        List<TbNode> changedNodeList = new ArrayList<>();
         for (TbNode tbNode : nodeList) {
             String nodeId = tbNode.getNodeId();
-            BigInteger localBlockNumber = tbNode.getBlockNumber();
-            BigInteger localPbftView = tbNode.getPbftView();
-            LocalDateTime modifyTime = tbNode.getModifyTime();
-            LocalDateTime createTime = tbNode.getCreateTime();
-
-            Duration duration = Duration.between(modifyTime, LocalDateTime.now());
-            Long subTime = duration.toMillis();
-            if (subTime < (nodeCount * 1000 + EXT_CHECK_NODE_WAIT_MIN_MILLIS) && createTime.isBefore(modifyTime)) {
-                log.warn("checkNodeStatus jump over. for time internal subTime:{}", subTime);
-                return;
-            }
-
-
-            int nodeType = 0;   //0-consensus;1-observer
-            if (observerList != null) {
-                nodeType = observerList.stream()
-                        .filter(observer -> observer.equals(tbNode.getNodeId())).map(c -> 1).findFirst()
-                        .orElse(0);
-            }
-
-            BigInteger latestNumber = getBlockNumberOfNodeOnChain(groupId, nodeId);//blockNumber
-            BigInteger latestView = consensusList.stream()
-                .filter(cl -> nodeId.equals(cl.getNodeId())).map(PeerOfConsensusStatus::getView).findFirst()
-                .orElse(BigInteger.ZERO);//pbftView
-            
-            if (nodeType == 0) {    //0-consensus;1-observer
-                // if local block number and pbftView equals chain's, invalid
-                if (localBlockNumber.equals(latestNumber) && localPbftView.equals(latestView)) {
-                    log.warn("node[{}] is invalid. localNumber:{} chainNumber:{} localView:{} chainView:{}",
-                        nodeId, localBlockNumber, latestNumber, localPbftView, latestView);
-                    tbNode.setNodeActive(DataStatus.INVALID.getValue());
-                } else {
-                    tbNode.setBlockNumber(latestNumber);
-                    tbNode.setPbftView(latestView);
-                    tbNode.setNodeActive(DataStatus.NORMAL.getValue());
-                }
-            } else { //observer
-                // if latest block number not equal block number of consensus network
-                if (!latestNumber.equals(frontInterface.getLatestBlockNumber(groupId))) {
-                    // if node's block number is not changing, invalid
-                    if (localBlockNumber.equals(latestNumber)) {
-                        log.warn("node[{}] is invalid. localNumber:{} chainNumber:{} localView:{} chainView:{}",
-                            nodeId, localBlockNumber, latestNumber, localPbftView, latestView);
-                        tbNode.setNodeActive(DataStatus.INVALID.getValue());
-                    } else {
-                        // if latest block number not equal network's, but is changing, normal
-                        tbNode.setBlockNumber(latestNumber);
-                        tbNode.setPbftView(latestView);
-                        tbNode.setNodeActive(DataStatus.NORMAL.getValue());
-                    }
-                } else {
-                    tbNode.setBlockNumber(latestNumber);
-                    tbNode.setPbftView(latestView);
-                    tbNode.setNodeActive(DataStatus.NORMAL.getValue());
-                }
+            NodeHealthStatus healthStatus = nodeHealthTracker.getStatus(groupId, nodeId);
+            if (healthStatus == null || healthStatus.getNodeActive() == tbNode.getNodeActive()) {
+                continue;
             }
-            tbNode.setModifyTime(LocalDateTime.now());
-            //update node
-            updateNode(tbNode);
-            // only update front status if deploy manually
-            if (chainService.runTask()) {
-                TbFront updateFront = frontService.getByNodeId(nodeId);
-                if (updateFront != null) {
-                    // update front status as long as update node (7.5s internal)
-                    log.debug("update front with node update nodeStatus:{}", tbNode.getNodeActive());
-                    // update as 2, same as FrontStatuaEnum
-                    if (tbNode.getNodeActive() == DataStatus.NORMAL.getValue()) {
-                        updateFront.setStatus(FrontStatusEnum.RUNNING.getId());
-                    } else if (tbNode.getNodeActive() == DataStatus.INVALID.getValue()) {
-                        updateFront.setStatus(FrontStatusEnum.STOPPED.getId());
-                    }
-                    frontService.updateFront(updateFront);
-                }
+            log.warn("node[{}] of group:{} transit to {}. localNumber:{} chainNumber:{} chainView:{}",
+                nodeId, groupId, healthStatus, tbNode.getBlockNumber(),
+                snapshot.getBlockNumberOf(nodeId), snapshot.getPbftViewOf(nodeId));
+            tbNode.setNodeActive(healthStatus.getNodeActive());
+            if (snapshot.isConnected(nodeId)) {
+                tbNode.setBlockNumber(snapshot.getBlockNumberOf(nodeId));
+                tbNode.setPbftView(snapshot.getPbftViewOf(nodeId));
             }
+            changedNodeList.add(tbNode);
+            chainEventPublisher.publishState(groupId, ChainEventPublisher.EVENT_NODE_STATUS,
+                nodeId, new NodeStatusPushInfo(groupId, nodeId, healthStatus.name(),
+                    tbNode.getNodeActive(), tbNode.getBlockNumber()));
+        }
+        batchUpdateNodeStatus(groupId, changedNodeList);
+        // only update front status if deploy manually
+        if (chainService.runTask()) {
+            updateFrontStatusByNode(nodeList);
         }
-
     }
 
-
     /**
-     * get latest number of peer on chain.
+     * get sync status, consensus status and observer list of group in one time
+     * @return null if consensus status is null
      */
-    private BigInteger getBlockNumberOfNodeOnChain(int groupId, String nodeId) {
+    public NodeStatusSnapshot getNodeStatusSnapshot(int groupId) {
+        ConsensusInfo consensusInfo = frontInterface.getConsensusStatus(groupId);
+        if (consensusInfo == null) {
+            log.debug("getNodeStatusSnapshot consensusInfo is null");
+            return null;
+        }
         SyncStatusInfo syncStatus = frontInterface.getSyncStatus(groupId);
-        if (nodeId.equals(syncStatus.getNodeId())) {
-            return new BigInteger(syncStatus.getBlockNumber());
+        if (syncStatus == null) {
+            log.debug("getNodeStatusSnapshot syncStatus is null");
+            return null;
         }
-        List<PeersInfo> peerList = syncStatus.getPeers();
-        // blockNumber
-        BigInteger latestNumber = peerList.stream().filter(peer -> nodeId.equals(peer.getNodeId()))
-            .map(p -> new BigInteger(p.getBlockNumber())).findFirst().orElse(BigInteger.ZERO);
-        return latestNumber;
+        List<String> observerList = frontInterface.getObserverList(groupId);
+        return NodeStatusSnapshot.build(groupId, syncStatus, consensusInfo, observerList);
     }
 
-
     /**
-     * get peer of consensusStatus
+     * update block number, pbft view and status of nodes in one statement
      */
-    private List<PeerOfConsensusStatus> getPeerOfConsensusStatus(int groupId) {
-        ConsensusInfo consensusInfo = frontInterface.getConsensusStatus(groupId);
-        if (consensusInfo == null) {
-            log.debug("getPeerOfConsensusStatus is null");
-            return null;
+    private void batchUpdateNodeStatus(int groupId, List<TbNode> changedNodeList) {
+        if (changedNodeList.isEmpty()) {
+            log.debug("batchUpdateNodeStatus no node changed in group:{}", groupId);
+            return;
         }
-        List<PeerOfConsensusStatus> dataIsList = new ArrayList<>();
-        List<ViewInfo> viewInfos = consensusInfo.getViewInfos();
-        for (ViewInfo viewInfo : viewInfos) {
-            dataIsList.add(
-                new PeerOfConsensusStatus(viewInfo.getNodeId(), new BigInteger(viewInfo.getView())));
+        log.debug("start batchUpdateNodeStatus groupId:{} size:{}", groupId,
+            changedNodeList.size());
+        try {
+            nodeMapper.batchUpdateStatus(groupId, changedNodeList);
+        } catch (RuntimeException ex) {
+            log.error("batchUpdateNodeStatus exception", ex);
+            throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
         }
-        return dataIsList;
+        LocalDateTime now = LocalDateTime.now();
+        changedNodeList.forEach(node -> node.setModifyTime(now));
+        log.debug("end batchUpdateNodeStatus");
     }
 
+    /**
+     * update front status as node status, only update front whose status changed
+     */
+    private void updateFrontStatusByNode(List<TbNode> nodeList) {
+        List<String> nodeIdList = nodeList.stream().map(TbNode::getNodeId)
+            .collect(Collectors.toList());
+        Map<String, Integer> nodeActiveMap = nodeList.stream()
+            .collect(Collectors.toMap(TbNode::getNodeId, TbNode::getNodeActive, (a, b) -> a));
+        List<Integer> runningFrontIdList = new ArrayList<>();
+        List<Integer> stoppedFrontIdList = new ArrayList<>();
+        for (TbFront front : frontService.selectByNodeIdList(nodeIdList)) {
+            int nodeActive = nodeActiveMap.get(front.getNodeId());
+            // update as 2, same as FrontStatuaEnum
+            if (nodeActive == DataStatus.NORMAL.getValue()
+                && !Objects.equals(front.getStatus(), FrontStatusEnum.RUNNING.getId())) {
+                runningFrontIdList.add(front.getFrontId());
+            } else if (nodeActive == DataStatus.INVALID.getValue()
+                && !Objects.equals(front.getStatus(), FrontStatusEnum.STOPPED.getId())) {
+                stoppedFrontIdList.add(front.getFrontId());
+            }
+        }
+        log.debug("update front with node update running:{} stopped:{}", runningFrontIdList,
+            stoppedFrontIdList);
+        frontService.batchUpdateStatus(runningFrontIdList, FrontStatusEnum.RUNNING);
+        frontService.batchUpdateStatus(stoppedFrontIdList, FrontStatusEnum.STOPPED);
+    }
+
+
     /**
      * add sealer and observer in NodeList
      * return: List<String> nodeIdList
@@ -562,6 +577,13 @@ public class NodeService {
         int localHighestHeight = nodeMapper.getHighestBlockHeight(groupId);
         TbNode node = nodeMapper.getByNodeIdAndGroupId(nodeId, groupId);
         int nodeBlockHeight = node != null ? node.getBlockNumber().intValue() : 0;
+        // use latest sample of health window if exists
+        localHighestHeight = (int) Math.max(localHighestHeight,
+            nodeHealthTracker.getHighestBlockNumber(groupId));
+        NodeHealthSample latest = nodeHealthTracker.getLatestSample(groupId, nodeId);
+        if (latest != null) {
+            nodeBlockHeight = (int) latest.getBlockNumber();
+        }
         log.info("local localHighestHeight:{},groupId:{} nodeId:{}, nodeBlockHeight:{}",
             localHighestHeight, groupId, nodeId, nodeBlockHeight);
         if (localHighestHeight == nodeBlockHeight) {
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.node.entity;
+
+import com.webank.webase.node.mgr.base.enums.NodeHealthStatus;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * health status and time series samples of node
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodeHealthInfo {
+    private String nodeId;
+    private NodeHealthStatus healthStatus;
+    private List<NodeHealthSample> sampleList;
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.node.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * one sample of node status in health window
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodeHealthSample {
+
+    public static final long LAG_NOT_CONNECTED = -1L;
+
+    /**
+     * unit: ms
+     */
+    private long timestamp;
+    private long blockNumber;
+    private long pbftView;
+    /**
+     * highest block number of network minus node's block number,
+     * -1 if node not found in sync status
+     */
+    private long syncLag;
+
+    public boolean isConnected() {
+        return syncLag != LAG_NOT_CONNECTED;
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.node.entity;
+
+import com.webank.webase.node.mgr.base.enums.NodeHealthStatus;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ring buffer of node status samples, oldest sample is overwritten when full
+ */
+public class NodeHealthWindow {
+
+    private final long[] timestamps;
+    private final long[] blockNumbers;
+    private final long[] pbftViews;
+    private final long[] syncLags;
+    /**
+     * index of next sample to write
+     */
+    private int head = 0;
+    private int size = 0;
+    /**
+     * latest classified status, null if not classified yet
+     */
+    private volatile NodeHealthStatus status;
+
+    public NodeHealthWindow(int capacity) {
+        int realCapacity = Math.max(capacity, 2);
+        this.timestamps = new long[realCapacity];
+        this.blockNumbers = new long[realCapacity];
+        this.pbftViews = new long[realCapacity];
+        this.syncLags = new long[realCapacity];
+    }
+
+    public synchronized void add(long timestamp, long blockNumber, long pbftView, long syncLag) {
+        timestamps[head] = timestamp;
+        blockNumbers[head] = blockNumber;
+        pbftViews[head] = pbftView;
+        syncLags[head] = syncLag;
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return null if empty
+     */
+    public synchronized NodeHealthSample latest() {
+        if (size == 0) {
+            return null;
+        }
+        return sampleAt(indexOf(size - 1));
+    }
+
+    /**
+     * latest sample whose timestamp not after the time
+     * @return null if all samples are after the time
+     */
+    public synchronized NodeHealthSample latestNotAfter(long time) {
+        for (int i = size - 1; i >= 0; i--) {
+            int index = indexOf(i);
+            if (timestamps[index] <= time) {
+                return sampleAt(index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * min sync lag of samples not before the time, including not connected as -1
+     */
+    public synchronized long minSyncLagSince(long time) {
+        long minLag = Long.MAX_VALUE;
+        for (int i = size - 1; i >= 0; i--) {
+            int index = indexOf(i);
+            if (timestamps[index] < time) {
+                break;
+            }
+            minLag = Math.min(minLag, syncLags[index]);
+        }
+        return minLag;
+    }
+
+    /**
+     * whether node has been connected in samples not before the time
+     */
+    public synchronized boolean anyConnectedSince(long time) {
+        for (int i = size - 1; i >= 0; i--) {
+            int index = indexOf(i);
+            if (timestamps[index] < time) {
+                break;
+            }
+            if (syncLags[index] != NodeHealthSample.LAG_NOT_CONNECTED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * samples from oldest to latest
+     */
+    public synchronized List<NodeHealthSample> toList() {
+        List<NodeHealthSample> sampleList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sampleList.add(sampleAt(indexOf(i)));
+        }
+        return sampleList;
+    }
+
+    public NodeHealthStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(NodeHealthStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * physical index of the i-th sample from oldest
+     */
+    private int indexOf(int i) {
+        return (head - size + i + timestamps.length) % timestamps.length;
+    }
+
+    private NodeHealthSample sampleAt(int index) {
+        return new NodeHealthSample(timestamps[index], blockNumbers[index], pbftViews[index],
+            syncLags[index]);
+    }
+}
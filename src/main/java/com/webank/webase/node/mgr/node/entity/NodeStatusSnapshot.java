@@ -0,0 +1,102 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.node.entity;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Data;
+import org.fisco.bcos.sdk.client.protocol.response.ConsensusStatus.ConsensusInfo;
+import org.fisco.bcos.sdk.client.protocol.response.ConsensusStatus.ViewInfo;
+import org.fisco.bcos.sdk.client.protocol.response.SyncStatus.PeersInfo;
+import org.fisco.bcos.sdk.client.protocol.response.SyncStatus.SyncStatusInfo;
+
+/**
+ * sync status, consensus status and observer list of one group,
+ * fetched once per check cycle and shared by all nodes of the group
+ */
+@Data
+public class NodeStatusSnapshot {
+
+    private int groupId;
+    /**
+     * highest block number of the node which returned sync status and its peers,
+     * as block number of network
+     */
+    private BigInteger chainBlockNumber = BigInteger.ZERO;
+    private Map<String, BigInteger> blockNumberMap = new HashMap<>();
+    private Map<String, BigInteger> pbftViewMap = new HashMap<>();
+    private Set<String> observerSet = new HashSet<>();
+
+    public static NodeStatusSnapshot build(int groupId, SyncStatusInfo syncStatus,
+        ConsensusInfo consensusInfo, List<String> observerList) {
+        NodeStatusSnapshot snapshot = new NodeStatusSnapshot();
+        snapshot.setGroupId(groupId);
+        if (syncStatus != null) {
+            BigInteger localNumber = new BigInteger(syncStatus.getBlockNumber());
+            snapshot.setChainBlockNumber(localNumber);
+            snapshot.getBlockNumberMap().put(syncStatus.getNodeId(), localNumber);
+            if (syncStatus.getPeers() != null) {
+                for (PeersInfo peer : syncStatus.getPeers()) {
+                    BigInteger peerNumber = new BigInteger(peer.getBlockNumber());
+                    snapshot.getBlockNumberMap().putIfAbsent(peer.getNodeId(), peerNumber);
+                    snapshot.setChainBlockNumber(
+                        snapshot.getChainBlockNumber().max(peerNumber));
+                }
+            }
+        }
+        if (consensusInfo != null && consensusInfo.getViewInfos() != null) {
+            for (ViewInfo viewInfo : consensusInfo.getViewInfos()) {
+                snapshot.getPbftViewMap()
+                    .putIfAbsent(viewInfo.getNodeId(), new BigInteger(viewInfo.getView()));
+            }
+        }
+        if (observerList != null) {
+            snapshot.getObserverSet().addAll(observerList);
+        }
+        return snapshot;
+    }
+
+    /**
+     * block number of node on chain, default 0 if node not connected
+     */
+    public BigInteger getBlockNumberOf(String nodeId) {
+        return blockNumberMap.getOrDefault(nodeId, BigInteger.ZERO);
+    }
+
+    /**
+     * pbft view of node, default 0 if node not in consensus status
+     */
+    public BigInteger getPbftViewOf(String nodeId) {
+        return pbftViewMap.getOrDefault(nodeId, BigInteger.ZERO);
+    }
+
+    /**
+     * whether node found in sync status of network
+     */
+    public boolean isConnected(String nodeId) {
+        return blockNumberMap.containsKey(nodeId);
+    }
+
+    public boolean isObserver(String nodeId) {
+        return observerSet.contains(nodeId);
+    }
+
+    public int getNodeCount() {
+        return pbftViewMap.size() + observerSet.size();
+    }
+}
@@ -54,7 +54,8 @@ public class PerformanceController {
         @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime contrastBeginDate,
         @RequestParam(value = "contrastEndDate", required = false)
         @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime contrastEndDate,
-        @RequestParam(value = "gap", required = false, defaultValue = "1") int gap)
+        @RequestParam(value = "gap", required = false, defaultValue = "1") int gap,
+        @RequestParam(value = "maxPoints", required = false) Integer maxPoints)
         throws NodeMgrException {
         Instant startTime = Instant.now();
         BaseResponse response = new BaseResponse(ConstantCode.SUCCESS);
@@ -66,7 +67,7 @@ public class PerformanceController {
 
         Object rspObj = performanceService
             .getPerformanceRatio(frontId, beginDate, endDate, contrastBeginDate, contrastEndDate,
-                gap);
+                gap, maxPoints);
         response.setData(rspObj);
         log.info("end getPerformanceRatio. useTime:{} response:{}",
             Duration.between(startTime, Instant.now()).toMillis(), JsonTools.toJSONString(response));
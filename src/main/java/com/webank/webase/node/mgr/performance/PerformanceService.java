@@ -23,6 +23,7 @@ import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
+import com.webank.webase.node.mgr.tools.PerformanceDataSampler;
 import com.webank.webase.node.mgr.front.FrontService;
 import com.webank.webase.node.mgr.front.entity.TbFront;
 import java.time.LocalDateTime;
@@ -46,11 +47,11 @@ public class PerformanceService {
     private ConstantProperties cproperties;
 
     /**
-     * get ratio of performance.
+     * get ratio of performance, downsampled to maxPoints if given.
      */
     public Object getPerformanceRatio(Integer frontId, LocalDateTime beginDate,
         LocalDateTime endDate, LocalDateTime contrastBeginDate,
-        LocalDateTime contrastEndDate, int gap) {
+        LocalDateTime contrastEndDate, int gap, Integer maxPoints) {
         log.debug(
             "start getPerformanceRatio.  frontId:{} beginDate:{} endDate:{}"
                 + " contrastBeginDate:{} contrastEndDate:{} gap:{}",
@@ -79,7 +80,7 @@ public class PerformanceService {
         try {
             Object rspObj = genericRestTemplate.getForObject(url, Object.class);
             log.debug("end getPerformanceRatio. rspObj:{}", JsonTools.toJSONString(rspObj));
-            return rspObj;
+            return PerformanceDataSampler.downsample(rspObj, maxPoints);
         } catch (ResourceAccessException e) {
             log.error("getPerformanceRatio. ResourceAccessException:{}", e);
             throw new NodeMgrException(ConstantCode.REQUEST_FRONT_FAIL);
@@ -0,0 +1,203 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.push;
+
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.push.entity.PushEvent;
+import com.webank.webase.node.mgr.tools.JsonTools;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * push chain metrics of group to subscribed clients by server-sent events.
+ * each update is serialized once and handed to subscribers of the group,
+ * sent to each client by its own drain task in pushExecutor.
+ */
+@Log4j2
+@Component
+public class ChainEventPublisher {
+
+    public static final String EVENT_BLOCK = "block";
+    public static final String EVENT_STAT = "stat";
+    public static final String EVENT_NODE_STATUS = "nodeStatus";
+    public static final String EVENT_ALERT = "alert";
+    private static final String EVENT_HEARTBEAT = "heartbeat";
+
+    @Autowired
+    private ConstantProperties constantProperties;
+    @Autowired
+    @Qualifier(value = "pushExecutor")
+    private ThreadPoolTaskExecutor pushExecutor;
+
+    /**
+     * key: groupId, value: subscribers of group
+     */
+    private final Map<Integer, Set<ChainEventSubscriber>> groupSubscriberMap =
+        new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(int groupId) {
+        SseEmitter emitter = new SseEmitter(constantProperties.getPushSseTimeout());
+        ChainEventSubscriber subscriber = new ChainEventSubscriber(groupId, emitter,
+            constantProperties.getPushQueueSize());
+        groupSubscriberMap.computeIfAbsent(groupId, k -> ConcurrentHashMap.newKeySet())
+            .add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        log.info("subscribe push of group:{} subscribers:{}", groupId, countSubscriber(groupId));
+        return emitter;
+    }
+
+    public int countSubscriber(int groupId) {
+        Set<ChainEventSubscriber> subscriberSet = groupSubscriberMap.get(groupId);
+        return subscriberSet == null ? 0 : subscriberSet.size();
+    }
+
+    /**
+     * groups having subscriber
+     */
+    public Set<Integer> listSubscribedGroup() {
+        Set<Integer> groupSet = new HashSet<>();
+        groupSubscriberMap.forEach((groupId, subscriberSet) -> {
+            if (!subscriberSet.isEmpty()) {
+                groupSet.add(groupId);
+            }
+        });
+        return groupSet;
+    }
+
+    /**
+     * publish latest state of group, pending state of same key is replaced
+     */
+    public void publishState(int groupId, String eventName, String key, Object data) {
+        Set<ChainEventSubscriber> subscriberSet = groupSubscriberMap.get(groupId);
+        if (subscriberSet == null || subscriberSet.isEmpty()) {
+            return;
+        }
+        PushEvent event = new PushEvent(eventName, JsonTools.toJSONString(data));
+        for (ChainEventSubscriber subscriber : subscriberSet) {
+            if (subscriber.offerState(key, event)) {
+                submitDrain(subscriber);
+            }
+        }
+    }
+
+    /**
+     * publish state after current transaction committed, or at once if no transaction
+     */
+    public void publishStateAfterCommit(int groupId, String eventName, String key, Object data) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishState(groupId, eventName, key, data);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishState(groupId, eventName, key, data);
+            }
+        });
+    }
+
+    /**
+     * publish event not belonging to group (such as alert) to all subscribers,
+     * oldest pending event of slow client is dropped
+     */
+    public void publishAll(String eventName, Object data) {
+        if (groupSubscriberMap.isEmpty()) {
+            return;
+        }
+        PushEvent event = new PushEvent(eventName, JsonTools.toJSONString(data));
+        for (Set<ChainEventSubscriber> subscriberSet : groupSubscriberMap.values()) {
+            for (ChainEventSubscriber subscriber : subscriberSet) {
+                if (subscriber.offerEvent(event)) {
+                    submitDrain(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * keep connection alive through proxy, and find out closed client
+     */
+    @Scheduled(fixedDelayString = "${constant.pushHeartbeatInterval}")
+    public void heartbeat() {
+        PushEvent event = new PushEvent(EVENT_HEARTBEAT, null);
+        for (Set<ChainEventSubscriber> subscriberSet : groupSubscriberMap.values()) {
+            for (ChainEventSubscriber subscriber : subscriberSet) {
+                if (subscriber.offerState(EVENT_HEARTBEAT, event)) {
+                    submitDrain(subscriber);
+                }
+            }
+        }
+    }
+
+    private void submitDrain(ChainEventSubscriber subscriber) {
+        try {
+            pushExecutor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            log.warn("push executor busy, close subscriber of group:{}", subscriber.getGroupId());
+            close(subscriber);
+        }
+    }
+
+    private void drain(ChainEventSubscriber subscriber) {
+        PushEvent event;
+        while ((event = subscriber.poll()) != null) {
+            try {
+                if (EVENT_HEARTBEAT.equals(event.getName())) {
+                    subscriber.getEmitter().send(SseEmitter.event().comment(EVENT_HEARTBEAT));
+                } else {
+                    subscriber.getEmitter().send(SseEmitter.event().name(event.getName())
+                        .data(event.getData(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("push to subscriber of group:{} fail:{}", subscriber.getGroupId(),
+                    e.getMessage());
+                close(subscriber);
+                return;
+            }
+        }
+    }
+
+    private void close(ChainEventSubscriber subscriber) {
+        unsubscribe(subscriber);
+        try {
+            subscriber.getEmitter().complete();
+        } catch (Exception e) {
+            log.debug("complete emitter fail:{}", e.getMessage());
+        }
+    }
+
+    private void unsubscribe(ChainEventSubscriber subscriber) {
+        Set<ChainEventSubscriber> subscriberSet = groupSubscriberMap.get(subscriber.getGroupId());
+        if (subscriberSet != null && subscriberSet.remove(subscriber)) {
+            log.info("unsubscribe push of group:{} dropped:{}", subscriber.getGroupId(),
+                subscriber.getDroppedCount());
+        }
+    }
+}
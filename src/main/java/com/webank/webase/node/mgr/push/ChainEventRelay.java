@@ -0,0 +1,100 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.push;
+
+import com.webank.webase.node.mgr.block.BlockService;
+import com.webank.webase.node.mgr.block.entity.TbBlock;
+import com.webank.webase.node.mgr.group.GroupLeaseService;
+import com.webank.webase.node.mgr.push.entity.BlockPushInfo;
+import com.webank.webase.node.mgr.push.entity.StatPushInfo;
+import com.webank.webase.node.mgr.statistic.entity.TbStat;
+import com.webank.webase.node.mgr.statistic.mapper.TbStatMapper;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * block and stat event of group is published by the instance owning its lease,
+ * other instances poll latest saved block and stat of subscribed groups and publish
+ * them to their own subscribers, so that client could connect to any instance.
+ */
+@Log4j2
+@Component
+public class ChainEventRelay {
+
+    @Autowired
+    private ChainEventPublisher chainEventPublisher;
+    @Autowired
+    private GroupLeaseService groupLeaseService;
+    @Autowired
+    private BlockService blockService;
+    @Autowired
+    private TbStatMapper tbStatMapper;
+
+    /**
+     * key: groupId, value: block number last relayed
+     */
+    private final Map<Integer, BigInteger> lastBlockMap = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> lastStatMap = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${constant.pushRelayInterval:2000}")
+    public void relay() {
+        for (Integer groupId : chainEventPublisher.listSubscribedGroup()) {
+            if (groupLeaseService.isOwner(groupId)) {
+                // published by this instance when saved
+                lastBlockMap.remove(groupId);
+                lastStatMap.remove(groupId);
+                continue;
+            }
+            try {
+                relayBlock(groupId);
+                relayStat(groupId);
+            } catch (Exception ex) {
+                log.warn("fail relay push event of group:{}", groupId, ex);
+            }
+        }
+        lastBlockMap.keySet().retainAll(chainEventPublisher.listSubscribedGroup());
+        lastStatMap.keySet().retainAll(chainEventPublisher.listSubscribedGroup());
+    }
+
+    private void relayBlock(int groupId) {
+        BigInteger blockNumber = blockService.getLatestBlockNumber(groupId);
+        if (blockNumber == null || blockNumber.equals(lastBlockMap.get(groupId))) {
+            return;
+        }
+        TbBlock tbBlock = blockService.getBlockByBlockNumber(groupId, blockNumber);
+        if (tbBlock == null) {
+            return;
+        }
+        lastBlockMap.put(groupId, blockNumber);
+        chainEventPublisher.publishState(groupId, ChainEventPublisher.EVENT_BLOCK, "",
+            new BlockPushInfo(groupId, tbBlock.getBlockNumber(), tbBlock.getTransCount(),
+                tbBlock.getBlockTimestamp()));
+    }
+
+    private void relayStat(int groupId) {
+        TbStat lastStat = tbStatMapper.getMaxByGroupId(groupId);
+        if (lastStat == null || lastStat.getBlockNumber().equals(lastStatMap.get(groupId))) {
+            return;
+        }
+        lastStatMap.put(groupId, lastStat.getBlockNumber());
+        chainEventPublisher.publishState(groupId, ChainEventPublisher.EVENT_STAT, "",
+            new StatPushInfo(groupId, lastStat.getBlockNumber(), lastStat.getTps(),
+                lastStat.getBlockSize(), lastStat.getBlockCycle(), lastStat.getStatTimestamp()));
+    }
+}
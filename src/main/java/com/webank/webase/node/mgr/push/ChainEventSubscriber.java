@@ -0,0 +1,107 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.push;
+
+import com.webank.webase.node.mgr.push.entity.PushEvent;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * pending events of one client, sent by at most one drain task at a time.
+ * state event (block height, stat, node status) of same name and key is coalesced
+ * to the latest one, other events (alert) are kept in bounded queue and oldest dropped,
+ * so slow client never blocks publisher or grows memory.
+ */
+public class ChainEventSubscriber {
+
+    @Getter
+    private final int groupId;
+    @Getter
+    private final SseEmitter emitter;
+    private final int queueSize;
+
+    /**
+     * key: event name and key of state, value: latest event
+     */
+    private final Map<String, PushEvent> stateMap = new LinkedHashMap<>();
+    private final Deque<PushEvent> eventQueue = new ArrayDeque<>();
+    private boolean draining = false;
+    @Getter
+    private long droppedCount = 0;
+
+    public ChainEventSubscriber(int groupId, SseEmitter emitter, int queueSize) {
+        this.groupId = groupId;
+        this.emitter = emitter;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * keep latest state of key, replace the pending one
+     * @return true if drain task should be submitted
+     */
+    public synchronized boolean offerState(String key, PushEvent event) {
+        if (stateMap.put(event.getName() + ":" + key, event) != null) {
+            droppedCount++;
+        }
+        return startDrain();
+    }
+
+    /**
+     * @return true if drain task should be submitted
+     */
+    public synchronized boolean offerEvent(PushEvent event) {
+        if (eventQueue.size() >= queueSize) {
+            eventQueue.pollFirst();
+            droppedCount++;
+        }
+        eventQueue.offerLast(event);
+        return startDrain();
+    }
+
+    /**
+     * next event to send, queued event first.
+     * @return null if nothing pending, and drain task should exit
+     */
+    public synchronized PushEvent poll() {
+        PushEvent event = eventQueue.pollFirst();
+        if (event != null) {
+            return event;
+        }
+        Iterator<PushEvent> iterator = stateMap.values().iterator();
+        if (iterator.hasNext()) {
+            event = iterator.next();
+            iterator.remove();
+            return event;
+        }
+        draining = false;
+        return null;
+    }
+
+    public synchronized int pendingSize() {
+        return eventQueue.size() + stateMap.size();
+    }
+
+    private boolean startDrain() {
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+}
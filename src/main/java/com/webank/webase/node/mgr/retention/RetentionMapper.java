@@ -0,0 +1,31 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.retention;
+
+import java.util.Map;
+import org.apache.ibatis.annotations.Select;
+import org.springframework.stereotype.Repository;
+
+/**
+ * db load probed by retention
+ */
+@Repository
+public interface RetentionMapper {
+
+    /**
+     * @return Variable_name and Value
+     */
+    @Select({ "show global status like 'Innodb_row_lock_current_waits'" })
+    Map<String, Object> getRowLockCurrentWaits();
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.retention;
+
+import lombok.Getter;
+
+/**
+ * adapt chunk size of delete and pause between chunks to load of db:
+ * shrink chunk and back off if chunk slower than target or rows lock waited,
+ * grow chunk slowly while chunks are fast.
+ */
+public class RetentionPacer {
+
+    private static final int BACKOFF_FACTOR = 4;
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long targetMillis;
+    private final long pauseMillis;
+    @Getter
+    private int chunkSize;
+
+    public RetentionPacer(int minChunkSize, int maxChunkSize, long targetMillis,
+        long pauseMillis) {
+        this.minChunkSize = Math.max(1, minChunkSize);
+        this.maxChunkSize = Math.max(this.minChunkSize, maxChunkSize);
+        this.targetMillis = targetMillis;
+        this.pauseMillis = pauseMillis;
+        this.chunkSize = this.minChunkSize;
+    }
+
+    /**
+     * record one chunk
+     * @param elapsedMillis time used by delete of chunk
+     * @param lockWaits rows lock waits of db now
+     * @return pause before next chunk, ms
+     */
+    public synchronized long onChunk(long elapsedMillis, long lockWaits) {
+        if (lockWaits > 0 || elapsedMillis > targetMillis * 2) {
+            chunkSize = Math.max(minChunkSize, chunkSize / 2);
+            return Math.max(pauseMillis, elapsedMillis) * BACKOFF_FACTOR;
+        }
+        if (elapsedMillis > targetMillis) {
+            chunkSize = Math.max(minChunkSize, chunkSize * 3 / 4);
+            return Math.max(pauseMillis, elapsedMillis);
+        }
+        chunkSize = Math.min(maxChunkSize, chunkSize + Math.max(1, chunkSize / 4));
+        return pauseMillis;
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.retention;
+
+import com.webank.webase.node.mgr.archive.ArchiveService;
+import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.block.BlockService;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.event.EventLogService;
+import com.webank.webase.node.mgr.monitor.AuditCheckpointMapper;
+import com.webank.webase.node.mgr.monitor.entity.TbAuditCheckpoint;
+import com.webank.webase.node.mgr.retention.entity.RetentionProgress;
+import com.webank.webase.node.mgr.rowcount.RowCountService;
+import com.webank.webase.node.mgr.table.TablePartitionService;
+import com.webank.webase.node.mgr.transaction.TransAddressService;
+import com.webank.webase.node.mgr.transaction.TransHashService;
+import com.webank.webase.node.mgr.transaction.entity.MinMaxTransNumber;
+import com.webank.webase.node.mgr.transdaily.TbTransDailyMapper;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * delete block and transaction out of retention by watermark,
+ * in small chunks bounded by key range, each chunk in its own statement,
+ * paced by RetentionPacer of the table.
+ * if table partitioned, partitions out of retention are dropped whole first.
+ * if archive enabled, rows of chunk are archived before deleted,
+ * and partitions are dropped after their rows archived and deleted.
+ */
+@Log4j2
+@Service
+public class RetentionService {
+
+    @Autowired
+    private BlockService blockService;
+    @Autowired
+    private TransHashService transHashService;
+    @Autowired
+    private TransAddressService transAddressService;
+    @Autowired
+    private EventLogService eventLogService;
+    @Autowired
+    private AuditCheckpointMapper auditCheckpointMapper;
+    @Autowired
+    private TbTransDailyMapper tbTransDailyMapper;
+    @Autowired
+    private RetentionMapper retentionMapper;
+    @Autowired
+    private TablePartitionService tablePartitionService;
+    @Autowired
+    private ArchiveService archiveService;
+    @Autowired
+    private RowCountService rowCountService;
+    @Autowired
+    private ConstantProperties cProperties;
+
+    /**
+     * key: table name, value: progress of table
+     */
+    private final Map<String, RetentionProgress> progressMap = new ConcurrentHashMap<>();
+    /**
+     * key: table name, value: pacer of table, kept between rounds
+     */
+    private final Map<String, RetentionPacer> pacerMap = new ConcurrentHashMap<>();
+    private volatile boolean lockWaitsProbeEnabled = true;
+
+    /**
+     * run one round of group within retentionRoundMaxMillis, continue in next round if not done
+     */
+    public void retain(int groupId) {
+        long deadline = System.currentTimeMillis() + cProperties.getRetentionRoundMaxMillis();
+        retainBlock(groupId, deadline);
+        retainTransHash(groupId, deadline);
+    }
+
+    /**
+     * keep latest blockRetainMax blocks, watermark is max block number minus retain count
+     */
+    private void retainBlock(int groupId, long deadline) {
+        String tableName = TableName.BLOCK.getTableName(groupId);
+        RetentionProgress progress = getProgress(groupId, tableName);
+        try {
+            BigInteger maxBlock = blockService.getLatestBlockNumber(groupId);
+            if (maxBlock == null) {
+                return;
+            }
+            long watermark = maxBlock.subtract(cProperties.getBlockRetainMax()).longValue();
+            boolean archive = archiveService.isEnabled();
+            if (!archive) {
+                dropPartitions(progress, watermark + 1, null);
+            }
+            BigInteger minBlock = blockService.getSmallestBlockHeight(groupId);
+            if (minBlock == null) {
+                return;
+            }
+            runChunks(progress, minBlock.longValue(), watermark, deadline, (from, to) -> {
+                BigInteger fromBlock = BigInteger.valueOf(from);
+                BigInteger toBlock = BigInteger.valueOf(to);
+                if (archive) {
+                    archiveService.archiveBlocks(groupId,
+                        blockService.listBetween(groupId, fromBlock, toBlock));
+                }
+                return blockService.removeBetween(groupId, fromBlock, toBlock);
+            });
+            if (archive) {
+                // blocks before cursor archived and deleted
+                dropPartitions(progress, Math.min(watermark + 1, progress.getCursor()), null);
+            }
+        } catch (Exception ex) {
+            log.error("fail retainBlock. groupId:{}", groupId, ex);
+            progress.setLastError(ex.getMessage());
+        }
+    }
+
+    /**
+     * keep latest transRetainMax transactions by trans number, and transactions not audited
+     * or not counted in trans daily
+     */
+    private void retainTransHash(int groupId, long deadline) {
+        String tableName = TableName.TRANS.getTableName(groupId);
+        RetentionProgress progress = getProgress(groupId, tableName);
+        try {
+            TbAuditCheckpoint checkpoint = auditCheckpointMapper.getByGroupId(groupId);
+            BigInteger dailyBlock = tbTransDailyMapper.queryMaxBlockByGroup(groupId);
+            if (checkpoint == null || checkpoint.getBlockNumber() == null || dailyBlock == null) {
+                return;
+            }
+            BigInteger beforeBlock = checkpoint.getBlockNumber().min(dailyBlock.add(BigInteger.ONE));
+            MinMaxTransNumber minMax = transHashService.getMinMaxTransNumber(groupId);
+            Long lastBefore = transHashService.getLastTransNumberBefore(groupId, beforeBlock);
+            if (minMax == null || minMax.getMinTransNumber() == null || lastBefore == null) {
+                return;
+            }
+            long watermark = Math.min(lastBefore,
+                minMax.getMaxTransNumber() - cProperties.getTransRetainMax().longValue());
+            boolean archive = archiveService.isEnabled();
+            if (!archive && dropPartitions(progress, beforeBlock.longValue(), watermark) > 0) {
+                minMax = transHashService.getMinMaxTransNumber(groupId);
+                boolean allDropped = minMax == null || minMax.getMinTransNumber() == null;
+                // address index and event log not partitioned, remove rows of dropped transactions
+                long minTransNumber = allDropped ? Long.MAX_VALUE : minMax.getMinTransNumber();
+                transAddressService.removeBefore(groupId, minTransNumber, beforeBlock, deadline);
+                eventLogService.removeBefore(groupId, minTransNumber, beforeBlock, deadline);
+                if (allDropped) {
+                    return;
+                }
+            }
+            // rows of chunk in later block are kept, cursor makes sure they not block progress
+            long from = progress.getCursor() == null ? minMax.getMinTransNumber()
+                : Math.max(progress.getCursor(), minMax.getMinTransNumber());
+            runChunks(progress, from, watermark, deadline, (fromNumber, toNumber) -> {
+                if (archive) {
+                    archiveService.archiveTrans(groupId, transHashService.listBetween(groupId,
+                        fromNumber, toNumber, beforeBlock));
+                }
+                return transHashService.removeBetween(groupId, fromNumber, toNumber,
+                    beforeBlock);
+            });
+            if (archive) {
+                // transactions before cursor and before block archived and deleted
+                dropPartitions(progress, beforeBlock.longValue(),
+                    Math.min(watermark, progress.getCursor() - 1));
+            }
+        } catch (Exception ex) {
+            log.error("fail retainTransHash. groupId:{}", groupId, ex);
+            progress.setLastError(ex.getMessage());
+        }
+    }
+
+    /**
+     * delete [from, watermark] chunk by chunk until done or deadline
+     */
+    private void runChunks(RetentionProgress progress, long from, long watermark, long deadline,
+        ChunkRemover remover) throws IOException {
+        RetentionPacer pacer = pacerMap.computeIfAbsent(progress.getTableName(),
+            k -> new RetentionPacer(cProperties.getRetentionChunkMin(),
+                cProperties.getRetentionChunkMax(), cProperties.getRetentionChunkTargetMillis(),
+                cProperties.getRetentionChunkPauseMillis()));
+        long startTime = System.currentTimeMillis();
+        long cursor = from;
+        long deleted = 0;
+        progress.setWatermark(watermark);
+        progress.setLastRunTime(LocalDateTime.now());
+        progress.setLastError(null);
+        try {
+            while (cursor <= watermark && System.currentTimeMillis() < deadline) {
+                long to = Math.min(watermark, cursor + pacer.getChunkSize() - 1);
+                long chunkStart = System.currentTimeMillis();
+                Integer affectRow = remover.remove(cursor, to);
+                long elapsed = System.currentTimeMillis() - chunkStart;
+                deleted += affectRow == null ? 0 : affectRow;
+                cursor = to + 1;
+                long pause = pacer.onChunk(elapsed, getRowLockWaits());
+                if (cursor <= watermark) {
+                    Thread.sleep(pause);
+                }
+            }
+        } catch (InterruptedException ex) {
+            log.warn("retention of {} interrupted", progress.getTableName());
+            Thread.currentThread().interrupt();
+        } finally {
+            progress.setCursor(cursor);
+            progress.setChunkSize(pacer.getChunkSize());
+            progress.setLastRoundDeleted(deleted);
+            progress.setTotalDeleted(progress.getTotalDeleted() + deleted);
+            progress.setLastRoundMillis(System.currentTimeMillis() - startTime);
+            progress.setCaughtUp(cursor > watermark);
+        }
+        log.debug("retention of {} watermark:{} cursor:{} deleted:{} chunkSize:{}",
+            progress.getTableName(), watermark, cursor, deleted, pacer.getChunkSize());
+    }
+
+    /**
+     * drop partitions of table before block, and not after maxTransNumber if not null
+     */
+    private int dropPartitions(RetentionProgress progress, long beforeBlock,
+        Long maxTransNumber) {
+        int dropCount = tablePartitionService.dropPartitionsBefore(progress.getTableName(),
+            beforeBlock, maxTransNumber);
+        progress.setDroppedPartitions(progress.getDroppedPartitions() + dropCount);
+        if (dropCount > 0) {
+            // rows of dropped partition not counted
+            rowCountService.reconcileLater(progress.getGroupId());
+        }
+        return dropCount;
+    }
+
+    /**
+     * current rows lock waits of db, 0 if not able to query
+     */
+    private long getRowLockWaits() {
+        if (!lockWaitsProbeEnabled) {
+            return 0L;
+        }
+        try {
+            Map<String, Object> status = retentionMapper.getRowLockCurrentWaits();
+            Object value = status == null ? null : status.get("Value");
+            return value == null ? 0L : NumberUtils.toLong(value.toString());
+        } catch (Exception ex) {
+            log.warn("query row lock waits fail, pace by chunk time only:{}", ex.getMessage());
+            lockWaitsProbeEnabled = false;
+            return 0L;
+        }
+    }
+
+    private RetentionProgress getProgress(int groupId, String tableName) {
+        return progressMap.computeIfAbsent(tableName, k -> {
+            RetentionProgress progress = new RetentionProgress();
+            progress.setGroupId(groupId);
+            progress.setTableName(tableName);
+            return progress;
+        });
+    }
+
+    /**
+     * progress of tables in group
+     */
+    public List<RetentionProgress> listProgress(int groupId) {
+        return progressMap.values().stream().filter(p -> p.getGroupId() == groupId)
+            .collect(Collectors.toList());
+    }
+
+    public void removeGroup(int groupId) {
+        progressMap.values().removeIf(p -> p.getGroupId() == groupId);
+        pacerMap.keySet().removeIf(tableName ->
+            tableName.equals(TableName.BLOCK.getTableName(groupId))
+                || tableName.equals(TableName.TRANS.getTableName(groupId)));
+    }
+
+    @FunctionalInterface
+    private interface ChunkRemover {
+        Integer remove(long from, long to) throws IOException;
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.retention.entity;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * progress of retention of one table in group,
+ * rows with key not after watermark are to delete, rows before cursor are deleted.
+ */
+@Data
+public class RetentionProgress {
+    private Integer groupId;
+    private String tableName;
+    private Long watermark;
+    private Long cursor;
+    private Integer chunkSize;
+    private Long lastRoundDeleted = 0L;
+    private Long totalDeleted = 0L;
+    private Integer droppedPartitions = 0;
+    private Long lastRoundMillis = 0L;
+    private Boolean caughtUp = true;
+    private LocalDateTime lastRunTime;
+    private String lastError;
+}
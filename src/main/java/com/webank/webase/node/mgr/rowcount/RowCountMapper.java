@@ -0,0 +1,49 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.rowcount;
+
+import com.webank.webase.node.mgr.base.entity.TableVersion;
+import com.webank.webase.node.mgr.rowcount.entity.TbRowCount;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * mapper of maintained row count.
+ */
+@Repository
+public interface RowCountMapper {
+
+    List<TbRowCount> listAll();
+
+    /**
+     * count and modify time of counter, changed only when delta flushed or reconciled.
+     * null if not counted yet
+     */
+    TableVersion getVersion(@Param("groupId") Integer groupId,
+        @Param("countKey") String countKey);
+
+    /**
+     * insert or overwrite by exact count.
+     */
+    Integer save(TbRowCount tbRowCount);
+
+    /**
+     * add delta to count, no row affected if not counted yet.
+     */
+    Integer addCount(@Param("groupId") Integer groupId, @Param("countKey") String countKey,
+        @Param("delta") Long delta);
+
+    Integer deleteByGroupId(@Param("groupId") Integer groupId);
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.rowcount;
+
+import com.webank.webase.node.mgr.base.enums.RowCountKey;
+import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.block.BlockMapper;
+import com.webank.webase.node.mgr.monitor.MonitorMapper;
+import com.webank.webase.node.mgr.rowcount.entity.TbRowCount;
+import com.webank.webase.node.mgr.transaction.TransHashMapper;
+import com.webank.webase.node.mgr.transaction.entity.TransListParam;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * row count of large per-group tables maintained instead of count(1) on each query.
+ * count is set by exact count in reconciliation, then moved by delta of insert and delete
+ * flushed from RowCounter. rows changed while counting may be counted twice until
+ * next reconciliation, group is reconciled soon if rows changed without delta,
+ * such as partition dropped or table migrated.
+ */
+@Log4j2
+@Service
+public class RowCountService {
+
+    @Autowired
+    private RowCountMapper rowCountMapper;
+    @Autowired
+    private RowCounter rowCounter;
+    @Autowired
+    private BlockMapper blockMapper;
+    @Autowired
+    private TransHashMapper transHashMapper;
+    @Autowired
+    private MonitorMapper monitorMapper;
+
+    /**
+     * count in tb_row_count at last flush, key: groupId
+     */
+    private volatile Map<Integer, Map<RowCountKey, Long>> countCache;
+    /**
+     * groups to reconcile at next flush
+     */
+    private final Set<Integer> dirtyGroups = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @return null if not counted yet, group is reconciled later
+     */
+    public Long getCount(int groupId, RowCountKey key) {
+        Long count = getCache().getOrDefault(groupId, Collections.emptyMap()).get(key);
+        if (count == null) {
+            dirtyGroups.add(groupId);
+            return null;
+        }
+        return Math.max(count + rowCounter.getDelta(groupId, key), 0L);
+    }
+
+    public void addAfterCommit(int groupId, RowCountKey key, long delta) {
+        rowCounter.addAfterCommit(groupId, key, delta);
+    }
+
+    /**
+     * rows changed without delta, recount at next flush
+     */
+    public void reconcileLater(int groupId) {
+        dirtyGroups.add(groupId);
+    }
+
+    /**
+     * whether group marked dirty or any count of group missing
+     */
+    public boolean needReconcile(int groupId) {
+        if (dirtyGroups.contains(groupId)) {
+            return true;
+        }
+        Map<RowCountKey, Long> groupCount = getCache().get(groupId);
+        return groupCount == null || groupCount.size() < RowCountKey.values().length;
+    }
+
+    /**
+     * add delta of counter to tb_row_count and reload, delta failed to flush is kept.
+     */
+    public synchronized void flush() {
+        Map<Integer, Map<RowCountKey, Long>> drained = rowCounter.drain();
+        drained.forEach((groupId, deltaMap) -> deltaMap.forEach((key, delta) -> {
+            try {
+                rowCountMapper.addCount(groupId, key.name(), delta);
+            } catch (RuntimeException ex) {
+                log.error("fail flush row count groupId:{} key:{}", groupId, key, ex);
+                rowCounter.add(groupId, key, delta);
+            }
+        }));
+        reload();
+    }
+
+    /**
+     * count rows of group exactly, counter is flushed first.
+     */
+    public synchronized void reconcile(int groupId) {
+        dirtyGroups.remove(groupId);
+        flush();
+        for (RowCountKey key : RowCountKey.values()) {
+            long exact = countExactly(groupId, key);
+            rowCountMapper.save(new TbRowCount(groupId, key.name(), exact));
+            log.info("reconcile row count groupId:{} key:{} count:{}", groupId, key, exact);
+        }
+        reload();
+    }
+
+    private long countExactly(int groupId, RowCountKey key) {
+        Integer count;
+        switch (key) {
+            case BLOCK:
+                count = blockMapper.getCount(TableName.BLOCK.getTableName(groupId), null, null);
+                break;
+            case TRANS:
+                count = transHashMapper.getCount(TableName.TRANS.getTableName(groupId),
+                    new TransListParam(null, null));
+                break;
+            case UNUSUAL_USER:
+                count = monitorMapper.countOfUnusualUser(
+                    TableName.MONITOR.getTableName(groupId), null, null);
+                break;
+            case UNUSUAL_CONTRACT:
+                count = monitorMapper.countOfUnusualContract(
+                    TableName.MONITOR.getTableName(groupId), null, null);
+                break;
+            default:
+                count = null;
+        }
+        return count == null ? 0L : count;
+    }
+
+    private Map<Integer, Map<RowCountKey, Long>> getCache() {
+        Map<Integer, Map<RowCountKey, Long>> cache = countCache;
+        if (cache == null) {
+            cache = reload();
+        }
+        return cache;
+    }
+
+    private synchronized Map<Integer, Map<RowCountKey, Long>> reload() {
+        Map<Integer, Map<RowCountKey, Long>> cache = new HashMap<>();
+        for (TbRowCount rowCount : rowCountMapper.listAll()) {
+            try {
+                cache.computeIfAbsent(rowCount.getGroupId(),
+                    k -> new EnumMap<>(RowCountKey.class))
+                    .put(RowCountKey.valueOf(rowCount.getCountKey()), rowCount.getRowCount());
+            } catch (IllegalArgumentException ex) {
+                log.warn("unknown row count key:{}", rowCount.getCountKey());
+            }
+        }
+        countCache = cache;
+        return cache;
+    }
+
+    /**
+     * delete by groupId.
+     */
+    public synchronized void deleteByGroupId(int groupId) {
+        rowCountMapper.deleteByGroupId(groupId);
+        rowCounter.removeGroup(groupId);
+        dirtyGroups.remove(groupId);
+        reload();
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.rowcount;
+
+import com.webank.webase.node.mgr.base.enums.RowCountKey;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * in-memory delta of row count per group per counter key since last flush,
+ * drained and added to tb_row_count periodically.
+ */
+@Component
+public class RowCounter {
+
+    /**
+     * key: groupId, value: map of counter key and its delta
+     */
+    private final Map<Integer, Map<RowCountKey, Long>> groupDeltaMap = new HashMap<>();
+
+    /**
+     * add delta after current transaction committed, or at once if no transaction
+     */
+    public void addAfterCommit(int groupId, RowCountKey key, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(groupId, key, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(groupId, key, delta);
+            }
+        });
+    }
+
+    public synchronized void add(int groupId, RowCountKey key, long delta) {
+        groupDeltaMap.computeIfAbsent(groupId, k -> new EnumMap<>(RowCountKey.class))
+            .merge(key, delta, Long::sum);
+    }
+
+    /**
+     * delta not flushed yet
+     */
+    public synchronized long getDelta(int groupId, RowCountKey key) {
+        Map<RowCountKey, Long> deltaMap = groupDeltaMap.get(groupId);
+        return deltaMap == null ? 0L : deltaMap.getOrDefault(key, 0L);
+    }
+
+    /**
+     * remove and return delta of all group
+     */
+    public synchronized Map<Integer, Map<RowCountKey, Long>> drain() {
+        Map<Integer, Map<RowCountKey, Long>> drained = new HashMap<>(groupDeltaMap);
+        groupDeltaMap.clear();
+        return drained;
+    }
+
+    public synchronized void removeGroup(int groupId) {
+        groupDeltaMap.remove(groupId);
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.rowcount.entity;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class of table tb_row_count,
+ * count of rows of group by counter key, set by exact count and added by flush of counter.
+ */
+@Data
+@NoArgsConstructor
+public class TbRowCount {
+
+    private Integer groupId;
+    private String countKey;
+    private Long rowCount;
+    private LocalDateTime reconcileTime;
+    private LocalDateTime modifyTime;
+
+    public TbRowCount(Integer groupId, String countKey, Long rowCount) {
+        this.groupId = groupId;
+        this.countKey = countKey;
+        this.rowCount = rowCount;
+    }
+}
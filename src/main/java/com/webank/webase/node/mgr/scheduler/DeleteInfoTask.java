@@ -15,8 +15,8 @@ package com.webank.webase.node.mgr.scheduler;
 
 
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.retention.RetentionService;
 import com.webank.webase.node.mgr.statistic.StatService;
-import com.webank.webase.node.mgr.transaction.entity.TransListParam;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
@@ -27,17 +27,16 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import com.webank.webase.node.mgr.base.enums.DataStatus;
-import com.webank.webase.node.mgr.block.BlockService;
+import com.webank.webase.node.mgr.group.GroupLeaseService;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
 import com.webank.webase.node.mgr.monitor.MonitorService;
-import com.webank.webase.node.mgr.transaction.TransHashService;
 
 import lombok.extern.log4j.Log4j2;
 
 /**
  * delete block/trans/monitorTrans data task
- * related: yml-constant-transRetainMax
+ * related: yml-constant-transRetainMax, blockRetainMax, retention*
  */
 @Log4j2
 @Component
@@ -47,9 +46,9 @@ public class DeleteInfoTask {
     @Autowired
     private GroupService groupService;
     @Autowired
-    private BlockService blockService;
+    private GroupLeaseService groupLeaseService;
     @Autowired
-    private TransHashService transHashService;
+    private RetentionService retentionService;
     @Autowired
     private ConstantProperties cProperties;
     @Autowired
@@ -70,7 +69,8 @@ public class DeleteInfoTask {
         Instant startTime = Instant.now();
         log.debug("start deleteInfoStart. startTime:{}", startTime.toEpochMilli());
         //get group list
-        List<TbGroup> groupList = groupService.getGroupList(DataStatus.NORMAL.getValue());
+        List<TbGroup> groupList = groupLeaseService
+            .filterOwned(groupService.getGroupList(DataStatus.NORMAL.getValue()));
         if (groupList == null || groupList.size() == 0) {
             log.warn("DeleteInfoTask jump over, not found any group");
             return;
@@ -86,10 +86,8 @@ public class DeleteInfoTask {
      * delete by groupId.
      */
     private void deleteByGroupId(int groupId) {
-        //delete block
-        deleteBlock(groupId);
-        //delete transHash
-        deleteTransHash(groupId);
+        //delete block and transHash in chunks
+        retainBlockAndTrans(groupId);
         //delete transaction monitor info
         deleteTransMonitor(groupId);
         // delete block stat data
@@ -98,35 +96,13 @@ public class DeleteInfoTask {
 
 
     /**
-     * delete block.
+     * delete block and transHash out of retention,
+     * only transactions before audit checkpoint are deleted.
      */
-    private void deleteBlock(int groupId) {
-        log.debug("start deleteBlock. groupId:{}", groupId);
-        try {
-            Integer removeCount = blockService.remove(groupId, cProperties.getBlockRetainMax());
-            log.debug("end deleteBlock. groupId:{} removeCount:{}", groupId, removeCount);
-        } catch (Exception ex) {
-            log.error("fail deleteBlock. groupId:{}", groupId, ex);
-        }
-    }
-
-    /**
-     * delete transHash.
-     */
-    private void deleteTransHash(int groupId) {
-        log.debug("start deleteTransHash. groupId:{}", groupId);
-        try {
-            TransListParam queryParam = new TransListParam(null, null);
-            Integer count = transHashService.queryCountOfTran(groupId, queryParam);
-            Integer removeCount = 0;
-            if (count > cProperties.getTransRetainMax().intValue()) {
-                Integer subTransNum = count - cProperties.getTransRetainMax().intValue();
-                removeCount = transHashService.remove(groupId, subTransNum);
-            }
-            log.debug("end deleteTransHash. groupId:{} removeCount:{}", groupId, removeCount);
-        } catch (Exception ex) {
-            log.error("fail deleteTransHash. groupId:{}", groupId, ex);
-        }
+    private void retainBlockAndTrans(int groupId) {
+        log.debug("start retainBlockAndTrans. groupId:{}", groupId);
+        retentionService.retain(groupId);
+        log.debug("end retainBlockAndTrans. groupId:{}", groupId);
     }
 
 
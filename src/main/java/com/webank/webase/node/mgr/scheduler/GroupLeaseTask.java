@@ -0,0 +1,40 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.scheduler;
+
+import com.webank.webase.node.mgr.group.GroupLeaseService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * renew and claim group lease of this instance
+ */
+@Log4j2
+@Component
+public class GroupLeaseTask {
+
+    @Autowired
+    private GroupLeaseService groupLeaseService;
+
+    @Scheduled(fixedDelayString = "${constant.groupLeaseRenewInterval:10000}")
+    public void taskStart() {
+        try {
+            groupLeaseService.renewLease();
+        } catch (Exception ex) {
+            log.error("fail renewLease", ex);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.scheduler;
+
+import com.webank.webase.node.mgr.base.enums.GroupStatus;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.group.GroupLeaseService;
+import com.webank.webase.node.mgr.group.GroupService;
+import com.webank.webase.node.mgr.group.entity.TbGroup;
+import com.webank.webase.node.mgr.table.TablePartitionService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * migrate block and trans table of owned groups to partitioned table,
+ * and create partitions ahead of latest block.
+ * related: yml-constant-partition*
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "constant.partitionEnable", havingValue = "true")
+public class PartitionMaintainTask {
+
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private GroupLeaseService groupLeaseService;
+    @Autowired
+    private TablePartitionService tablePartitionService;
+    @Autowired
+    private ConstantProperties cProperties;
+
+    @Scheduled(fixedDelayString = "${constant.partitionMaintainInterval}",
+        initialDelayString = "${constant.partitionMaintainInterval}")
+    public void taskStart() {
+        maintainStart();
+    }
+
+    public synchronized void maintainStart() {
+        Instant startTime = Instant.now();
+        log.debug("start maintainStart. startTime:{}", startTime.toEpochMilli());
+        List<TbGroup> groupList = groupLeaseService
+            .filterOwned(groupService.getGroupList(GroupStatus.NORMAL.getValue()));
+        if (groupList == null || groupList.isEmpty()) {
+            log.warn("PartitionMaintainTask jump over, not found any group");
+            return;
+        }
+        for (TbGroup group : groupList) {
+            long deadline = System.currentTimeMillis()
+                + cProperties.getPartitionMigrateRoundMaxMillis();
+            tablePartitionService.maintain(group.getGroupId(), deadline);
+        }
+        log.debug("end maintainStart useTime:{}",
+            Duration.between(startTime, Instant.now()).toMillis());
+    }
+}
@@ -15,6 +15,7 @@ package com.webank.webase.node.mgr.scheduler;
 
 import com.webank.webase.node.mgr.base.enums.GroupStatus;
 import com.webank.webase.node.mgr.block.BlockService;
+import com.webank.webase.node.mgr.group.GroupLeaseService;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
 import java.time.Duration;
@@ -38,6 +39,8 @@ public class PullBlockTransTask {
     private BlockService blockService;
     @Autowired
     private GroupService groupService;
+    @Autowired
+    private GroupLeaseService groupLeaseService;
 
     @Scheduled(fixedDelayString = "${constant.pullBlockTaskFixedDelay}")
     public void taskStart() {
@@ -50,7 +53,8 @@ public class PullBlockTransTask {
     public synchronized void pullBlockStart() {
         Instant startTime = Instant.now();
         log.debug("start pullBLock startTime:{}", startTime.toEpochMilli());
-        List<TbGroup> groupList = groupService.getGroupList(GroupStatus.NORMAL.getValue());
+        List<TbGroup> groupList = groupLeaseService
+            .filterOwned(groupService.getGroupList(GroupStatus.NORMAL.getValue()));
         if (groupList == null || groupList.size() == 0) {
             log.warn("pullBlock jump over: not found any group");
             return;
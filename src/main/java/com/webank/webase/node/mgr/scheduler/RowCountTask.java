@@ -0,0 +1,90 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.webank.webase.node.mgr.scheduler;
+
+import com.webank.webase.node.mgr.base.enums.GroupStatus;
+import com.webank.webase.node.mgr.group.GroupLeaseService;
+import com.webank.webase.node.mgr.group.GroupService;
+import com.webank.webase.node.mgr.group.entity.TbGroup;
+import com.webank.webase.node.mgr.rowcount.RowCountService;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * flush row count delta periodically, reconcile owned groups not counted or marked dirty
+ * at each flush, and all owned groups by exact count in rowCountReconcileInterval.
+ */
+@Log4j2
+@Component
+public class RowCountTask {
+
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private GroupLeaseService groupLeaseService;
+    @Autowired
+    private RowCountService rowCountService;
+
+    @Scheduled(fixedDelayString = "${constant.rowCountFlushInterval}")
+    public void flushStart() {
+        try {
+            rowCountService.flush();
+        } catch (Exception ex) {
+            log.error("fail flush row count", ex);
+            return;
+        }
+        for (TbGroup group : getOwnedGroups()) {
+            if (rowCountService.needReconcile(group.getGroupId())) {
+                reconcile(group.getGroupId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${constant.rowCountReconcileInterval}",
+        initialDelayString = "${constant.rowCountReconcileInterval}")
+    public void reconcileStart() {
+        getOwnedGroups().forEach(group -> reconcile(group.getGroupId()));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            rowCountService.flush();
+        } catch (Exception ex) {
+            log.error("fail flush row count on shutdown", ex);
+        }
+    }
+
+    private void reconcile(int groupId) {
+        try {
+            rowCountService.reconcile(groupId);
+        } catch (Exception ex) {
+            log.error("fail reconcile row count groupId:{}", groupId, ex);
+            rowCountService.reconcileLater(groupId);
+        }
+    }
+
+    private List<TbGroup> getOwnedGroups() {
+        List<TbGroup> groupList = groupLeaseService
+            .filterOwned(groupService.getGroupList(GroupStatus.NORMAL.getValue()));
+        return groupList == null ? Collections.emptyList() : groupList;
+    }
+}
@@ -15,20 +15,15 @@
  */
 package com.webank.webase.node.mgr.scheduler;
 
-import com.webank.webase.node.mgr.base.enums.SqlSortType;
-import com.webank.webase.node.mgr.base.exception.NodeMgrException;
-import com.webank.webase.node.mgr.block.entity.BlockListParam;
-import com.webank.webase.node.mgr.block.BlockService;
-import com.webank.webase.node.mgr.block.entity.TbBlock;
+import com.webank.webase.node.mgr.base.enums.GroupStatus;
+import com.webank.webase.node.mgr.group.GroupLeaseService;
 import com.webank.webase.node.mgr.group.GroupService;
-import com.webank.webase.node.mgr.group.entity.StatisticalGroupTransInfo;
+import com.webank.webase.node.mgr.group.entity.TbGroup;
 import com.webank.webase.node.mgr.transdaily.TransDailyService;
-import java.math.BigInteger;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
+import javax.annotation.PreDestroy;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -37,6 +32,8 @@ import org.springframework.stereotype.Component;
 /**
  * Timed tasks for counting daily transaction data.
  * using in web's charts
+ * trans count is added to counter when block committed and flushed periodically,
+ * reconciliation counts blocks missed by counter from db.
  */
 @Log4j2
 @Component
@@ -45,7 +42,7 @@ public class StatisticsTransdailyTask {
     @Autowired
     private GroupService groupService;
     @Autowired
-    private BlockService blockService;
+    private GroupLeaseService groupLeaseService;
     @Autowired
     private TransDailyService transDailyService;
 
@@ -55,97 +52,40 @@ public class StatisticsTransdailyTask {
         updateTransdailyData();
     }
 
-    /**
-     * counting daily transaction data.
-     */
-    public synchronized void updateTransdailyData() {
-        Instant startTime = Instant.now();
-        log.debug("start updateTransdailyData startTime:{}", startTime.toEpochMilli());
+    @Scheduled(fixedDelayString = "${constant.transDailyFlushInterval}")
+    public void flushStart() {
         try {
-
-            // query all group statistical info
-            List<StatisticalGroupTransInfo> groupStatisticalList = groupService
-                .queryLatestStatisticalTrans();
-
-            // traverse group list
-            traverseNetList(groupStatisticalList);
-
+            transDailyService.flushCounter();
         } catch (Exception ex) {
-            log.error("fail updateTransdailyData", ex);
+            log.error("fail flushCounter", ex);
         }
-        log.debug("end updateTransdailyData useTime:{}",
-            Duration.between(startTime, Instant.now()).toMillis());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushStart();
     }
 
     /**
-     * traverse group list.
+     * reconcile daily transaction data of owned groups.
      */
-    private void traverseNetList(List<StatisticalGroupTransInfo> groupStatisticalList)
-        throws NodeMgrException {
-        if (groupStatisticalList == null | groupStatisticalList.size() == 0) {
+    public synchronized void updateTransdailyData() {
+        Instant startTime = Instant.now();
+        log.debug("start updateTransdailyData startTime:{}", startTime.toEpochMilli());
+        List<TbGroup> groupList = groupLeaseService
+            .filterOwned(groupService.getGroupList(GroupStatus.NORMAL.getValue()));
+        if (groupList == null || groupList.isEmpty()) {
             log.warn("updateTransdailyData jump over: no group information exists");
             return;
         }
-
-        // traverse group list
-        for (StatisticalGroupTransInfo statisticalInfo : groupStatisticalList) {
-            LocalDate latestSaveDay = statisticalInfo.getMaxDay();
-            BigInteger latestSaveBlockNumber = Optional.ofNullable(statisticalInfo.getBlockNumber())
-                .orElse(BigInteger.ZERO);
-            BigInteger netTransCount = Optional.ofNullable(statisticalInfo.getTransCount())
-                .orElse(BigInteger.ZERO);
-            BigInteger maxBlockNumber = latestSaveBlockNumber;
-            Integer groupId = statisticalInfo.getGroupId();
-
-            // query block list
-            BlockListParam queryParam = new BlockListParam(maxBlockNumber, latestSaveDay,
-                SqlSortType.ASC.getValue());
-            List<TbBlock> blockList = blockService.queryBlockList(groupId,queryParam);
-
-            // Traversing block list
-            if (blockList == null | blockList.size() == 0) {
-                log.debug("updateTransdailyData jump over .This chain [{}] did not find new block",
-                    groupId);
-                continue;
-            }
-            for (int i = 0; i < blockList.size(); i++) {
-                TbBlock tbBlock = blockList.get(i);
-                LocalDate blockDate = tbBlock.getBlockTimestamp() == null ? null
-                    : tbBlock.getBlockTimestamp().toLocalDate();
-                if (blockDate == null) {
-                    log.debug("updateTransdailyData jump over . blockDate is null");
-                    continue;
-                }
-
-                BigInteger blockTransCount = new BigInteger(
-                    String.valueOf(tbBlock.getTransCount()));
-                if (blockDate.equals(latestSaveDay)) {
-                    netTransCount = netTransCount.add(blockTransCount);
-                    maxBlockNumber = tbBlock.getBlockNumber();
-                } else {
-                    if (netTransCount.intValue() > 0 && latestSaveDay != null) {
-                        transDailyService
-                            .updateTransDaily(groupId, latestSaveDay, latestSaveBlockNumber,
-                                maxBlockNumber, netTransCount);
-                    }
-
-                    transDailyService
-                        .addTbTransDailyInfo(groupId, blockDate, tbBlock.getTransCount(),
-                            tbBlock.getBlockNumber());
-
-                    latestSaveBlockNumber = tbBlock.getBlockNumber();
-                    latestSaveDay = blockDate;
-                    netTransCount = blockTransCount;
-                    maxBlockNumber = tbBlock.getBlockNumber();
-                }
-
-                //latest block of list
-                if (i == (blockList.size() - 1)) {
-                    transDailyService
-                        .updateTransDaily(groupId, latestSaveDay, latestSaveBlockNumber,
-                            maxBlockNumber, netTransCount);
-                }
+        for (TbGroup group : groupList) {
+            try {
+                transDailyService.reconcile(group.getGroupId());
+            } catch (Exception ex) {
+                log.error("fail updateTransdailyData groupId:{}", group.getGroupId(), ex);
             }
         }
+        log.debug("end updateTransdailyData useTime:{}",
+            Duration.between(startTime, Instant.now()).toMillis());
     }
 }
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.scheduler;
+
+import com.webank.webase.node.mgr.base.enums.GroupStatus;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.group.GroupLeaseService;
+import com.webank.webase.node.mgr.group.GroupService;
+import com.webank.webase.node.mgr.group.entity.TbGroup;
+import com.webank.webase.node.mgr.transaction.TransAddressService;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * backfill address index of transaction of owned groups, each round limited in time.
+ */
+@Log4j2
+@Component
+public class TransAddressBackfillTask {
+
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private GroupLeaseService groupLeaseService;
+    @Autowired
+    private TransAddressService transAddressService;
+    @Autowired
+    private ConstantProperties cProperties;
+
+    @Scheduled(fixedDelayString = "${constant.transAddressBackfillInterval}")
+    public void taskStart() {
+        List<TbGroup> groupList = groupLeaseService
+            .filterOwned(groupService.getGroupList(GroupStatus.NORMAL.getValue()));
+        if (groupList == null) {
+            return;
+        }
+        long deadline =
+            System.currentTimeMillis() + cProperties.getTransAddressBackfillRoundMaxMillis();
+        for (TbGroup group : groupList) {
+            try {
+                transAddressService.backfill(group.getGroupId(), deadline);
+            } catch (Exception ex) {
+                log.error("fail backfill address index. groupId:{}", group.getGroupId(), ex);
+            }
+        }
+    }
+}
@@ -14,6 +14,7 @@
 package com.webank.webase.node.mgr.scheduler;
 
 import com.webank.webase.node.mgr.base.enums.DataStatus;
+import com.webank.webase.node.mgr.group.GroupLeaseService;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.group.entity.TbGroup;
 import com.webank.webase.node.mgr.monitor.MonitorService;
@@ -40,6 +41,8 @@ public class TransMonitorTask {
     @Autowired
     private GroupService groupService;
     @Autowired
+    private GroupLeaseService groupLeaseService;
+    @Autowired
     private StatService statService;
 
     @Scheduled(fixedRateString = "${constant.transMonitorTaskFixedRate}")
@@ -59,7 +62,8 @@ public class TransMonitorTask {
         Instant startTime = Instant.now();
         log.debug("=== start monitor. startTime:{}", startTime.toEpochMilli());
         //get group list
-        List<TbGroup> groupList = groupService.getGroupList(DataStatus.NORMAL.getValue());
+        List<TbGroup> groupList = groupLeaseService
+            .filterOwned(groupService.getGroupList(DataStatus.NORMAL.getValue()));
         if (groupList == null || groupList.size() == 0) {
             log.warn("monitor jump over, not found any group");
             return;
@@ -87,7 +91,8 @@ public class TransMonitorTask {
         Instant startTime = Instant.now();
         log.debug("=== start blockStat. startTime:{}", startTime.toEpochMilli());
         //get group list
-        List<TbGroup> groupList = groupService.getGroupList(DataStatus.NORMAL.getValue());
+        List<TbGroup> groupList = groupLeaseService
+            .filterOwned(groupService.getGroupList(DataStatus.NORMAL.getValue()));
         if (groupList == null || groupList.size() == 0) {
             log.warn("blockStat jump over, not found any group");
             return;
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.search;
+
+import com.webank.webase.node.mgr.base.entity.TableVersion;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * trigram index of one search type per group, loaded at first search.
+ * index of group is dropped if rows in db changed since last check, checked at most once
+ * per interval, so writes of other instances are seen within the interval.
+ * writes of this instance are applied to loaded index entry by entry after commit.
+ * apply and load of same group are serialized by the map, so entry written while loading
+ * is applied on the loaded index.
+ */
+@Log4j2
+public class GroupNameIndex {
+
+    private final String type;
+    private final IntFunction<List<NameEntry>> loader;
+    private final IntFunction<TableVersion> versionLoader;
+    private final long checkInterval;
+
+    private final Map<Integer, TrigramIndex> indexMap = new ConcurrentHashMap<>();
+    private final Map<Integer, TableVersion> tableVersionMap = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> versionCheckTimeMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param loader entries of group
+     * @param versionLoader version of rows of group
+     * @param checkInterval min interval(ms) of version check
+     */
+    public GroupNameIndex(String type, IntFunction<List<NameEntry>> loader,
+        IntFunction<TableVersion> versionLoader, long checkInterval) {
+        this.type = type;
+        this.loader = loader;
+        this.versionLoader = versionLoader;
+        this.checkInterval = checkInterval;
+    }
+
+    public TrigramIndex get(int groupId) {
+        checkVersion(groupId);
+        return indexMap.computeIfAbsent(groupId, id -> {
+            TrigramIndex index = TrigramIndex.build(loader.apply(id));
+            log.info("load {} name index of group:{} size:{}", type, id, index.size());
+            return index;
+        });
+    }
+
+    /**
+     * add or replace entry of same id in loaded index, after commit if in transaction
+     */
+    public void put(int groupId, NameEntry entry) {
+        afterCommit(() -> indexMap.computeIfPresent(groupId, (id, index) -> index.with(entry)));
+    }
+
+    /**
+     * remove entry of id from loaded index, after commit if in transaction
+     */
+    public void remove(int groupId, Integer id) {
+        afterCommit(() -> indexMap.computeIfPresent(groupId, (k, index) -> index.without(id)));
+    }
+
+    /**
+     * drop index of group for bulk write, again after commit if in transaction
+     * as index may be loaded by other thread before commit
+     */
+    public void invalidate(int groupId) {
+        indexMap.remove(groupId);
+        afterCommit(() -> indexMap.remove(groupId));
+    }
+
+    public void invalidateAll() {
+        indexMap.clear();
+        afterCommit(indexMap::clear);
+    }
+
+    public void removeGroup(int groupId) {
+        indexMap.remove(groupId);
+        tableVersionMap.remove(groupId);
+        versionCheckTimeMap.remove(groupId);
+    }
+
+    /**
+     * drop index of group if rows in db changed since last check, checked at most once
+     * per interval. version is read before index loaded, so rows saved between them lead
+     * to one more reload but never lost
+     */
+    private void checkVersion(int groupId) {
+        long now = System.currentTimeMillis();
+        Long checkTime = versionCheckTimeMap.get(groupId);
+        if (checkTime != null && now - checkTime < checkInterval) {
+            return;
+        }
+        versionCheckTimeMap.put(groupId, now);
+        TableVersion version = versionLoader.apply(groupId);
+        TableVersion lastVersion = tableVersionMap.put(groupId, version);
+        if (lastVersion != null && !lastVersion.equals(version)) {
+            log.info("{} of group:{} changed, reload name index. version:{}", type, groupId,
+                version);
+            indexMap.remove(groupId);
+        }
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+    }
+}
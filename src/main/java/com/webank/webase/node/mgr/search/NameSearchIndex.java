@@ -0,0 +1,159 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.search;
+
+import com.webank.webase.node.mgr.base.entity.TableVersion;
+import com.webank.webase.node.mgr.base.enums.RowCountKey;
+import com.webank.webase.node.mgr.base.enums.SearchType;
+import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.contract.ContractMapper;
+import com.webank.webase.node.mgr.contract.abi.AbiMapper;
+import com.webank.webase.node.mgr.monitor.MonitorMapper;
+import com.webank.webase.node.mgr.rowcount.RowCountMapper;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
+import com.webank.webase.node.mgr.user.UserMapper;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * in-memory trigram index of contract name, abi contract name and address,
+ * user name and address, monitor unusual user name and contract address per group,
+ * instead of like '%keyword%' scanning tables. see {@link GroupNameIndex} for freshness.
+ */
+@Component
+public class NameSearchIndex {
+
+    @Autowired
+    private ContractMapper contractMapper;
+    @Autowired
+    private AbiMapper abiMapper;
+    @Autowired
+    private UserMapper userMapper;
+    @Autowired
+    private MonitorMapper monitorMapper;
+    @Autowired
+    private RowCountMapper rowCountMapper;
+    @Autowired
+    private ConstantProperties constantProperties;
+
+    private final Map<SearchType, GroupNameIndex> indexMap = new EnumMap<>(SearchType.class);
+
+    @PostConstruct
+    public void init() {
+        long interval = constantProperties.getLocalIndexCheckInterval();
+        indexMap.put(SearchType.CONTRACT, new GroupNameIndex(SearchType.CONTRACT.getValue(),
+            contractMapper::listNameEntry, contractMapper::getNameVersion, interval));
+        indexMap.put(SearchType.ABI, new GroupNameIndex(SearchType.ABI.getValue(),
+            abiMapper::listNameEntry, abiMapper::getNameVersion, interval));
+        indexMap.put(SearchType.USER, new GroupNameIndex(SearchType.USER.getValue(),
+            userMapper::listNameEntry, userMapper::getNameVersion, interval));
+        indexMap.put(SearchType.UNUSUAL_USER, new GroupNameIndex(
+            SearchType.UNUSUAL_USER.getValue(),
+            groupId -> monitorMapper.listUnusualUserEntry(TableName.MONITOR.getTableName(groupId)),
+            groupId -> counterVersion(groupId, RowCountKey.UNUSUAL_USER), interval));
+        indexMap.put(SearchType.UNUSUAL_CONTRACT, new GroupNameIndex(
+            SearchType.UNUSUAL_CONTRACT.getValue(),
+            groupId -> monitorMapper
+                .listUnusualContractEntry(TableName.MONITOR.getTableName(groupId)),
+            groupId -> counterVersion(groupId, RowCountKey.UNUSUAL_CONTRACT), interval));
+    }
+
+    /**
+     * version of monitor unusual entries by their counter in tb_row_count, which is moved
+     * only by new or removed entries instead of each audit batch, and read by primary key
+     */
+    private TableVersion counterVersion(int groupId, RowCountKey key) {
+        TableVersion version = rowCountMapper.getVersion(groupId, key.name());
+        // not counted yet
+        return version == null ? new TableVersion() : version;
+    }
+
+    /**
+     * ranked entries of which name or address contains keyword
+     * @param limit not limited if not positive
+     */
+    public List<NameEntry> search(SearchType type, int groupId, String keyword, int limit) {
+        return indexMap.get(type).get(groupId).search(keyword, limit);
+    }
+
+    /**
+     * values of entries of which term contains keyword, to query by values in sql
+     * instead of like '%keyword%'
+     * @return null if more than nameSearchInMax matched
+     */
+    public <T> List<T> searchValues(SearchType type, int groupId, String keyword,
+        Function<NameEntry, String> term, Function<NameEntry, T> value) {
+        return match(search(type, groupId, keyword, 0), keyword, term, value,
+            constantProperties.getNameSearchInMax());
+    }
+
+    /**
+     * distinct values of entries of which term contains trimmed keyword ignoring case
+     * @return null if more than maxCount matched, left to like in sql
+     */
+    public static <T> List<T> match(List<NameEntry> entryList, String keyword,
+        Function<NameEntry, String> term, Function<NameEntry, T> value, int maxCount) {
+        String query = StringUtils.trimToEmpty(keyword);
+        Set<T> valueSet = new LinkedHashSet<>();
+        for (NameEntry entry : entryList) {
+            if (StringUtils.containsIgnoreCase(term.apply(entry), query)
+                && valueSet.add(value.apply(entry)) && valueSet.size() > maxCount) {
+                return null;
+            }
+        }
+        return new ArrayList<>(valueSet);
+    }
+
+    /**
+     * add or replace entry of same id after commit
+     */
+    public void put(SearchType type, int groupId, NameEntry entry) {
+        indexMap.get(type).put(groupId, entry);
+    }
+
+    /**
+     * remove entry of id after commit
+     */
+    public void remove(SearchType type, int groupId, Integer id) {
+        indexMap.get(type).remove(groupId, id);
+    }
+
+    /**
+     * drop index of group for bulk write
+     */
+    public void invalidate(SearchType type, int groupId) {
+        indexMap.get(type).invalidate(groupId);
+    }
+
+    /**
+     * invalidate index of type of all groups
+     */
+    public void invalidateAll(SearchType type) {
+        indexMap.get(type).invalidateAll();
+    }
+
+    public void removeGroup(int groupId) {
+        indexMap.values().forEach(index -> index.removeGroup(groupId));
+    }
+}
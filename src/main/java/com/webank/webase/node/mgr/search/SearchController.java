@@ -0,0 +1,72 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.search;
+
+import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.entity.BaseResponse;
+import com.webank.webase.node.mgr.base.enums.SearchType;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * search contract, abi and user of group by part of name or address.
+ */
+@Log4j2
+@RestController
+@RequestMapping("search")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    /**
+     * ranked entries of type matching keyword, exact match first, then prefix match
+     */
+    @GetMapping("/{groupId}")
+    @PreAuthorize(ConstantProperties.HAS_ROLE_ADMIN)
+    public BaseResponse searchByName(@PathVariable("groupId") Integer groupId,
+        @RequestParam("keyword") String keyword,
+        @RequestParam(value = "type", defaultValue = "contract") String type,
+        @RequestParam(value = "limit", defaultValue = "20") Integer limit) {
+        Instant startTime = Instant.now();
+        log.info("start searchByName startTime:{} groupId:{} type:{} keyword:{}",
+            startTime.toEpochMilli(), groupId, type, keyword);
+        SearchType searchType = SearchType.getByValue(type);
+        if (searchType == null || StringUtils.isBlank(keyword) || limit < 1) {
+            return new BaseResponse(ConstantCode.INVALID_PARAM_INFO);
+        }
+        List<NameEntry> res = nameSearchIndex.search(searchType, groupId, keyword,
+            Math.min(limit, MAX_LIMIT));
+
+        BaseResponse baseResponse = new BaseResponse(ConstantCode.SUCCESS);
+        baseResponse.setData(res);
+        log.info("end searchByName useTime:{} size:{}",
+            Duration.between(startTime, Instant.now()).toMillis(), res.size());
+        return baseResponse;
+    }
+}
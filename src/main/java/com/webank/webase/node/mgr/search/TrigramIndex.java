@@ -0,0 +1,250 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.search;
+
+import com.webank.webase.node.mgr.search.entity.NameEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * immutable case-insensitive substring index of name and address of entries.
+ * each trigram of lower-cased terms maps to sorted positions of entries containing it,
+ * keyword of 3 or more chars is matched by the shortest posting list and verified by contains,
+ * shorter keyword scans all entries. index is updated by copy, removed entry is left as
+ * empty slot until slots outnumber entries.
+ */
+public final class TrigramIndex {
+
+    public static final TrigramIndex EMPTY = build(new ArrayList<>());
+
+    private static final int GRAM = 3;
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_CONTAINS = 1;
+
+    /**
+     * null at position of removed entry
+     */
+    private final NameEntry[] entries;
+    /**
+     * lower-cased name and address of entry at same position
+     */
+    private final String[][] terms;
+    private final Map<String, int[]> postingMap;
+    private final int size;
+
+    private TrigramIndex(NameEntry[] entries, String[][] terms, Map<String, int[]> postingMap,
+        int size) {
+        this.entries = entries;
+        this.terms = terms;
+        this.postingMap = postingMap;
+        this.size = size;
+    }
+
+    public static TrigramIndex build(Collection<NameEntry> entryList) {
+        NameEntry[] entries = entryList.toArray(new NameEntry[0]);
+        String[][] terms = new String[entries.length][];
+        Map<String, List<Integer>> positionMap = new HashMap<>();
+        for (int i = 0; i < entries.length; i++) {
+            terms[i] = toTerms(entries[i]);
+            for (String gram : toGrams(terms[i])) {
+                positionMap.computeIfAbsent(gram, k -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<String, int[]> postingMap = new HashMap<>(positionMap.size() * 2);
+        positionMap.forEach((gram, positions) ->
+            postingMap.put(gram, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return new TrigramIndex(entries, terms, postingMap, entries.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * copy of index with entry added, or replacing entry of same id.
+     * postings of replaced terms are kept, as candidates are verified by terms
+     */
+    public TrigramIndex with(NameEntry entry) {
+        int position = positionOf(entry.getId());
+        boolean added = position < 0;
+        if (added) {
+            position = entries.length;
+        }
+        NameEntry[] newEntries = Arrays.copyOf(entries, added ? position + 1 : entries.length);
+        String[][] newTerms = Arrays.copyOf(terms, newEntries.length);
+        newEntries[position] = entry;
+        newTerms[position] = toTerms(entry);
+        Map<String, int[]> newPostingMap = new HashMap<>(postingMap);
+        for (String gram : toGrams(newTerms[position])) {
+            newPostingMap.put(gram, insert(newPostingMap.get(gram), position));
+        }
+        return new TrigramIndex(newEntries, newTerms, newPostingMap, added ? size + 1 : size);
+    }
+
+    /**
+     * copy of index without entry of id, rebuilt if empty slots outnumber entries
+     */
+    public TrigramIndex without(Integer id) {
+        int position = positionOf(id);
+        if (position < 0) {
+            return this;
+        }
+        NameEntry[] newEntries = entries.clone();
+        newEntries[position] = null;
+        if ((size - 1) * 2 < entries.length) {
+            List<NameEntry> entryList = new ArrayList<>(size - 1);
+            for (NameEntry entry : newEntries) {
+                if (entry != null) {
+                    entryList.add(entry);
+                }
+            }
+            return build(entryList);
+        }
+        String[][] newTerms = terms.clone();
+        newTerms[position] = new String[0];
+        return new TrigramIndex(newEntries, newTerms, postingMap, size - 1);
+    }
+
+    /**
+     * entries of which name or address contains keyword ignoring case, ranked by
+     * exact match, prefix match, then shorter term and index order
+     * @param limit max count of result, not limited if not positive
+     */
+    public List<NameEntry> search(String keyword, int limit) {
+        String query = StringUtils.trimToEmpty(keyword).toLowerCase(Locale.ROOT);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<int[]> hitList = new ArrayList<>();
+        for (int position : candidates(query)) {
+            int best = 0;
+            int length = Integer.MAX_VALUE;
+            for (String term : terms[position]) {
+                int score = score(term, query);
+                if (score > best || (score == best && score > 0 && term.length() < length)) {
+                    best = score;
+                    length = term.length();
+                }
+            }
+            if (best > 0) {
+                hitList.add(new int[]{position, best, length});
+            }
+        }
+        hitList.sort(Comparator.<int[]>comparingInt(hit -> -hit[1])
+            .thenComparingInt(hit -> hit[2]).thenComparingInt(hit -> hit[0]));
+        int count = limit > 0 ? Math.min(limit, hitList.size()) : hitList.size();
+        List<NameEntry> resList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            resList.add(entries[hitList.get(i)[0]]);
+        }
+        return resList;
+    }
+
+    /**
+     * positions of entries containing all trigrams of query, all if query shorter than trigram
+     */
+    private int[] candidates(String query) {
+        if (query.length() < GRAM) {
+            int[] all = new int[entries.length];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        int[] shortest = null;
+        for (String gram : toGrams(query)) {
+            int[] posting = postingMap.get(gram);
+            if (posting == null) {
+                return new int[0];
+            }
+            if (shortest == null || posting.length < shortest.length) {
+                shortest = posting;
+            }
+        }
+        return shortest;
+    }
+
+    /**
+     * @return -1 if id is null or not found
+     */
+    private int positionOf(Integer id) {
+        if (id == null) {
+            return -1;
+        }
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] != null && id.equals(entries[i].getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * sorted copy of posting with position inserted, same posting if present
+     */
+    private static int[] insert(int[] posting, int position) {
+        if (posting == null) {
+            return new int[]{position};
+        }
+        int index = Arrays.binarySearch(posting, position);
+        if (index >= 0) {
+            return posting;
+        }
+        index = -index - 1;
+        int[] newPosting = new int[posting.length + 1];
+        System.arraycopy(posting, 0, newPosting, 0, index);
+        newPosting[index] = position;
+        System.arraycopy(posting, index, newPosting, index + 1, posting.length - index);
+        return newPosting;
+    }
+
+    private static int score(String term, String query) {
+        if (term.equals(query)) {
+            return SCORE_EXACT;
+        }
+        if (term.startsWith(query)) {
+            return SCORE_PREFIX;
+        }
+        return term.contains(query) ? SCORE_CONTAINS : 0;
+    }
+
+    private static String[] toTerms(NameEntry entry) {
+        List<String> termList = new ArrayList<>(2);
+        if (StringUtils.isNotEmpty(entry.getName())) {
+            termList.add(entry.getName().toLowerCase(Locale.ROOT));
+        }
+        if (StringUtils.isNotEmpty(entry.getAddress())) {
+            termList.add(entry.getAddress().toLowerCase(Locale.ROOT));
+        }
+        return termList.toArray(new String[0]);
+    }
+
+    private static Set<String> toGrams(String... terms) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String term : terms) {
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                grams.add(term.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+}
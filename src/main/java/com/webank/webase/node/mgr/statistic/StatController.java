@@ -45,13 +45,15 @@ public class StatController {
         @RequestParam(required = false) Long contrastBeginDate,
         @RequestParam(required = false) Long contrastEndDate,
         @RequestParam(required = false, defaultValue = "1") int gap,
+        @RequestParam(required = false) Integer points,
+        @RequestParam(required = false) Integer maxPoints,
         @RequestParam(defaultValue = "1") int groupId) {
         Instant startTime = Instant.now();
         log.info("getBlockStat start. groupId:[{}], startTime:{}", groupId,
             startTime.toEpochMilli());
 
         List<PerformanceData> performanceList = statService.findContrastDataByTime(groupId,
-            beginDate, endDate, contrastBeginDate, contrastEndDate, gap);
+            beginDate, endDate, contrastBeginDate, contrastEndDate, gap, points, maxPoints);
         BaseResponse response = new BaseResponse(ConstantCode.SUCCESS, performanceList);
 
         log.info("getBlockStat end. useTime:{}",
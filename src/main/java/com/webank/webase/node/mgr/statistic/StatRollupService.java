@@ -0,0 +1,163 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.statistic;
+
+import com.webank.webase.node.mgr.statistic.entity.TbStat;
+import com.webank.webase.node.mgr.statistic.entity.TbStatRollup;
+import com.webank.webase.node.mgr.statistic.mapper.TbStatMapper;
+import com.webank.webase.node.mgr.statistic.mapper.TbStatRollupMapper;
+import com.webank.webase.node.mgr.statistic.result.StatSeries;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * block stat rolled up into buckets of 5s, 1m, 1h and 1d when saved,
+ * chart reads buckets of one resolution instead of raw stat.
+ */
+@Log4j2
+@Service
+public class StatRollupService {
+
+    /**
+     * resolutions of rollup from fine to coarse, unit: s
+     */
+    public static final int[] RESOLUTIONS = {5, 60, 3600, 86400};
+    /**
+     * buckets finer than this resolution are removed along with raw stat
+     */
+    private static final int RETAIN_RESOLUTION = 3600;
+
+    @Autowired
+    private TbStatMapper tbStatMapper;
+    @Autowired
+    private TbStatRollupMapper tbStatRollupMapper;
+
+    /**
+     * save stat of continuous blocks and merge them into buckets,
+     * only blocks inserted by this call are merged so that no block is counted twice,
+     * insert of block being saved by other instance waits for it and is skipped
+     * @return count of blocks saved
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int saveStat(int groupId, List<TbStat> statList) {
+        List<TbStat> newList = new ArrayList<>(statList.size());
+        for (TbStat stat : statList) {
+            if (tbStatMapper.insertIgnore(stat) > 0) {
+                newList.add(stat);
+            }
+        }
+        if (newList.size() < statList.size()) {
+            log.info("saveStat skip saved block. groupId:{} skipped:{}", groupId,
+                statList.size() - newList.size());
+        }
+        if (newList.isEmpty()) {
+            return 0;
+        }
+        tbStatRollupMapper.batchMerge(aggregate(groupId, newList));
+        return newList.size();
+    }
+
+    /**
+     * aggregate stat into buckets of every resolution
+     */
+    public static List<TbStatRollup> aggregate(int groupId, List<TbStat> statList) {
+        Map<String, TbStatRollup> bucketMap = new LinkedHashMap<>();
+        for (int resolution : RESOLUTIONS) {
+            for (TbStat stat : statList) {
+                long bucketTime = bucketOf(stat.getStatTimestamp(), resolution);
+                bucketMap.computeIfAbsent(resolution + "_" + bucketTime,
+                    k -> new TbStatRollup(groupId, resolution, bucketTime)).add(stat);
+            }
+        }
+        return new ArrayList<>(bucketMap.values());
+    }
+
+    /**
+     * start timestamp of bucket containing timestamp
+     */
+    public static long bucketOf(long timestamp, int resolution) {
+        long bucketMillis = resolution * 1000L;
+        return Math.floorDiv(timestamp, bucketMillis) * bucketMillis;
+    }
+
+    /**
+     * coarsest resolution of which buckets in window are not less than points,
+     * finest resolution if none
+     */
+    public static int chooseResolution(long startTime, long endTime, int points) {
+        long window = endTime - startTime;
+        for (int i = RESOLUTIONS.length - 1; i > 0; i--) {
+            if (window / (RESOLUTIONS[i] * 1000L) >= points) {
+                return RESOLUTIONS[i];
+            }
+        }
+        return RESOLUTIONS[0];
+    }
+
+    /**
+     * buckets of resolution in window, empty bucket between saved ones kept,
+     * downsampled to maxPoints if positive
+     */
+    public StatSeries listSeries(int groupId, int resolution, long startTime, long endTime,
+        int maxPoints) {
+        StatSeries series = new StatSeries(resolution, startTime, endTime, maxPoints);
+        tbStatRollupMapper.findByTimeBetween(groupId, resolution,
+            bucketOf(startTime, resolution), endTime, series);
+        return series;
+    }
+
+    /**
+     * build rollup of group from stat saved before rollup added
+     */
+    public void rebuildIfAbsent(int groupId) {
+        if (tbStatRollupMapper.existByGroupId(groupId) != null) {
+            return;
+        }
+        for (int resolution : RESOLUTIONS) {
+            int affected = tbStatRollupMapper.rebuildFromStat(groupId, resolution);
+            log.info("rebuild stat rollup. groupId:{} resolution:{} buckets:{}", groupId,
+                resolution, affected);
+        }
+    }
+
+    /**
+     * remove fine buckets before lowest block stat retained, coarse buckets are kept
+     */
+    public void remove(int groupId) {
+        Long minTimestamp = tbStatMapper.getMinTimestamp(groupId);
+        if (minTimestamp == null) {
+            return;
+        }
+        for (int resolution : RESOLUTIONS) {
+            if (resolution >= RETAIN_RESOLUTION) {
+                break;
+            }
+            int affected = tbStatRollupMapper.removeBefore(groupId, resolution,
+                bucketOf(minTimestamp, resolution));
+            log.debug("remove stat rollup. groupId:{} resolution:{} affected:{}", groupId,
+                resolution, affected);
+        }
+    }
+
+    public void deleteByGroupId(int groupId) {
+        int affected = tbStatRollupMapper.deleteByGroupId(groupId);
+        log.warn("delete stat rollup. groupId:{} affected:{}", groupId, affected);
+    }
+}
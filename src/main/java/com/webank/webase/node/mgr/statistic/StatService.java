@@ -19,23 +19,31 @@ import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
 import com.webank.webase.node.mgr.front.frontinterface.entity.RspStatBlock;
+import com.webank.webase.node.mgr.push.ChainEventPublisher;
+import com.webank.webase.node.mgr.push.entity.StatPushInfo;
 import com.webank.webase.node.mgr.statistic.entity.TbStat;
 import com.webank.webase.node.mgr.statistic.mapper.TbStatMapper;
 import com.webank.webase.node.mgr.statistic.result.Data;
 import com.webank.webase.node.mgr.statistic.result.LineDataList;
 import com.webank.webase.node.mgr.statistic.result.PerformanceData;
-import java.math.BigDecimal;
+import com.webank.webase.node.mgr.statistic.result.StatSeries;
 import java.math.BigInteger;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 @Log4j2
@@ -45,9 +53,21 @@ public class StatService {
     @Autowired
     private TbStatMapper tbStatMapper;
     @Autowired
+    private StatRollupService statRollupService;
+    @Autowired
+    private ChainEventPublisher chainEventPublisher;
+    @Autowired
     private FrontInterfaceService frontInterfaceService;
     @Autowired
     private ConstantProperties constants;
+    @Autowired
+    @Qualifier("statFetchExecutor")
+    private ThreadPoolTaskExecutor statFetchExecutor;
+
+    /**
+     * key: groupId, value: last saved stat, carry over timestamp to next round
+     */
+    private final Map<Integer, TbStat> lastStatMap = new ConcurrentHashMap<>();
 
     // 每出一个块，获得上一个区块的时间戳相差时间，获得出块周期； 获取多条数据，计算平均值
     // 获得一个块的交易数，除以出块周期则是TPS
@@ -60,10 +80,10 @@ public class StatService {
 
     /**
      * 以区块的时间戳为记录，出块时记录数据。
-     * select的时候，以5s为粒度分离数据，
-     * 如0-5s有三个区块，则三个区块的值累加到0-5区间，
-     * 如果5-15都没有区块，则5-10, 10-15插入空数据
-     * 如15-20有数据，则记录在15-20的区间
+     * 保存时按5s, 1m, 1h, 1d粒度累加到对应区间(tb_stat_rollup)，
+     * select的时候，按区间读取，没有区块的区间插入空数据
+     * pull by range of statBlockPageSize blocks, fetched in parallel and saved in one insert,
+     * at most statBlockMaxPerRound blocks in one round
      * @param latch
      * @param groupId
      */
@@ -72,21 +92,9 @@ public class StatService {
         try {
             Instant startTime = Instant.now();
             log.debug("pullBlockStatistic startTime:{}, groupId:{}", startTime, groupId);
-            TbStat latestStat = tbStatMapper.getMaxByGroupId(groupId);
-            log.debug("pullBlockStatistic local latestStat :{}", latestStat);
-            // local largest block num of group id
-            int localBlockNum;
-            // chain block timestamp
-            Long lastBlockTimestamp;
-            if (latestStat != null) {
-                localBlockNum = latestStat.getBlockNumber();
-                lastBlockTimestamp = Long.parseLong(latestStat.getStatTimestamp());
-            } else {
-                log.info("groupId:{} local block is null, start pull from zero", groupId);
-                // if no stat data local, pull from zero
-                localBlockNum = 0;
-                RspStatBlock zeroBlock = frontInterfaceService.getBlockStatisticByNumber(groupId, BigInteger.ZERO);
-                lastBlockTimestamp = zeroBlock.getTimestamp();
+            TbStat lastStat = getLastStat(groupId);
+            if (lastStat == null) {
+                return;
             }
             // largest block num on chain
             int blockNumOnChain;
@@ -96,47 +104,43 @@ public class StatService {
                 log.error("pullBlockStatistic get latest block num error:{}", e.getMessage());
                 return;
             }
-            // if chain's height is zero, not pull
+            int localBlockNum = lastStat.getBlockNumber();
             if (localBlockNum >= blockNumOnChain) {
                 log.debug("pullBlockStatistic jump for local is :{}, block height is :{}!",
                     localBlockNum, blockNumOnChain);
                 return;
             }
-            // if local is too far from chain's height, just pull
-            if (blockNumOnChain - localBlockNum > constants.getStatBlockPageSize()) {
-                log.debug(
-                    "pullBlockStatistic local {} is too far away from latest blockHeight:{}, pull 10 block one time",
-                    localBlockNum, blockNumOnChain);
-                blockNumOnChain += constants.getStatBlockPageSize();
-            }
-
-            for (int height = localBlockNum + 1; height <= blockNumOnChain; height++) {
-//                if (height >= blockNumOnChain) {
-//                    return;
-//                }
-                log.debug("pullBlockStatistic height:{}", height);
-                RspStatBlock chainBlockStat = frontInterfaceService.getBlockStatisticByNumber(groupId,
-                        new BigInteger(String.valueOf(height)));
-                if (chainBlockStat == null) {
-                    log.error("pullBlockStatistic getBlockStatisticByNumber on chain get null");
-                    return;
+            int endBlockNum = Math.min(blockNumOnChain,
+                localBlockNum + constants.getStatBlockMaxPerRound());
+            int savedCount = 0;
+            while (localBlockNum < endBlockNum) {
+                int toBlockNum = Math.min(endBlockNum,
+                    localBlockNum + constants.getStatBlockPageSize());
+                List<TbStat> statList = fetchStatRange(groupId, lastStat, localBlockNum + 1,
+                    toBlockNum);
+                if (statList.isEmpty()) {
+                    break;
+                }
+                statRollupService.saveStat(groupId, statList);
+                lastStat = statList.get(statList.size() - 1);
+                lastStatMap.put(groupId, lastStat);
+                chainEventPublisher.publishState(groupId, ChainEventPublisher.EVENT_STAT, "",
+                    new StatPushInfo(groupId, lastStat.getBlockNumber(), lastStat.getTps(),
+                        lastStat.getBlockSize(), lastStat.getBlockCycle(),
+                        lastStat.getStatTimestamp()));
+                localBlockNum = lastStat.getBlockNumber();
+                savedCount += statList.size();
+                if (localBlockNum < toBlockNum) {
+                    // stop at block failed to fetch, retry in next round
+                    break;
                 }
-                Long chainTimestamp = chainBlockStat.getTimestamp();
-                // get time interval(unit: s)
-                double blockCycle = (chainTimestamp - lastBlockTimestamp) / 1000.0;
-                int blockSize = chainBlockStat.getTxCount();
-                double tpsDouble = blockSize / blockCycle;
-                // save
-                this.saveStat(groupId, height, blockSize, (int) tpsDouble, blockCycle,
-                    String.valueOf(chainTimestamp));
-                // update last timestamp
-                lastBlockTimestamp = chainTimestamp;
             }
-            log.info("=== end monitor. groupId:{} allUseTime:{}", groupId,
+            log.info("=== end pullBlockStatistic. groupId:{} saved:{} localBlock:{} allUseTime:{}",
+                groupId, savedCount, localBlockNum,
                 Duration.between(startTime, Instant.now()).toMillis());
 
         } catch (Exception ex) {
-            log.error("fail transMonitorByGroupId, group:{}", groupId, ex);
+            log.error("fail pullBlockStatistic, group:{}", groupId, ex);
         } finally {
             if (Objects.nonNull(latch)) {
                 // finish one group, count down
@@ -146,177 +150,134 @@ public class StatService {
 
     }
 
-    public void saveStat(int groupId, int blockNum, int blockSize, int tps, double blockCycle, String timestamp) {
-        if (this.checkStatExist(groupId, blockNum)) {
-            log.warn("saveStat skip for block num already exist!" +
-                    " groupId:{},blockNum:{}", groupId, blockNum);
-            return;
+    /**
+     * last saved stat of group kept in memory, load from db or block zero at first time
+     * @return null if block zero not found
+     */
+    private TbStat getLastStat(int groupId) {
+        TbStat lastStat = lastStatMap.get(groupId);
+        if (lastStat != null) {
+            return lastStat;
         }
-        TbStat tbStat = new TbStat();
-        tbStat.setGroupId(groupId);
-        tbStat.setBlockNumber(blockNum);
-        tbStat.setBlockSize(blockSize);
-        tbStat.setTps(tps);
-        tbStat.setBlockCycle(blockCycle);
-        tbStat.setStatTimestamp(timestamp);
-        Date now = new Date();
-        tbStat.setCreateTime(now);
-        tbStat.setModifyTime(now);
-        log.debug("saveStat tbStat:{}", tbStat);
-        tbStatMapper.insertSelective(tbStat);
-    }
-
-
-    public List<PerformanceData> findContrastDataByTime(int groupId, Long startTimestamp, Long endTimestamp,
-        Long contrastStartTimestamp, Long contrastEndTimestamp, int gap) {
-
-        List<TbStat> statList;
-        if (startTimestamp == null || endTimestamp == null) {
-            statList = new ArrayList<>();
+        lastStat = tbStatMapper.getMaxByGroupId(groupId);
+        log.debug("pullBlockStatistic local latestStat :{}", lastStat);
+        if (lastStat == null) {
+            log.info("groupId:{} local block is null, start pull from zero", groupId);
+            // if no stat data local, pull from zero
+            RspStatBlock zeroBlock = frontInterfaceService.getBlockStatisticByNumber(groupId,
+                BigInteger.ZERO);
+            if (zeroBlock == null) {
+                log.error("pullBlockStatistic get block zero null, groupId:{}", groupId);
+                return null;
+            }
+            lastStat = new TbStat();
+            lastStat.setGroupId(groupId);
+            lastStat.setBlockNumber(0);
+            lastStat.setStatTimestamp(zeroBlock.getTimestamp());
         } else {
-            statList = tbStatMapper.findByTimeBetween(groupId, startTimestamp.toString(),
-                endTimestamp.toString());
-        }
-        List<TbStat> contrastMonitorList = new ArrayList<>();
-        if (contrastStartTimestamp != null && contrastEndTimestamp != null) {
-            contrastMonitorList = tbStatMapper.findByTimeBetween(groupId, contrastStartTimestamp.toString(),
-                contrastEndTimestamp.toString());
+            statRollupService.rebuildIfAbsent(groupId);
         }
-        return transferToPerformanceData(transferListByGap(statList, gap),
-            transferListByGap(contrastMonitorList, gap));
+        lastStatMap.put(groupId, lastStat);
+        return lastStat;
     }
-    
-    private List<PerformanceData> transferToPerformanceData(List<TbStat> statList,
-        List<TbStat> contrastMonitorList) {
-        List<Long> timestampList = new ArrayList<>();
-        List<BigDecimal> blockSizeValueList = new ArrayList<>();
-        List<BigDecimal> blockCycleValueList = new ArrayList<>();
-        List<BigDecimal> tpsValueList = new ArrayList<>();
-        for (TbStat tbStat : statList) {
-            blockSizeValueList.add(tbStat.getBlockSize() == null ? null
-                : new BigDecimal(tbStat.getBlockSize()));
-            blockCycleValueList.add(
-                tbStat.getBlockCycle() == null ? null : new BigDecimal(tbStat.getBlockCycle()));
-            tpsValueList.add(tbStat.getTps() == null ? null
-                : new BigDecimal(tbStat.getTps()));
-            timestampList.add(Long.valueOf(tbStat.getStatTimestamp()));
-        }
-        statList.clear();
 
-        List<Long> contrastTimestampList = new ArrayList<>();
-        List<BigDecimal> contrastBlockSizeValueList = new ArrayList<>();
-        List<BigDecimal> contrastBlockCycleValueList = new ArrayList<>();
-        List<BigDecimal> contrastTpsValueList = new ArrayList<>();
-        for (TbStat tbStat : contrastMonitorList) {
-            contrastBlockSizeValueList.add(tbStat.getBlockNumber() == null ? null
-                : new BigDecimal(tbStat.getBlockNumber()));
-            contrastBlockCycleValueList.add(
-                tbStat.getBlockCycle() == null ? null : new BigDecimal(tbStat.getBlockCycle()));
-            contrastTpsValueList.add(tbStat.getTps() == null ? null
-                : new BigDecimal(tbStat.getTps()));
-            contrastTimestampList.add(Long.valueOf(tbStat.getStatTimestamp()));
-        }
-        contrastMonitorList.clear();
-        List<PerformanceData> performanceDataList = new ArrayList<>();
-        performanceDataList.add(new PerformanceData("blockSize",
-            new Data(new LineDataList(timestampList, blockSizeValueList),
-                new LineDataList(contrastTimestampList, contrastBlockSizeValueList))));
-        performanceDataList.add(
-            new PerformanceData("blockCycle", new Data(new LineDataList(null, blockCycleValueList),
-                new LineDataList(null, contrastBlockCycleValueList))));
-        performanceDataList.add(new PerformanceData("tps",
-            new Data(new LineDataList(null, tpsValueList),
-                new LineDataList(null, contrastTpsValueList))));
-        return performanceDataList;
-    }
-
-    public List transferListByGap(List arrayList, int gap) {
-        if (gap == 0) {
-            throw new NodeMgrException(ConstantCode.PARAM_EXCEPTION.getCode(), "gap cannot be 0");
-        }
-        List newStatList = fillList(arrayList);
-        List ilist = new ArrayList<>();
-        int len = newStatList.size();
-        for (int i = 0; i < len; i = i + gap) {
-            ilist.add(newStatList.get(i));
+    /**
+     * fetch stat of blocks in [fromBlockNum, toBlockNum] in parallel,
+     * calculate block cycle and tps in order from timestamp of last stat
+     * @return stat of continuous blocks from fromBlockNum, stop at block failed to fetch
+     */
+    private List<TbStat> fetchStatRange(int groupId, TbStat lastStat, int fromBlockNum,
+        int toBlockNum) throws InterruptedException {
+        List<Future<RspStatBlock>> futureList = new ArrayList<>();
+        for (int height = fromBlockNum; height <= toBlockNum; height++) {
+            BigInteger blockNumber = BigInteger.valueOf(height);
+            futureList.add(statFetchExecutor.submit(
+                () -> frontInterfaceService.getBlockStatisticByNumber(groupId, blockNumber)));
         }
-        return ilist;
-    }
-
-    private List<TbStat> fillList(List<TbStat> statList) {
-        // result
-        List<TbStat> newStatList = new ArrayList<>();
-        for (int i = 0; i < statList.size() - 1; i++) {
-            Long startTime = Long.parseLong(statList.get(i).getStatTimestamp());
-            Long endTime = Long.parseLong(statList.get(i + 1).getStatTimestamp());
-            if (endTime - startTime > 10000) {
-                log.debug("====startTime:{}", startTime);
-                log.debug("====endTime:{}", endTime);
-                while (endTime - startTime > 5000) {
-                    TbStat emptyMonitor = new TbStat();
-                    emptyMonitor.setStatTimestamp(String.valueOf(startTime + 5000));
-                    newStatList.add(emptyMonitor);
-                    log.debug("====insert" + startTime);
-                    startTime = startTime + 5000;
-                }
-            }
-            else if (endTime - startTime < 5000) {
-                // add the data after endTime until gap beyond 5s
-                List<TbStat> stat2Sum = new ArrayList<>();
-                do {
-                    log.debug("==== index:{}", i);
-                    stat2Sum.add(statList.get(i));
-//                    targetStat = sumStatWithin5sec(statList.get(i), statList.get(i + 1));
-//                    log.debug("==== new endTime:{}", targetStat.getStatTimestamp());
-                    i++;
-                } while (i < statList.size() - 2 && Long.parseLong(statList.get(i + 1).getStatTimestamp()) - startTime < 5000);
-                log.debug("==== sumStatWithin5sec:{}", stat2Sum.size());
-                TbStat targetStat = this.sumStatWithin5sec(stat2Sum, endTime);
-                newStatList.add(targetStat);
+        List<TbStat> statList = new ArrayList<>(futureList.size());
+        long lastBlockTimestamp = lastStat.getStatTimestamp();
+        Date now = new Date();
+        for (int i = 0; i < futureList.size(); i++) {
+            RspStatBlock chainBlockStat;
+            try {
+                chainBlockStat = futureList.get(i).get();
+            } catch (ExecutionException ex) {
+                log.error("pullBlockStatistic fetch block:{} fail", fromBlockNum + i, ex);
+                chainBlockStat = null;
             }
-            else {
-                // 5s < gap < 10s
-                newStatList.add(statList.get(i));
+            if (chainBlockStat == null) {
+                log.error("pullBlockStatistic getBlockStatisticByNumber on chain get null");
+                futureList.subList(i, futureList.size()).forEach(f -> f.cancel(true));
+                break;
             }
+            long chainTimestamp = chainBlockStat.getTimestamp();
+            // get time interval(unit: s)
+            double blockCycle = (chainTimestamp - lastBlockTimestamp) / 1000.0;
+            int blockSize = chainBlockStat.getTxCount();
+            TbStat tbStat = new TbStat();
+            tbStat.setGroupId(groupId);
+            tbStat.setBlockNumber(fromBlockNum + i);
+            tbStat.setBlockSize(blockSize);
+            tbStat.setTps((int) (blockSize / blockCycle));
+            tbStat.setBlockCycle(blockCycle);
+            tbStat.setStatTimestamp(chainTimestamp);
+            tbStat.setCreateTime(now);
+            tbStat.setModifyTime(now);
+            statList.add(tbStat);
+            // carry over timestamp to next block
+            lastBlockTimestamp = chainTimestamp;
         }
-        return newStatList;
+        return statList;
     }
 
     /**
-     * get average value of two
-     * @param statSum later one to store all sum result
-     * @param stat2Add
-     * @return
+     * read buckets of the coarsest resolution which still gives requested points in window,
+     * points default to maxPoints or 5s slots picked by gap, at most statChartMaxPoints,
+     * buckets downsampled to maxPoints if given
      */
-    private TbStat sumStatWithin5sec(TbStat statSum, TbStat stat2Add) {
-        int tps = (statSum.getTps() + stat2Add.getTps()) / 2;
-        int blockSize = (statSum.getBlockSize() + stat2Add.getBlockSize()) / 2;
-        double blockCycle = (statSum.getBlockCycle() + stat2Add.getBlockCycle()) / 2;
-        statSum.setTps(tps);
-        statSum.setBlockSize(blockSize);
-        statSum.setBlockCycle(blockCycle);
-        return statSum;
-    }
-
-    private TbStat sumStatWithin5sec(List<TbStat> stat2Sum, Long endTime) {
-        int size = stat2Sum.size();
-        int tpsSum = 0;
-        int blockSizeSum = 0;
-        double blockCycleSum = 0.0;
-        for (TbStat s : stat2Sum) {
-            tpsSum += s.getTps();
-            blockSizeSum += s.getBlockSize();
-            blockCycleSum += s.getBlockCycle();
+    public List<PerformanceData> findContrastDataByTime(int groupId, Long startTimestamp,
+        Long endTimestamp, Long contrastStartTimestamp, Long contrastEndTimestamp, int gap,
+        Integer points, Integer maxPoints) {
+        if (gap == 0) {
+            throw new NodeMgrException(ConstantCode.PARAM_EXCEPTION.getCode(), "gap cannot be 0");
+        }
+        boolean hasWindow = startTimestamp != null && endTimestamp != null;
+        boolean hasContrast = contrastStartTimestamp != null && contrastEndTimestamp != null;
+        long window = hasWindow ? endTimestamp - startTimestamp
+            : hasContrast ? contrastEndTimestamp - contrastStartTimestamp : 0L;
+        int sampleSize = maxPoints == null ? 0 : maxPoints;
+        if ((points == null || points <= 0) && sampleSize > 0) {
+            points = sampleSize;
+        } else if (points == null || points <= 0) {
+            points = (int) Math.max(1L, Math.min(window / (5000L * Math.abs(gap)),
+                constants.getStatChartMaxPoints()));
         }
+        int resolution = StatRollupService.chooseResolution(0L, window, points);
+        log.debug("findContrastDataByTime groupId:{} window:{} points:{} resolution:{}", groupId,
+            window, points, resolution);
 
-        TbStat statSum = new TbStat();
-        statSum.setStatTimestamp(String.valueOf(endTime));
-        statSum.setTps(tpsSum / size);
-        statSum.setBlockSize(blockSizeSum / size);
-        statSum.setBlockCycle(blockCycleSum / size);
-        return statSum;
+        StatSeries statSeries = hasWindow ? statRollupService.listSeries(groupId, resolution,
+            startTimestamp, endTimestamp, sampleSize) : new StatSeries(resolution);
+        StatSeries contrastSeries = hasContrast ? statRollupService.listSeries(groupId,
+            resolution, contrastStartTimestamp, contrastEndTimestamp, sampleSize)
+            : new StatSeries(resolution);
+        return transferToPerformanceData(statSeries, contrastSeries);
     }
 
+    private List<PerformanceData> transferToPerformanceData(StatSeries statSeries,
+        StatSeries contrastSeries) {
+        List<PerformanceData> performanceDataList = new ArrayList<>();
+        performanceDataList.add(new PerformanceData("blockSize",
+            new Data(new LineDataList(statSeries.timestamps(), statSeries.blockSizeAvg()),
+                new LineDataList(contrastSeries.timestamps(), contrastSeries.blockSizeAvg()))));
+        performanceDataList.add(new PerformanceData("blockCycle",
+            new Data(new LineDataList(null, statSeries.blockCycleAvg()),
+                new LineDataList(null, contrastSeries.blockCycleAvg()))));
+        performanceDataList.add(new PerformanceData("tps",
+            new Data(new LineDataList(null, statSeries.tpsAvg()),
+                new LineDataList(null, contrastSeries.tpsAvg()))));
+        return performanceDataList;
+    }
 
     /**
      * remove block stat info.
@@ -324,17 +285,15 @@ public class StatService {
     public Integer remove(Integer groupId, BigInteger blockRetainMax) {
         log.info("remove groupId:{}, blockRetainMax:{}", groupId, blockRetainMax);
         Integer affectRow = tbStatMapper.remove(groupId, blockRetainMax);
+        statRollupService.remove(groupId);
         log.info("remove affectRow{}", affectRow);
         return affectRow;
     }
 
     public void deleteByGroupId(int groupId) {
+        lastStatMap.remove(groupId);
         int affected = tbStatMapper.deleteByGroupId(groupId);
         log.warn("deleteByGroupId:{} affected:{}", groupId, affected);
-    }
-
-    public boolean checkStatExist(int groupId, int blockNum) {
-        TbStat maxStat = tbStatMapper.findByGroupAndBlockNum(groupId, blockNum);
-        return maxStat != null;
+        statRollupService.deleteByGroupId(groupId);
     }
 }
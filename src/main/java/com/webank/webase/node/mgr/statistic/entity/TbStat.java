@@ -78,7 +78,7 @@ public class TbStat implements Serializable {
      *
      * @mbg.generated
      */
-    private String statTimestamp;
+    private Long statTimestamp;
 
     /**
      *
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.statistic.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * aggregated block stat of one time bucket in resolution,
+ * average is sum divided by statCount.
+ */
+@Data
+@NoArgsConstructor
+public class TbStatRollup {
+
+    private Integer groupId;
+    /**
+     * bucket size, unit: s
+     */
+    private Integer resolution;
+    /**
+     * start timestamp of bucket, unit: ms
+     */
+    private Long bucketTime;
+    private Integer statCount;
+    private Long tpsSum;
+    private Integer tpsMin;
+    private Integer tpsMax;
+    private Long blockSizeSum;
+    private Integer blockSizeMin;
+    private Integer blockSizeMax;
+    private Double blockCycleSum;
+    private Double blockCycleMin;
+    private Double blockCycleMax;
+
+    public TbStatRollup(int groupId, int resolution, long bucketTime) {
+        this.groupId = groupId;
+        this.resolution = resolution;
+        this.bucketTime = bucketTime;
+        this.statCount = 0;
+        this.tpsSum = 0L;
+        this.blockSizeSum = 0L;
+        this.blockCycleSum = 0.0;
+    }
+
+    /**
+     * merge stat of one block into bucket
+     */
+    public void add(TbStat stat) {
+        int tps = stat.getTps();
+        int blockSize = stat.getBlockSize();
+        double blockCycle = stat.getBlockCycle();
+        statCount++;
+        tpsSum += tps;
+        tpsMin = tpsMin == null ? tps : Math.min(tpsMin, tps);
+        tpsMax = tpsMax == null ? tps : Math.max(tpsMax, tps);
+        blockSizeSum += blockSize;
+        blockSizeMin = blockSizeMin == null ? blockSize : Math.min(blockSizeMin, blockSize);
+        blockSizeMax = blockSizeMax == null ? blockSize : Math.max(blockSizeMax, blockSize);
+        blockCycleSum += blockCycle;
+        blockCycleMin = blockCycleMin == null ? blockCycle : Math.min(blockCycleMin, blockCycle);
+        blockCycleMax = blockCycleMax == null ? blockCycle : Math.max(blockCycleMax, blockCycle);
+    }
+
+    public Integer getTpsAvg() {
+        return statCount == null || statCount == 0 ? null : (int) (tpsSum / statCount);
+    }
+
+    public Integer getBlockSizeAvg() {
+        return statCount == null || statCount == 0 ? null : (int) (blockSizeSum / statCount);
+    }
+
+    public Double getBlockCycleAvg() {
+        return statCount == null || statCount == 0 ? null : blockCycleSum / statCount;
+    }
+}
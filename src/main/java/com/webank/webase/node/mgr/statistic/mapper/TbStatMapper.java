@@ -33,16 +33,35 @@ public interface TbStatMapper {
     @Select({"select ", TbStatSqlProvider.ALL_COLUMN_FIELDS,
         " from tb_stat where group_id = #{groupId} ",
         " and stat_timestamp between #{startTimestamp} and #{endTimestamp} order by id"})
-    List<TbStat> findByTimeBetween(@Param("groupId") Integer groupId, @Param("startTimestamp") String startTimestamp,
-        @Param("endTimestamp") String endTimestamp);
+    List<TbStat> findByTimeBetween(@Param("groupId") Integer groupId, @Param("startTimestamp") Long startTimestamp,
+        @Param("endTimestamp") Long endTimestamp);
 
     @Delete({"delete from tb_stat where stat_timestamp < #{timestamp}"})
-    int deleteTimeAgo(String timestamp);
+    int deleteTimeAgo(Long timestamp);
 
     @Select({ "select", TbStatSqlProvider.ALL_COLUMN_FIELDS, "from tb_stat where id = ",
             "(select max(id) from tb_stat where group_id = #{groupId}) " })
     TbStat getMaxByGroupId(@Param("groupId") Integer groupId);
 
+    /**
+     * insert row, skip block already saved by unique key of group and block number
+     * @return 1 if inserted, 0 if skipped
+     */
+    @Insert({ "insert ignore into tb_stat (group_id, block_cycle, tps, block_number, block_size, ",
+        "stat_timestamp, create_time, modify_time) values (#{groupId,jdbcType=INTEGER}, ",
+        "#{blockCycle,jdbcType=DOUBLE}, #{tps,jdbcType=INTEGER}, ",
+        "#{blockNumber,jdbcType=INTEGER}, #{blockSize,jdbcType=INTEGER}, ",
+        "#{statTimestamp,jdbcType=BIGINT}, #{createTime,jdbcType=TIMESTAMP}, ",
+        "#{modifyTime,jdbcType=TIMESTAMP})" })
+    int insertIgnore(TbStat stat);
+
+    /**
+     * timestamp of lowest block saved
+     */
+    @Select({ "select stat_timestamp from tb_stat where group_id = #{groupId}",
+        " order by block_number limit 1" })
+    Long getMinTimestamp(@Param("groupId") Integer groupId);
+
     @Select({ "select", TbStatSqlProvider.ALL_COLUMN_FIELDS, "from tb_stat where ",
             " group_id = #{groupId} ", "and block_number = #{blockNumber}"})
     TbStat findByGroupAndBlockNum(@Param("groupId") Integer groupId, @Param("blockNumber") Integer blockNumber);
@@ -72,7 +91,7 @@ public interface TbStatMapper {
      * @mbg.generated
      */
     @Select({ "select", "id, group_id, block_cycle, tps, block_number, block_size, stat_timestamp, create_time, ", "modify_time", "from tb_stat", "where id = #{id,jdbcType=INTEGER}" })
-    @Results({ @Result(column = "id", property = "id", jdbcType = JdbcType.INTEGER, id = true), @Result(column = "group_id", property = "groupId", jdbcType = JdbcType.INTEGER), @Result(column = "block_cycle", property = "blockCycle", jdbcType = JdbcType.DOUBLE), @Result(column = "tps", property = "tps", jdbcType = JdbcType.INTEGER), @Result(column = "block_number", property = "blockNumber", jdbcType = JdbcType.INTEGER), @Result(column = "block_size", property = "blockSize", jdbcType = JdbcType.INTEGER), @Result(column = "stat_timestamp", property = "statTimestamp", jdbcType = JdbcType.VARCHAR), @Result(column = "create_time", property = "createTime", jdbcType = JdbcType.TIMESTAMP), @Result(column = "modify_time", property = "modifyTime", jdbcType = JdbcType.TIMESTAMP) })
+    @Results({ @Result(column = "id", property = "id", jdbcType = JdbcType.INTEGER, id = true), @Result(column = "group_id", property = "groupId", jdbcType = JdbcType.INTEGER), @Result(column = "block_cycle", property = "blockCycle", jdbcType = JdbcType.DOUBLE), @Result(column = "tps", property = "tps", jdbcType = JdbcType.INTEGER), @Result(column = "block_number", property = "blockNumber", jdbcType = JdbcType.INTEGER), @Result(column = "block_size", property = "blockSize", jdbcType = JdbcType.INTEGER), @Result(column = "stat_timestamp", property = "statTimestamp", jdbcType = JdbcType.BIGINT), @Result(column = "create_time", property = "createTime", jdbcType = JdbcType.TIMESTAMP), @Result(column = "modify_time", property = "modifyTime", jdbcType = JdbcType.TIMESTAMP) })
     TbStat selectByPrimaryKey(Integer id);
 
     /**
@@ -91,6 +110,6 @@ public interface TbStatMapper {
      * @mbg.generated
      */
     @Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
-    @Insert({ "<script>", "insert into tb_stat (group_id, ", "block_cycle, tps, ", "block_number, block_size, ", "stat_timestamp, create_time, ", "modify_time)", "values<foreach collection=\"list\" item=\"detail\" index=\"index\" separator=\",\">(#{detail.groupId,jdbcType=INTEGER}, ", "#{detail.blockCycle,jdbcType=DOUBLE}, #{detail.tps,jdbcType=INTEGER}, ", "#{detail.blockNumber,jdbcType=INTEGER}, #{detail.blockSize,jdbcType=INTEGER}, ", "#{detail.statTimestamp,jdbcType=VARCHAR}, #{detail.createTime,jdbcType=TIMESTAMP}, ", "#{detail.modifyTime,jdbcType=TIMESTAMP})</foreach></script>" })
+    @Insert({ "<script>", "insert into tb_stat (group_id, ", "block_cycle, tps, ", "block_number, block_size, ", "stat_timestamp, create_time, ", "modify_time)", "values<foreach collection=\"list\" item=\"detail\" index=\"index\" separator=\",\">(#{detail.groupId,jdbcType=INTEGER}, ", "#{detail.blockCycle,jdbcType=DOUBLE}, #{detail.tps,jdbcType=INTEGER}, ", "#{detail.blockNumber,jdbcType=INTEGER}, #{detail.blockSize,jdbcType=INTEGER}, ", "#{detail.statTimestamp,jdbcType=BIGINT}, #{detail.createTime,jdbcType=TIMESTAMP}, ", "#{detail.modifyTime,jdbcType=TIMESTAMP})</foreach></script>" })
     int batchInsert(java.util.List<TbStat> list);
 }
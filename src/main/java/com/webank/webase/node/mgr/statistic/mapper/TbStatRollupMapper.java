@@ -0,0 +1,89 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.statistic.mapper;
+
+import com.webank.webase.node.mgr.statistic.entity.TbStatRollup;
+import java.util.List;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * rollup of block stat by resolution, maintained at ingest of tb_stat
+ */
+public interface TbStatRollupMapper {
+
+    String ALL_COLUMN_FIELDS = "group_id,resolution,bucket_time,stat_count,tps_sum,tps_min,"
+        + "tps_max,block_size_sum,block_size_min,block_size_max,block_cycle_sum,block_cycle_min,"
+        + "block_cycle_max";
+
+    /**
+     * merge buckets into saved ones
+     */
+    @Insert({ "<script>", "insert into tb_stat_rollup (", ALL_COLUMN_FIELDS, ",modify_time) values ",
+        "<foreach collection=\"list\" item=\"r\" separator=\",\">(#{r.groupId}, #{r.resolution}, ",
+        "#{r.bucketTime}, #{r.statCount}, #{r.tpsSum}, #{r.tpsMin}, #{r.tpsMax}, ",
+        "#{r.blockSizeSum}, #{r.blockSizeMin}, #{r.blockSizeMax}, #{r.blockCycleSum}, ",
+        "#{r.blockCycleMin}, #{r.blockCycleMax}, NOW())</foreach>",
+        " on duplicate key update stat_count = stat_count + values(stat_count),",
+        " tps_sum = tps_sum + values(tps_sum), tps_min = least(tps_min, values(tps_min)),",
+        " tps_max = greatest(tps_max, values(tps_max)),",
+        " block_size_sum = block_size_sum + values(block_size_sum),",
+        " block_size_min = least(block_size_min, values(block_size_min)),",
+        " block_size_max = greatest(block_size_max, values(block_size_max)),",
+        " block_cycle_sum = block_cycle_sum + values(block_cycle_sum),",
+        " block_cycle_min = least(block_cycle_min, values(block_cycle_min)),",
+        " block_cycle_max = greatest(block_cycle_max, values(block_cycle_max)),",
+        " modify_time = NOW()", "</script>" })
+    int batchMerge(@Param("list") List<TbStatRollup> list);
+
+    /**
+     * build buckets of resolution from saved tb_stat rows, for stat saved before rollup added
+     */
+    @Insert({ "insert ignore into tb_stat_rollup (", ALL_COLUMN_FIELDS, ",modify_time)",
+        " select group_id, #{resolution}, ",
+        " floor(stat_timestamp / (#{resolution} * 1000)) * #{resolution} * 1000 bucket,",
+        " count(1), sum(tps), min(tps), max(tps), sum(block_size), min(block_size), max(block_size),",
+        " sum(block_cycle), min(block_cycle), max(block_cycle), NOW()",
+        " from tb_stat where group_id = #{groupId} group by group_id, bucket" })
+    int rebuildFromStat(@Param("groupId") Integer groupId, @Param("resolution") Integer resolution);
+
+    @Select({ "select 1 from tb_stat_rollup where group_id = #{groupId} limit 1" })
+    Integer existByGroupId(@Param("groupId") Integer groupId);
+
+    /**
+     * stream buckets in window to handler in order of bucket time
+     */
+    @Select({ "select bucket_time, stat_count, tps_sum, block_size_sum, block_cycle_sum",
+        " from tb_stat_rollup where group_id = #{groupId} and resolution = #{resolution}",
+        " and bucket_time between #{startTime} and #{endTime} order by bucket_time" })
+    @ResultType(TbStatRollup.class)
+    void findByTimeBetween(@Param("groupId") Integer groupId,
+        @Param("resolution") Integer resolution, @Param("startTime") Long startTime,
+        @Param("endTime") Long endTime, ResultHandler<TbStatRollup> handler);
+
+    /**
+     * remove buckets of resolution before bucketTime
+     */
+    @Delete({ "delete from tb_stat_rollup where group_id = #{groupId}",
+        " and resolution = #{resolution} and bucket_time < #{bucketTime}" })
+    int removeBefore(@Param("groupId") Integer groupId, @Param("resolution") Integer resolution,
+        @Param("bucketTime") Long bucketTime);
+
+    @Delete({ "delete from tb_stat_rollup where group_id = #{groupId}" })
+    int deleteByGroupId(@Param("groupId") Integer groupId);
+}
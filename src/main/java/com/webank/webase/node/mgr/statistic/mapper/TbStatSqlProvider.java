@@ -38,7 +38,7 @@ public class TbStatSqlProvider {
             sql.VALUES("block_size", "#{blockSize,jdbcType=INTEGER}");
         }
         if (record.getStatTimestamp() != null) {
-            sql.VALUES("stat_timestamp", "#{statTimestamp,jdbcType=VARCHAR}");
+            sql.VALUES("stat_timestamp", "#{statTimestamp,jdbcType=BIGINT}");
         }
         if (record.getCreateTime() != null) {
             sql.VALUES("create_time", "#{createTime,jdbcType=TIMESTAMP}");
@@ -74,7 +74,7 @@ public class TbStatSqlProvider {
             sql.SET("block_size = #{blockSize,jdbcType=INTEGER}");
         }
         if (record.getStatTimestamp() != null) {
-            sql.SET("stat_timestamp = #{statTimestamp,jdbcType=VARCHAR}");
+            sql.SET("stat_timestamp = #{statTimestamp,jdbcType=BIGINT}");
         }
         if (record.getCreateTime() != null) {
             sql.SET("create_time = #{createTime,jdbcType=TIMESTAMP}");
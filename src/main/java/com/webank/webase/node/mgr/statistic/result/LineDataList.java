@@ -15,21 +15,22 @@
  */
 package com.webank.webase.node.mgr.statistic.result;
 
-import java.math.BigDecimal;
-import java.util.List;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 
 /**
  * DATA UNIT of monitor data
  * LineDataList => Data => PerformanceData
- * containing list of result number which comes from monitor result
+ * containing columns of timestamp and value in primitive array,
+ * NaN in valueList means no data and is written as null
  */
 @Data
 public class LineDataList {
-    List<Long> timestampList;
-    List<BigDecimal> valueList;
+    long[] timestampList;
+    @JsonSerialize(using = NullableDoubleArraySerializer.class)
+    double[] valueList;
 
-    public LineDataList(List<Long> timestampList, List<BigDecimal> valueList) {
+    public LineDataList(long[] timestampList, double[] valueList) {
         this.timestampList = timestampList;
         this.valueList = valueList;
     }
@@ -0,0 +1,50 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.statistic.result;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * write double array without boxing, NaN as null and integral value without fraction
+ */
+public class NullableDoubleArraySerializer extends StdSerializer<double[]> {
+
+    /**
+     * integral value beyond this is written as double
+     */
+    private static final double MAX_INTEGRAL = 1e15;
+
+    public NullableDoubleArraySerializer() {
+        super(double[].class);
+    }
+
+    @Override
+    public void serialize(double[] values, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+        gen.writeStartArray();
+        for (double value : values) {
+            if (Double.isNaN(value)) {
+                gen.writeNull();
+            } else if (value == Math.rint(value) && Math.abs(value) < MAX_INTEGRAL) {
+                gen.writeNumber((long) value);
+            } else {
+                gen.writeNumber(value);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.statistic.result;
+
+import com.webank.webase.node.mgr.statistic.entity.TbStatRollup;
+import com.webank.webase.node.mgr.tools.LttbDownsampler;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * averages of rollup buckets in one resolution, filled row by row from mapper,
+ * empty bucket between saved ones, and from window start to end if given, is kept with NaN values.
+ * buckets are passed to downsampler as they come, series are not buffered.
+ */
+public class StatSeries implements ResultHandler<TbStatRollup> {
+
+    private static final int BLOCK_SIZE = 0;
+    private static final int BLOCK_CYCLE = 1;
+    private static final int TPS = 2;
+
+    private final long bucketMillis;
+    private final LttbDownsampler downsampler;
+    private final double[] values = new double[3];
+    private final double[] emptyValues = {Double.NaN, Double.NaN, Double.NaN};
+    private Long lastBucketTime;
+    /**
+     * first and last bucket of window, null if no window
+     */
+    private final Long firstBucketTime;
+    private final Long endBucketTime;
+    private boolean padded;
+
+    /**
+     * keep every bucket
+     * @param resolution bucket size, unit: s
+     */
+    public StatSeries(int resolution) {
+        this.bucketMillis = resolution * 1000L;
+        this.downsampler = new LttbDownsampler(0L, 0L, 0, values.length);
+        this.firstBucketTime = null;
+        this.endBucketTime = null;
+    }
+
+    /**
+     * downsample buckets in window to maxPoints
+     * @param maxPoints keep every bucket if not positive
+     */
+    public StatSeries(int resolution, long startTime, long endTime, int maxPoints) {
+        this.bucketMillis = resolution * 1000L;
+        this.downsampler = new LttbDownsampler(startTime, endTime, maxPoints, values.length);
+        this.firstBucketTime = Math.floorDiv(startTime, bucketMillis) * bucketMillis;
+        this.endBucketTime = Math.floorDiv(endTime, bucketMillis) * bucketMillis;
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends TbStatRollup> context) {
+        TbStatRollup rollup = context.getResultObject();
+        add(rollup.getBucketTime(), rollup.getStatCount(), rollup.getTpsSum(),
+            rollup.getBlockSizeSum(), rollup.getBlockCycleSum());
+    }
+
+    /**
+     * append bucket in ascending order of bucket time
+     */
+    public void add(long bucketTime, int count, long tpsSum, long blockSizeSum,
+        double blockCycleSum) {
+        padBefore(bucketTime);
+        lastBucketTime = bucketTime;
+        if (count == 0) {
+            downsampler.add(bucketTime, emptyValues);
+            return;
+        }
+        // tps and block size averaged in whole number
+        values[BLOCK_SIZE] = blockSizeSum / count;
+        values[BLOCK_CYCLE] = blockCycleSum / count;
+        values[TPS] = tpsSum / count;
+        downsampler.add(bucketTime, values);
+    }
+
+    public int size() {
+        padToEnd();
+        return downsampler.size();
+    }
+
+    public long[] timestamps() {
+        padToEnd();
+        return downsampler.timestamps();
+    }
+
+    /**
+     * average tps of bucket, NaN if empty
+     */
+    public double[] tpsAvg() {
+        padToEnd();
+        return downsampler.values(TPS);
+    }
+
+    /**
+     * average block size of bucket, NaN if empty
+     */
+    public double[] blockSizeAvg() {
+        padToEnd();
+        return downsampler.values(BLOCK_SIZE);
+    }
+
+    /**
+     * average block cycle of bucket, NaN if empty
+     */
+    public double[] blockCycleAvg() {
+        padToEnd();
+        return downsampler.values(BLOCK_CYCLE);
+    }
+
+    /**
+     * add empty buckets after last added one, or from window start, up to bucket time exclusive
+     */
+    private void padBefore(long bucketTime) {
+        Long from = lastBucketTime != null ? Long.valueOf(lastBucketTime + bucketMillis)
+            : firstBucketTime;
+        if (from == null) {
+            return;
+        }
+        for (long empty = from; empty < bucketTime; empty += bucketMillis) {
+            downsampler.add(empty, emptyValues);
+        }
+    }
+
+    /**
+     * add empty buckets up to window end once, before series is read
+     */
+    private void padToEnd() {
+        if (padded || endBucketTime == null) {
+            return;
+        }
+        padded = true;
+        padBefore(endBucketTime + bucketMillis);
+    }
+}
@@ -15,6 +15,9 @@
  */
 package com.webank.webase.node.mgr.table;
 
+import com.webank.webase.node.mgr.block.entity.MinMaxBlock;
+import com.webank.webase.node.mgr.table.entity.TbPartition;
+import java.math.BigInteger;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
@@ -33,4 +36,48 @@ public interface TableMapper {
     int createTransHash(@Param("tableName") String tableName);
 
     int createUserTransactionMonitor(@Param("tableName") String tableName);
+
+    int createTransAddress(@Param("tableName") String tableName);
+
+    int createEventLog(@Param("tableName") String tableName);
+
+    int createTbBlockPartitioned(@Param("tableName") String tableName,
+        @Param("partitionBlockSize") Long partitionBlockSize);
+
+    int createTransHashPartitioned(@Param("tableName") String tableName,
+        @Param("partitionBlockSize") Long partitionBlockSize);
+
+    List<TbPartition> listPartitions(@Param("dbName") String dbName,
+        @Param("tableName") String tableName);
+
+    /**
+     * split partition pmax into new partition less than given value and pmax
+     */
+    int reorganizeMaxPartition(@Param("tableName") String tableName,
+        @Param("partitionName") String partitionName, @Param("lessThan") Long lessThan);
+
+    int dropPartition(@Param("tableName") String tableName,
+        @Param("partitionName") String partitionName);
+
+    Long getMaxTransNumberOfPartition(@Param("tableName") String tableName,
+        @Param("partitionName") String partitionName);
+
+    MinMaxBlock getMinMaxBlock(@Param("tableName") String tableName);
+
+    int copyBlockRange(@Param("fromTable") String fromTable, @Param("toTable") String toTable,
+        @Param("fromBlock") BigInteger fromBlock, @Param("toBlock") BigInteger toBlock);
+
+    int copyTransRange(@Param("fromTable") String fromTable, @Param("toTable") String toTable,
+        @Param("fromBlock") BigInteger fromBlock, @Param("toBlock") BigInteger toBlock);
+
+    Long getMaxTransNumber(@Param("tableName") String tableName);
+
+    int setAutoIncrement(@Param("tableName") String tableName,
+        @Param("autoIncrement") Long autoIncrement);
+
+    /**
+     * rename tableName to oldName and newName to tableName atomically
+     */
+    int swapTable(@Param("tableName") String tableName, @Param("newName") String newName,
+        @Param("oldName") String oldName);
 }
\ No newline at end of file
@@ -0,0 +1,296 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.table;
+
+import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.block.entity.MinMaxBlock;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.rowcount.RowCountService;
+import com.webank.webase.node.mgr.table.entity.TbPartition;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * block and trans hash table partitioned by range of block number:
+ * partitions created ahead of latest block, partitions out of retention dropped whole,
+ * and existing plain table migrated by copying in chunks then swapping by rename.
+ */
+@Log4j2
+@Service
+public class TablePartitionService {
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final TableName[] PARTITIONED_TABLES = {TableName.BLOCK, TableName.TRANS};
+
+    @Autowired
+    private TableMapper tableMapper;
+    @Autowired
+    private TableService tableService;
+    @Autowired
+    private ConstantProperties cProperties;
+    @Autowired
+    private RowCountService rowCountService;
+
+    /**
+     * tables known partitioned, plain table checked again each time until migrated
+     */
+    private final Set<String> partitionedSet = ConcurrentHashMap.newKeySet();
+    /**
+     * key: old table name, value: first block of last copy before swap,
+     * rows of old table from which copied again after swap
+     */
+    private final Map<String, Long> copyMarkMap = new ConcurrentHashMap<>();
+
+    public boolean isPartitioned(String tableName) {
+        if (partitionedSet.contains(tableName)) {
+            return true;
+        }
+        if (listPartitions(tableName).isEmpty()) {
+            return false;
+        }
+        partitionedSet.add(tableName);
+        return true;
+    }
+
+    public List<TbPartition> listPartitions(String tableName) {
+        return tableMapper.listPartitions(tableService.getDbName(), tableName);
+    }
+
+    /**
+     * migrate table of group if not partitioned yet, then add partitions ahead of latest block
+     */
+    public void maintain(int groupId, long deadline) {
+        for (TableName table : PARTITIONED_TABLES) {
+            String tableName = table.getTableName(groupId);
+            try {
+                if (!isPartitioned(tableName)) {
+                    if (!migrate(table, tableName, deadline)) {
+                        continue;
+                    }
+                    // rows written while swapping may be missed or copied
+                    rowCountService.reconcileLater(groupId);
+                }
+                String oldName = tableName + TableService.PARTITION_OLD_SUFFIX;
+                if (tableService.existTable(oldName)) {
+                    finishSwap(table, tableName, oldName, deadline);
+                    rowCountService.reconcileLater(groupId);
+                }
+                addPartitionsAhead(tableName);
+            } catch (Exception ex) {
+                log.error("fail maintain partition of table:{}", tableName, ex);
+            }
+        }
+    }
+
+    private void addPartitionsAhead(String tableName) {
+        addPartitionsAhead(tableName, Math.max(maxBlockOf(tableName), 0L));
+    }
+
+    private void addPartitionsAhead(String tableName, long latestBlock) {
+        List<Long> upperList = planUpperBounds(listPartitions(tableName), latestBlock,
+            cProperties.getPartitionBlockSize(), cProperties.getPartitionAhead());
+        for (Long upper : upperList) {
+            log.info("add partition of table:{} less than:{}", tableName, upper);
+            tableMapper.reorganizeMaxPartition(tableName, "p" + upper, upper);
+        }
+    }
+
+    /**
+     * drop partitions of which all blocks are before beforeBlock,
+     * and all transactions not after maxTransNumber if not null
+     * @return count of partition dropped
+     */
+    public int dropPartitionsBefore(String tableName, long beforeBlock, Long maxTransNumber) {
+        if (!isPartitioned(tableName)) {
+            return 0;
+        }
+        int dropCount = 0;
+        for (TbPartition partition : planDrop(listPartitions(tableName), beforeBlock)) {
+            if (maxTransNumber != null) {
+                Long partitionMax = tableMapper.getMaxTransNumberOfPartition(tableName,
+                    partition.getPartitionName());
+                if (partitionMax != null && partitionMax > maxTransNumber) {
+                    break;
+                }
+            }
+            log.info("drop partition:{} of table:{}", partition.getPartitionName(), tableName);
+            tableMapper.dropPartition(tableName, partition.getPartitionName());
+            dropCount++;
+        }
+        return dropCount;
+    }
+
+    /**
+     * copy plain table into partitioned table chunk by chunk of block range,
+     * swap them by rename when copy caught up, resumed from copied block in next round.
+     * partitions of partitioned table created up to latest block of plain table before copy,
+     * so that no row copied into pmax
+     * @return true if swapped
+     */
+    private boolean migrate(TableName table, String tableName, long deadline) {
+        String newName = tableName + TableService.PARTITION_NEW_SUFFIX;
+        tableService.createPartitionedTable(table, newName);
+        MinMaxBlock source = tableMapper.getMinMaxBlock(tableName);
+        long copiedMax = maxBlockOf(newName);
+        long cursor;
+        if (copiedMax >= 0) {
+            cursor = copiedMax + 1;
+        } else if (source != null && source.getMinBLockNumber() != null) {
+            cursor = source.getMinBLockNumber().longValue();
+        } else {
+            cursor = 0L;
+        }
+        int chunk = cProperties.getPartitionMigrateChunk();
+        long coveredBlock = -1L;
+        while (System.currentTimeMillis() < deadline) {
+            long maxBlock = maxBlockOf(tableName);
+            if (maxBlock > coveredBlock) {
+                addPartitionsAhead(newName, maxBlock);
+                coveredBlock = maxBlock;
+            }
+            if (maxBlock - cursor + 1 <= chunk) {
+                copyRange(table, tableName, newName, cursor, maxBlock);
+                swap(table, tableName, newName, cursor, deadline);
+                return true;
+            }
+            copyRange(table, tableName, newName, cursor, cursor + chunk - 1);
+            cursor += chunk;
+        }
+        log.info("migrate partition of table:{} copied to block:{}", tableName, cursor - 1);
+        return false;
+    }
+
+    /**
+     * max block number of table, -1 if empty
+     */
+    private long maxBlockOf(String tableName) {
+        MinMaxBlock minMax = tableMapper.getMinMaxBlock(tableName);
+        return minMax == null || minMax.getMaxBlockNumber() == null ? -1L
+            : minMax.getMaxBlockNumber().longValue();
+    }
+
+    private void copyRange(TableName table, String fromTable, String toTable, long fromBlock,
+        long toBlock) {
+        if (fromBlock > toBlock) {
+            return;
+        }
+        if (table == TableName.BLOCK) {
+            tableMapper.copyBlockRange(fromTable, toTable, BigInteger.valueOf(fromBlock),
+                BigInteger.valueOf(toBlock));
+        } else {
+            tableMapper.copyTransRange(fromTable, toTable, BigInteger.valueOf(fromBlock),
+                BigInteger.valueOf(toBlock));
+        }
+    }
+
+    /**
+     * @param copyMark first block of last copy, rows of old table from it copied again after swap
+     */
+    private void swap(TableName table, String tableName, String newName, long copyMark,
+        long deadline) {
+        String oldName = tableName + TableService.PARTITION_OLD_SUFFIX;
+        if (table == TableName.TRANS) {
+            Long maxTransNumber = tableMapper.getMaxTransNumber(tableName);
+            if (maxTransNumber != null) {
+                tableMapper.setAutoIncrement(newName,
+                    maxTransNumber + cProperties.getPartitionTransNumberGap());
+            }
+        }
+        copyMarkMap.put(oldName, copyMark);
+        log.info("swap table:{} with partitioned table:{}", tableName, newName);
+        tableMapper.swapTable(tableName, newName, oldName);
+        partitionedSet.add(tableName);
+        finishSwap(table, tableName, oldName, deadline);
+    }
+
+    /**
+     * copy rows written to old table while swapping from the block copy mark recorded before swap,
+     * or from the first block of old table if mark lost by restart, then drop old table.
+     * resumed in next round if not finished before deadline
+     */
+    private void finishSwap(TableName table, String tableName, String oldName, long deadline) {
+        MinMaxBlock old = tableMapper.getMinMaxBlock(oldName);
+        if (old != null && old.getMaxBlockNumber() != null) {
+            long maxBlock = old.getMaxBlockNumber().longValue();
+            Long cursor = copyMarkMap.get(oldName);
+            if (cursor == null) {
+                log.warn("copy mark of table:{} not found, copy again from first block", oldName);
+                cursor = old.getMinBLockNumber().longValue();
+            }
+            int chunk = cProperties.getPartitionMigrateChunk();
+            while (cursor <= maxBlock) {
+                if (System.currentTimeMillis() >= deadline) {
+                    copyMarkMap.put(oldName, cursor);
+                    log.info("finish swap of table:{} copied to block:{}", tableName, cursor - 1);
+                    return;
+                }
+                copyRange(table, oldName, tableName, cursor,
+                    Math.min(cursor + chunk - 1, maxBlock));
+                cursor += chunk;
+            }
+        }
+        tableService.dropTableByName(oldName);
+        copyMarkMap.remove(oldName);
+    }
+
+    /**
+     * upper bounds of partitions to add, so that partitions cover blocks until
+     * partitionAhead partitions after the one of latest block
+     */
+    public static List<Long> planUpperBounds(List<TbPartition> partitionList, long latestBlock,
+        long partitionBlockSize, int partitionAhead) {
+        long maxUpper = partitionList.stream().map(TbPartition::getUpperBound)
+            .filter(Objects::nonNull).mapToLong(Long::longValue).max().orElse(0L);
+        long targetUpper = (latestBlock / partitionBlockSize + 1 + partitionAhead)
+            * partitionBlockSize;
+        List<Long> upperList = new ArrayList<>();
+        for (long upper = (maxUpper / partitionBlockSize + 1) * partitionBlockSize;
+            upper <= targetUpper; upper += partitionBlockSize) {
+            upperList.add(upper);
+        }
+        return upperList;
+    }
+
+    /**
+     * partitions of which all blocks are before beforeBlock, in order of range
+     */
+    public static List<TbPartition> planDrop(List<TbPartition> partitionList, long beforeBlock) {
+        List<TbPartition> dropList = new ArrayList<>();
+        for (TbPartition partition : partitionList) {
+            Long upper = partition.getUpperBound();
+            if (upper == null || upper > beforeBlock || MAX_PARTITION.equals(
+                partition.getPartitionName())) {
+                break;
+            }
+            dropList.add(partition);
+        }
+        return dropList;
+    }
+
+    public void removeGroup(int groupId) {
+        for (TableName table : PARTITIONED_TABLES) {
+            String tableName = table.getTableName(groupId);
+            partitionedSet.remove(tableName);
+            copyMarkMap.remove(tableName + TableService.PARTITION_OLD_SUFFIX);
+        }
+    }
+}
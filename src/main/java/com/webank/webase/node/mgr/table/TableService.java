@@ -16,6 +16,7 @@ package com.webank.webase.node.mgr.table;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.enums.TableName;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
 import com.webank.webase.node.mgr.table.entity.TbInfo;
 import java.time.Instant;
@@ -33,8 +34,16 @@ import org.springframework.stereotype.Service;
 @Service
 public class TableService {
 
+    /**
+     * suffix of partitioned table in migration, and of table replaced by it
+     */
+    public static final String PARTITION_NEW_SUFFIX = "_part";
+    public static final String PARTITION_OLD_SUFFIX = "_old";
+
     @Autowired
     private TableMapper tableMapper;
+    @Autowired
+    private ConstantProperties cProperties;
     @Value("${spring.datasource.url}")
     private String dbUrl;
     @Value("${spring.datasource.username}")
@@ -50,12 +59,49 @@ public class TableService {
             return;
         }
 
-        // tb_block_
-        tableMapper.createTbBlock(TableName.BLOCK.getTableName(groupId));
-        // tb_trans_hash_
-        tableMapper.createTransHash(TableName.TRANS.getTableName(groupId));
+        if (cProperties.getPartitionEnable()) {
+            // tb_block_ and tb_trans_hash_ partitioned by block number
+            createPartitionedTable(TableName.BLOCK, TableName.BLOCK.getTableName(groupId));
+            createPartitionedTable(TableName.TRANS, TableName.TRANS.getTableName(groupId));
+        } else {
+            // tb_block_
+            tableMapper.createTbBlock(TableName.BLOCK.getTableName(groupId));
+            // tb_trans_hash_
+            tableMapper.createTransHash(TableName.TRANS.getTableName(groupId));
+        }
         // tb_user_transaction_monitor_
         tableMapper.createUserTransactionMonitor(TableName.MONITOR.getTableName(groupId));
+        // tb_trans_address_
+        createTransAddress(groupId);
+        // tb_event_log_
+        createEventLog(groupId);
+    }
+
+    /**
+     * create address index table of transaction, also called for group created before it
+     */
+    public void createTransAddress(int groupId) {
+        tableMapper.createTransAddress(TableName.TRANS_ADDRESS.getTableName(groupId));
+    }
+
+    /**
+     * create event log table, also called for group created before it
+     */
+    public void createEventLog(int groupId) {
+        tableMapper.createEventLog(TableName.EVENT_LOG.getTableName(groupId));
+    }
+
+    /**
+     * create block or trans hash table partitioned by range of block number
+     */
+    public void createPartitionedTable(TableName table, String tableName) {
+        if (table == TableName.BLOCK) {
+            tableMapper.createTbBlockPartitioned(tableName, cProperties.getPartitionBlockSize());
+        } else if (table == TableName.TRANS) {
+            tableMapper.createTransHashPartitioned(tableName, cProperties.getPartitionBlockSize());
+        } else {
+            throw new NodeMgrException(ConstantCode.SYSTEM_EXCEPTION);
+        }
     }
 
     /**
@@ -70,12 +116,22 @@ public class TableService {
         for (TableName enumName : TableName.values()) {
             dropTableByName(enumName.getTableName(groupId));
         }
+        // tables left by partition migration
+        for (TableName enumName : new TableName[]{TableName.BLOCK, TableName.TRANS}) {
+            dropTableByName(enumName.getTableName(groupId) + PARTITION_NEW_SUFFIX);
+            dropTableByName(enumName.getTableName(groupId) + PARTITION_OLD_SUFFIX);
+        }
+    }
+
+    public boolean existTable(String tableName) {
+        List<String> tableNameList = tableMapper.queryTables(getDbName(), tableName);
+        return tableNameList != null && !tableNameList.isEmpty();
     }
 
     /**
      * drop table by tableName.
      */
-    private void dropTableByName(String tableName) {
+    public void dropTableByName(String tableName) {
         log.info("start drop table. name:{}", tableName);
         if (StringUtils.isBlank(tableName)) {
             return;
@@ -99,7 +155,7 @@ public class TableService {
     /**
      * get db name.
      */
-    private String getDbName() {
+    public String getDbName() {
         if (StringUtils.isBlank(dbUrl)) {
             log.error("fail getDbName. dbUrl is null");
             throw new NodeMgrException(ConstantCode.SYSTEM_EXCEPTION);
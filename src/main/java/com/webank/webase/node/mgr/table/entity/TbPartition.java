@@ -0,0 +1,39 @@
+/**
+ * Copyright 2014-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.table.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * range partition of table, description is value of less than or MAXVALUE.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TbPartition {
+
+    private String partitionName;
+    private String partitionDescription;
+
+    /**
+     * @return null if partition of MAXVALUE
+     */
+    public Long getUpperBound() {
+        return NumberUtils.isDigits(partitionDescription) ? Long.valueOf(partitionDescription)
+            : null;
+    }
+}
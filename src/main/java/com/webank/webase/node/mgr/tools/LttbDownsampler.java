@@ -0,0 +1,280 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.tools;
+
+import java.util.Arrays;
+
+/**
+ * largest-triangle-three-buckets downsampling of time series fed in time order.
+ * time range [startTime, endTime] is split into maxPoints - 2 buckets of equal time,
+ * only points of current and next bucket are buffered, first and last point always kept.
+ * several series sharing timestamps are sampled at the same points,
+ * area of each series is scaled by max absolute value seen so far.
+ * NaN value means no data and adds no area, empty bucket is kept as NaN if all values are NaN.
+ */
+public class LttbDownsampler {
+
+    private static final int MIN_POINTS = 3;
+
+    private final int seriesCount;
+    private final long startTime;
+    private final long span;
+    /**
+     * 0 if not downsampling
+     */
+    private final int bucketCount;
+    private final double[] scales;
+
+    private PointBuffer current;
+    private PointBuffer next;
+    private int currentBucket;
+    private int nextBucket;
+
+    private boolean hasAnchor;
+    private long anchorTime;
+    private final double[] anchorValues;
+    private boolean hasPending;
+    private long pendingTime;
+    private final double[] pendingValues;
+    private boolean finished;
+
+    private long[] outTimes = new long[16];
+    private double[] outValues;
+    private int outSize;
+
+    /**
+     * @param maxPoints keep every point if not positive
+     */
+    public LttbDownsampler(long startTime, long endTime, int maxPoints, int seriesCount) {
+        this.seriesCount = seriesCount;
+        this.startTime = startTime;
+        this.span = Math.max(endTime - startTime, 1L);
+        this.bucketCount = maxPoints <= 0 ? 0 : Math.max(maxPoints, MIN_POINTS) - 2;
+        this.scales = new double[seriesCount];
+        this.current = new PointBuffer(seriesCount);
+        this.next = new PointBuffer(seriesCount);
+        this.anchorValues = new double[seriesCount];
+        this.pendingValues = new double[seriesCount];
+        this.outValues = new double[16 * seriesCount];
+    }
+
+    /**
+     * add point in ascending order of timestamp, one value of each series
+     */
+    public void add(long timestamp, double... values) {
+        if (finished) {
+            throw new IllegalStateException("downsampler already finished");
+        }
+        if (bucketCount == 0) {
+            emit(timestamp, values, 0);
+            return;
+        }
+        for (int s = 0; s < seriesCount; s++) {
+            if (!Double.isNaN(values[s])) {
+                scales[s] = Math.max(scales[s], Math.abs(values[s]));
+            }
+        }
+        if (!hasAnchor) {
+            emit(timestamp, values, 0);
+            setAnchor(timestamp, values, 0);
+            return;
+        }
+        if (hasPending) {
+            push(pendingTime, pendingValues, 0);
+        }
+        pendingTime = timestamp;
+        System.arraycopy(values, 0, pendingValues, 0, seriesCount);
+        hasPending = true;
+    }
+
+    /**
+     * select points of buffered buckets and keep last point, no point can be added after it
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (!hasPending) {
+            return;
+        }
+        if (current.size > 0) {
+            if (next.size > 0) {
+                select(current, next.avgTime(), next.avgValues());
+                select(next, pendingTime - startTime, pendingValues);
+            } else {
+                select(current, pendingTime - startTime, pendingValues);
+            }
+        }
+        emit(pendingTime, pendingValues, 0);
+    }
+
+    public int size() {
+        finish();
+        return outSize;
+    }
+
+    public long[] timestamps() {
+        finish();
+        return Arrays.copyOf(outTimes, outSize);
+    }
+
+    /**
+     * sampled values of series by index of add
+     */
+    public double[] values(int series) {
+        finish();
+        double[] values = new double[outSize];
+        for (int i = 0; i < outSize; i++) {
+            values[i] = outValues[i * seriesCount + series];
+        }
+        return values;
+    }
+
+    private void push(long timestamp, double[] values, int offset) {
+        int bucket = bucketOf(timestamp);
+        if (current.size == 0) {
+            currentBucket = bucket;
+            current.add(timestamp, values, offset);
+        } else if (bucket == currentBucket) {
+            current.add(timestamp, values, offset);
+        } else if (next.size == 0 || bucket == nextBucket) {
+            nextBucket = bucket;
+            next.add(timestamp, values, offset);
+        } else {
+            // next bucket complete, select point of current one by its average
+            select(current, next.avgTime(), next.avgValues());
+            PointBuffer selected = current;
+            current = next;
+            currentBucket = nextBucket;
+            next = selected;
+            nextBucket = bucket;
+            next.add(timestamp, values, offset);
+        }
+    }
+
+    private int bucketOf(long timestamp) {
+        double offset = Math.min(Math.max(timestamp - startTime, 0L), span);
+        return (int) Math.min(bucketCount - 1, offset / (span + 1) * bucketCount);
+    }
+
+    /**
+     * emit point of buffer with largest triangle between anchor and next average,
+     * then make it anchor and clear buffer
+     * @param nextTime time of next average relative to start
+     */
+    private void select(PointBuffer buffer, double nextTime, double[] nextValues) {
+        double anchorX = anchorTime - startTime;
+        int best = 0;
+        double bestArea = -1;
+        for (int i = 0; i < buffer.size; i++) {
+            double x = buffer.times[i] - startTime;
+            double area = 0;
+            for (int s = 0; s < seriesCount; s++) {
+                double anchorY = anchorValues[s];
+                double y = buffer.values[i * seriesCount + s];
+                double nextY = nextValues[s];
+                if (Double.isNaN(anchorY) || Double.isNaN(y) || Double.isNaN(nextY)
+                    || scales[s] == 0) {
+                    continue;
+                }
+                area += Math.abs((anchorX - nextTime) * (y - anchorY)
+                    - (anchorX - x) * (nextY - anchorY)) / scales[s];
+            }
+            if (area > bestArea) {
+                bestArea = area;
+                best = i;
+            }
+        }
+        emit(buffer.times[best], buffer.values, best * seriesCount);
+        setAnchor(buffer.times[best], buffer.values, best * seriesCount);
+        buffer.clear();
+    }
+
+    private void setAnchor(long timestamp, double[] values, int offset) {
+        hasAnchor = true;
+        anchorTime = timestamp;
+        System.arraycopy(values, offset, anchorValues, 0, seriesCount);
+    }
+
+    private void emit(long timestamp, double[] values, int offset) {
+        if (outSize == outTimes.length) {
+            outTimes = Arrays.copyOf(outTimes, outSize << 1);
+            outValues = Arrays.copyOf(outValues, (outSize << 1) * seriesCount);
+        }
+        outTimes[outSize] = timestamp;
+        System.arraycopy(values, offset, outValues, outSize * seriesCount, seriesCount);
+        outSize++;
+    }
+
+    /**
+     * points of one bucket, values of point i at [i * seriesCount, (i + 1) * seriesCount)
+     */
+    private class PointBuffer {
+        private final int stride;
+        private long[] times = new long[16];
+        private double[] values;
+        private int size;
+
+        PointBuffer(int stride) {
+            this.stride = stride;
+            this.values = new double[16 * stride];
+        }
+
+        void add(long timestamp, double[] pointValues, int offset) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size << 1);
+                values = Arrays.copyOf(values, (size << 1) * stride);
+            }
+            times[size] = timestamp;
+            System.arraycopy(pointValues, offset, values, size * stride, stride);
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * average time relative to start
+         */
+        double avgTime() {
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += times[i] - startTime;
+            }
+            return sum / size;
+        }
+
+        /**
+         * average of non-NaN values of each series, NaN if none
+         */
+        double[] avgValues() {
+            double[] avg = new double[stride];
+            for (int s = 0; s < stride; s++) {
+                double sum = 0;
+                int count = 0;
+                for (int i = 0; i < size; i++) {
+                    double value = values[i * stride + s];
+                    if (!Double.isNaN(value)) {
+                        sum += value;
+                        count++;
+                    }
+                }
+                avg[s] = count == 0 ? Double.NaN : sum / count;
+            }
+            return avg;
+        }
+    }
+}
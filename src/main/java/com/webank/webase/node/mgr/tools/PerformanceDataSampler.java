@@ -0,0 +1,116 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * downsample line data of performance data list from front, such as
+ * [{metricType, data: {lineDataList: {timestampList, valueList}, contrastDataList}}].
+ * lines of same side share timestamps of the first line having timestampList.
+ */
+public class PerformanceDataSampler {
+
+    private static final String[] LINE_KEYS = {"lineDataList", "contrastDataList"};
+    private static final String TIMESTAMP_LIST = "timestampList";
+    private static final String VALUE_LIST = "valueList";
+
+    private PerformanceDataSampler() {
+    }
+
+    /**
+     * downsample in place to maxPoints by LTTB, keep every point if maxPoints null or not positive
+     * @param rspObj list of performance data, or map with the list in data
+     */
+    public static Object downsample(Object rspObj, Integer maxPoints) {
+        if (maxPoints == null || maxPoints <= 0) {
+            return rspObj;
+        }
+        Object metricList = rspObj instanceof Map ? ((Map<?, ?>) rspObj).get("data") : rspObj;
+        if (!(metricList instanceof List)) {
+            return rspObj;
+        }
+        for (String lineKey : LINE_KEYS) {
+            List<Map<String, Object>> lineList = new ArrayList<>();
+            for (Object metric : (List<?>) metricList) {
+                Object data = metric instanceof Map ? ((Map<?, ?>) metric).get("data") : null;
+                Object line = data instanceof Map ? ((Map<?, ?>) data).get(lineKey) : null;
+                if (line instanceof Map) {
+                    lineList.add(castMap(line));
+                }
+            }
+            downsampleLines(lineList, maxPoints);
+        }
+        return rspObj;
+    }
+
+    private static void downsampleLines(List<Map<String, Object>> lineList, int maxPoints) {
+        List<?> timestampList = null;
+        for (Map<String, Object> line : lineList) {
+            if (line.get(TIMESTAMP_LIST) instanceof List) {
+                timestampList = (List<?>) line.get(TIMESTAMP_LIST);
+                break;
+            }
+        }
+        if (timestampList == null || timestampList.size() <= maxPoints
+            || !(timestampList.get(0) instanceof Number)) {
+            return;
+        }
+        int size = timestampList.size();
+        List<Map<String, Object>> sampledLines = new ArrayList<>();
+        for (Map<String, Object> line : lineList) {
+            Object valueList = line.get(VALUE_LIST);
+            if (valueList instanceof List && ((List<?>) valueList).size() == size) {
+                sampledLines.add(line);
+            }
+        }
+        LttbDownsampler sampler = new LttbDownsampler(toLong(timestampList.get(0)),
+            toLong(timestampList.get(size - 1)), maxPoints, sampledLines.size());
+        double[] values = new double[sampledLines.size()];
+        for (int i = 0; i < size; i++) {
+            for (int s = 0; s < values.length; s++) {
+                Object value = ((List<?>) sampledLines.get(s).get(VALUE_LIST)).get(i);
+                values[s] = value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+            }
+            sampler.add(toLong(timestampList.get(i)), values);
+        }
+
+        List<Long> sampledTimestamps = new ArrayList<>(sampler.size());
+        for (long timestamp : sampler.timestamps()) {
+            sampledTimestamps.add(timestamp);
+        }
+        for (int s = 0; s < sampledLines.size(); s++) {
+            Map<String, Object> line = sampledLines.get(s);
+            List<Double> sampledValues = new ArrayList<>(sampler.size());
+            for (double value : sampler.values(s)) {
+                sampledValues.add(Double.isNaN(value) ? null : value);
+            }
+            line.put(VALUE_LIST, sampledValues);
+            if (line.get(TIMESTAMP_LIST) != null) {
+                line.put(TIMESTAMP_LIST, sampledTimestamps);
+            }
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object obj) {
+        return (Map<String, Object>) obj;
+    }
+}
@@ -18,8 +18,10 @@ package com.webank.webase.node.mgr.tools;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.google.common.hash.Hashing;
 import com.webank.webase.node.mgr.method.entity.Method;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -43,6 +45,12 @@ public class Web3Tools {
 
     static final int PUBLIC_KEY_LENGTH_IN_HEX = PUBLIC_KEY_SIZE << 1;
 
+    /**
+     * beginning of solidity metadata: ipfs(0.6+), bzzr1(0.5.x), bzzr0(0.4.x)
+     */
+    private static final String[] BIN_METADATA_PREFIX =
+        {"a264697066735822", "a364697066735822", "a265627a7a72315820", "a165627a7a72305820"};
+
     /*   public static SignatureData stringToSignatureData(String signatureData) {
         byte[] byte_3 = Numeric.hexStringToByteArray(signatureData);
         byte[] signR = new byte[32];
@@ -152,4 +160,70 @@ public class Web3Tools {
         }
         return result;
     }
+
+    /**
+     * fingerprint of contract bin: sha256 of the lowercase hex without "0x" and
+     * trailing solidity metadata, so same contract compiled in different path matches.
+     * @return null if bin is blank
+     */
+    public static String getBinFingerprint(String contractBin) {
+        if (StringUtils.isBlank(contractBin)) {
+            return null;
+        }
+        String hex = StringUtils.removeStart(contractBin.trim().toLowerCase(), "0x");
+        return Hashing.sha256().hashString(removeBinMetadata(hex), StandardCharsets.UTF_8)
+            .toString();
+    }
+
+    /**
+     * fingerprint of deploy bytecode: sha256 of the lowercase hex before the last solidity metadata,
+     * so deploy input with constructor params appended matches the saved bytecode bin.
+     * bin without metadata is hashed whole.
+     * @return null if bin is blank
+     */
+    public static String getDeployBinFingerprint(String bytecodeBin) {
+        if (StringUtils.isBlank(bytecodeBin)) {
+            return null;
+        }
+        String hex = StringUtils.removeStart(bytecodeBin.trim().toLowerCase(), "0x");
+        int start = -1;
+        for (String prefix : BIN_METADATA_PREFIX) {
+            int index = hex.lastIndexOf(prefix);
+            // skip match across byte boundary
+            while (index > 0 && index % 2 != 0) {
+                index = hex.lastIndexOf(prefix, index - 1);
+            }
+            start = Math.max(start, index);
+        }
+        String code = start > 0 ? hex.substring(0, start) : hex;
+        return Hashing.sha256().hashString(code, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * remove cbor encoded metadata appended by solidity compiler,
+     * whose length is in the last 2 bytes and which begins with a cbor map(0xa1 to 0xa5)
+     * @param hex lowercase hex without "0x"
+     */
+    public static String removeBinMetadata(String hex) {
+        int length = hex.length();
+        if (length < 4) {
+            return hex;
+        }
+        int metadataLength;
+        try {
+            metadataLength = Integer.parseInt(hex.substring(length - 4), 16);
+        } catch (NumberFormatException ex) {
+            return hex;
+        }
+        int metadataHexLength = (metadataLength + 2) * 2;
+        if (metadataLength == 0 || metadataHexLength > length) {
+            return hex;
+        }
+        int start = length - metadataHexLength;
+        char mapType = hex.charAt(start + 1);
+        if (hex.charAt(start) != 'a' || mapType < '1' || mapType > '5') {
+            return hex;
+        }
+        return hex.substring(0, start);
+    }
 }
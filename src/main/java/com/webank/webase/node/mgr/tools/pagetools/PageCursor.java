@@ -0,0 +1,91 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.tools.pagetools;
+
+import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * position of last row in page sorted by (block_number, trans_number, log_index) desc,
+ * next page is sought after it instead of skipping offset rows.
+ * token is url-safe base64 of "blockNumber:transNumber", transNumber empty for block list,
+ * and ":logIndex" appended for event log list
+ */
+@Data
+@NoArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private BigInteger blockNumber;
+    private Long transNumber;
+    private Integer logIndex;
+
+    public PageCursor(BigInteger blockNumber, Long transNumber) {
+        this.blockNumber = blockNumber;
+        this.transNumber = transNumber;
+    }
+
+    public PageCursor(BigInteger blockNumber, Long transNumber, Integer logIndex) {
+        this(blockNumber, transNumber);
+        this.logIndex = logIndex;
+    }
+
+    public String encode() {
+        String plain = blockNumber + SEPARATOR + (transNumber == null ? "" : transNumber)
+            + (logIndex == null ? "" : SEPARATOR + logIndex);
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null if token blank
+     */
+    public static PageCursor decode(String token) {
+        if (StringUtils.isBlank(token)) {
+            return null;
+        }
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(token.trim()),
+                StandardCharsets.UTF_8);
+            int index = plain.indexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new NodeMgrException(ConstantCode.INVALID_PAGE_CURSOR);
+            }
+            BigInteger blockNumber = new BigInteger(plain.substring(0, index));
+            String trans = plain.substring(index + 1);
+            Integer logIndex = null;
+            int logIndexAt = trans.indexOf(SEPARATOR);
+            if (logIndexAt >= 0) {
+                logIndex = Integer.valueOf(trans.substring(logIndexAt + 1));
+                trans = trans.substring(0, logIndexAt);
+            }
+            Long transNumber = trans.isEmpty() ? null : Long.valueOf(trans);
+            if (blockNumber.signum() < 0 || (transNumber != null && transNumber < 0)
+                || (logIndex != null && (logIndex < 0 || transNumber == null))) {
+                throw new NodeMgrException(ConstantCode.INVALID_PAGE_CURSOR);
+            }
+            return new PageCursor(blockNumber, transNumber, logIndex);
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException included
+            throw new NodeMgrException(ConstantCode.INVALID_PAGE_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.transaction;
+
+import com.webank.webase.node.mgr.transaction.entity.MinMaxTransNumber;
+import com.webank.webase.node.mgr.transaction.entity.TbTransAddress;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import com.webank.webase.node.mgr.transaction.entity.TransAddressParam;
+import java.math.BigInteger;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * mapper of address index of transaction.
+ */
+@Repository
+public interface TransAddressMapper {
+
+    Integer batchAdd(@Param("tableName") String tableName,
+        @Param("list") List<TbTransAddress> addressList);
+
+    /**
+     * transactions of address joined with trans hash table, pruned ones not included.
+     */
+    List<TbTransHash> listTrans(@Param("tableName") String tableName,
+        @Param("transTable") String transTable, @Param("param") TransAddressParam param);
+
+    Integer countByAddress(@Param("tableName") String tableName,
+        @Param("param") TransAddressParam param);
+
+    MinMaxTransNumber getMinMaxTransNumber(@Param("tableName") String tableName);
+
+    /**
+     * index transactions of trans hash table in [fromTransNumber, toTransNumber]
+     */
+    Integer addFromTrans(@Param("tableName") String tableName,
+        @Param("transTable") String transTable, @Param("fromTransNumber") long fromTransNumber,
+        @Param("toTransNumber") long toTransNumber);
+
+    /**
+     * same range as delete of trans hash table by retention
+     */
+    Integer removeBetween(@Param("tableName") String tableName,
+        @Param("fromTransNumber") long fromTransNumber, @Param("toTransNumber") long toTransNumber,
+        @Param("beforeBlock") BigInteger beforeBlock);
+
+    /**
+     * remove at most limit rows before trans number and block, left by dropped partition
+     */
+    Integer removeBefore(@Param("tableName") String tableName,
+        @Param("beforeTransNumber") long beforeTransNumber,
+        @Param("beforeBlock") BigInteger beforeBlock, @Param("limit") int limit);
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.transaction;
+
+import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.base.enums.TransDirection;
+import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.table.TableService;
+import com.webank.webase.node.mgr.transaction.entity.MinMaxTransNumber;
+import com.webank.webase.node.mgr.transaction.entity.TbTransAddress;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import com.webank.webase.node.mgr.transaction.entity.TransAddressParam;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * address index of transaction in tb_trans_address_x, one row of from and one row of to,
+ * filled when transaction saved, and filled from tb_trans_hash_x for transactions
+ * saved before the table created.
+ */
+@Log4j2
+@Service
+public class TransAddressService {
+
+    private static final String ZERO_ADDRESS = "0x0000000000000000000000000000000000000000";
+
+    @Autowired
+    private TransAddressMapper transAddressMapper;
+    @Autowired
+    private TransHashMapper transHashMapper;
+    @Autowired
+    private TableService tableService;
+    @Autowired
+    private ConstantProperties cProperties;
+
+    /**
+     * groups of which index table created
+     */
+    private final Set<Integer> tableCreatedGroups = ConcurrentHashMap.newKeySet();
+    /**
+     * key: groupId, value: progress of backfill, saved transaction indexed once group added
+     */
+    private final Map<Integer, BackfillProgress> backfillProgressMap = new ConcurrentHashMap<>();
+
+    /**
+     * create index table if not exists, not called in transaction as ddl commits it
+     */
+    public void ensureTable(int groupId) {
+        if (!tableCreatedGroups.contains(groupId)) {
+            tableService.createTransAddress(groupId);
+            tableCreatedGroups.add(groupId);
+        }
+    }
+
+    /**
+     * index saved transaction, left to backfill if index table not ready
+     */
+    public void addTrans(int groupId, TbTransHash tbTransHash) {
+        if (tbTransHash.getTransNumber() == null || !backfillProgressMap.containsKey(groupId)) {
+            return;
+        }
+        List<TbTransAddress> addressList = toAddressList(tbTransHash);
+        if (!addressList.isEmpty()) {
+            transAddressMapper.batchAdd(TableName.TRANS_ADDRESS.getTableName(groupId),
+                addressList);
+        }
+    }
+
+    /**
+     * rows of from and to address, to address of deploy transaction skipped
+     */
+    public static List<TbTransAddress> toAddressList(TbTransHash tbTransHash) {
+        List<TbTransAddress> addressList = new ArrayList<>(2);
+        String from = StringUtils.trimToNull(tbTransHash.getTransFrom());
+        if (from != null) {
+            addressList.add(new TbTransAddress(from, TransDirection.FROM.getValue(), tbTransHash));
+        }
+        String to = StringUtils.trimToNull(tbTransHash.getTransTo());
+        if (to != null && !ZERO_ADDRESS.equalsIgnoreCase(to)) {
+            addressList.add(new TbTransAddress(to, TransDirection.TO.getValue(), tbTransHash));
+        }
+        return addressList;
+    }
+
+    /**
+     * transactions of address in desc order, sought after cursor if set in param.
+     */
+    public List<TbTransHash> queryTransList(int groupId, TransAddressParam param) {
+        log.debug("start queryTransList by address. groupId:{} param:{}", groupId, param);
+        try {
+            ensureTable(groupId);
+            return transAddressMapper.listTrans(TableName.TRANS_ADDRESS.getTableName(groupId),
+                TableName.TRANS.getTableName(groupId), param);
+        } catch (RuntimeException ex) {
+            log.error("fail queryTransList by address. groupId:{} param:{}", groupId, param, ex);
+            throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
+        }
+    }
+
+    public Integer queryCount(int groupId, TransAddressParam param) {
+        try {
+            ensureTable(groupId);
+            Integer count = transAddressMapper
+                .countByAddress(TableName.TRANS_ADDRESS.getTableName(groupId), param);
+            return count == null ? 0 : count;
+        } catch (RuntimeException ex) {
+            log.error("fail queryCount by address. groupId:{} param:{}", groupId, param, ex);
+            throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
+        }
+    }
+
+    /**
+     * remove index of transactions deleted by retention.
+     */
+    public Integer removeBetween(int groupId, long fromTransNumber, long toTransNumber,
+        BigInteger beforeBlock) {
+        ensureTable(groupId);
+        return transAddressMapper.removeBetween(TableName.TRANS_ADDRESS.getTableName(groupId),
+            fromTransNumber, toTransNumber, beforeBlock);
+    }
+
+    /**
+     * remove index of transactions in dropped partitions chunk by chunk until deadline.
+     */
+    public long removeBefore(int groupId, long beforeTransNumber, BigInteger beforeBlock,
+        long deadline) {
+        ensureTable(groupId);
+        String tableName = TableName.TRANS_ADDRESS.getTableName(groupId);
+        int limit = cProperties.getRetentionChunkMax();
+        long removed = 0;
+        Integer affectRow;
+        do {
+            affectRow = transAddressMapper.removeBefore(tableName, beforeTransNumber, beforeBlock,
+                limit);
+            removed += toCount(affectRow);
+        } while (affectRow != null && affectRow >= limit
+            && System.currentTimeMillis() < deadline);
+        return removed;
+    }
+
+    /**
+     * index transactions saved when index not live: first round records range indexed and
+     * makes index live, later rounds fill above the indexed range (saved while not live)
+     * upward and below it (saved before table created) downward, chunk by chunk until deadline.
+     */
+    public void backfill(int groupId, long deadline) {
+        String tableName = TableName.TRANS_ADDRESS.getTableName(groupId);
+        String transTable = TableName.TRANS.getTableName(groupId);
+        BackfillProgress progress = backfillProgressMap.get(groupId);
+        if (progress == null) {
+            ensureTable(groupId);
+            MinMaxTransNumber indexed = transAddressMapper.getMinMaxTransNumber(tableName);
+            progress = new BackfillProgress();
+            if (indexed != null && indexed.getMinTransNumber() != null) {
+                progress.upCursor = indexed.getMaxTransNumber() + 1;
+                progress.downCursor = indexed.getMinTransNumber() - 1;
+            }
+            // filled in next round, after transactions being saved now committed
+            backfillProgressMap.put(groupId, progress);
+            return;
+        }
+        MinMaxTransNumber minMax = transHashMapper.getMinMaxTransNumber(transTable);
+        if (minMax == null || minMax.getMinTransNumber() == null) {
+            return;
+        }
+        if (progress.downCursor == null) {
+            progress.downCursor = minMax.getMaxTransNumber();
+        }
+        int chunk = cProperties.getTransAddressBackfillChunk();
+        long added = 0;
+        while (progress.upCursor != null && System.currentTimeMillis() < deadline) {
+            long to = Math.min(minMax.getMaxTransNumber(), progress.upCursor + chunk - 1);
+            if (progress.upCursor > to) {
+                progress.upCursor = null;
+                break;
+            }
+            added += toCount(transAddressMapper.addFromTrans(tableName, transTable,
+                progress.upCursor, to));
+            progress.upCursor = to + 1;
+        }
+        while (progress.downCursor >= minMax.getMinTransNumber()
+            && System.currentTimeMillis() < deadline) {
+            long from = Math.max(minMax.getMinTransNumber(), progress.downCursor - chunk + 1);
+            added += toCount(transAddressMapper.addFromTrans(tableName, transTable, from,
+                progress.downCursor));
+            progress.downCursor = from - 1;
+        }
+        if (added > 0) {
+            log.info("backfill address index of group:{} added:{} upCursor:{} downCursor:{}",
+                groupId, added, progress.upCursor, progress.downCursor);
+        }
+    }
+
+    public void removeGroup(int groupId) {
+        tableCreatedGroups.remove(groupId);
+        backfillProgressMap.remove(groupId);
+    }
+
+    private static long toCount(Integer affectRow) {
+        return affectRow == null ? 0 : affectRow;
+    }
+
+    /**
+     * trans number to fill upward from and downward from, null if nothing to fill upward
+     */
+    private static class BackfillProgress {
+        private Long upCursor;
+        private Long downCursor;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.transaction;
+
+import com.webank.webase.node.mgr.base.enums.ExportFormat;
+import com.webank.webase.node.mgr.base.enums.TableName;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.monitor.MonitorExportWriter;
+import com.webank.webase.node.mgr.monitor.MonitorMapper;
+import com.webank.webase.node.mgr.monitor.entity.MonitorExportParam;
+import com.webank.webase.node.mgr.monitor.entity.TbMonitor;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import com.webank.webase.node.mgr.transaction.entity.TransExportParam;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * stream transactions and monitor rows of group to output, memory not growing with range.
+ * rows read exportChunkSize each query after key of last row written, every query is
+ * a short transaction of its own, so no snapshot or connection held while client reads.
+ */
+@Log4j2
+@Service
+public class TransExportService {
+
+    @Autowired
+    private TransHashMapper transHashMapper;
+    @Autowired
+    private MonitorMapper monitorMapper;
+    @Autowired
+    private ConstantProperties cProperties;
+
+    /**
+     * output flushed after each chunk, sent to client as one chunk of response
+     * @return count of rows written
+     */
+    public long exportTrans(int groupId, TransExportParam param, ExportFormat format,
+        OutputStream out) throws IOException {
+        log.info("start exportTrans groupId:{} param:{} format:{}", groupId, param, format);
+        String tableName = TableName.TRANS.getTableName(groupId);
+        int chunkSize = cProperties.getExportChunkSize();
+        TransExportParam chunkParam = new TransExportParam(param.getFromBlock(),
+            param.getToBlock(), param.getAfterTransNumber());
+        TransExportWriter writer = new TransExportWriter(newWriter(out), format);
+        writer.writeHeader();
+        long count = 0;
+        List<TbTransHash> chunk;
+        do {
+            chunk = transHashMapper.listForExport(tableName, chunkParam, chunkSize);
+            for (TbTransHash trans : chunk) {
+                writer.write(trans);
+                chunkParam.setAfterTransNumber(trans.getTransNumber());
+            }
+            writer.flush();
+            count += chunk.size();
+        } while (chunk.size() == chunkSize);
+        log.info("end exportTrans groupId:{} count:{}", groupId, count);
+        return count;
+    }
+
+    /**
+     * export rows of transaction monitor, in order of key of row
+     * @return count of rows written
+     */
+    public long exportMonitor(int groupId, MonitorExportParam param, ExportFormat format,
+        OutputStream out) throws IOException {
+        log.info("start exportMonitor groupId:{} param:{} format:{}", groupId, param, format);
+        String tableName = TableName.MONITOR.getTableName(groupId);
+        int chunkSize = cProperties.getExportChunkSize();
+        MonitorExportParam chunkParam = new MonitorExportParam();
+        BeanUtils.copyProperties(param, chunkParam);
+        MonitorExportWriter writer = new MonitorExportWriter(newWriter(out), format);
+        writer.writeHeader();
+        long count = 0;
+        List<TbMonitor> chunk;
+        do {
+            chunk = monitorMapper.listForExport(tableName, chunkParam, chunkSize);
+            for (TbMonitor monitor : chunk) {
+                writer.write(monitor);
+                chunkParam.setAfterCreateTime(monitor.getCreateTime());
+                chunkParam.setAfterUserName(monitor.getUserName());
+                chunkParam.setAfterContractName(monitor.getContractName());
+                chunkParam.setAfterInterfaceName(monitor.getInterfaceName());
+                chunkParam.setAfterUserType(monitor.getUserType());
+                chunkParam.setAfterContractAddress(monitor.getContractAddress());
+                chunkParam.setAfterTransType(monitor.getTransType());
+                chunkParam.setAfterTransUnusualType(monitor.getTransUnusualType());
+            }
+            writer.flush();
+            count += chunk.size();
+        } while (chunk.size() == chunkSize);
+        log.info("end exportMonitor groupId:{} count:{}", groupId, count);
+        return count;
+    }
+
+    private static Writer newWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+}
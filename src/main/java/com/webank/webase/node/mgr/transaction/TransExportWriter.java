@@ -0,0 +1,84 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.transaction;
+
+import com.webank.webase.node.mgr.base.enums.ExportFormat;
+import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * write transaction as one line of json or csv, trans number first to resume export.
+ */
+public class TransExportWriter {
+
+    private static final String CSV_HEADER = "trans_number,trans_hash,block_number,"
+        + "block_timestamp,trans_from,trans_to,gas_used,status,extra_data,app_id";
+
+    private final Writer writer;
+    private final ExportFormat format;
+
+    public TransExportWriter(Writer writer, ExportFormat format) {
+        this.writer = writer;
+        this.format = format;
+    }
+
+    /**
+     * header line of csv, nothing of ndjson
+     */
+    public void writeHeader() throws IOException {
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(TbTransHash trans) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(JsonTools.toJSONString(trans));
+        } else {
+            writer.write(toCsvLine(trans.getTransNumber(), trans.getTransHash(),
+                trans.getBlockNumber(), trans.getBlockTimestamp(), trans.getTransFrom(),
+                trans.getTransTo(), trans.getGasUsed(), trans.getStatus(), trans.getExtraData(),
+                trans.getAppId()));
+        }
+        writer.write('\n');
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * null as empty, value with comma, quote or line break quoted
+     */
+    public static String toCsvLine(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = Objects.toString(values[i], "");
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+}
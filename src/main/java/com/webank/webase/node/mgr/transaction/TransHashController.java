@@ -19,16 +19,22 @@ import com.webank.webase.node.mgr.base.code.ConstantCode;
 import com.webank.webase.node.mgr.base.controller.BaseController;
 import com.webank.webase.node.mgr.base.entity.BasePageResponse;
 import com.webank.webase.node.mgr.base.entity.BaseResponse;
+import com.webank.webase.node.mgr.base.enums.ExportFormat;
 import com.webank.webase.node.mgr.base.enums.SqlSortType;
+import com.webank.webase.node.mgr.base.enums.TransDirection;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.tools.pagetools.PageCursor;
 import com.webank.webase.node.mgr.transaction.entity.ReqSignMessage;
 import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import com.webank.webase.node.mgr.transaction.entity.TransAddressParam;
+import com.webank.webase.node.mgr.transaction.entity.TransExportParam;
 import com.webank.webase.node.mgr.transaction.entity.TransListParam;
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import lombok.extern.log4j.Log4j2;
@@ -39,6 +45,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 @Log4j2
@@ -48,38 +55,62 @@ public class TransHashController extends BaseController {
 
     @Autowired
     private TransHashService transHashService;
+    @Autowired
+    private TransAddressService transAddressService;
+    @Autowired
+    private TransExportService transExportService;
 
 
     /**
      * query trans list.
+     * if cursor of previous page's nextCursor given, page is sought by
+     * block number and trans number, and pageNumber ignored.
      */
     @GetMapping(value = "/transList/{groupId}/{pageNumber}/{pageSize}")
     public BasePageResponse queryTransList(@PathVariable("groupId") Integer groupId,
         @PathVariable("pageNumber") Integer pageNumber,
         @PathVariable("pageSize") Integer pageSize,
         @RequestParam(value = "transactionHash", required = false) String transHash,
-        @RequestParam(value = "blockNumber", required = false) BigInteger blockNumber) {
+        @RequestParam(value = "blockNumber", required = false) BigInteger blockNumber,
+        @RequestParam(value = "cursor", required = false) String cursor) {
         BasePageResponse pageResponse = new BasePageResponse(ConstantCode.SUCCESS);
         Instant startTime = Instant.now();
         log.info(
             "start queryTransList. startTime:{} groupId:{} pageNumber:{} pageSize:{} "
-                + "transaction:{}",
-            startTime.toEpochMilli(), groupId, pageNumber, pageSize, transHash);
+                + "transaction:{} cursor:{}",
+            startTime.toEpochMilli(), groupId, pageNumber, pageSize, transHash, cursor);
+        PageCursor pageCursor = PageCursor.decode(cursor);
         TransListParam queryParam = new TransListParam(transHash, blockNumber);
+        // count of all trans is maintained, not scanned
         Integer count = transHashService.queryCountOfTran(groupId, queryParam);
         if (count != null && count > 0) {
-            Integer start = Optional.ofNullable(pageNumber).map(page -> (page - 1) * pageSize)
+            Integer start = Optional.ofNullable(pageNumber)
+                .filter(page -> pageCursor == null).map(page -> (page - 1) * pageSize)
                 .orElse(null);
             queryParam.setStart(start);
             queryParam.setPageSize(pageSize);
             queryParam.setFlagSortedByBlock(SqlSortType.DESC.getValue());
+            if (pageCursor != null) {
+                queryParam.setCursorBlockNumber(pageCursor.getBlockNumber());
+                queryParam.setCursorTransNumber(Optional.ofNullable(pageCursor.getTransNumber())
+                    .orElse(Long.MAX_VALUE));
+            }
             List<TbTransHash> transList = transHashService.queryTransList(groupId,queryParam);
             pageResponse.setData(transList);
             // on chain tx count
             pageResponse.setTotalCount(count);
+            if (pageSize != null && transList.size() == pageSize) {
+                TbTransHash last = transList.get(transList.size() - 1);
+                pageResponse.setNextCursor(
+                    new PageCursor(last.getBlockNumber(), last.getTransNumber()).encode());
+            }
         } else {
-            List<TbTransHash> transList = new ArrayList<>();
-            transList = transHashService.getTransListFromChain(groupId,transHash,blockNumber);
+            // not in db, pruned by retention and archived, or not pulled from chain yet
+            List<TbTransHash> transList = transHashService.getArchivedTransList(groupId,
+                transHash, blockNumber);
+            if (transList.isEmpty()) {
+                transList = transHashService.getTransListFromChain(groupId,transHash,blockNumber);
+            }
             //result
             if (transList.size() > 0) {
                 pageResponse.setData(transList);
@@ -92,6 +123,87 @@ public class TransHashController extends BaseController {
         return pageResponse;
     }
 
+    /**
+     * query trans list of address from address index, sorted by block number desc.
+     * direction: 1-from, 2-to, both if not set. totalCount not returned if cursor given.
+     */
+    @GetMapping(value = "/byAddress/{groupId}/{pageNumber}/{pageSize}")
+    public BasePageResponse queryTransByAddress(@PathVariable("groupId") Integer groupId,
+        @PathVariable("pageNumber") Integer pageNumber,
+        @PathVariable("pageSize") Integer pageSize,
+        @RequestParam(value = "address") String address,
+        @RequestParam(value = "direction", required = false) Integer direction,
+        @RequestParam(value = "cursor", required = false) String cursor) {
+        Instant startTime = Instant.now();
+        log.info("start queryTransByAddress. startTime:{} groupId:{} pageNumber:{} pageSize:{} "
+                + "address:{} direction:{} cursor:{}", startTime.toEpochMilli(), groupId,
+            pageNumber, pageSize, address, direction, cursor);
+        if (StringUtils.isBlank(address)
+            || (direction != null && !TransDirection.isValid(direction))) {
+            throw new NodeMgrException(ConstantCode.PARAM_EXCEPTION);
+        }
+        BasePageResponse pageResponse = new BasePageResponse(ConstantCode.SUCCESS);
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        TransAddressParam queryParam = new TransAddressParam(address.trim(), direction);
+        queryParam.setPageSize(pageSize);
+        if (pageCursor == null) {
+            queryParam.setStart(Optional.ofNullable(pageNumber).map(page -> (page - 1) * pageSize)
+                .orElse(null));
+            pageResponse.setTotalCount(transAddressService.queryCount(groupId, queryParam));
+        } else {
+            queryParam.setCursorBlockNumber(pageCursor.getBlockNumber());
+            queryParam.setCursorTransNumber(Optional.ofNullable(pageCursor.getTransNumber())
+                .orElse(Long.MAX_VALUE));
+        }
+        List<TbTransHash> transList = transAddressService.queryTransList(groupId, queryParam);
+        pageResponse.setData(transList);
+        if (pageSize != null && transList.size() == pageSize) {
+            TbTransHash last = transList.get(transList.size() - 1);
+            pageResponse.setNextCursor(
+                new PageCursor(last.getBlockNumber(), last.getTransNumber()).encode());
+        }
+        log.info("end queryTransByAddress useTime:{}",
+            Duration.between(startTime, Instant.now()).toMillis());
+        return pageResponse;
+    }
+
+    /**
+     * export transactions as ndjson or csv, streamed in chunks and sorted by trans number.
+     * resume by afterTransNumber of the last row received.
+     */
+    @GetMapping(value = "/export/{groupId}")
+    public void exportTrans(@PathVariable("groupId") Integer groupId,
+        @RequestParam(value = "format", defaultValue = "ndjson") String format,
+        @RequestParam(value = "fromBlock", required = false) BigInteger fromBlock,
+        @RequestParam(value = "toBlock", required = false) BigInteger toBlock,
+        @RequestParam(value = "afterTransNumber", required = false) Long afterTransNumber,
+        HttpServletResponse response) {
+        Instant startTime = Instant.now();
+        log.info("start exportTrans. startTime:{} groupId:{} format:{} fromBlock:{} toBlock:{} "
+                + "afterTransNumber:{}", startTime.toEpochMilli(), groupId, format, fromBlock,
+            toBlock, afterTransNumber);
+        ExportFormat exportFormat = ExportFormat.getByValue(format);
+        if (exportFormat == null) {
+            throw new NodeMgrException(ConstantCode.PARAM_EXCEPTION);
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition",
+            "attachment; filename=trans_" + groupId + "." + exportFormat.getValue());
+        long count;
+        try {
+            count = transExportService.exportTrans(groupId,
+                new TransExportParam(fromBlock, toBlock, afterTransNumber), exportFormat,
+                response.getOutputStream());
+        } catch (IOException ex) {
+            // client disconnected, resumed by afterTransNumber
+            log.warn("exportTrans interrupted. groupId:{} error:{}", groupId, ex.getMessage());
+            return;
+        }
+        log.info("end exportTrans useTime:{} count:{}",
+            Duration.between(startTime, Instant.now()).toMillis(), count);
+    }
+
     /**
      * get transaction receipt.
      */
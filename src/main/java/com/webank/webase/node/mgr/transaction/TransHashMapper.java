@@ -15,11 +15,14 @@
  */
 package com.webank.webase.node.mgr.transaction;
 
+import java.math.BigInteger;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 import com.webank.webase.node.mgr.block.entity.MinMaxBlock;
+import com.webank.webase.node.mgr.transaction.entity.MinMaxTransNumber;
 import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import com.webank.webase.node.mgr.transaction.entity.TransExportParam;
 import com.webank.webase.node.mgr.transaction.entity.TransListParam;
 
 /**
@@ -38,15 +41,38 @@ public interface TransHashMapper {
 
     List<MinMaxBlock> queryMinMaxBlock(@Param("tableName") String tableName);
 
-    Integer remove(@Param("tableName") String tableName,
-        @Param("subTransNum") Integer subTransNum,@Param("groupId") Integer groupId);
+    MinMaxTransNumber getMinMaxTransNumber(@Param("tableName") String tableName);
 
-    List<TbTransHash> listOfUnStatTransHash(@Param("tableName") String tableName);
+    /**
+     * trans number of last transaction before block
+     */
+    Long getLastTransNumberBefore(@Param("tableName") String tableName,
+        @Param("blockNumber") BigInteger blockNumber);
 
-    List<TbTransHash> listOfUnStatTransHashByJob(@Param("tableName") String tableName,
-        @Param("shardingTotalCount") Integer shardingTotalCount,
-        @Param("shardingItem") Integer shardingItem);
+    /**
+     * transaction of trans number in [fromTransNumber, toTransNumber] before block
+     */
+    List<TbTransHash> listBetween(@Param("tableName") String tableName,
+        @Param("fromTransNumber") Long fromTransNumber, @Param("toTransNumber") Long toTransNumber,
+        @Param("beforeBlock") BigInteger beforeBlock);
 
-    void updateTransStatFlag(@Param("tableName") String tableName,@Param("transHash") String transHash);
+    /**
+     * delete transaction of trans number in [fromTransNumber, toTransNumber] before block
+     */
+    Integer removeBetween(@Param("tableName") String tableName,
+        @Param("fromTransNumber") Long fromTransNumber, @Param("toTransNumber") Long toTransNumber,
+        @Param("beforeBlock") BigInteger beforeBlock);
+
+    /**
+     * one chunk of export, sorted by trans number after param.afterTransNumber
+     */
+    List<TbTransHash> listForExport(@Param("tableName") String tableName,
+        @Param("param") TransExportParam param, @Param("limit") int limit);
+
+    List<TbTransHash> listAfterCheckpoint(@Param("tableName") String tableName,
+        @Param("blockNumber") BigInteger blockNumber, @Param("transNumber") Long transNumber,
+        @Param("limit") Integer limit);
+
+    TbTransHash getLastStatTrans(@Param("tableName") String tableName);
 
 }
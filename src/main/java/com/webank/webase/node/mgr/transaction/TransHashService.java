@@ -13,12 +13,17 @@
  */
 package com.webank.webase.node.mgr.transaction;
 
+import com.webank.webase.node.mgr.archive.ArchiveService;
 import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.enums.RowCountKey;
 import com.webank.webase.node.mgr.base.enums.TableName;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.block.entity.MinMaxBlock;
+import com.webank.webase.node.mgr.event.EventLogService;
 import com.webank.webase.node.mgr.front.frontinterface.FrontInterfaceService;
+import com.webank.webase.node.mgr.rowcount.RowCountService;
+import com.webank.webase.node.mgr.transaction.entity.MinMaxTransNumber;
 import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
 import com.webank.webase.node.mgr.transaction.entity.TransListParam;
 import java.math.BigInteger;
@@ -26,6 +31,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
 import org.fisco.bcos.sdk.client.protocol.model.JsonTransactionResponse;
 import org.fisco.bcos.sdk.model.TransactionReceipt;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +49,14 @@ public class TransHashService {
     private TransHashMapper transHashMapper;
     @Autowired
     private FrontInterfaceService frontInterface;
+    @Autowired
+    private ArchiveService archiveService;
+    @Autowired
+    private RowCountService rowCountService;
+    @Autowired
+    private TransAddressService transAddressService;
+    @Autowired
+    private EventLogService eventLogService;
 
     /**
      * add trans hash info.
@@ -51,7 +65,11 @@ public class TransHashService {
         log.debug("start addTransInfo groupId:{} tbTransHash:{}", groupId,
                 JsonTools.toJSONString(tbTransHash));
         String tableName = TableName.TRANS.getTableName(groupId);
-        transHashMapper.add(tableName, tbTransHash);
+        Integer affectRow = transHashMapper.add(tableName, tbTransHash);
+        if (affectRow != null && affectRow > 0) {
+            rowCountService.addAfterCommit(groupId, RowCountKey.TRANS, affectRow);
+            transAddressService.addTrans(groupId, tbTransHash);
+        }
         log.debug("end addTransInfo");
     }
 
@@ -80,6 +98,11 @@ public class TransHashService {
     public Integer queryCountOfTran(int groupId, TransListParam queryParam)
             throws NodeMgrException {
         log.debug("start queryCountOfTran. queryParam:{}", JsonTools.toJSONString(queryParam));
+        if (StringUtils.isBlank(queryParam.getTransHash()) && queryParam.getBlockNumber() == null) {
+            // count of all trans from maintained row count, or min and max if not counted yet
+            Long count = rowCountService.getCount(groupId, RowCountKey.TRANS);
+            return count != null ? count.intValue() : queryCountOfTranByMinus(groupId);
+        }
         String tableName = TableName.TRANS.getTableName(groupId);
         try {
             Integer count = transHashMapper.getCount(tableName, queryParam);
@@ -93,6 +116,24 @@ public class TransHashService {
     }
 
 
+    /**
+     * approximate count of all trans, read from index of trans_number instead of scanning.
+     */
+    public Integer queryCountOfTranByMinus(int groupId) {
+        log.debug("start queryCountOfTranByMinus groupId:{}", groupId);
+        try {
+            Integer count = transHashMapper.getCountByMinMax(TableName.TRANS.getTableName(groupId));
+            log.info("end queryCountOfTranByMinus groupId:{} count:{}", groupId, count);
+            if (count == null) {
+                return 0;
+            }
+            return count;
+        } catch (RuntimeException ex) {
+            log.error("fail queryCountOfTranByMinus groupId:{}", groupId, ex);
+            throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
+        }
+    }
+
     /**
      * query min and max block number.
      */
@@ -111,41 +152,69 @@ public class TransHashService {
     }
 
     /**
-     * Remove trans info.
+     * min and max trans number, read from index of trans_number.
+     */
+    public MinMaxTransNumber getMinMaxTransNumber(int groupId) {
+        return transHashMapper.getMinMaxTransNumber(TableName.TRANS.getTableName(groupId));
+    }
+
+    /**
+     * trans number of last transaction before block.
+     * @return null if no transaction before block
      */
-    public Integer remove(Integer groupId, Integer subTransNum) {
+    public Long getLastTransNumberBefore(int groupId, BigInteger blockNumber) {
+        return transHashMapper.getLastTransNumberBefore(TableName.TRANS.getTableName(groupId),
+            blockNumber);
+    }
+
+    public List<TbTransHash> listBetween(int groupId, long fromTransNumber, long toTransNumber,
+        BigInteger beforeBlock) {
         String tableName = TableName.TRANS.getTableName(groupId);
-        Integer affectRow = transHashMapper.remove(tableName, subTransNum, groupId);
+        return transHashMapper.listBetween(tableName, fromTransNumber, toTransNumber,
+            beforeBlock);
+    }
+
+    /**
+     * remove transaction of trans number in [fromTransNumber, toTransNumber] before block,
+     * one chunk of retention.
+     */
+    public Integer removeBetween(int groupId, long fromTransNumber, long toTransNumber,
+        BigInteger beforeBlock) {
+        String tableName = TableName.TRANS.getTableName(groupId);
+        Integer affectRow = transHashMapper.removeBetween(tableName, fromTransNumber,
+            toTransNumber, beforeBlock);
+        if (affectRow != null) {
+            rowCountService.addAfterCommit(groupId, RowCountKey.TRANS, -affectRow);
+        }
+        transAddressService.removeBetween(groupId, fromTransNumber, toTransNumber, beforeBlock);
+        eventLogService.removeBetween(groupId, fromTransNumber, toTransNumber, beforeBlock);
         return affectRow;
     }
 
 
     /**
-     * query un statistics transaction list.
+     * query transaction list after audit checkpoint, in order of block and trans number.
      */
-    public List<TbTransHash> queryUnStatTransHashList(int groupId) {
-        List<TbTransHash> list = transHashMapper
-                .listOfUnStatTransHash(TableName.TRANS.getTableName(groupId));
-        return list;
+    public List<TbTransHash> queryTransListAfter(int groupId, BigInteger blockNumber,
+        Long transNumber, int limit) {
+        String tableName = TableName.TRANS.getTableName(groupId);
+        return transHashMapper.listAfterCheckpoint(tableName, blockNumber, transNumber, limit);
     }
 
     /**
-     * query un statistic transaction list by job.
+     * query last transaction flagged as statistic, used to init audit checkpoint after upgrade.
      */
-    public List<TbTransHash> queryUnStatTransHashListByJob(int groupId, Integer shardingTotalCount,
-                                                           Integer shardingItem) {
+    public TbTransHash queryLastStatTrans(int groupId) {
         String tableName = TableName.TRANS.getTableName(groupId);
-        List<TbTransHash> list = transHashMapper
-                .listOfUnStatTransHashByJob(tableName, shardingTotalCount, shardingItem);
-        return list;
+        return transHashMapper.getLastStatTrans(tableName);
     }
 
     /**
-     * update trans statistic flag.
+     * transaction pruned by retention in archive, by hash or by block number if hash is blank
      */
-    public void updateTransStatFlag(int groupId, String transHash) {
-        String tableName = TableName.TRANS.getTableName(groupId);
-        transHashMapper.updateTransStatFlag(tableName, transHash);
+    public List<TbTransHash> getArchivedTransList(int groupId, String transHash,
+        BigInteger blockNumber) {
+        return archiveService.findTrans(groupId, transHash, blockNumber);
     }
 
     /**
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.transaction.entity;
+
+import java.math.BigInteger;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class of table tb_trans_address, transaction indexed by from and to address.
+ */
+@Data
+@NoArgsConstructor
+public class TbTransAddress {
+
+    private String address;
+    private BigInteger blockNumber;
+    private Long transNumber;
+    private Integer direction;
+    private String transHash;
+
+    public TbTransAddress(String address, Integer direction, TbTransHash tbTransHash) {
+        this.address = address;
+        this.direction = direction;
+        this.blockNumber = tbTransHash.getBlockNumber();
+        this.transNumber = tbTransHash.getTransNumber();
+        this.transHash = tbTransHash.getTransHash();
+    }
+}
@@ -26,6 +26,10 @@ import lombok.NoArgsConstructor;
 public class TbTransHash {
 
     private String transHash;
+    /**
+     * auto increment sequence, follows order of transaction in block
+     */
+    private Long transNumber;
     private String transFrom;
     private String transTo;
     private BigInteger blockNumber;
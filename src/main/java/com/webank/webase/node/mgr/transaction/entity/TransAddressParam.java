@@ -0,0 +1,46 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.transaction.entity;
+
+import com.webank.webase.node.mgr.base.entity.BaseQueryParam;
+import java.math.BigInteger;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * param of query transaction list by address, sorted by block number and trans number desc.
+ */
+@Data
+@NoArgsConstructor
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class TransAddressParam extends BaseQueryParam {
+    private String address;
+    /**
+     * both direction if null
+     */
+    private Integer direction;
+    /**
+     * seek rows after (cursorBlockNumber, cursorTransNumber), used without start
+     */
+    private BigInteger cursorBlockNumber;
+    private Long cursorTransNumber;
+
+    public TransAddressParam(String address, Integer direction) {
+        this.address = address;
+        this.direction = direction;
+    }
+}
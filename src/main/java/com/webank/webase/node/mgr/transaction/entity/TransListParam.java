@@ -33,6 +33,12 @@ public class TransListParam extends BaseQueryParam {
     private BigInteger blockNumber;
     private String transHash;
     private String flagSortedByBlock;
+    /**
+     * seek rows after (cursorBlockNumber, cursorTransNumber) in desc order,
+     * used with pageSize and without start
+     */
+    private BigInteger cursorBlockNumber;
+    private Long cursorTransNumber;
 
     public TransListParam(String transHash, BigInteger blockNumber){
         this.transHash = transHash;
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.transdaily;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Getter;
+
+/**
+ * trans count of blocks committed in one day of group, not flushed to tb_trans_daily yet.
+ */
+@Getter
+public class DailyTransCount {
+
+    private final int groupId;
+    private final LocalDate transDay;
+    /**
+     * key: block number, value: trans count of block
+     */
+    private final TreeMap<BigInteger, Integer> blockTransMap = new TreeMap<>();
+
+    public DailyTransCount(int groupId, LocalDate transDay) {
+        this.groupId = groupId;
+        this.transDay = transDay;
+    }
+
+    public void add(BigInteger blockNumber, int transCount) {
+        blockTransMap.put(blockNumber, transCount);
+    }
+
+    public void addAll(DailyTransCount other) {
+        blockTransMap.putAll(other.blockTransMap);
+    }
+
+    public BigInteger getMinBlockNumber() {
+        return blockTransMap.isEmpty() ? null : blockTransMap.firstKey();
+    }
+
+    public BigInteger getMaxBlockNumber() {
+        return blockTransMap.isEmpty() ? null : blockTransMap.lastKey();
+    }
+
+    /**
+     * sum of trans count of blocks after blockNumber, all blocks if blockNumber is null
+     */
+    public int countAfter(BigInteger blockNumber) {
+        Map<BigInteger, Integer> tailMap = blockNumber == null ? blockTransMap
+            : blockTransMap.tailMap(blockNumber, false);
+        int sum = 0;
+        for (Integer transCount : tailMap.values()) {
+            sum += transCount;
+        }
+        return sum;
+    }
+}
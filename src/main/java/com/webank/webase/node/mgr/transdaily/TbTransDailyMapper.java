@@ -16,8 +16,8 @@
 package com.webank.webase.node.mgr.transdaily;
 
 import java.math.BigInteger;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
@@ -33,14 +33,15 @@ public interface TbTransDailyMapper {
     List<SeventDaysTrans> listSeventDayOfTransDaily(@Param("groupId") Integer groupId);
 
     /**
-     * update tb_trans_daily.
+     * add trans count to row of day and move block number forward, insert if not exists.
      */
-    Integer updateTransDaily(Map<String, Object> paramMap);
+    Integer mergeTransDaily(TbTransDaily tbTransDaily);
 
     /**
-     * add new tb_trans_daily data.
+     * query block number counted of day.
      */
-    Integer addTransDailyRow(TbTransDaily tbTransDaily);
+    BigInteger queryBlockNumber(@Param("groupId") Integer groupId,
+        @Param("transDay") LocalDate transDay);
 
     /**
      * query max block number by group id.
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.transdaily;
+
+import com.webank.webase.node.mgr.block.entity.TbBlock;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * in-memory trans count per group per day of committed blocks,
+ * drained and flushed to tb_trans_daily periodically.
+ */
+@Component
+public class TransDailyCounter {
+
+    /**
+     * key: groupId, value: map of day and its count
+     */
+    private final Map<Integer, Map<LocalDate, DailyTransCount>> groupCountMap = new HashMap<>();
+
+    /**
+     * count block after current transaction committed, or at once if no transaction
+     */
+    public void addAfterCommit(int groupId, TbBlock tbBlock) {
+        if (tbBlock.getBlockTimestamp() == null) {
+            return;
+        }
+        LocalDate transDay = tbBlock.getBlockTimestamp().toLocalDate();
+        BigInteger blockNumber = tbBlock.getBlockNumber();
+        int transCount = tbBlock.getTransCount() == null ? 0 : tbBlock.getTransCount();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(groupId, transDay, blockNumber, transCount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(groupId, transDay, blockNumber, transCount);
+            }
+        });
+    }
+
+    public synchronized void add(int groupId, LocalDate transDay, BigInteger blockNumber,
+        int transCount) {
+        groupCountMap.computeIfAbsent(groupId, k -> new HashMap<>())
+            .computeIfAbsent(transDay, k -> new DailyTransCount(groupId, transDay))
+            .add(blockNumber, transCount);
+    }
+
+    /**
+     * put back count failed to flush
+     */
+    public synchronized void restore(DailyTransCount count) {
+        groupCountMap.computeIfAbsent(count.getGroupId(), k -> new HashMap<>())
+            .computeIfAbsent(count.getTransDay(),
+                k -> new DailyTransCount(count.getGroupId(), count.getTransDay()))
+            .addAll(count);
+    }
+
+    /**
+     * remove and return count of all group
+     */
+    public synchronized List<DailyTransCount> drain() {
+        List<DailyTransCount> countList = new ArrayList<>();
+        groupCountMap.values().forEach(dayMap -> countList.addAll(dayMap.values()));
+        groupCountMap.clear();
+        return countList;
+    }
+
+    public synchronized void removeGroup(int groupId) {
+        groupCountMap.remove(groupId);
+    }
+}
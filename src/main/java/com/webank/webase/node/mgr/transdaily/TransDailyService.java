@@ -13,30 +13,30 @@
  */
 package com.webank.webase.node.mgr.transdaily;
 
+import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.block.BlockService;
+import com.webank.webase.node.mgr.tools.JsonTools;
 import java.math.BigInteger;
-import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
-import com.webank.webase.node.mgr.base.code.ConstantCode;
-import com.webank.webase.node.mgr.base.exception.NodeMgrException;
-import com.webank.webase.node.mgr.tools.JsonTools;
-import com.webank.webase.node.mgr.group.GroupService;
-
-import lombok.extern.log4j.Log4j2;
-
 @Log4j2
 @Service
 public class TransDailyService {
 
-    @Autowired
-    private GroupService groupService;
     @Autowired
     private TbTransDailyMapper tbTransDailyMapper;
+    @Autowired
+    private TransDailyCounter transDailyCounter;
+    @Autowired
+    @Lazy
+    private BlockService blockService;
 
 
     /**
@@ -57,63 +57,76 @@ public class TransDailyService {
     }
 
     /**
-     * update trans daily info.
+     * flush trans count of committed blocks, blocks counted by reconciliation are skipped.
+     * blocks between counted ones and counter, such as lost at restart, are counted from db.
+     * count failed to flush is kept to next time.
      */
-    public void updateTransDaily(Integer groupId, LocalDate transDay, BigInteger oldBlockNumber,
-        BigInteger latestBlockNumber, BigInteger transCount)
-        throws NodeMgrException {
-        log.debug(
-            "start updateTransDaily groupId:{} transDay:{} oldBlockNumber:{} "
-                + "latestBlockNumber:{} transCount:{}", groupId, JsonTools.toJSONString(transDay),
-            oldBlockNumber, latestBlockNumber, transCount);
-        Map<String, Object> paramMap = new HashMap<>();
-        paramMap.put("groupId", groupId);
-        paramMap.put("oldBlockNumber", oldBlockNumber);
-        paramMap.put("transDay", transDay);
-        paramMap.put("latestBlockNumber", latestBlockNumber);
-        paramMap.put("transCount", transCount);
-        Integer affectRow = 0;
+    public synchronized void flushCounter() {
+        Map<Integer, List<DailyTransCount>> groupCountMap = transDailyCounter.drain().stream()
+            .collect(Collectors.groupingBy(DailyTransCount::getGroupId));
+        groupCountMap.forEach((groupId, countList) -> {
+            try {
+                BigInteger minBlock = countList.stream().map(DailyTransCount::getMinBlockNumber)
+                    .min(BigInteger::compareTo).orElse(BigInteger.ZERO);
+                mergeFromBlocks(groupId, tbTransDailyMapper.queryMaxBlockByGroup(groupId),
+                    minBlock);
+            } catch (RuntimeException ex) {
+                log.error("fail flushCounter groupId:{}", groupId, ex);
+                countList.forEach(transDailyCounter::restore);
+                return;
+            }
+            countList.forEach(this::flushCount);
+        });
+    }
+
+    private void flushCount(DailyTransCount count) {
         try {
-            affectRow = tbTransDailyMapper.updateTransDaily(paramMap);
+            BigInteger countedBlock = tbTransDailyMapper
+                .queryBlockNumber(count.getGroupId(), count.getTransDay());
+            BigInteger maxBlock = count.getMaxBlockNumber();
+            if (countedBlock != null && countedBlock.compareTo(maxBlock) >= 0) {
+                return;
+            }
+            tbTransDailyMapper.mergeTransDaily(new TbTransDaily(count.getGroupId(),
+                count.getTransDay(), count.countAfter(countedBlock), maxBlock));
         } catch (RuntimeException ex) {
-            log.error(
-                "fail updateTransDaily groupId:{} transDay:{} oldBlockNumber:{}"
-                    + " latestBlockNumber:{} transCount:{}",
-                groupId, transDay, oldBlockNumber, latestBlockNumber, transCount, ex);
-            throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
+            log.error("fail flushCount groupId:{} transDay:{}", count.getGroupId(),
+                count.getTransDay(), ex);
+            transDailyCounter.restore(count);
         }
-
-        log.debug("end updateTransDaily affectRow:{}", affectRow);
     }
 
     /**
-     * add trans daily info.
+     * count blocks of group not counted yet, such as blocks saved before upgrade.
+     * counter is flushed first so that no block is counted twice.
      */
-    public void addTbTransDailyInfo(Integer groupId, LocalDate transDay, Integer transCount,
-        BigInteger blockNumber) throws NodeMgrException {
-        log.debug("start addTbTransDailyInfo groupId:{} transDay:{} transCount:{} blockNumber:{}",
-            groupId, JsonTools.toJSONString(transDay),
-            transCount, blockNumber);
-
-        // check group id
-        groupService.checkGroupId(groupId);
+    public synchronized void reconcile(int groupId) {
+        flushCounter();
+        mergeFromBlocks(groupId, tbTransDailyMapper.queryMaxBlockByGroup(groupId), null);
+    }
 
-        // add row
-        TbTransDaily rowParam = new TbTransDaily(groupId, transDay, transCount, blockNumber);
-        try {
-            tbTransDailyMapper.addTransDailyRow(rowParam);
-        } catch (RuntimeException ex) {
-            log.error(
-                "start addTbTransDailyInfo groupId:{} transDay:{} transCount:{} blockNumber:{}",
-                groupId, JsonTools.toJSONString(transDay),
-                transCount, blockNumber, ex);
-            throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
+    /**
+     * merge trans count of blocks in db between countedBlock and toBlock(both exclusive)
+     * @param countedBlock all blocks before toBlock if null
+     * @param toBlock no upper bound if null
+     */
+    private void mergeFromBlocks(int groupId, BigInteger countedBlock, BigInteger toBlock) {
+        BigInteger fromBlock = countedBlock == null ? BigInteger.valueOf(-1) : countedBlock;
+        if (toBlock != null && toBlock.compareTo(fromBlock.add(BigInteger.ONE)) <= 0) {
+            return;
+        }
+        List<TbTransDaily> dailyList = blockService.listDailyTransBetween(groupId, fromBlock,
+            toBlock);
+        for (TbTransDaily transDaily : dailyList) {
+            transDaily.setGroupId(groupId);
+            tbTransDailyMapper.mergeTransDaily(transDaily);
+        }
+        if (!dailyList.isEmpty()) {
+            log.info("merge trans daily from blocks. groupId:{} fromBlock:{} toBlock:{} days:{}",
+                groupId, fromBlock, toBlock, dailyList.size());
         }
-
-        log.debug("end addNodeInfo");
     }
 
-
     /**
      * delete by groupId.
      */
@@ -122,5 +135,6 @@ public class TransDailyService {
             return;
         }
         tbTransDailyMapper.deleteByGroupId(groupId);
+        transDailyCounter.removeGroup(groupId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.user;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.user.entity.TbUser;
+import com.webank.webase.node.mgr.user.entity.UserCacheStats;
+import com.webank.webase.node.mgr.user.entity.UserParam;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * bounded cache of tb_user keyed by group id and address, shared by monitor and services
+ * which look up user by address. address without user is cached apart with a short expire time,
+ * so that user added by other instance is seen soon.
+ * entry is invalidated on user added, updated or deleted, and again after commit if in transaction.
+ */
+@Log4j2
+@Component
+public class UserAddressCache {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    private final long maxSize;
+    private final Cache<String, TbUser> cache;
+    /**
+     * address checked not user of group
+     */
+    private final Cache<String, Boolean> absentCache;
+
+    @Autowired
+    public UserAddressCache(ConstantProperties constantProperties) {
+        this.maxSize = constantProperties.getUserCacheMaxSize();
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize)
+            .expireAfterWrite(constantProperties.getUserCacheExpireTime(), TimeUnit.MILLISECONDS)
+            .recordStats().build();
+        this.absentCache = CacheBuilder.newBuilder().maximumSize(maxSize)
+            .expireAfterWrite(constantProperties.getUserCacheAbsentExpireTime(), TimeUnit.MILLISECONDS)
+            .recordStats().build();
+    }
+
+    /**
+     * @return copy of user row, null if address is not user of group
+     */
+    public TbUser get(int groupId, String address) {
+        String key = getKey(groupId, address);
+        TbUser user = cache.getIfPresent(key);
+        if (user == null && absentCache.getIfPresent(key) == null) {
+            user = userMapper.queryUser(null, groupId, null, address, null);
+            if (user == null) {
+                absentCache.put(key, Boolean.TRUE);
+            } else {
+                cache.put(key, user);
+            }
+        }
+        return user == null ? null : copy(user);
+    }
+
+    public void invalidate(int groupId, String address) {
+        invalidateKey(getKey(groupId, address));
+    }
+
+    /**
+     * invalidate address of all groups
+     */
+    public void invalidateAddress(String address) {
+        String suffix = "_" + address;
+        removeBySuffix(suffix);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        removeBySuffix(suffix);
+                    }
+                });
+        }
+    }
+
+    /**
+     * load users into cache at most max size
+     */
+    public void warmUp() {
+        UserParam param = new UserParam();
+        param.setStart(0);
+        param.setPageSize((int) Math.min(maxSize, Integer.MAX_VALUE));
+        List<TbUser> userList = userMapper.listOfUser(param);
+        for (TbUser user : userList) {
+            cache.put(getKey(user.getGroupId(), user.getAddress()), user);
+        }
+        log.info("warm up user address cache size:{}", userList.size());
+    }
+
+    public UserCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        CacheStats absentStats = absentCache.stats();
+        // absent cache is only checked after missing user, its miss is a load from db
+        long hitCount = stats.hitCount() + absentStats.hitCount();
+        long missCount = absentStats.missCount();
+        UserCacheStats res = new UserCacheStats();
+        res.setSize(cache.size() + absentCache.size());
+        res.setMaxSize(maxSize);
+        res.setHitCount(hitCount);
+        res.setMissCount(missCount);
+        res.setHitRate(hitCount + missCount == 0 ? 1.0 : (double) hitCount / (hitCount + missCount));
+        res.setEvictionCount(stats.evictionCount() + absentStats.evictionCount());
+        return res;
+    }
+
+    private void invalidateKey(String key) {
+        cache.invalidate(key);
+        absentCache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // row may be read again by other thread before commit
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        cache.invalidate(key);
+                        absentCache.invalidate(key);
+                    }
+                });
+        }
+    }
+
+    private void removeBySuffix(String suffix) {
+        cache.asMap().keySet().removeIf(key -> key.endsWith(suffix));
+        absentCache.asMap().keySet().removeIf(key -> key.endsWith(suffix));
+    }
+
+    private TbUser copy(TbUser user) {
+        TbUser res = new TbUser();
+        BeanUtils.copyProperties(user, res);
+        return res;
+    }
+
+    private static String getKey(int groupId, String address) {
+        return groupId + "_" + address;
+    }
+}
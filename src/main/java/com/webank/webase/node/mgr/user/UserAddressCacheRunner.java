@@ -0,0 +1,39 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.webank.webase.node.mgr.user;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * load users into address cache at startup
+ */
+@Log4j2
+@Component
+public class UserAddressCacheRunner implements CommandLineRunner {
+
+    @Autowired
+    private UserAddressCache userAddressCache;
+
+    @Override
+    public void run(String... args) {
+        try {
+            userAddressCache.warmUp();
+        } catch (Exception ex) {
+            log.error("fail warm up user address cache", ex);
+        }
+    }
+}
@@ -37,6 +37,7 @@ import com.webank.webase.node.mgr.user.entity.ReqImportPem;
 import com.webank.webase.node.mgr.user.entity.ReqImportPrivateKey;
 import com.webank.webase.node.mgr.user.entity.TbUser;
 import com.webank.webase.node.mgr.user.entity.UpdateUserInputParam;
+import com.webank.webase.node.mgr.user.entity.UserCacheStats;
 import com.webank.webase.node.mgr.user.entity.UserParam;
 import java.time.Duration;
 import java.time.Instant;
@@ -182,6 +183,19 @@ public class UserController extends BaseController {
         return pageResponse;
     }
 
+    /**
+     * query statistics of user address cache.
+     */
+    @GetMapping(value = "/cacheStats")
+    public BaseResponse userCacheStats() throws NodeMgrException {
+        Instant startTime = Instant.now();
+        log.info("start userCacheStats startTime:{}", startTime.toEpochMilli());
+        UserCacheStats stats = userService.getUserCacheStats();
+        log.info("end userCacheStats useTime:{} result:{}",
+                Duration.between(startTime, Instant.now()).toMillis(), stats);
+        return new BaseResponse(ConstantCode.SUCCESS, stats);
+    }
+
     @PostMapping("/import")
     @PreAuthorize(ConstantProperties.HAS_ROLE_ADMIN_OR_DEVELOPER)
     public BaseResponse importPrivateKey(@Valid @RequestBody ReqImportPrivateKey reqImport,
@@ -13,6 +13,8 @@
  */
 package com.webank.webase.node.mgr.user;
 
+import com.webank.webase.node.mgr.base.entity.TableVersion;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
 import com.webank.webase.node.mgr.user.entity.TbUser;
 import com.webank.webase.node.mgr.user.entity.UserParam;
 import java.util.List;
@@ -59,6 +61,10 @@ public interface UserMapper {
     String queryUserNameByAddress(@Param("groupId") Integer groupId,
             @Param("address") String address);
 
+    List<NameEntry> listNameEntry(@Param("groupId") Integer groupId);
+
+    TableVersion getNameVersion(@Param("groupId") Integer groupId);
+
     /**
      * query email of user.
      */
@@ -21,6 +21,7 @@ import com.webank.webase.node.mgr.base.enums.CheckUserExist;
 import com.webank.webase.node.mgr.base.enums.HasPk;
 import com.webank.webase.node.mgr.base.enums.ReturnPrivateKey;
 import com.webank.webase.node.mgr.base.enums.RoleType;
+import com.webank.webase.node.mgr.base.enums.SearchType;
 import com.webank.webase.node.mgr.base.enums.UserType;
 import com.webank.webase.node.mgr.base.exception.NodeMgrException;
 import com.webank.webase.node.mgr.cert.entity.FileContentHandle;
@@ -28,6 +29,8 @@ import com.webank.webase.node.mgr.config.properties.ConstantProperties;
 import com.webank.webase.node.mgr.front.frontinterface.FrontRestTools;
 import com.webank.webase.node.mgr.group.GroupService;
 import com.webank.webase.node.mgr.monitor.MonitorService;
+import com.webank.webase.node.mgr.search.NameSearchIndex;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
 import com.webank.webase.node.mgr.tools.HttpRequestTools;
 import com.webank.webase.node.mgr.tools.JsonTools;
 import com.webank.webase.node.mgr.tools.NodeMgrTools;
@@ -37,6 +40,7 @@ import com.webank.webase.node.mgr.user.entity.ReqBindPrivateKey;
 import com.webank.webase.node.mgr.user.entity.ReqImportPem;
 import com.webank.webase.node.mgr.user.entity.TbUser;
 import com.webank.webase.node.mgr.user.entity.UpdateUserInputParam;
+import com.webank.webase.node.mgr.user.entity.UserCacheStats;
 import com.webank.webase.node.mgr.user.entity.UserParam;
 import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
@@ -84,6 +88,10 @@ public class UserService {
     private MonitorService monitorService;
     @Autowired
     private CryptoSuite cryptoSuite;
+    @Autowired
+    private UserAddressCache userAddressCache;
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
     private final static String PEM_FILE_FORMAT = ".pem";
     private final static String P12_FILE_FORMAT = ".p12";
 
@@ -201,6 +209,9 @@ public class UserService {
             log.warn("affect 0 rows of tb_user");
             throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
         }
+        userAddressCache.invalidate(groupId, address);
+        nameSearchIndex.put(SearchType.USER, groupId,
+            new NameEntry(newUserRow.getUserId(), userName, address));
 
         // update monitor unusual user's info
         monitorService.updateUnusualUser(groupId, userName, address);
@@ -270,6 +281,9 @@ public class UserService {
             log.warn("bindUserInfo affect 0 rows of tb_user");
             throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
         }
+        userAddressCache.invalidate(user.getGroupId(), address);
+        nameSearchIndex.put(SearchType.USER, user.getGroupId(),
+            new NameEntry(newUserRow.getUserId(), user.getUserName(), address));
 
         Integer userId = newUserRow.getUserId();
 
@@ -390,15 +404,23 @@ public class UserService {
         return queryUser(userId, null, null, null, null);
     }
 
+    /**
+     * query by group id and address from cache.
+     */
     public TbUser queryByUserAddress(int groupId, String address) throws NodeMgrException {
-        return queryUser(null, groupId, null, address, null);
+        try {
+            return userAddressCache.get(groupId, address);
+        } catch (RuntimeException ex) {
+            log.error("fail queryByUserAddress groupId:{} address:{}", groupId, address, ex);
+            throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
+        }
     }
 
     /**
      * query by group id and address.
      */
     public String getSignUserIdByAddress(int groupId, String address) throws NodeMgrException {
-        TbUser user = queryUser(null, groupId, null, address, null);
+        TbUser user = queryByUserAddress(groupId, address);
         if (user == null) {
             throw new NodeMgrException(ConstantCode.USER_SIGN_USER_ID_NOT_EXIST);
         }
@@ -411,7 +433,7 @@ public class UserService {
     }
 
     public String getUserNameByAddress(int groupId, String address) throws NodeMgrException {
-        TbUser user = queryUser(null, groupId, null, address, null);
+        TbUser user = queryByUserAddress(groupId, address);
         if (user == null) {
             throw new NodeMgrException(ConstantCode.USER_NOT_EXIST);
         }
@@ -506,6 +528,7 @@ public class UserService {
                 log.warn("affect 0 rows of tb_user");
                 throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
             }
+            userAddressCache.invalidate(tbUser.getGroupId(), tbUser.getAddress());
         } catch (RuntimeException ex) {
             log.error("fail updateUser's private key userId:{}, error:{}", userId, ex);
             throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
@@ -533,6 +556,7 @@ public class UserService {
                 log.warn("affect 0 rows of tb_user");
                 throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
             }
+            userAddressCache.invalidate(tbUser.getGroupId(), tbUser.getAddress());
         } catch (RuntimeException ex) {
             log.error("fail updateUser  userId:{} description:{}", userId, description, ex);
             throw new NodeMgrException(ConstantCode.DB_EXCEPTION);
@@ -547,14 +571,24 @@ public class UserService {
      */
     public String queryUserNameByAddress(Integer groupId, String address) throws NodeMgrException {
         log.debug("queryUserNameByAddress address:{} ", address);
-        String userName = userMapper.queryUserNameByAddress(groupId, address);
+        String userName = Optional.ofNullable(queryByUserAddress(groupId, address))
+            .map(TbUser::getUserName).orElse(null);
         log.debug("end queryUserNameByAddress");
         return userName;
     }
 
+    /**
+     * hit and miss statistics of user address cache.
+     */
+    public UserCacheStats getUserCacheStats() {
+        return userAddressCache.getStats();
+    }
+
     public void deleteByAddress(String address) throws NodeMgrException {
         log.debug("deleteByAddress address:{} ", address);
         userMapper.deleteByAddress(address);
+        userAddressCache.invalidateAddress(address);
+        nameSearchIndex.invalidateAll(SearchType.USER);
         log.debug("end deleteByAddress");
     }
 
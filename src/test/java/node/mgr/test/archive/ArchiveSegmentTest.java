@@ -0,0 +1,140 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.archive;
+
+import com.webank.webase.node.mgr.archive.ArchiveSegment;
+import com.webank.webase.node.mgr.archive.entity.ArchiveRecord;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArchiveSegmentTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testAppendAndSeal() throws Exception {
+        Path dir = folder.getRoot().toPath();
+        ArchiveSegment segment = ArchiveSegment.create(dir, "trans", 0);
+        appendFrames(segment, 5, 100);
+        Assert.assertEquals("{\"n\":250}", segment.findByHash(hash(250)));
+        Assert.assertEquals(Arrays.asList("{\"n\":300}", "{\"n\":301}", "{\"n\":302}"),
+            segment.findByBlock(100));
+        Assert.assertNull(segment.findByHash(hash(1000)));
+
+        segment.seal();
+        Assert.assertTrue(segment.isSealed());
+        // renamed by block range
+        Path path = segment.getSegmentPath();
+        Assert.assertEquals("trans-00000000000000000000-00000000000000000166.seg",
+            path.getFileName().toString());
+        Assert.assertEquals("{\"n\":499}", segment.findByHash(hash(499).toUpperCase()
+            .replace("0X", "0x")));
+        segment.close();
+
+        // reopen sealed segment, block range from name, read by mapped index
+        ArchiveSegment sealed = ArchiveSegment.open(path, "trans");
+        Assert.assertTrue(sealed.isSealed());
+        Assert.assertEquals(0, sealed.getMinBlock());
+        Assert.assertEquals(166, sealed.getMaxBlock());
+        Assert.assertNull(ArchiveSegment.open(path, "block"));
+        for (int n = 0; n < 500; n++) {
+            Assert.assertEquals("{\"n\":" + n + "}", sealed.findByHash(hash(n)));
+        }
+        Assert.assertTrue(sealed.findByBlock(200).isEmpty());
+        sealed.close();
+    }
+
+    @Test
+    public void testRecoverActive() throws Exception {
+        ArchiveSegment segment = ArchiveSegment.create(folder.getRoot().toPath(), "block", 0);
+        Path path = segment.getSegmentPath();
+        appendFrames(segment, 2, 10);
+        long size = segment.size();
+        segment.close();
+        // incomplete frame at tail
+        Files.write(path, new byte[]{0, 0, 0, 5, 0, 0, 1, 0, 1}, StandardOpenOption.APPEND);
+
+        ArchiveSegment recovered = ArchiveSegment.open(path, "block");
+        Assert.assertFalse(recovered.isSealed());
+        Assert.assertEquals(size, recovered.size());
+        Assert.assertEquals("{\"n\":19}", recovered.findByHash(hash(19)));
+        appendFrames(recovered, 1, 10);
+        Assert.assertEquals("{\"n\":5}", recovered.findByHash(hash(5)));
+        recovered.close();
+    }
+
+    @Test
+    public void testSealedWithoutIndex() throws Exception {
+        ArchiveSegment segment = ArchiveSegment.create(folder.getRoot().toPath(), "trans", 0);
+        appendFrames(segment, 3, 30);
+        segment.seal();
+        Path path = segment.getSegmentPath();
+        segment.close();
+        // crash after rename before index written
+        Files.delete(ArchiveSegment.indexPathOf(path));
+
+        ArchiveSegment reopened = ArchiveSegment.open(path, "trans");
+        Assert.assertTrue(reopened.isSealed());
+        Assert.assertEquals("{\"n\":77}", reopened.findByHash(hash(77)));
+        Assert.assertTrue(Files.exists(ArchiveSegment.indexPathOf(path)));
+        Assert.assertEquals(Arrays.asList("{\"n\":30}", "{\"n\":31}", "{\"n\":32}"),
+            reopened.findByBlock(10));
+        reopened.close();
+    }
+
+    @Test
+    public void testReadOnlyKeepTail() throws Exception {
+        ArchiveSegment writer = ArchiveSegment.create(folder.getRoot().toPath(), "block", 0);
+        Path path = writer.getSegmentPath();
+        appendFrames(writer, 2, 10);
+        // frame being written by other instance
+        Files.write(path, new byte[]{0, 0, 0, 5, 0, 0, 1, 0, 1}, StandardOpenOption.APPEND);
+        long fileSize = Files.size(path);
+
+        ArchiveSegment reader = ArchiveSegment.openReadOnly(path, "block");
+        Assert.assertTrue(reader.isReadOnly());
+        Assert.assertEquals("{\"n\":19}", reader.findByHash(hash(19)));
+        Assert.assertEquals(fileSize, Files.size(path));
+        Assert.assertFalse(reader.isCurrent());
+        reader.close();
+        writer.close();
+    }
+
+    private void appendFrames(ArchiveSegment segment, int frames, int perFrame)
+        throws Exception {
+        for (int f = 0; f < frames; f++) {
+            List<ArchiveRecord> recordList = new ArrayList<>();
+            for (int i = 0; i < perFrame; i++) {
+                int n = f * perFrame + i;
+                recordList.add(new ArchiveRecord(n / 3, hash(n), "{\"n\":" + n + "}"));
+            }
+            segment.append(recordList);
+        }
+    }
+
+    private String hash(int n) {
+        return String.format("0x%064x", n * 7919L);
+    }
+}
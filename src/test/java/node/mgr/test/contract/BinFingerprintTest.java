@@ -0,0 +1,63 @@
+/**
+ * Copyright 2014-2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package node.mgr.test.contract;
+
+import com.webank.webase.node.mgr.tools.Web3Tools;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinFingerprintTest {
+
+    private static final String CODE = "6080604052348015600f57600080fd5b50";
+    // bzzr0 metadata of solidity 0.4.x
+    private static final String METADATA_BZZR0 =
+        "a165627a7a72305820" + "11223344556677889900aabbccddeeff11223344556677889900aabbccddeeff"
+            + "0029";
+    private static final String METADATA_IPFS = "a264697066735822"
+        + "1220" + "00112233445566778899aabbccddeeff00112233445566778899aabbccddeeff"
+        + "64736f6c63430006000033";
+
+    @Test
+    public void testRemoveBinMetadata() {
+        Assert.assertEquals(CODE, Web3Tools.removeBinMetadata(CODE + METADATA_BZZR0));
+        Assert.assertEquals(CODE, Web3Tools.removeBinMetadata(CODE + METADATA_IPFS));
+        // no metadata
+        Assert.assertEquals(CODE, Web3Tools.removeBinMetadata(CODE));
+    }
+
+    @Test
+    public void testFingerprintIgnoreMetadataAndPrefix() {
+        String fingerprint = Web3Tools.getBinFingerprint("0x" + CODE + METADATA_BZZR0);
+        Assert.assertEquals(64, fingerprint.length());
+        Assert.assertEquals(fingerprint, Web3Tools.getBinFingerprint(CODE.toUpperCase()));
+        Assert.assertNotEquals(fingerprint, Web3Tools.getBinFingerprint(CODE + "00"));
+        Assert.assertNull(Web3Tools.getBinFingerprint(" "));
+    }
+
+    @Test
+    public void testDeployFingerprintIgnoreConstructorParams() {
+        String fingerprint = Web3Tools.getDeployBinFingerprint(CODE + METADATA_IPFS);
+        String params = "0000000000000000000000000000000000000000000000000000000000000001";
+        Assert.assertEquals(fingerprint,
+            Web3Tools.getDeployBinFingerprint("0x" + CODE + METADATA_IPFS + params));
+        Assert.assertEquals(fingerprint, Web3Tools.getDeployBinFingerprint(CODE + METADATA_BZZR0));
+        Assert.assertNotEquals(fingerprint, Web3Tools.getDeployBinFingerprint(CODE + "00" + METADATA_IPFS));
+        // no metadata, hashed whole
+        Assert.assertNotEquals(fingerprint, Web3Tools.getDeployBinFingerprint(CODE + params));
+        Assert.assertNull(Web3Tools.getDeployBinFingerprint(""));
+    }
+}
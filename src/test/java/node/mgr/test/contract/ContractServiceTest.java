@@ -17,6 +17,7 @@ package node.mgr.test.contract;
 
 
 import com.webank.webase.node.mgr.tools.JsonTools;
+import com.webank.webase.node.mgr.contract.ContractMapper;
 import com.webank.webase.node.mgr.contract.ContractService;
 import com.webank.webase.node.mgr.contract.entity.ContractParam;
 import com.webank.webase.node.mgr.contract.entity.DeployInputParam;
@@ -25,12 +26,15 @@ import com.webank.webase.node.mgr.contract.entity.TransactionInputParam;
 import java.util.Arrays;
 import java.util.List;
 import node.mgr.test.base.TestBase;
+import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public class ContractServiceTest extends TestBase {
     @Autowired
     private ContractService contractService;
+    @Autowired
+    private ContractMapper contractMapper;
     private Integer groupId = 1;
     private Integer userId = 700001;
 
@@ -79,4 +83,21 @@ public class ContractServiceTest extends TestBase {
         System.out.println("list:");
         System.out.println(resList);
     }
+
+    @Test
+    public void testContractNameMatchedByIndex() {
+        ContractParam param = new ContractParam();
+        param.setGroupId(groupId);
+        param.setContractName("ok");
+        int count = contractService.countOfContract(param);
+        // resolved to contract id list by name index, queried by in
+        Assert.assertNotNull(param.getContractIdList());
+        Assert.assertEquals(count, contractService.queryContractList(param).size());
+
+        // same as like '%name%' in sql
+        ContractParam likeParam = new ContractParam();
+        likeParam.setGroupId(groupId);
+        likeParam.setContractName("ok");
+        Assert.assertEquals(contractMapper.countOfContract(likeParam), count);
+    }
 }
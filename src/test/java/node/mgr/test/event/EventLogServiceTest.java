@@ -0,0 +1,62 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.event;
+
+import com.webank.webase.node.mgr.event.EventLogService;
+import com.webank.webase.node.mgr.event.entity.TbEventLog;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.fisco.bcos.sdk.model.TransactionReceipt;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EventLogServiceTest {
+
+    @Test
+    public void testToEventLogList() {
+        TbTransHash trans = new TbTransHash();
+        trans.setTransHash("0x01");
+        trans.setTransNumber(9L);
+        trans.setBlockNumber(BigInteger.TEN);
+        List<TbEventLog> eventLogList = EventLogService.toEventLogList(trans, Arrays.asList(
+            receiptLog("0xaaa", Arrays.asList("0xt0", "0xt1")),
+            receiptLog("", Collections.emptyList()),
+            receiptLog("0xbbb", null)));
+        // log without address skipped, index of log kept
+        Assert.assertEquals(2, eventLogList.size());
+        TbEventLog first = eventLogList.get(0);
+        Assert.assertEquals(Integer.valueOf(0), first.getLogIndex());
+        Assert.assertEquals("0xt0", first.getTopic0());
+        Assert.assertEquals("0xt1", first.getTopic1());
+        Assert.assertNull(first.getTopic2());
+        Assert.assertEquals(Long.valueOf(9), first.getTransNumber());
+        Assert.assertEquals(Integer.valueOf(2), eventLogList.get(1).getLogIndex());
+        Assert.assertNull(eventLogList.get(1).getTopic0());
+
+        Assert.assertTrue(EventLogService.toEventLogList(trans, null).isEmpty());
+    }
+
+    private TransactionReceipt.Logs receiptLog(String address, List<String> topics) {
+        TransactionReceipt.Logs receiptLog = new TransactionReceipt.Logs();
+        receiptLog.setAddress(address);
+        receiptLog.setTopics(topics);
+        receiptLog.setData("0x");
+        return receiptLog;
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.group;
+
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.group.GroupOverviewCache;
+import com.webank.webase.node.mgr.group.entity.GroupGeneral;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GroupOverviewCacheTest {
+
+    private GroupOverviewCache cache;
+    private AtomicInteger loadCount = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        cache = new GroupOverviewCache(new ConstantProperties());
+    }
+
+    @Test
+    public void testLoadOnceUntilInvalidated() {
+        GroupGeneral general = cache.getGeneral(1, this::load);
+        general.setLatestBlock(BigInteger.TEN);
+        // copy returned, cached entry not changed
+        Assert.assertEquals(BigInteger.ONE, cache.getGeneral(1, this::load).getLatestBlock());
+        Assert.assertEquals(1, loadCount.get());
+
+        cache.invalidateAfterCommit(1);
+        cache.getGeneral(1, this::load);
+        Assert.assertEquals(2, loadCount.get());
+        cache.getGeneral(2, this::load);
+        Assert.assertEquals(3, loadCount.get());
+    }
+
+    @Test
+    public void testNullNotCached() {
+        Assert.assertNull(cache.getGeneral(1, () -> null));
+        Assert.assertNotNull(cache.getGeneral(1, this::load));
+        Assert.assertNull(cache.getTransDaily(1, () -> null));
+    }
+
+    private GroupGeneral load() {
+        loadCount.incrementAndGet();
+        GroupGeneral general = new GroupGeneral();
+        general.setLatestBlock(BigInteger.ONE);
+        return general;
+    }
+}
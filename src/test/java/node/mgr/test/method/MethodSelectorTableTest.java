@@ -0,0 +1,64 @@
+/**
+ * Copyright 2014-2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package node.mgr.test.method;
+
+import com.webank.webase.node.mgr.method.MethodSelectorTable;
+import com.webank.webase.node.mgr.method.entity.TbMethod;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MethodSelectorTableTest {
+
+    @Test
+    public void testSelectorTable() {
+        MethodSelectorTable table = MethodSelectorTable.EMPTY.with(Arrays.asList(
+            method("0xa72a1e65"), method("0x2dca76c1"), method("0xffffffff"),
+            method("0x2dca76c1"), method("0x" + repeat('a', 64))));
+        // duplicated selector and event topic ignored
+        Assert.assertEquals(3, table.size());
+        Assert.assertEquals("0xffffffff",
+            table.get(MethodSelectorTable.toSelector("0xffffffff")).getMethodId());
+        Assert.assertNull(table.get(MethodSelectorTable.toSelector("0x983c6c4f")));
+
+        MethodSelectorTable newTable = table.with(Arrays.asList(method("0x983c6c4f")));
+        Assert.assertEquals(3, table.size());
+        Assert.assertEquals(4, newTable.size());
+        Assert.assertTrue(newTable.contains(MethodSelectorTable.toSelector("0x983c6c4f")));
+        Assert.assertSame(newTable, newTable.with(Arrays.asList(method("0x983c6c4f"))));
+    }
+
+    @Test
+    public void testIsSelector() {
+        Assert.assertTrue(MethodSelectorTable.isSelector("0x2dca76c1"));
+        Assert.assertFalse(MethodSelectorTable.isSelector("0x2dca76"));
+        Assert.assertFalse(MethodSelectorTable.isSelector("0x2dca76cg"));
+        Assert.assertFalse(MethodSelectorTable.isSelector(null));
+    }
+
+    private TbMethod method(String methodId) {
+        TbMethod tbMethod = new TbMethod();
+        tbMethod.setMethodId(methodId);
+        return tbMethod;
+    }
+
+    private String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package node.mgr.test.monitor;
+
+import com.webank.webase.node.mgr.base.enums.ExportFormat;
+import com.webank.webase.node.mgr.monitor.MonitorExportWriter;
+import com.webank.webase.node.mgr.monitor.entity.TbMonitor;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MonitorExportWriterTest {
+
+    @Test
+    public void testCsv() throws Exception {
+        StringWriter out = new StringWriter();
+        MonitorExportWriter writer = new MonitorExportWriter(out, ExportFormat.CSV);
+        writer.writeHeader();
+        writer.write(monitor());
+        writer.flush();
+        String[] lines = out.toString().split("\n");
+        Assert.assertEquals(2, lines.length);
+        // key to resume export first
+        Assert.assertTrue(lines[0].startsWith("create_time,user_name,contract_name,interface_name"));
+        Assert.assertTrue(lines[1].startsWith("2021-03-04 05:06:07,alice,Token,,0,0xabc,1,0,3,"));
+        Assert.assertTrue(lines[1].contains("\"0x1,0x2\""));
+    }
+
+    @Test
+    public void testNdjson() throws Exception {
+        StringWriter out = new StringWriter();
+        MonitorExportWriter writer = new MonitorExportWriter(out, ExportFormat.NDJSON);
+        writer.writeHeader();
+        writer.write(monitor());
+        writer.flush();
+        String[] lines = out.toString().split("\n");
+        Assert.assertEquals(1, lines.length);
+        Assert.assertTrue(lines[0].contains("\"createTime\":\"2021-03-04 05:06:07\""));
+    }
+
+    private TbMonitor monitor() {
+        TbMonitor monitor = new TbMonitor();
+        monitor.setCreateTime(LocalDateTime.of(2021, 3, 4, 5, 6, 7));
+        monitor.setUserName("alice");
+        monitor.setContractName("Token");
+        monitor.setContractAddress("0xabc");
+        monitor.setTransType(1);
+        monitor.setTransCount(3);
+        monitor.setTransHashs("0x1,0x2");
+        return monitor;
+    }
+}
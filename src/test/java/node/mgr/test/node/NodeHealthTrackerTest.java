@@ -0,0 +1,113 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.node;
+
+import com.webank.webase.node.mgr.base.enums.NodeHealthStatus;
+import com.webank.webase.node.mgr.config.properties.ConstantProperties;
+import com.webank.webase.node.mgr.node.NodeHealthTracker;
+import com.webank.webase.node.mgr.node.entity.NodeHealthWindow;
+import com.webank.webase.node.mgr.node.entity.NodeStatusSnapshot;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class NodeHealthTrackerTest {
+
+    private static final int GROUP_ID = 1;
+    private static final String SEALER = "sealer";
+    private static final String OBSERVER = "observer";
+    private static final long INTERVAL = new ConstantProperties().getNodeStatusMonitorTaskFixedDelay();
+
+    private NodeHealthTracker tracker;
+    private List<String> nodeIdList = Arrays.asList(SEALER, OBSERVER);
+
+    @Before
+    public void setUp() {
+        tracker = new NodeHealthTracker();
+        ReflectionTestUtils.setField(tracker, "constantProperties", new ConstantProperties());
+    }
+
+    @Test
+    public void testRingBufferOverwriteOldest() {
+        NodeHealthWindow window = new NodeHealthWindow(3);
+        for (long i = 1; i <= 5; i++) {
+            window.add(i * 1000, i, i, 0);
+        }
+        Assert.assertEquals(3, window.size());
+        Assert.assertEquals(3, window.toList().get(0).getBlockNumber());
+        Assert.assertEquals(5, window.latest().getBlockNumber());
+        Assert.assertEquals(4, window.latestNotAfter(4500).getBlockNumber());
+        Assert.assertNull(window.latestNotAfter(2000));
+    }
+
+    @Test
+    public void testHealthyThenStalled() {
+        long now = 100_000L;
+        tracker.record(snapshot(10, 5, 10, true), nodeIdList, now);
+        // not enough history
+        Assert.assertNull(tracker.getStatus(GROUP_ID, SEALER));
+
+        // sample per interval, stall window is 3 intervals
+        for (int i = 1; i <= 3; i++) {
+            tracker.record(snapshot(10 + i, 5 + i, 10 + i, true), nodeIdList, now + i * INTERVAL);
+        }
+        Assert.assertEquals(NodeHealthStatus.HEALTHY, tracker.getStatus(GROUP_ID, SEALER));
+        Assert.assertEquals(NodeHealthStatus.HEALTHY, tracker.getStatus(GROUP_ID, OBSERVER));
+
+        // sealer and observer stop at block 13, one unchanged sample not enough
+        tracker.record(snapshot(13, 8, 13, true), nodeIdList, now + 4 * INTERVAL);
+        tracker.record(snapshot(13, 8, 13, true), nodeIdList, now + 5 * INTERVAL);
+        Assert.assertEquals(NodeHealthStatus.HEALTHY, tracker.getStatus(GROUP_ID, SEALER));
+
+        // unchanged through whole stall window
+        tracker.record(snapshot(13, 8, 13, true), nodeIdList, now + 6 * INTERVAL);
+        Assert.assertEquals(NodeHealthStatus.STALLED, tracker.getStatus(GROUP_ID, SEALER));
+        // observer not behind network is not stalled
+        Assert.assertEquals(NodeHealthStatus.HEALTHY, tracker.getStatus(GROUP_ID, OBSERVER));
+    }
+
+    @Test
+    public void testDown() {
+        long now = 100_000L;
+        tracker.record(snapshot(10, 5, 10, true), nodeIdList, now);
+        tracker.record(snapshot(11, 6, 11, false), nodeIdList, now + INTERVAL);
+        tracker.record(snapshot(12, 7, 12, false), nodeIdList, now + 2 * INTERVAL);
+        // connected within down window, keep previous status
+        Assert.assertNull(tracker.getStatus(GROUP_ID, OBSERVER));
+        tracker.record(snapshot(13, 8, 13, false), nodeIdList, now + 3 * INTERVAL);
+        Assert.assertEquals(NodeHealthStatus.DOWN, tracker.getStatus(GROUP_ID, OBSERVER));
+        Assert.assertNull(tracker.getLatestSample(GROUP_ID, OBSERVER));
+        Assert.assertEquals(13, tracker.getHighestBlockNumber(GROUP_ID));
+    }
+
+    private NodeStatusSnapshot snapshot(long sealerNumber, long sealerView, long observerNumber,
+        boolean observerConnected) {
+        NodeStatusSnapshot snapshot = new NodeStatusSnapshot();
+        snapshot.setGroupId(GROUP_ID);
+        snapshot.getBlockNumberMap().put(SEALER, BigInteger.valueOf(sealerNumber));
+        snapshot.getPbftViewMap().put(SEALER, BigInteger.valueOf(sealerView));
+        if (observerConnected) {
+            snapshot.getBlockNumberMap().put(OBSERVER, BigInteger.valueOf(observerNumber));
+        }
+        snapshot.getObserverSet().add(OBSERVER);
+        snapshot.setChainBlockNumber(BigInteger.valueOf(Math.max(sealerNumber, observerNumber)));
+        return snapshot;
+    }
+}
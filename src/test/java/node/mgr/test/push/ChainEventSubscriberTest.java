@@ -0,0 +1,59 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.push;
+
+import com.webank.webase.node.mgr.push.ChainEventSubscriber;
+import com.webank.webase.node.mgr.push.entity.PushEvent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class ChainEventSubscriberTest {
+
+    @Test
+    public void testCoalesceState() {
+        ChainEventSubscriber subscriber = new ChainEventSubscriber(1, new SseEmitter(), 10);
+        Assert.assertTrue(subscriber.offerState("", new PushEvent("block", "1")));
+        // drain task already submitted
+        Assert.assertFalse(subscriber.offerState("", new PushEvent("block", "2")));
+        Assert.assertFalse(subscriber.offerState("node1", new PushEvent("nodeStatus", "a")));
+        Assert.assertFalse(subscriber.offerState("node2", new PushEvent("nodeStatus", "b")));
+        Assert.assertEquals(3, subscriber.pendingSize());
+        Assert.assertEquals(1, subscriber.getDroppedCount());
+
+        Assert.assertEquals("2", subscriber.poll().getData());
+        Assert.assertEquals("a", subscriber.poll().getData());
+        Assert.assertEquals("b", subscriber.poll().getData());
+        Assert.assertNull(subscriber.poll());
+        // drain task exited, next offer submits again
+        Assert.assertTrue(subscriber.offerState("", new PushEvent("block", "3")));
+    }
+
+    @Test
+    public void testBoundedQueue() {
+        ChainEventSubscriber subscriber = new ChainEventSubscriber(1, new SseEmitter(), 2);
+        subscriber.offerState("", new PushEvent("block", "1"));
+        for (int i = 0; i < 5; i++) {
+            subscriber.offerEvent(new PushEvent("alert", String.valueOf(i)));
+        }
+        Assert.assertEquals(3, subscriber.getDroppedCount());
+        // queued event before state, oldest dropped
+        Assert.assertEquals("3", subscriber.poll().getData());
+        Assert.assertEquals("4", subscriber.poll().getData());
+        Assert.assertEquals("1", subscriber.poll().getData());
+        Assert.assertNull(subscriber.poll());
+    }
+}
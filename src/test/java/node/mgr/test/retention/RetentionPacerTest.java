@@ -0,0 +1,55 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.retention;
+
+import com.webank.webase.node.mgr.retention.RetentionPacer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetentionPacerTest {
+
+    @Test
+    public void testGrowWhileFast() {
+        RetentionPacer pacer = new RetentionPacer(100, 1000, 200, 50);
+        Assert.assertEquals(100, pacer.getChunkSize());
+        Assert.assertEquals(50, pacer.onChunk(10, 0));
+        Assert.assertEquals(125, pacer.getChunkSize());
+        for (int i = 0; i < 20; i++) {
+            pacer.onChunk(10, 0);
+        }
+        Assert.assertEquals(1000, pacer.getChunkSize());
+    }
+
+    @Test
+    public void testBackOff() {
+        RetentionPacer pacer = new RetentionPacer(100, 1000, 200, 50);
+        for (int i = 0; i < 20; i++) {
+            pacer.onChunk(10, 0);
+        }
+        // slower than target
+        Assert.assertEquals(300, pacer.onChunk(300, 0));
+        Assert.assertEquals(750, pacer.getChunkSize());
+        // rows lock waited
+        Assert.assertEquals(200, pacer.onChunk(10, 1));
+        Assert.assertEquals(375, pacer.getChunkSize());
+        // far slower than target
+        Assert.assertEquals(2000, pacer.onChunk(500, 0));
+        Assert.assertEquals(187, pacer.getChunkSize());
+        pacer.onChunk(500, 0);
+        pacer.onChunk(500, 0);
+        Assert.assertEquals(100, pacer.getChunkSize());
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.rowcount;
+
+import com.webank.webase.node.mgr.base.enums.RowCountKey;
+import com.webank.webase.node.mgr.rowcount.RowCounter;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RowCounterTest {
+
+    @Test
+    public void testDeltaAndDrain() {
+        RowCounter counter = new RowCounter();
+        // no transaction, added at once
+        counter.addAfterCommit(1, RowCountKey.BLOCK, 1);
+        counter.addAfterCommit(1, RowCountKey.BLOCK, 1);
+        counter.addAfterCommit(1, RowCountKey.TRANS, 5);
+        counter.addAfterCommit(1, RowCountKey.TRANS, -3);
+        counter.addAfterCommit(2, RowCountKey.UNUSUAL_USER, 1);
+        counter.addAfterCommit(2, RowCountKey.UNUSUAL_CONTRACT, 0);
+        Assert.assertEquals(2L, counter.getDelta(1, RowCountKey.BLOCK));
+        Assert.assertEquals(2L, counter.getDelta(1, RowCountKey.TRANS));
+        Assert.assertEquals(0L, counter.getDelta(3, RowCountKey.BLOCK));
+
+        Map<Integer, Map<RowCountKey, Long>> drained = counter.drain();
+        Assert.assertEquals(2, drained.size());
+        Assert.assertEquals(Long.valueOf(2L), drained.get(1).get(RowCountKey.TRANS));
+        Assert.assertFalse(drained.get(2).containsKey(RowCountKey.UNUSUAL_CONTRACT));
+        Assert.assertTrue(counter.drain().isEmpty());
+        Assert.assertEquals(0L, counter.getDelta(1, RowCountKey.BLOCK));
+
+        // delta failed to flush put back
+        counter.add(1, RowCountKey.BLOCK, drained.get(1).get(RowCountKey.BLOCK));
+        counter.add(1, RowCountKey.BLOCK, 1);
+        Assert.assertEquals(3L, counter.getDelta(1, RowCountKey.BLOCK));
+        counter.removeGroup(1);
+        Assert.assertEquals(0L, counter.getDelta(1, RowCountKey.BLOCK));
+    }
+}
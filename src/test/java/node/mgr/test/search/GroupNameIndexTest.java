@@ -0,0 +1,200 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.search;
+
+import com.webank.webase.node.mgr.base.entity.TableVersion;
+import com.webank.webase.node.mgr.search.GroupNameIndex;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class GroupNameIndexTest {
+
+    private static final int GROUP_ID = 1;
+
+    /**
+     * rows in db shared by instances
+     */
+    private final List<NameEntry> rows = new CopyOnWriteArrayList<>(Arrays.asList(
+        new NameEntry(1, "Token", "0x1111"), new NameEntry(2, "Evidence", "0x2222")));
+    private volatile LocalDateTime modifyTime = LocalDateTime.of(2021, 1, 1, 0, 0);
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    @Test
+    public void testReloadWhenChangedInDb() {
+        GroupNameIndex index = newIndex(0);
+        Assert.assertEquals(Arrays.asList(1), search(index, "token"));
+        Assert.assertEquals(Arrays.asList(1), search(index, "token"));
+        Assert.assertEquals(1, loadCount.get());
+        // saved by other instance
+        writeInDb(new NameEntry(3, "TokenSale", "0x3333"));
+        Assert.assertEquals(Arrays.asList(1, 3), search(index, "token"));
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void testCheckedOncePerInterval() {
+        GroupNameIndex index = newIndex(60000);
+        Assert.assertEquals(Arrays.asList(1), search(index, "token"));
+        writeInDb(new NameEntry(3, "TokenSale", "0x3333"));
+        // not checked until interval passed
+        Assert.assertEquals(Arrays.asList(1), search(index, "token"));
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void testPutAndRemove() {
+        GroupNameIndex index = newIndex(60000);
+        // not loaded, left to load
+        index.put(GROUP_ID, new NameEntry(9, "TokenX", "0x9999"));
+        Assert.assertTrue(search(index, "0x9999").isEmpty());
+
+        index.put(GROUP_ID, new NameEntry(3, "TokenSale", "0x3333"));
+        Assert.assertEquals(Arrays.asList(1, 3), search(index, "token"));
+        index.put(GROUP_ID, new NameEntry(1, "Auction", "0x1111"));
+        Assert.assertEquals(Arrays.asList(3), search(index, "token"));
+        index.remove(GROUP_ID, 3);
+        Assert.assertTrue(search(index, "token").isEmpty());
+        Assert.assertEquals(Arrays.asList(1), search(index, "auction"));
+        Assert.assertEquals(1, loadCount.get());
+
+        index.invalidate(GROUP_ID);
+        Assert.assertEquals(Arrays.asList(1), search(index, "token"));
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void testApplyAfterCommit() {
+        GroupNameIndex index = newIndex(60000);
+        Assert.assertEquals(Arrays.asList(1), search(index, "token"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.put(GROUP_ID, new NameEntry(3, "TokenSale", "0x3333"));
+            index.remove(GROUP_ID, 1);
+            // not committed
+            Assert.assertEquals(Arrays.asList(1), search(index, "token"));
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assert.assertEquals(Arrays.asList(3), search(index, "token"));
+    }
+
+    @Test
+    public void testPutWhileLoading() throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GroupNameIndex index = newIndex(60000, groupId -> {
+            // rows read before commit of writer
+            List<NameEntry> snapshot = new ArrayList<>(rows);
+            loading.countDown();
+            await(release);
+            return snapshot;
+        });
+        Thread loader = new Thread(() -> index.get(GROUP_ID));
+        loader.start();
+        loading.await();
+
+        // committed while loading, applied after commit
+        rows.add(new NameEntry(3, "TokenSale", "0x3333"));
+        Thread writer = new Thread(
+            () -> index.put(GROUP_ID, new NameEntry(3, "TokenSale", "0x3333")));
+        writer.start();
+        writer.join(200);
+        // waits for load of same group
+        Assert.assertTrue(writer.isAlive());
+        release.countDown();
+        loader.join();
+        writer.join();
+        Assert.assertEquals(Arrays.asList(1, 3), search(index, "token"));
+    }
+
+    @Test
+    public void testInvalidateWhileLoading() throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GroupNameIndex index = newIndex(60000, groupId -> {
+            List<NameEntry> snapshot = new ArrayList<>(rows);
+            if (loadCount.incrementAndGet() == 1) {
+                loading.countDown();
+                await(release);
+            }
+            return snapshot;
+        });
+        Thread loader = new Thread(() -> index.get(GROUP_ID));
+        loader.start();
+        loading.await();
+
+        // bulk write committed while loading
+        rows.clear();
+        Thread writer = new Thread(() -> index.invalidate(GROUP_ID));
+        writer.start();
+        release.countDown();
+        loader.join();
+        writer.join();
+        // stale index loaded before commit is dropped
+        Assert.assertTrue(search(index, "token").isEmpty());
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    private GroupNameIndex newIndex(long checkInterval) {
+        return newIndex(checkInterval, groupId -> {
+            loadCount.incrementAndGet();
+            return new ArrayList<>(rows);
+        });
+    }
+
+    private GroupNameIndex newIndex(long checkInterval, IntFunction<List<NameEntry>> loader) {
+        return new GroupNameIndex("test", loader, groupId -> version(), checkInterval);
+    }
+
+    private void writeInDb(NameEntry entry) {
+        rows.add(entry);
+        modifyTime = modifyTime.plusSeconds(1);
+    }
+
+    private TableVersion version() {
+        TableVersion version = new TableVersion();
+        version.setRowCount((long) rows.size());
+        version.setMaxModifyTime(modifyTime);
+        return version;
+    }
+
+    private static List<Integer> search(GroupNameIndex index, String keyword) {
+        return index.get(GROUP_ID).search(keyword, 0).stream().map(NameEntry::getId)
+            .sorted().collect(Collectors.toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.search;
+
+import com.webank.webase.node.mgr.search.NameSearchIndex;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NameSearchIndexTest {
+
+    private final List<NameEntry> entryList = Arrays.asList(
+        new NameEntry(1, "Token", "0x1111"),
+        new NameEntry(2, "TokenSale", "0x2222token"),
+        new NameEntry(3, "Evidence", "0x3333"),
+        new NameEntry(4, null, "0x4444token"));
+
+    @Test
+    public void testMatchByTerm() {
+        Assert.assertEquals(Arrays.asList(1, 2), NameSearchIndex.match(entryList, " token ",
+            NameEntry::getName, NameEntry::getId, 10));
+        Assert.assertEquals(Arrays.asList("0x2222token", "0x4444token"), NameSearchIndex
+            .match(entryList, "TOKEN", NameEntry::getAddress, NameEntry::getAddress, 10));
+        Assert.assertEquals(Collections.emptyList(), NameSearchIndex.match(entryList, "auction",
+            NameEntry::getName, NameEntry::getId, 10));
+    }
+
+    @Test
+    public void testMatchOverMax() {
+        // left to like in sql
+        Assert.assertNull(NameSearchIndex.match(entryList, "token", NameEntry::getName,
+            NameEntry::getId, 1));
+        Assert.assertEquals(Arrays.asList(1, 2), NameSearchIndex.match(entryList, "token",
+            NameEntry::getName, NameEntry::getId, 2));
+        // same value counted once
+        List<NameEntry> sameNameList = Arrays.asList(new NameEntry(null, "user1", null),
+            new NameEntry(null, "user1", "0x1"));
+        Assert.assertEquals(Arrays.asList("user1"), NameSearchIndex.match(sameNameList, "user",
+            NameEntry::getName, NameEntry::getName, 1));
+    }
+}
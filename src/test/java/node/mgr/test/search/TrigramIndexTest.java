@@ -0,0 +1,105 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.search;
+
+import com.webank.webase.node.mgr.search.TrigramIndex;
+import com.webank.webase.node.mgr.search.entity.NameEntry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TrigramIndexTest {
+
+    private final TrigramIndex index = TrigramIndex.build(Arrays.asList(
+        entry(1, "HelloWorldToken", "0x1111aaaa"),
+        entry(2, "Token", "0x2222bbbb"),
+        entry(3, "TokenSale", "0x3333cccc"),
+        entry(4, "Evidence", "0x4444dddd"),
+        entry(5, null, "0x5555token")));
+
+    @Test
+    public void testRankExactPrefixContains() {
+        Assert.assertEquals(Arrays.asList(2, 3, 5, 1), ids(index.search("token", 0)));
+        // ignore case and surrounding blank
+        Assert.assertEquals(Arrays.asList(2, 3, 5, 1), ids(index.search(" TOKEN ", 0)));
+        Assert.assertEquals(Arrays.asList(2, 3), ids(index.search("token", 2)));
+    }
+
+    @Test
+    public void testSearchAddress() {
+        Assert.assertEquals(Arrays.asList(4), ids(index.search("0x4444", 0)));
+        Assert.assertEquals(Arrays.asList(3), ids(index.search("33cc", 0)));
+    }
+
+    @Test
+    public void testShortKeyword() {
+        // shorter than trigram, scan all entries
+        Assert.assertEquals(Arrays.asList(2, 4, 3, 5, 1), ids(index.search("en", 0)));
+        Assert.assertEquals(Arrays.asList(3), ids(index.search("sa", 0)));
+    }
+
+    @Test
+    public void testNoMatch() {
+        Assert.assertTrue(index.search("tokenx", 0).isEmpty());
+        Assert.assertTrue(index.search("xyz", 0).isEmpty());
+        Assert.assertTrue(index.search("  ", 0).isEmpty());
+        Assert.assertTrue(TrigramIndex.EMPTY.search("token", 0).isEmpty());
+        Assert.assertEquals(5, index.size());
+    }
+
+    @Test
+    public void testWithAddOrReplace() {
+        TrigramIndex added = index.with(entry(6, "MyToken", "0x6666eeee"));
+        Assert.assertEquals(6, added.size());
+        Assert.assertEquals(Arrays.asList(2, 3, 6, 5, 1), ids(added.search("token", 0)));
+        Assert.assertEquals(Arrays.asList(6), ids(added.search("6666", 0)));
+        // copy on write, origin unchanged
+        Assert.assertEquals(5, index.size());
+        Assert.assertTrue(index.search("6666", 0).isEmpty());
+
+        TrigramIndex replaced = added.with(entry(3, "Auction", "0x3333cccc"));
+        Assert.assertEquals(6, replaced.size());
+        Assert.assertEquals(Arrays.asList(2, 6, 5, 1), ids(replaced.search("token", 0)));
+        Assert.assertEquals(Arrays.asList(3), ids(replaced.search("auction", 0)));
+        Assert.assertEquals(Arrays.asList(3), ids(replaced.search("33cc", 0)));
+    }
+
+    @Test
+    public void testWithoutAndCompact() {
+        TrigramIndex removed = index.without(2);
+        Assert.assertEquals(4, removed.size());
+        Assert.assertEquals(Arrays.asList(3, 5, 1), ids(removed.search("token", 0)));
+        Assert.assertEquals(Arrays.asList(4, 3, 5, 1), ids(removed.search("en", 0)));
+        Assert.assertSame(removed, removed.without(2));
+        Assert.assertSame(removed, removed.without(null));
+        // rebuilt when empty slots outnumber entries
+        TrigramIndex compacted = removed.without(3).without(4);
+        Assert.assertEquals(2, compacted.size());
+        Assert.assertEquals(Arrays.asList(5, 1), ids(compacted.search("token", 0)));
+        Assert.assertEquals(Arrays.asList(6, 5, 1),
+            ids(compacted.with(entry(6, "Token2", null)).search("o", 0)));
+    }
+
+    private static List<Integer> ids(List<NameEntry> entryList) {
+        return entryList.stream().map(NameEntry::getId).collect(Collectors.toList());
+    }
+
+    private static NameEntry entry(int id, String name, String address) {
+        return new NameEntry(id, name, address);
+    }
+}
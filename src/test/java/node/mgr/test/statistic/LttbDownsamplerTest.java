@@ -0,0 +1,102 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.statistic;
+
+import com.webank.webase.node.mgr.tools.LttbDownsampler;
+import com.webank.webase.node.mgr.tools.PerformanceDataSampler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LttbDownsamplerTest {
+
+    @Test
+    public void testKeepEdgeAndPeak() {
+        LttbDownsampler sampler = new LttbDownsampler(0L, 999_000L, 50, 2);
+        for (int i = 0; i < 1000; i++) {
+            double value = i == 500 ? 100.0 : Math.sin(i / 10.0);
+            sampler.add(i * 1000L, value, i % 7 == 0 ? Double.NaN : 1.0);
+        }
+        long[] timestamps = sampler.timestamps();
+        Assert.assertTrue(sampler.size() <= 50);
+        Assert.assertEquals(0L, timestamps[0]);
+        Assert.assertEquals(999_000L, timestamps[timestamps.length - 1]);
+        boolean hasPeak = false;
+        for (double value : sampler.values(0)) {
+            hasPeak |= value == 100.0;
+        }
+        Assert.assertTrue(hasPeak);
+    }
+
+    @Test
+    public void testKeepAllIfFewPoints() {
+        LttbDownsampler sampler = new LttbDownsampler(0L, 4000L, 50, 1);
+        for (int i = 0; i < 5; i++) {
+            sampler.add(i * 1000L, i == 2 ? Double.NaN : i);
+        }
+        Assert.assertEquals(5, sampler.size());
+        Assert.assertTrue(Double.isNaN(sampler.values(0)[2]));
+
+        LttbDownsampler all = new LttbDownsampler(0L, 0L, 0, 1);
+        all.add(1L, 1.0);
+        Assert.assertEquals(1, all.size());
+    }
+
+    @Test
+    public void testFrontPerformanceData() {
+        List<Long> timestampList = new ArrayList<>();
+        List<Object> cpuList = new ArrayList<>();
+        List<Object> memoryList = new ArrayList<>();
+        for (long i = 0; i < 300; i++) {
+            timestampList.add(i * 5000L);
+            cpuList.add(i % 10);
+            memoryList.add(i == 100 ? null : 50.5);
+        }
+        List<Object> rspObj = new ArrayList<>();
+        rspObj.add(metric("cpu", timestampList, cpuList));
+        rspObj.add(metric("memory", null, memoryList));
+        PerformanceDataSampler.downsample(rspObj, 30);
+
+        Map<?, ?> cpuLine = line(rspObj.get(0));
+        Map<?, ?> memoryLine = line(rspObj.get(1));
+        int size = ((List<?>) cpuLine.get("timestampList")).size();
+        Assert.assertTrue(size <= 30);
+        Assert.assertEquals(size, ((List<?>) memoryLine.get("valueList")).size());
+        Assert.assertNull(memoryLine.get("timestampList"));
+    }
+
+    private Map<String, Object> metric(String metricType, List<Long> timestampList,
+        List<Object> valueList) {
+        Map<String, Object> line = new HashMap<>();
+        line.put("timestampList", timestampList);
+        line.put("valueList", valueList);
+        Map<String, Object> data = new HashMap<>();
+        data.put("lineDataList", line);
+        data.put("contrastDataList", Collections.emptyMap());
+        Map<String, Object> metric = new HashMap<>();
+        metric.put("metricType", metricType);
+        metric.put("data", data);
+        return metric;
+    }
+
+    private Map<?, ?> line(Object metric) {
+        return (Map<?, ?>) ((Map<?, ?>) ((Map<?, ?>) metric).get("data")).get("lineDataList");
+    }
+}
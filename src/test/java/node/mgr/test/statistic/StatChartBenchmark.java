@@ -0,0 +1,243 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.statistic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webank.webase.node.mgr.statistic.result.Data;
+import com.webank.webase.node.mgr.statistic.result.LineDataList;
+import com.webank.webase.node.mgr.statistic.result.PerformanceData;
+import com.webank.webase.node.mgr.statistic.result.StatSeries;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * chart data of a window of 1M block stat rows, from rows read from db to json bytes.
+ * legacy: rows with string timestamp, filled by 5s slot and boxed into BigDecimal lists,
+ * as StatService before 1.5.6.
+ * columnar: 5s rollup buckets of same rows streamed into StatSeries primitive columns.
+ * run by: ./gradlew jmh -Pbenchmark=StatChartBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StatChartBenchmark {
+
+    private static final long SLOT_MILLIS = 5000L;
+
+    @Param({"1000000"})
+    private int rowCount;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<LegacyStat> legacyRows;
+    private long[] bucketTimes;
+    private int[] bucketCounts;
+    private long[] tpsSums;
+    private long[] blockSizeSums;
+    private double[] blockCycleSums;
+    private int bucketCount;
+
+    /**
+     * one block per second, a 20s pause every 100 blocks
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        long[] times = new long[rowCount];
+        long time = 1_600_000_000_000L;
+        for (int i = 0; i < rowCount; i++) {
+            time += i % 100 == 99 ? 20_000L : 1_000L;
+            times[i] = time;
+        }
+        // rollup buckets are saved when block stat pulled, not part of reading chart
+        bucketTimes = new long[rowCount];
+        bucketCounts = new int[rowCount];
+        tpsSums = new long[rowCount];
+        blockSizeSums = new long[rowCount];
+        blockCycleSums = new double[rowCount];
+        bucketCount = 0;
+        legacyRows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            int tps = i % 500;
+            int blockSize = i % 50;
+            double blockCycle = 1.0 + (i % 10) / 10.0;
+            legacyRows.add(new LegacyStat(String.valueOf(times[i]), tps, blockSize, blockCycle));
+            long bucketTime = times[i] - times[i] % SLOT_MILLIS;
+            if (bucketCount == 0 || bucketTimes[bucketCount - 1] != bucketTime) {
+                bucketTimes[bucketCount++] = bucketTime;
+            }
+            int index = bucketCount - 1;
+            bucketCounts[index]++;
+            tpsSums[index] += tps;
+            blockSizeSums[index] += blockSize;
+            blockCycleSums[index] += blockCycle;
+        }
+    }
+
+    @Benchmark
+    public byte[] legacy() throws Exception {
+        List<LegacyStat> statList = legacyFillList(legacyRows);
+        List<Long> timestampList = new ArrayList<>();
+        List<BigDecimal> blockSizeList = new ArrayList<>();
+        List<BigDecimal> blockCycleList = new ArrayList<>();
+        List<BigDecimal> tpsList = new ArrayList<>();
+        for (LegacyStat stat : statList) {
+            blockSizeList.add(stat.blockSize == null ? null : new BigDecimal(stat.blockSize));
+            blockCycleList.add(stat.blockCycle == null ? null : new BigDecimal(stat.blockCycle));
+            tpsList.add(stat.tps == null ? null : new BigDecimal(stat.tps));
+            timestampList.add(Long.valueOf(stat.statTimestamp));
+        }
+        List<Map<String, Object>> performanceDataList = Arrays.asList(
+            legacyPerformanceData("blockSize", timestampList, blockSizeList),
+            legacyPerformanceData("blockCycle", null, blockCycleList),
+            legacyPerformanceData("tps", null, tpsList));
+        return mapper.writeValueAsBytes(performanceDataList);
+    }
+
+    @Benchmark
+    public byte[] columnar() throws Exception {
+        return toJson(columnarSeries(0));
+    }
+
+    /**
+     * columnar with buckets downsampled to 1000 points
+     */
+    @Benchmark
+    public byte[] columnarDownsampled() throws Exception {
+        return toJson(columnarSeries(1000));
+    }
+
+    private StatSeries columnarSeries(int maxPoints) {
+        StatSeries series = new StatSeries(5, bucketTimes[0], bucketTimes[bucketCount - 1],
+            maxPoints);
+        for (int i = 0; i < bucketCount; i++) {
+            series.add(bucketTimes[i], bucketCounts[i], tpsSums[i], blockSizeSums[i],
+                blockCycleSums[i]);
+        }
+        return series;
+    }
+
+    private byte[] toJson(StatSeries series) throws Exception {
+        StatSeries contrast = new StatSeries(5);
+        List<PerformanceData> performanceDataList = Arrays.asList(
+            new PerformanceData("blockSize",
+                new Data(new LineDataList(series.timestamps(), series.blockSizeAvg()),
+                    new LineDataList(contrast.timestamps(), contrast.blockSizeAvg()))),
+            new PerformanceData("blockCycle",
+                new Data(new LineDataList(null, series.blockCycleAvg()),
+                    new LineDataList(null, contrast.blockCycleAvg()))),
+            new PerformanceData("tps",
+                new Data(new LineDataList(null, series.tpsAvg()),
+                    new LineDataList(null, contrast.tpsAvg()))));
+        return mapper.writeValueAsBytes(performanceDataList);
+    }
+
+    private static Map<String, Object> legacyPerformanceData(String metricType,
+        List<Long> timestampList, List<BigDecimal> valueList) {
+        Map<String, Object> lineDataList = new LinkedHashMap<>();
+        lineDataList.put("timestampList", timestampList);
+        lineDataList.put("valueList", valueList);
+        Map<String, Object> contrastDataList = new LinkedHashMap<>();
+        contrastDataList.put("timestampList", new ArrayList<Long>());
+        contrastDataList.put("valueList", new ArrayList<BigDecimal>());
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("lineDataList", lineDataList);
+        data.put("contrastDataList", contrastDataList);
+        Map<String, Object> performanceData = new LinkedHashMap<>();
+        performanceData.put("metricType", metricType);
+        performanceData.put("data", data);
+        return performanceData;
+    }
+
+    /**
+     * fillList of StatService before 1.5.6 without debug log
+     */
+    private static List<LegacyStat> legacyFillList(List<LegacyStat> statList) {
+        List<LegacyStat> newStatList = new ArrayList<>();
+        for (int i = 0; i < statList.size() - 1; i++) {
+            Long startTime = Long.parseLong(statList.get(i).statTimestamp);
+            Long endTime = Long.parseLong(statList.get(i + 1).statTimestamp);
+            if (endTime - startTime > 10000) {
+                while (endTime - startTime > 5000) {
+                    LegacyStat emptyMonitor = new LegacyStat(String.valueOf(startTime + 5000),
+                        null, null, null);
+                    newStatList.add(emptyMonitor);
+                    startTime = startTime + 5000;
+                }
+            } else if (endTime - startTime < 5000) {
+                List<LegacyStat> stat2Sum = new ArrayList<>();
+                do {
+                    stat2Sum.add(statList.get(i));
+                    i++;
+                } while (i < statList.size() - 2
+                    && Long.parseLong(statList.get(i + 1).statTimestamp) - startTime < 5000);
+                newStatList.add(legacySumStat(stat2Sum, endTime));
+            } else {
+                newStatList.add(statList.get(i));
+            }
+        }
+        return newStatList;
+    }
+
+    private static LegacyStat legacySumStat(List<LegacyStat> statList, Long endTime) {
+        int tps = 0;
+        int blockSize = 0;
+        double blockCycle = 0;
+        for (LegacyStat stat : statList) {
+            tps += stat.tps;
+            blockSize += stat.blockSize;
+            blockCycle += stat.blockCycle;
+        }
+        int size = statList.size();
+        return new LegacyStat(String.valueOf(endTime), tps / size, blockSize / size,
+            blockCycle / size);
+    }
+
+    /**
+     * TbStat before 1.5.6, timestamp saved as string
+     */
+    private static class LegacyStat {
+        private final String statTimestamp;
+        private final Integer tps;
+        private final Integer blockSize;
+        private final Double blockCycle;
+
+        LegacyStat(String statTimestamp, Integer tps, Integer blockSize, Double blockCycle) {
+            this.statTimestamp = statTimestamp;
+            this.tps = tps;
+            this.blockSize = blockSize;
+            this.blockCycle = blockCycle;
+        }
+    }
+}
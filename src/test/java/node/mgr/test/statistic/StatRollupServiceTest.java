@@ -0,0 +1,69 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.statistic;
+
+import com.webank.webase.node.mgr.statistic.StatRollupService;
+import com.webank.webase.node.mgr.statistic.entity.TbStat;
+import com.webank.webase.node.mgr.statistic.entity.TbStatRollup;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StatRollupServiceTest {
+
+    @Test
+    public void testAggregate() {
+        List<TbStatRollup> rollupList = StatRollupService.aggregate(1, Arrays.asList(
+            stat(1, 61_000L, 10, 1.0), stat(2, 62_000L, 30, 1.0), stat(3, 66_000L, 20, 4.0)));
+        // 5s: two buckets, 1m/1h/1d: one bucket each
+        Assert.assertEquals(5, rollupList.size());
+        TbStatRollup first = rollupList.get(0);
+        Assert.assertEquals(60_000L, first.getBucketTime().longValue());
+        Assert.assertEquals(2, first.getStatCount().intValue());
+        Assert.assertEquals(20, first.getBlockSizeAvg().intValue());
+        Assert.assertEquals(10, first.getBlockSizeMin().intValue());
+        Assert.assertEquals(30, first.getBlockSizeMax().intValue());
+
+        TbStatRollup minute = rollupList.get(2);
+        Assert.assertEquals(60, minute.getResolution().intValue());
+        Assert.assertEquals(3, minute.getStatCount().intValue());
+        Assert.assertEquals(2.0, minute.getBlockCycleAvg(), 0.0001);
+        Assert.assertEquals(4.0, minute.getBlockCycleMax(), 0.0001);
+        Assert.assertNull(new TbStatRollup(1, 5, 0L).getTpsAvg());
+    }
+
+    @Test
+    public void testChooseResolution() {
+        long day = 86_400_000L;
+        Assert.assertEquals(3600, StatRollupService.chooseResolution(0L, 7 * day, 100));
+        Assert.assertEquals(60, StatRollupService.chooseResolution(0L, 7 * day, 1440));
+        Assert.assertEquals(86400, StatRollupService.chooseResolution(0L, 365 * day, 300));
+        Assert.assertEquals(5, StatRollupService.chooseResolution(0L, 600_000L, 1440));
+        Assert.assertEquals(-5000L, StatRollupService.bucketOf(-1L, 5));
+    }
+
+    private TbStat stat(int blockNumber, long timestamp, int blockSize, double blockCycle) {
+        TbStat stat = new TbStat();
+        stat.setGroupId(1);
+        stat.setBlockNumber(blockNumber);
+        stat.setStatTimestamp(timestamp);
+        stat.setBlockSize(blockSize);
+        stat.setBlockCycle(blockCycle);
+        stat.setTps((int) (blockSize / blockCycle));
+        return stat;
+    }
+}
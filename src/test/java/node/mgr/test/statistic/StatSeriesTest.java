@@ -0,0 +1,64 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.statistic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webank.webase.node.mgr.statistic.result.LineDataList;
+import com.webank.webase.node.mgr.statistic.result.StatSeries;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StatSeriesTest {
+
+    @Test
+    public void testFillEmptyBucket() {
+        StatSeries series = new StatSeries(5);
+        series.add(0L, 2, 21L, 10L, 3.0);
+        series.add(15_000L, 1, 4L, 8L, 2.0);
+        Assert.assertEquals(4, series.size());
+        Assert.assertArrayEquals(new long[]{0L, 5_000L, 10_000L, 15_000L}, series.timestamps());
+        double[] tps = series.tpsAvg();
+        Assert.assertEquals(10.0, tps[0], 0.0);
+        Assert.assertTrue(Double.isNaN(tps[1]));
+        Assert.assertEquals(1.5, series.blockCycleAvg()[0], 0.0);
+    }
+
+    @Test
+    public void testFillWindowEdge() {
+        StatSeries series = new StatSeries(5, 2_000L, 21_000L, 0);
+        series.add(10_000L, 1, 4L, 8L, 2.0);
+        Assert.assertArrayEquals(new long[]{0L, 5_000L, 10_000L, 15_000L, 20_000L},
+            series.timestamps());
+        double[] tps = series.tpsAvg();
+        Assert.assertTrue(Double.isNaN(tps[0]));
+        Assert.assertEquals(4.0, tps[2], 0.0);
+        Assert.assertTrue(Double.isNaN(tps[4]));
+        // no bucket saved in window
+        Assert.assertEquals(5, new StatSeries(5, 2_000L, 21_000L, 0).size());
+    }
+
+    @Test
+    public void testGrowAndSerialize() throws Exception {
+        StatSeries series = new StatSeries(60);
+        for (int i = 0; i < 100; i++) {
+            series.add(i * 120_000L, 1, i, i, 0.5);
+        }
+        Assert.assertEquals(199, series.size());
+        String json = new ObjectMapper().writeValueAsString(
+            new LineDataList(null, new double[]{1.0, Double.NaN, 0.5}));
+        Assert.assertEquals("{\"timestampList\":null,\"valueList\":[1,null,0.5]}", json);
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.table;
+
+import com.webank.webase.node.mgr.table.TablePartitionService;
+import com.webank.webase.node.mgr.table.entity.TbPartition;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TablePartitionPlanTest {
+
+    private static final long SIZE = 1000L;
+
+    @Test
+    public void testPlanUpperBounds() {
+        List<TbPartition> partitionList = Arrays.asList(
+            new TbPartition("p1000", "1000"), new TbPartition("pmax", "MAXVALUE"));
+        // latest block 2500 in partition less than 3000, 2 partitions ahead
+        Assert.assertEquals(Arrays.asList(2000L, 3000L, 4000L, 5000L),
+            TablePartitionService.planUpperBounds(partitionList, 2500L, SIZE, 2));
+        Assert.assertEquals(Collections.emptyList(),
+            TablePartitionService.planUpperBounds(Arrays.asList(
+                new TbPartition("p5000", "5000"), new TbPartition("pmax", "MAXVALUE")),
+                2500L, SIZE, 2));
+        Assert.assertEquals(Arrays.asList(1000L, 2000L),
+            TablePartitionService.planUpperBounds(Collections.emptyList(), 0L, SIZE, 1));
+    }
+
+    @Test
+    public void testPlanDrop() {
+        List<TbPartition> partitionList = Arrays.asList(new TbPartition("p1000", "1000"),
+            new TbPartition("p2000", "2000"), new TbPartition("p3000", "3000"),
+            new TbPartition("pmax", "MAXVALUE"));
+        // block 1999 still retained
+        Assert.assertEquals(1, TablePartitionService.planDrop(partitionList, 1999L).size());
+        Assert.assertEquals("p2000",
+            TablePartitionService.planDrop(partitionList, 2000L).get(1).getPartitionName());
+        // pmax never dropped
+        Assert.assertEquals(3,
+            TablePartitionService.planDrop(partitionList, Long.MAX_VALUE).size());
+    }
+}
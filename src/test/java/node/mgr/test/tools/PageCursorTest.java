@@ -0,0 +1,68 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.tools;
+
+import com.webank.webase.node.mgr.base.code.ConstantCode;
+import com.webank.webase.node.mgr.base.exception.NodeMgrException;
+import com.webank.webase.node.mgr.tools.pagetools.PageCursor;
+import java.math.BigInteger;
+import java.util.Base64;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PageCursorTest {
+
+    @Test
+    public void testEncodeDecode() {
+        String token = new PageCursor(BigInteger.valueOf(10086), 123456789L).encode();
+        PageCursor cursor = PageCursor.decode(token);
+        Assert.assertEquals(BigInteger.valueOf(10086), cursor.getBlockNumber());
+        Assert.assertEquals(Long.valueOf(123456789L), cursor.getTransNumber());
+        // url-safe, no padding
+        Assert.assertFalse(token.contains("=") || token.contains("+") || token.contains("/"));
+
+        PageCursor blockCursor = PageCursor.decode(new PageCursor(BigInteger.ONE, null).encode());
+        Assert.assertEquals(BigInteger.ONE, blockCursor.getBlockNumber());
+        Assert.assertNull(blockCursor.getTransNumber());
+        Assert.assertNull(blockCursor.getLogIndex());
+        Assert.assertNull(PageCursor.decode(" "));
+
+        PageCursor logCursor = PageCursor.decode(
+            new PageCursor(BigInteger.TEN, 7L, 3).encode());
+        Assert.assertEquals(Long.valueOf(7L), logCursor.getTransNumber());
+        Assert.assertEquals(Integer.valueOf(3), logCursor.getLogIndex());
+    }
+
+    @Test
+    public void testInvalidToken() {
+        assertInvalid("not*base64");
+        assertInvalid(new PageCursor(BigInteger.valueOf(-1), null).encode());
+        assertInvalid(Base64.getUrlEncoder().encodeToString("abc:1".getBytes()));
+        assertInvalid(Base64.getUrlEncoder().encodeToString("12".getBytes()));
+        assertInvalid(Base64.getUrlEncoder().encodeToString("12::3".getBytes()));
+        assertInvalid(Base64.getUrlEncoder().encodeToString("12:5:-1".getBytes()));
+    }
+
+    private void assertInvalid(String token) {
+        try {
+            PageCursor.decode(token);
+            Assert.fail("decode invalid token: " + token);
+        } catch (NodeMgrException ex) {
+            Assert.assertEquals(ConstantCode.INVALID_PAGE_CURSOR.getCode(),
+                ex.getRetCode().getCode());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.transaction;
+
+import com.webank.webase.node.mgr.base.enums.TransDirection;
+import com.webank.webase.node.mgr.transaction.TransAddressService;
+import com.webank.webase.node.mgr.transaction.entity.TbTransAddress;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import java.math.BigInteger;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TransAddressServiceTest {
+
+    @Test
+    public void testToAddressList() {
+        List<TbTransAddress> addressList =
+            TransAddressService.toAddressList(trans("0xaaa", "0xbbb"));
+        Assert.assertEquals(2, addressList.size());
+        Assert.assertEquals("0xaaa", addressList.get(0).getAddress());
+        Assert.assertEquals(TransDirection.FROM.getValue(),
+            (int) addressList.get(0).getDirection());
+        Assert.assertEquals("0xbbb", addressList.get(1).getAddress());
+        Assert.assertEquals(TransDirection.TO.getValue(), (int) addressList.get(1).getDirection());
+        Assert.assertEquals(Long.valueOf(7), addressList.get(1).getTransNumber());
+
+        // deploy transaction
+        addressList = TransAddressService
+            .toAddressList(trans("0xaaa", "0x0000000000000000000000000000000000000000"));
+        Assert.assertEquals(1, addressList.size());
+        Assert.assertTrue(TransAddressService.toAddressList(trans(" ", null)).isEmpty());
+    }
+
+    @Test
+    public void testDirectionValid() {
+        Assert.assertTrue(TransDirection.isValid(1));
+        Assert.assertTrue(TransDirection.isValid(2));
+        Assert.assertFalse(TransDirection.isValid(0));
+        Assert.assertFalse(TransDirection.isValid(null));
+    }
+
+    private TbTransHash trans(String from, String to) {
+        TbTransHash trans = new TbTransHash();
+        trans.setTransHash("0x01");
+        trans.setTransFrom(from);
+        trans.setTransTo(to);
+        trans.setBlockNumber(BigInteger.ONE);
+        trans.setTransNumber(7L);
+        return trans;
+    }
+}
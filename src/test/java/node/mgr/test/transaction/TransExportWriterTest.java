@@ -0,0 +1,71 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.transaction;
+
+import com.webank.webase.node.mgr.base.enums.ExportFormat;
+import com.webank.webase.node.mgr.transaction.TransExportWriter;
+import com.webank.webase.node.mgr.transaction.entity.TbTransHash;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TransExportWriterTest {
+
+    @Test
+    public void testCsv() throws Exception {
+        StringWriter out = new StringWriter();
+        TransExportWriter writer = new TransExportWriter(out, ExportFormat.CSV);
+        writer.writeHeader();
+        writer.write(trans("a,\"b\""));
+        writer.flush();
+        String[] lines = out.toString().split("\n");
+        Assert.assertEquals(2, lines.length);
+        Assert.assertTrue(lines[0].startsWith("trans_number,trans_hash"));
+        Assert.assertEquals("7,0x01,3,,0xaaa,,,0x0,\"a,\"\"b\"\"\",", lines[1]);
+    }
+
+    @Test
+    public void testNdjson() throws Exception {
+        StringWriter out = new StringWriter();
+        TransExportWriter writer = new TransExportWriter(out, ExportFormat.NDJSON);
+        writer.writeHeader();
+        writer.write(trans("line\nbreak"));
+        writer.write(trans(null));
+        writer.flush();
+        String[] lines = out.toString().split("\n");
+        // line break in value escaped by json
+        Assert.assertEquals(2, lines.length);
+        Assert.assertTrue(lines[0].contains("\"transNumber\":7"));
+    }
+
+    @Test
+    public void testFormat() {
+        Assert.assertEquals(ExportFormat.CSV, ExportFormat.getByValue("CSV"));
+        Assert.assertNull(ExportFormat.getByValue("xml"));
+    }
+
+    private TbTransHash trans(String extraData) {
+        TbTransHash trans = new TbTransHash();
+        trans.setTransNumber(7L);
+        trans.setTransHash("0x01");
+        trans.setBlockNumber(BigInteger.valueOf(3));
+        trans.setTransFrom("0xaaa");
+        trans.setStatus("0x0");
+        trans.setExtraData(extraData);
+        return trans;
+    }
+}
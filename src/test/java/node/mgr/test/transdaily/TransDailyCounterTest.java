@@ -0,0 +1,56 @@
+/**
+ * Copyright 2014-2021  the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package node.mgr.test.transdaily;
+
+import com.webank.webase.node.mgr.transdaily.DailyTransCount;
+import com.webank.webase.node.mgr.transdaily.TransDailyCounter;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TransDailyCounterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 6, 1);
+
+    @Test
+    public void testDrainAndRestore() {
+        TransDailyCounter counter = new TransDailyCounter();
+        counter.add(1, DAY, BigInteger.valueOf(10), 3);
+        counter.add(1, DAY, BigInteger.valueOf(11), 4);
+        counter.add(1, DAY.plusDays(1), BigInteger.valueOf(12), 5);
+        counter.add(2, DAY, BigInteger.valueOf(1), 1);
+
+        List<DailyTransCount> countList = counter.drain();
+        Assert.assertEquals(3, countList.size());
+        Assert.assertTrue(counter.drain().isEmpty());
+
+        DailyTransCount count = countList.stream()
+            .filter(c -> c.getGroupId() == 1 && DAY.equals(c.getTransDay())).findFirst().get();
+        Assert.assertEquals(7, count.countAfter(null));
+        // block 10 counted by reconciliation already
+        Assert.assertEquals(4, count.countAfter(BigInteger.valueOf(10)));
+        Assert.assertEquals(BigInteger.valueOf(10), count.getMinBlockNumber());
+        Assert.assertEquals(BigInteger.valueOf(11), count.getMaxBlockNumber());
+
+        counter.restore(count);
+        counter.add(1, DAY, BigInteger.valueOf(13), 2);
+        List<DailyTransCount> restored = counter.drain();
+        Assert.assertEquals(1, restored.size());
+        Assert.assertEquals(9, restored.get(0).countAfter(null));
+    }
+}